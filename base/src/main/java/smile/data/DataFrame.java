@@ -33,6 +33,8 @@ import smile.data.type.*;
 import smile.data.vector.*;
 import smile.math.MathEx;
 import smile.math.matrix.Matrix;
+import smile.stat.KLLSketch;
+import smile.stat.Summary;
 import smile.util.Index;
 import smile.util.Strings;
 
@@ -709,6 +711,13 @@ public record DataFrame(StructType schema, List<ValueVector> columns, RowIndex i
         ValueVector[] vectors = columns.stream().map(column -> {
             if (!set.contains(column.name())) return column;
 
+            if (column instanceof DictionaryVector dict) {
+                // Looks up the dictionary instead of every element.
+                NominalScale scale = dict.nominal();
+                StructField field = new StructField(column.name(), DataTypes.IntType, scale);
+                return new IntVector(field, dict.values(scale));
+            }
+
             List<String> levels = IntStream.range(0, n)
                     .mapToObj(column::getString)
                     .distinct().sorted()
@@ -924,7 +933,10 @@ public record DataFrame(StructType schema, List<ValueVector> columns, RowIndex i
     }
 
     /**
-     * Returns the data structure and statistics.
+     * Returns the data structure and statistics. The statistics of each
+     * column are computed in a single pass and the columns are processed
+     * in parallel. The quartiles are estimated by KLL sketch, which are
+     * exact for small data.
      * @return the data structure and statistics.
      */
     public DataFrame describe() {
@@ -948,61 +960,58 @@ public record DataFrame(StructType schema, List<ValueVector> columns, RowIndex i
         Arrays.fill(q3, Double.NaN);
         Arrays.fill(max, Double.NaN);
 
-        for (int j = 0; j < ncol; j++) {
+        IntStream.range(0, ncol).parallel().forEach(j -> {
             DataType dtype = dtypes[j];
-            if (measures[j] instanceof CategoricalMeasure measure) {
-                int[] data = columns.get(j).intStream()
-                        .filter(x -> x != Integer.MIN_VALUE)
-                        .toArray();
-                count[j] = data.length;
-                mode[j] = measure.toString(MathEx.mode(data));
-                min[j] = MathEx.min(data);
-                q1[j] = MathEx.q1(data);
-                median[j] = MathEx.median(data);
-                q3[j] = MathEx.q3(data);
-                max[j] = MathEx.max(data);
+            ValueVector column = columns.get(j);
+            Summary summary = new Summary();
+            KLLSketch sketch = new KLLSketch();
+            boolean numeric = true;
+            if (measures[j] instanceof CategoricalMeasure || (dtype.isIntegral() && !dtype.isLong())) {
+                Map<Integer, int[]> frequency = new HashMap<>();
+                column.intStream().filter(x -> x != Integer.MIN_VALUE).forEach(x -> {
+                    summary.add(x);
+                    sketch.add(x);
+                    frequency.computeIfAbsent(x, key -> new int[1])[0]++;
+                });
+
+                // The smallest of most frequent values.
+                int mostFrequent = -1;
+                int maxCount = 0;
+                for (var entry : frequency.entrySet()) {
+                    int c = entry.getValue()[0];
+                    if (c > maxCount || (c == maxCount && entry.getKey() < mostFrequent)) {
+                        mostFrequent = entry.getKey();
+                        maxCount = c;
+                    }
+                }
+
+                if (measures[j] instanceof CategoricalMeasure measure) {
+                    mode[j] = measure.toString(mostFrequent);
+                } else {
+                    mode[j] = mostFrequent;
+                    mean[j] = summary.mean();
+                    std[j] = summary.sd();
+                }
             } else if (dtype.isLong()) {
-                double[] data = columns.get(j).longStream()
-                        .filter(x -> x != Long.MIN_VALUE)
-                        .mapToDouble(x -> x).toArray();
-                count[j] = data.length;
+                column.longStream().filter(x -> x != Long.MIN_VALUE).forEach(x -> {
+                    summary.add(x);
+                    sketch.add(x);
+                });
                 mode[j] = Double.NaN;
-                mean[j] = MathEx.mean(data);
-                std[j] = MathEx.stdev(data);
-                min[j] = MathEx.min(data);
-                q1[j] = MathEx.q1(data);
-                median[j] = MathEx.median(data);
-                q3[j] = MathEx.q3(data);
-                max[j] = MathEx.max(data);
-            } else if (dtype.isIntegral()) {
-                int[] data = columns.get(j).intStream()
-                        .filter(x -> x != Integer.MIN_VALUE)
-                        .toArray();
-                count[j] = data.length;
-                mode[j] = MathEx.mode(data);
-                mean[j] = MathEx.mean(data);
-                std[j] = MathEx.stdev(data);
-                min[j] = MathEx.min(data);
-                q1[j] = MathEx.q1(data);
-                median[j] = MathEx.median(data);
-                q3[j] = MathEx.q3(data);
-                max[j] = MathEx.max(data);
+                mean[j] = summary.mean();
+                std[j] = summary.sd();
             } else if (dtype.isFloating() || dtype.isDecimal()) {
-                double[] data = columns.get(j).doubleStream()
-                        .filter(Double::isFinite)
-                        .toArray();
-                count[j] = data.length;
+                column.doubleStream().filter(Double::isFinite).forEach(x -> {
+                    summary.add(x);
+                    sketch.add(x);
+                });
                 mode[j] = Double.NaN;
-                mean[j] = MathEx.mean(data);
-                std[j] = MathEx.stdev(data);
-                min[j] = MathEx.min(data);
-                q1[j] = MathEx.q1(data);
-                median[j] = MathEx.median(data);
-                q3[j] = MathEx.q3(data);
-                max[j] = MathEx.max(data);
+                mean[j] = summary.mean();
+                std[j] = summary.sd();
             } else {
-                count[j] = (int) columns.get(j).stream().filter(Objects::nonNull).count();
-                mode[j] = columns.get(j).stream().filter(Objects::nonNull)
+                numeric = false;
+                count[j] = (int) column.stream().filter(Objects::nonNull).count();
+                mode[j] = column.stream().filter(Objects::nonNull)
                         .collect(java.util.stream.Collectors.groupingBy(Function.identity(), java.util.stream.Collectors.counting()))
                         .entrySet()
                         .stream()
@@ -1010,7 +1019,17 @@ public record DataFrame(StructType schema, List<ValueVector> columns, RowIndex i
                         .map(Map.Entry::getKey)
                         .orElse(null);
             }
-        }
+
+            if (numeric) {
+                double[] quartiles = sketch.quantile(0.25, 0.5, 0.75);
+                count[j] = (int) summary.count();
+                min[j] = summary.min();
+                q1[j] = quartiles[0];
+                median[j] = quartiles[1];
+                q3[j] = quartiles[2];
+                max[j] = summary.max();
+            }
+        });
 
         return new DataFrame(
                 new StringVector("column", names()),
@@ -1337,7 +1356,8 @@ public record DataFrame(StructType schema, List<ValueVector> columns, RowIndex i
     }
 
     /**
-     * Creates a DataFrame from a set of tuples.
+     * Creates a DataFrame from a set of tuples. The string columns
+     * of low cardinality are dictionary encoded.
      * @param data The data collection.
      * @param schema The schema of tuple.
      * @return the data frame.
@@ -1471,7 +1491,7 @@ public record DataFrame(StructType schema, List<ValueVector> columns, RowIndex i
                     for (int i = 0; i < n; i++) {
                         values[i] = data.get(i).getString(j);
                     }
-                    yield new StringVector(field, values);
+                    yield DictionaryVector.of(field, values);
                 }
 
                 case Decimal -> {
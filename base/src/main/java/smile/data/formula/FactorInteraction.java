@@ -17,13 +17,15 @@
 package smile.data.formula;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import smile.data.DataFrame;
 import smile.data.Tuple;
 import smile.data.measure.CategoricalMeasure;
 import smile.data.measure.NominalScale;
 import smile.data.type.DataTypes;
 import smile.data.type.StructField;
 import smile.data.type.StructType;
+import smile.data.vector.IntVector;
+import smile.data.vector.ValueVector;
 
 /**
  * The interaction of all the factors appearing in the term.
@@ -89,24 +91,31 @@ public class FactorInteraction implements Term {
 
         List<String> levels = new ArrayList<>();
         levels.add("");
-        for (StructField field : fields) {
-            CategoricalMeasure cat = (CategoricalMeasure) field.measure();
+        CategoricalMeasure[] scales = new CategoricalMeasure[fields.size()];
+        for (int j = 0; j < scales.length; j++) {
+            CategoricalMeasure cat = (CategoricalMeasure) fields.get(j).measure();
+            scales[j] = cat;
             levels = levels.stream()
                     .flatMap(l -> Arrays.stream(cat.levels()).map(level -> l.isEmpty() ? level : l + ":" + level))
                     .toList();
         }
 
-        return Collections.singletonList(new InteractionFeature(levels));
+        return Collections.singletonList(new InteractionFeature(levels, scales));
     }
 
     /**
-     * An interaction feature.
+     * An interaction feature. As the levels are the cartesian product
+     * of factor levels, the value of interaction is computed from the
+     * factor values in mixed radix without looking up the level strings.
      */
     private class InteractionFeature implements Feature {
         final NominalScale measure ;
         final StructField field;
+        /** The measures of factors. */
+        final CategoricalMeasure[] scales;
 
-        InteractionFeature(List<String> levels) {
+        InteractionFeature(List<String> levels, CategoricalMeasure[] scales) {
+            this.scales = scales;
             measure = new NominalScale(levels);
             field = new StructField(
                     String.join(":", factors),
@@ -127,14 +136,31 @@ public class FactorInteraction implements Term {
 
         @Override
         public int applyAsInt(Tuple o) {
-            String level = factors.stream().map(o::getString).collect(Collectors.joining(":"));
-            return measure.valueOf(level).intValue();
+            int value = 0;
+            for (int j = 0; j < scales.length; j++) {
+                value = value * scales[j].size() + scales[j].factor(o.getInt(factors.get(j)));
+            }
+            return value;
         }
 
         @Override
         public Object apply(Tuple o) {
-            String level = factors.stream().map(o::getString).collect(Collectors.joining(":"));
-            return measure.valueOf(level);
+            return applyAsInt(o);
+        }
+
+        @Override
+        public ValueVector apply(DataFrame data) {
+            int n = data.size();
+            int[] values = new int[n];
+            for (int j = 0; j < scales.length; j++) {
+                CategoricalMeasure scale = scales[j];
+                int size = scale.size();
+                ValueVector column = data.column(factors.get(j));
+                for (int i = 0; i < n; i++) {
+                    values[i] = values[i] * size + scale.factor(column.getInt(i));
+                }
+            }
+            return new IntVector(field, values);
         }
     }
 }
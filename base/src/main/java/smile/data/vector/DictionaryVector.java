@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.data.vector;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import smile.data.measure.CategoricalMeasure;
+import smile.data.measure.NominalScale;
+import smile.data.type.DataTypes;
+import smile.data.type.StructField;
+import smile.util.Index;
+
+/**
+ * A dictionary encoded string vector. Each element is stored as an
+ * integer code into a dictionary of distinct strings, which is shared
+ * by the slices of vector. For columns of low cardinality, e.g. country
+ * or product category, it takes a small fraction of the memory of
+ * {@link StringVector}. The nulls are encoded as -1.
+ * <p>
+ * The vector is of string data type so that it is interchangeable with
+ * {@link StringVector}. The codes are in the order of first appearance
+ * and can be converted to the values of any categorical measure by
+ * looking up the dictionary once rather than every element.
+ *
+ * @author Haifeng Li
+ */
+public class DictionaryVector extends AbstractVector {
+    /** The codes of elements. */
+    final int[] codes;
+    /**
+     * The dictionary, which is shared with the vectors of same codes,
+     * e.g. renamed vectors, so that they see the new values added by
+     * each other.
+     */
+    private final Dictionary dictionary;
+
+    /**
+     * The growable dictionary of distinct values. The array of values
+     * is copied on growth as it may be shared with the slices.
+     */
+    private static class Dictionary implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+        /** The distinct values. */
+        String[] values;
+        /** The lazily built map from values to codes for updates. */
+        transient Map<String, Integer> lookup;
+
+        /**
+         * Constructor.
+         * @param values the distinct values.
+         */
+        Dictionary(String[] values) {
+            this.values = values;
+        }
+
+        /**
+         * Returns the code of value, which is added to the dictionary
+         * if not present.
+         * @param value the value.
+         * @return the code of value.
+         */
+        synchronized int code(String value) {
+            if (lookup == null) {
+                lookup = new HashMap<>();
+                for (int k = 0; k < values.length; k++) {
+                    lookup.put(values[k], k);
+                }
+            }
+
+            Integer code = lookup.get(value);
+            if (code == null) {
+                code = values.length;
+                values = Arrays.copyOf(values, code + 1);
+                values[code] = value;
+                lookup.put(value, code);
+            }
+            return code;
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param name the name of vector.
+     * @param codes the codes of elements, -1 for null.
+     * @param dictionary the dictionary of distinct values.
+     */
+    public DictionaryVector(String name, int[] codes, String[] dictionary) {
+        this(new StructField(name, DataTypes.StringType), codes, dictionary);
+    }
+
+    /**
+     * Constructor.
+     * @param field the struct field of vector.
+     * @param codes the codes of elements, -1 for null.
+     * @param dictionary the dictionary of distinct values.
+     */
+    public DictionaryVector(StructField field, int[] codes, String[] dictionary) {
+        this(field, codes, new Dictionary(dictionary));
+    }
+
+    /**
+     * Constructor.
+     * @param field the struct field of vector.
+     * @param codes the codes of elements, -1 for null.
+     * @param dictionary the dictionary of distinct values.
+     */
+    private DictionaryVector(StructField field, int[] codes, Dictionary dictionary) {
+        super(field);
+        if (field.dtype() != DataTypes.StringType) {
+            throw new IllegalArgumentException("Invalid data type: " + field);
+        }
+
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Returns the dictionary encoded vector of strings.
+     * @param field the struct field of vector.
+     * @param vector the elements of vector.
+     * @return the dictionary encoded vector.
+     */
+    public static DictionaryVector encode(StructField field, String[] vector) {
+        return encode(field, vector, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a string vector, which is dictionary encoded if the
+     * number of distinct values is at most half of the vector size.
+     * The encoding stops as soon as the dictionary grows over the
+     * limit so that the high cardinality columns don't pay for it.
+     * @param field the struct field of vector.
+     * @param vector the elements of vector.
+     * @return the dictionary encoded vector if the cardinality is low,
+     *         otherwise a plain string vector.
+     */
+    public static ValueVector of(StructField field, String[] vector) {
+        DictionaryVector encoded = encode(field, vector, vector.length / 2);
+        return encoded != null ? encoded : new StringVector(field, vector);
+    }
+
+    /**
+     * Returns the dictionary encoded vector of strings.
+     * @param field the struct field of vector.
+     * @param vector the elements of vector.
+     * @param limit the maximum size of dictionary.
+     * @return the dictionary encoded vector, or null if the number
+     *         of distinct values is greater than the limit.
+     */
+    private static DictionaryVector encode(StructField field, String[] vector, int limit) {
+        int n = vector.length;
+        int[] codes = new int[n];
+        Map<String, Integer> lookup = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            String s = vector[i];
+            if (s == null) {
+                codes[i] = -1;
+            } else {
+                Integer code = lookup.putIfAbsent(s, lookup.size());
+                if (code == null) {
+                    if (lookup.size() > limit) return null;
+                    code = lookup.size() - 1;
+                }
+                codes[i] = code;
+            }
+        }
+
+        String[] dictionary = new String[lookup.size()];
+        for (var entry : lookup.entrySet()) {
+            dictionary[entry.getValue()] = entry.getKey();
+        }
+        return new DictionaryVector(field, codes, dictionary);
+    }
+
+    /**
+     * Returns the codes of elements. The nulls are encoded as -1.
+     * @return the codes of elements.
+     */
+    public int[] codes() {
+        return codes;
+    }
+
+    /**
+     * Returns the dictionary of distinct values, which may contain
+     * the values not present in this vector if it is a slice.
+     * @return the dictionary of distinct values.
+     */
+    public String[] dictionary() {
+        return dictionary.values;
+    }
+
+    /**
+     * Returns a nominal scale of measure based on the values present
+     * in this vector. As the dictionary may be shared with other slices,
+     * the levels are the dictionary entries of the codes in use, which
+     * are sorted as {@link StringVector#nominal()}.
+     * @return the nominal scale.
+     */
+    public NominalScale nominal() {
+        String[] dictionary = dictionary();
+        boolean[] present = new boolean[dictionary.length];
+        for (int code : codes) {
+            if (code >= 0) present[code] = true;
+        }
+
+        String[] levels = IntStream.range(0, dictionary.length)
+                .filter(k -> present[k])
+                .mapToObj(k -> dictionary[k])
+                .sorted()
+                .toArray(String[]::new);
+        return new NominalScale(levels);
+    }
+
+    /**
+     * Returns the values of elements in a categorical measure.
+     * The dictionary is looked up once and the codes are mapped
+     * to the values directly. The nulls are converted to -1.
+     * @param scale the categorical measure.
+     * @return the values of elements.
+     */
+    public int[] values(CategoricalMeasure scale) {
+        String[] dictionary = dictionary();
+        int[] map = new int[dictionary.length];
+        for (int k = 0; k < map.length; k++) {
+            Number value = scale.valueOf(dictionary[k]);
+            map[k] = value == null ? -1 : value.intValue();
+        }
+
+        int[] values = new int[codes.length];
+        for (int i = 0; i < values.length; i++) {
+            int code = codes[i];
+            values[i] = code < 0 ? -1 : map[code];
+        }
+        return values;
+    }
+
+    /**
+     * Converts strings to discrete measured values. Depending on how many levels
+     * in the nominal scale, the type of returned vector may be byte, short
+     * or integer. The missing values/nulls will be converted to -1.
+     * @param scale the categorical measure.
+     * @return the factorized vector.
+     */
+    public ValueVector factorize(CategoricalMeasure scale) {
+        int[] values = values(scale);
+        StructField field = new StructField(name(), scale.type(), scale);
+        switch (scale.type().id()) {
+            case Byte: {
+                byte[] data = new byte[values.length];
+                for (int i = 0; i < data.length; i++) {
+                    data[i] = (byte) values[i];
+                }
+                return new ByteVector(field, data);
+            }
+            case Short: {
+                short[] data = new short[values.length];
+                for (int i = 0; i < data.length; i++) {
+                    data[i] = (short) values[i];
+                }
+                return new ShortVector(field, data);
+            }
+            case Int:
+                return new IntVector(field, values);
+            default:
+                // we should never reach here.
+                throw new UnsupportedOperationException("Unsupported data type for nominal measure: " + scale.type());
+        }
+    }
+
+    /**
+     * Returns the distinct values.
+     * @return the distinct values.
+     */
+    public List<String> distinct() {
+        return stream().distinct().toList();
+    }
+
+    @Override
+    public DictionaryVector get(Index index) {
+        int[] data = new int[index.size()];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = codes[index.apply(i)];
+        }
+        return new DictionaryVector(field, data, dictionary());
+    }
+
+    @Override
+    public DictionaryVector withName(String name) {
+        return new DictionaryVector(field.withName(name), codes, dictionary);
+    }
+
+    @Override
+    public int size() {
+        return codes.length;
+    }
+
+    @Override
+    public String get(int i) {
+        int code = codes[i];
+        return code < 0 ? null : dictionary.values[code];
+    }
+
+    @Override
+    public void set(int i, Object value) {
+        codes[i] = value == null ? -1 : dictionary.code((String) value);
+    }
+
+    @Override
+    public Stream<String> stream() {
+        String[] dictionary = dictionary();
+        return Arrays.stream(codes).mapToObj(code -> code < 0 ? null : dictionary[code]);
+    }
+
+    @Override
+    public IntStream intStream() {
+        return stream().filter(Objects::nonNull).mapToInt(Integer::parseInt);
+    }
+
+    @Override
+    public LongStream longStream() {
+        return stream().filter(Objects::nonNull).mapToLong(Long::parseLong);
+    }
+
+    @Override
+    public DoubleStream doubleStream() {
+        return stream().filter(Objects::nonNull).mapToDouble(Double::parseDouble);
+    }
+
+    @Override
+    public boolean getBoolean(int i) {
+        return Boolean.parseBoolean(get(i));
+    }
+
+    @Override
+    public char getChar(int i) {
+        String s = get(i);
+        return s.isEmpty() ? '\u0000' : s.charAt(0);
+    }
+
+    @Override
+    public byte getByte(int i) {
+        return Byte.parseByte(get(i));
+    }
+
+    @Override
+    public short getShort(int i) {
+        return Short.parseShort(get(i));
+    }
+
+    @Override
+    public int getInt(int i) {
+        return Integer.parseInt(get(i));
+    }
+
+    @Override
+    public long getLong(int i) {
+        return Long.parseLong(get(i));
+    }
+
+    @Override
+    public float getFloat(int i) {
+        return Float.parseFloat(get(i));
+    }
+
+    @Override
+    public double getDouble(int i) {
+        return Double.parseDouble(get(i));
+    }
+
+    @Override
+    public boolean isNullable() {
+        return true;
+    }
+
+    @Override
+    public boolean isNullAt(int i) {
+        return codes[i] < 0;
+    }
+
+    @Override
+    public int getNullCount() {
+        int count = 0;
+        for (int code : codes) {
+            if (code < 0) count++;
+        }
+        return count;
+    }
+}
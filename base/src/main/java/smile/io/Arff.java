@@ -28,6 +28,7 @@ import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import smile.data.DataFrame;
 import smile.data.Tuple;
@@ -473,6 +474,33 @@ public class Arff implements AutoCloseable {
         return DataFrame.of(schema, rows);
     }
 
+    /**
+     * Returns a lazy stream of data frame chunks of the records, so that
+     * a file larger than the heap can be processed chunk by chunk. As the
+     * schema is shared by all chunks, the primitive types are nullable.
+     * Closing the stream closes this reader.
+     *
+     * @param size the number of rows in a chunk.
+     * @return the stream of data frame chunks.
+     */
+    public Stream<DataFrame> stream(int size) {
+        StructType struct = Chunks.nullable(schema);
+        return Chunks.of(struct, () -> {
+            // Check if end of file reached.
+            getFirstToken();
+            if (tokenizer.ttype == StreamTokenizer.TT_EOF) {
+                return null;
+            }
+
+            try {
+                Object[] row = tokenizer.ttype == '{' ? readSparseInstance() : readInstance();
+                return Tuple.of(struct, row);
+            } catch (ParseException ex) {
+                throw new IOException(ex);
+            }
+        }, size, reader);
+    }
+
     /**
      * Reads a single instance.
      * @throws ParseException if the information is not read successfully
@@ -19,25 +19,45 @@ package smile.io;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.net.URISyntaxException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.ForeignAllocation;
 import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.memory.util.MemoryUtil;
 import org.apache.arrow.vector.*;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryEncoder;
 import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
 import org.apache.arrow.vector.ipc.ArrowStreamReader;
 import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.ReadChannel;
+import org.apache.arrow.vector.ipc.message.ArrowBlock;
+import org.apache.arrow.vector.ipc.message.ArrowFieldNode;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+import org.apache.arrow.vector.ipc.message.MessageSerializer;
 import org.apache.arrow.vector.types.DateUnit;
 import org.apache.arrow.vector.types.FloatingPointPrecision;
 import org.apache.arrow.vector.types.TimeUnit;
 import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.FieldType;
 import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.arrow.vector.util.TransferPair;
 import smile.data.DataFrame;
 import smile.data.type.*;
 
@@ -177,79 +197,9 @@ public class Arrow {
             List<DataFrame> frames = new ArrayList<>();
             int size = 0;
             while (reader.loadNextBatch() && size < limit) {
-                List<FieldVector> fieldVectors = root.getFieldVectors();
-                logger.info("read {} rows and {} columns", root.getRowCount(), fieldVectors.size());
-
-                smile.data.vector.ValueVector[] vectors = new smile.data.vector.ValueVector[fieldVectors.size()];
-                for (int j = 0; j < fieldVectors.size(); j++) {
-                    FieldVector fieldVector = fieldVectors.get(j);
-                    ArrowType type = fieldVector.getField().getType();
-                    switch (type.getTypeID()) {
-                        case Int:
-                            ArrowType.Int itype = (ArrowType.Int) type;
-                            int bitWidth = itype.getBitWidth();
-                            switch (bitWidth) {
-                                case 8:
-                                    vectors[j] = readByteField(fieldVector);
-                                    break;
-                                case 16:
-                                    if (itype.getIsSigned())
-                                        vectors[j] = readShortField(fieldVector);
-                                    else
-                                        vectors[j] = readCharField(fieldVector);
-                                    break;
-                                case 32:
-                                    vectors[j] = readIntField(fieldVector);
-                                    break;
-                                case 64:
-                                    vectors[j] = readLongField(fieldVector);
-                                    break;
-                                default:
-                                    throw new UnsupportedOperationException("Unsupported integer bit width: " + bitWidth);
-                            }
-                            break;
-                        case FloatingPoint:
-                            FloatingPointPrecision precision = ((ArrowType.FloatingPoint) type).getPrecision();
-                            switch (precision) {
-                                case DOUBLE:
-                                    vectors[j] = readDoubleField(fieldVector);
-                                    break;
-                                case SINGLE:
-                                    vectors[j] = readFloatField(fieldVector);
-                                    break;
-                                case HALF:
-                                    throw new UnsupportedOperationException("Unsupported float precision: " + precision);
-                            }
-                            break;
-                        case Decimal:
-                            vectors[j] = readDecimalField(fieldVector);
-                            break;
-                        case Bool:
-                            vectors[j] = readBitField(fieldVector);
-                            break;
-                        case Date:
-                            vectors[j] = readDateField(fieldVector);
-                            break;
-                        case Time:
-                            vectors[j] = readTimeField(fieldVector);
-                            break;
-                        case Timestamp:
-                            vectors[j] = readDateTimeField(fieldVector);
-                            break;
-                        case Binary:
-                        case FixedSizeBinary:
-                            vectors[j] = readByteArrayField(fieldVector);
-                            break;
-                        case Utf8:
-                            vectors[j] = readStringField(fieldVector);
-                            break;
-                        default: throw new UnsupportedOperationException("Unsupported column type: " + fieldVector.getMinorType());
-                    }
-                }
-
-                DataFrame frame = new DataFrame(vectors);
+                DataFrame frame = toDataFrame(root, reader);
                 frames.add(frame);
-                size += frames.size();
+                size += root.getRowCount();
             }
 
             if (frames.isEmpty()) {
@@ -263,6 +213,334 @@ public class Arrow {
         }
     }
 
+    /**
+     * Returns a lazy stream of the record batches of an arrow file.
+     * Each record batch is loaded and converted to a data frame only
+     * when the stream consumer asks for it, so that a file larger
+     * than the heap can be processed batch by batch. The stream
+     * should be closed after use to release the input and the
+     * Arrow buffers.
+     *
+     * @param path the input file path.
+     * @throws IOException when fails to open the file.
+     * @return the stream of record batches.
+     */
+    public Stream<DataFrame> stream(Path path) throws IOException {
+        return stream(Files.newInputStream(path));
+    }
+
+    /**
+     * Returns a lazy stream of data frame chunks of an arrow file.
+     * The record batches are read one by one and split or merged
+     * into chunks of given size. The stream should be closed after
+     * use to release the input and the Arrow buffers.
+     *
+     * @param path the input file path.
+     * @param size the number of rows in a chunk.
+     * @throws IOException when fails to open the file.
+     * @return the stream of data frame chunks.
+     */
+    public Stream<DataFrame> stream(Path path, int size) throws IOException {
+        Chunks.check(size);
+        return Chunks.rechunk(stream(path), size);
+    }
+
+    /**
+     * Returns a lazy stream of the record batches of an arrow file.
+     * The stream should be closed after use to release the input
+     * and the Arrow buffers.
+     *
+     * @param input the input stream.
+     * @return the stream of record batches.
+     */
+    public Stream<DataFrame> stream(InputStream input) {
+        if (allocator == null) {
+            allocate(Long.MAX_VALUE);
+        }
+
+        ArrowStreamReader reader = new ArrowStreamReader(input, allocator);
+        var batches = new Spliterators.AbstractSpliterator<DataFrame>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super DataFrame> action) {
+                try {
+                    if (!reader.loadNextBatch()) return false;
+                    action.accept(toDataFrame(reader.getVectorSchemaRoot(), reader));
+                    return true;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        };
+
+        return StreamSupport.stream(batches, false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * Converts the current record batch to a data frame.
+     * @param root the holder of the record batch.
+     * @param provider the dictionaries of dictionary encoded fields.
+     * @return the data frame.
+     */
+    private DataFrame toDataFrame(VectorSchemaRoot root, DictionaryProvider provider) {
+        List<FieldVector> fieldVectors = root.getFieldVectors();
+        logger.info("read {} rows and {} columns", root.getRowCount(), fieldVectors.size());
+
+        smile.data.vector.ValueVector[] vectors = new smile.data.vector.ValueVector[fieldVectors.size()];
+        for (int j = 0; j < fieldVectors.size(); j++) {
+            FieldVector fieldVector = fieldVectors.get(j);
+            DictionaryEncoding encoding = fieldVector.getField().getDictionary();
+            vectors[j] = encoding == null ? readField(fieldVector) : readDictionaryField(fieldVector, provider.lookup(encoding.getId()));
+        }
+
+        return new DataFrame(vectors);
+    }
+
+    /**
+     * Copies an arrow vector to a smile vector.
+     * @param fieldVector the arrow vector.
+     * @return the smile vector.
+     */
+    private static smile.data.vector.ValueVector readField(FieldVector fieldVector) {
+        ArrowType type = fieldVector.getField().getType();
+        switch (type.getTypeID()) {
+            case Int:
+                ArrowType.Int itype = (ArrowType.Int) type;
+                int bitWidth = itype.getBitWidth();
+                switch (bitWidth) {
+                    case 8:
+                        return readByteField(fieldVector);
+                    case 16:
+                        if (itype.getIsSigned())
+                            return readShortField(fieldVector);
+                        else
+                            return readCharField(fieldVector);
+                    case 32:
+                        return readIntField(fieldVector);
+                    case 64:
+                        return readLongField(fieldVector);
+                    default:
+                        throw new UnsupportedOperationException("Unsupported integer bit width: " + bitWidth);
+                }
+            case FloatingPoint:
+                FloatingPointPrecision precision = ((ArrowType.FloatingPoint) type).getPrecision();
+                switch (precision) {
+                    case DOUBLE:
+                        return readDoubleField(fieldVector);
+                    case SINGLE:
+                        return readFloatField(fieldVector);
+                    default:
+                        throw new UnsupportedOperationException("Unsupported float precision: " + precision);
+                }
+            case Decimal:
+                return readDecimalField(fieldVector);
+            case Bool:
+                return readBitField(fieldVector);
+            case Date:
+                return readDateField(fieldVector);
+            case Time:
+                return readTimeField(fieldVector);
+            case Timestamp:
+                return readDateTimeField(fieldVector);
+            case Binary:
+            case FixedSizeBinary:
+                return readByteArrayField(fieldVector);
+            case Utf8:
+                return readStringField(fieldVector);
+            default: throw new UnsupportedOperationException("Unsupported column type: " + fieldVector.getMinorType());
+        }
+    }
+
+    /**
+     * Memory-maps an Arrow IPC file (i.e. Feather V2 file) as a data frame
+     * without copying. The record batches of a writable file are mapped in
+     * copy-on-write mode so that the updates of vectors are private and
+     * never written back to the file. The record batches of a read only
+     * file are mapped in read only mode and the vectors reject updates.
+     * The columns of boolean, integer, floating point and string types
+     * are {@link ArrowVector} backed by the mapped buffers. The columns of
+     * other types are copied to the Java heap. The mapped memory is released
+     * when the vectors are closed or garbage collected.
+     * <p>
+     * Compressed record batches are not supported. Note that
+     * {@link #read(Path)} reads the Arrow IPC streaming format instead.
+     *
+     * @param path the input file path.
+     * @throws IOException when fails to read the file.
+     * @return the data frame.
+     */
+    public DataFrame map(Path path) throws IOException {
+        if (allocator == null) {
+            allocate(Long.MAX_VALUE);
+        }
+
+        // Copy-on-write mapping requires a channel opened for writing,
+        // although nothing is written to the file.
+        boolean writable = Files.isWritable(path);
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.PRIVATE : FileChannel.MapMode.READ_ONLY;
+        try (FileChannel channel = writable ?
+                     FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE) :
+                     FileChannel.open(path, StandardOpenOption.READ);
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator)) {
+            Schema schema = reader.getVectorSchemaRoot().getSchema();
+            List<ArrowBlock> blocks = reader.getRecordBlocks();
+            if (blocks.isEmpty()) {
+                throw new IllegalStateException("No record batch");
+            }
+
+            int ncol = schema.getFields().size();
+            List<List<FieldVector>> chunks = new ArrayList<>(ncol);
+            for (int j = 0; j < ncol; j++) {
+                chunks.add(new ArrayList<>(blocks.size()));
+            }
+
+            int size = 0;
+            for (ArrowBlock block : blocks) {
+                VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+                channel.position(block.getOffset());
+                var message = MessageSerializer.readMessage(new ReadChannel(channel));
+                if (message == null) {
+                    throw new IOException("Unexpected end of input at offset " + block.getOffset());
+                }
+
+                long position = block.getOffset() + block.getMetadataLength();
+                ArrowBuf body = block.getBodyLength() == 0 ? allocator.getEmpty() :
+                        allocator.wrapForeignAllocation(new MappedAllocation(channel.map(mode, position, block.getBodyLength())));
+                // The record batch retains the slices of body and
+                // takes over the reference of body.
+                try (ArrowRecordBatch batch = MessageSerializer.deserializeRecordBatch(message.getMessage(), body)) {
+                    new VectorLoader(root).load(batch);
+                }
+
+                size += root.getRowCount();
+                List<FieldVector> fieldVectors = root.getFieldVectors();
+                for (int j = 0; j < ncol; j++) {
+                    chunks.get(j).add(fieldVectors.get(j));
+                }
+            }
+
+            smile.data.vector.ValueVector[] vectors = new smile.data.vector.ValueVector[ncol];
+            for (int j = 0; j < ncol; j++) {
+                vectors[j] = toValueVector(chunks.get(j));
+                if (vectors[j] instanceof ArrowVector vector) {
+                    vector.readOnly = !writable;
+                }
+            }
+
+            logger.info("map {} rows and {} columns in {} record batches", size, ncol, blocks.size());
+            return new DataFrame(vectors);
+        }
+    }
+
+    /**
+     * The memory-mapped record batch body. The mapping is
+     * unmapped by GC after all Arrow buffers are released.
+     */
+    private static class MappedAllocation extends ForeignAllocation {
+        /** The mapped byte buffer. */
+        private MappedByteBuffer buffer;
+
+        /**
+         * Constructor.
+         * @param buffer the mapped byte buffer.
+         */
+        MappedAllocation(MappedByteBuffer buffer) {
+            super(buffer.capacity(), MemoryUtil.getByteBufferAddress(buffer));
+            this.buffer = buffer;
+        }
+
+        @Override
+        protected void release0() {
+            buffer = null;
+        }
+    }
+
+    /**
+     * Wraps the current record batch as a data frame without copying.
+     * The buffers are transferred from the root, which can be reused
+     * to load the next batch. The columns of boolean, integer, floating
+     * point and string types are {@link ArrowVector}, which own the
+     * buffers and should be closed to release the memory. The columns
+     * of other types are copied to the Java heap.
+     *
+     * @param root the holder of the record batch.
+     * @return the data frame.
+     */
+    public static DataFrame wrap(VectorSchemaRoot root) {
+        if (allocator == null) {
+            allocate(Long.MAX_VALUE);
+        }
+
+        List<FieldVector> fieldVectors = root.getFieldVectors();
+        smile.data.vector.ValueVector[] vectors = new smile.data.vector.ValueVector[fieldVectors.size()];
+        for (int j = 0; j < vectors.length; j++) {
+            TransferPair transfer = fieldVectors.get(j).getTransferPair(allocator);
+            transfer.transfer();
+            vectors[j] = toValueVector(List.of((FieldVector) transfer.getTo()));
+        }
+        return new DataFrame(vectors);
+    }
+
+    /**
+     * Converts the chunks of a column to a smile vector. The chunks
+     * are wrapped without copying if supported. Otherwise, they are
+     * copied to the Java heap and closed.
+     * @param chunks the arrow vectors of a column.
+     * @return the smile vector.
+     */
+    private static smile.data.vector.ValueVector toValueVector(List<FieldVector> chunks) {
+        if (ArrowVector.isSupported(chunks.getFirst().getMinorType())) {
+            return ArrowVector.of(chunks);
+        }
+
+        DataFrame[] frames = new DataFrame[chunks.size()];
+        for (int i = 0; i < frames.length; i++) {
+            try (FieldVector chunk = chunks.get(i)) {
+                frames[i] = new DataFrame(readField(chunk));
+            }
+        }
+
+        DataFrame df = frames.length == 1 ? frames[0] : frames[0].concat(Arrays.copyOfRange(frames, 1, frames.length));
+        return df.column(0);
+    }
+
+    /**
+     * Exports a data frame to an arrow record batch. The single-chunk
+     * {@link ArrowVector} columns share the buffers, which are reference
+     * counted, without copying. Other columns, e.g. the ones on the Java
+     * heap or read only mapped, are copied. The returned root should be closed after use.
+     *
+     * @param data the data frame.
+     * @return the holder of record batch.
+     */
+    public static VectorSchemaRoot toArrow(DataFrame data) {
+        if (allocator == null) {
+            allocate(Long.MAX_VALUE);
+        }
+
+        int size = data.size();
+        VectorSchemaRoot root = VectorSchemaRoot.create(toArrow(data.schema()), allocator);
+        List<FieldVector> fieldVectors = root.getFieldVectors();
+        for (int j = 0; j < fieldVectors.size(); j++) {
+            FieldVector target = fieldVectors.get(j);
+            if (data.column(j) instanceof ArrowVector vector && vector.chunks.length == 1 && !vector.readOnly
+                    && vector.chunks[0].getMinorType() == target.getMinorType()) {
+                FieldVector source = vector.chunks[0];
+                target.loadFieldBuffers(new ArrowFieldNode(size, source.getNullCount()), source.getFieldBuffers());
+            } else {
+                write(data, target, 0, size);
+            }
+        }
+
+        root.setRowCount(size);
+        return root;
+    }
+
     /**
      * Writes the data frame to an arrow file.
      *
@@ -271,11 +549,32 @@ public class Arrow {
      * @throws IOException when fails to write the file.
      */
     public void write(DataFrame data, Path path) throws IOException {
+        write(Stream.of(data), path);
+    }
+
+    /**
+     * Writes a stream of data frame chunks to an arrow file. The chunks
+     * are pulled from the stream one at a time and written as record
+     * batches, so that the memory footprint is bounded by the chunk
+     * size no matter how large the output is. All chunks should have
+     * the same schema.
+     *
+     * @param chunks the data frame chunks.
+     * @param path the output file path.
+     * @throws IOException when fails to write the file.
+     */
+    public void write(Stream<DataFrame> chunks, Path path) throws IOException {
         if (allocator == null) {
             allocate(Long.MAX_VALUE);
         }
 
-        Schema schema = toArrow(data.schema());
+        Iterator<DataFrame> iterator = chunks.iterator();
+        if (!iterator.hasNext()) {
+            throw new IllegalArgumentException("Empty data");
+        }
+
+        DataFrame first = iterator.next();
+        Schema schema = toArrow(first.schema());
         /*
          * When a field is dictionary encoded, the values are represented
          * by an array of Int32 representing the index of the value in the
@@ -293,108 +592,135 @@ public class Arrow {
              ArrowStreamWriter writer = new ArrowStreamWriter(root, provider, output)) {
 
             writer.start();
-            final int size = data.size();
-            for (int from = 0; from < size; from += batch) {
-                int count = Math.min(batch, size - from);
-                // set the batch row count
-                root.setRowCount(count);
-
-                for (Field field : root.getSchema().getFields()) {
-                    FieldVector vector = root.getVector(field.getName());
-                    DataType type = data.schema().field(field.getName()).dtype();
-                    switch (type.id()) {
-                        case Int:
-                            writeIntField(data, vector, from, count);
-                            break;
-                        case Long:
-                            writeLongField(data, vector, from, count);
-                            break;
-                        case Double:
-                            writeDoubleField(data, vector, from, count);
-                            break;
-                        case Float:
-                            writeFloatField(data, vector, from, count);
-                            break;
-                        case Boolean:
-                            writeBooleanField(data, vector, from, count);
-                            break;
-                        case Byte:
-                            writeByteField(data, vector, from, count);
-                            break;
-                        case Short:
-                            writeShortField(data, vector, from, count);
-                            break;
-                        case Char:
-                            writeCharField(data, vector, from, count);
-                            break;
-                        case String:
-                            writeStringField(data, vector, from, count);
-                            break;
-                        case Date:
-                            writeDateField(data, vector, from, count);
-                            break;
-                        case Time:
-                            writeTimeField(data, vector, from, count);
-                            break;
-                        case DateTime:
-                            writeDateTimeField(data, vector, from, count);
-                            break;
-                        case Object: {
-                            Class<?> clazz = ((ObjectType) type).getObjectClass();
-                            if (clazz == Integer.class) {
-                                writeNullableIntField(data, vector, from, count);
-                            } else if (clazz == Long.class) {
-                                writeNullableLongField(data, vector, from, count);
-                            } else if (clazz == Double.class) {
-                                writeNullableDoubleField(data, vector, from, count);
-                            } else if (clazz == Float.class) {
-                                writeNullableFloatField(data, vector, from, count);
-                            } else if (clazz == Boolean.class) {
-                                writeNullableBooleanField(data, vector, from, count);
-                            } else if (clazz == Byte.class) {
-                                writeNullableByteField(data, vector, from, count);
-                            } else if (clazz == Short.class) {
-                                writeNullableShortField(data, vector, from, count);
-                            } else if (clazz == Character.class) {
-                                writeNullableCharField(data, vector, from, count);
-                            } else if (clazz == BigDecimal.class) {
-                                writeDecimalField(data, vector, from, count);
-                            } else if (clazz == String.class) {
-                                writeStringField(data, vector, from, count);
-                            } else if (clazz == LocalDate.class) {
-                                writeDateField(data, vector, from, count);
-                            } else if (clazz == LocalTime.class) {
-                                writeTimeField(data, vector, from, count);
-                            } else if (clazz == LocalDateTime.class) {
-                                writeDateTimeField(data, vector, from, count);
-                            } else {
-                                throw new UnsupportedOperationException("Unsupported type: " + type);
-                            }
-                            break;
-                        }
-                        case Array: {
-                            DataType etype = ((ArrayType) type).getComponentType();
-                            if (etype.id() == DataType.ID.Byte) {
-                                writeByteArrayField(data, vector, from, count);
-                            } else {
-                                throw new UnsupportedOperationException("Unsupported type: " + type);
-                            }
-                            break;
-                        }
-
-                        default:
-                            throw new UnsupportedOperationException("Unsupported type: " + type);
-                    }
-                }
+            write(first, root, writer);
+            while (iterator.hasNext()) {
+                write(iterator.next(), root, writer);
+            }
+        }
+    }
 
-                writer.writeBatch();
-                logger.info("write {} rows", count);
+    /**
+     * Writes a data frame as record batches.
+     *
+     * @param data the data frame.
+     * @param root the holder of record batch.
+     * @param writer the arrow stream writer.
+     * @throws IOException when fails to write the file.
+     */
+    private void write(DataFrame data, VectorSchemaRoot root, ArrowStreamWriter writer) throws IOException {
+        final int size = data.size();
+        for (int from = 0; from < size; from += batch) {
+            int count = Math.min(batch, size - from);
+            // set the batch row count
+            root.setRowCount(count);
+
+            for (FieldVector vector : root.getFieldVectors()) {
+                write(data, vector, from, count);
             }
+
+            writer.writeBatch();
+            logger.info("write {} rows", count);
+        }
+    }
+
+    /**
+     * Writes a column to an arrow vector.
+     *
+     * @param data the data frame.
+     * @param vector the arrow vector of column.
+     * @param from the index of first row to write.
+     * @param count the number of rows to write.
+     */
+    private static void write(DataFrame data, FieldVector vector, int from, int count) {
+        String name = vector.getField().getName();
+        DataType type = data.schema().field(name).dtype();
+        switch (type.id()) {
+            case Int:
+                writeIntField(data, vector, from, count);
+                break;
+            case Long:
+                writeLongField(data, vector, from, count);
+                break;
+            case Double:
+                writeDoubleField(data, vector, from, count);
+                break;
+            case Float:
+                writeFloatField(data, vector, from, count);
+                break;
+            case Boolean:
+                writeBooleanField(data, vector, from, count);
+                break;
+            case Byte:
+                writeByteField(data, vector, from, count);
+                break;
+            case Short:
+                writeShortField(data, vector, from, count);
+                break;
+            case Char:
+                writeCharField(data, vector, from, count);
+                break;
+            case String:
+                writeStringField(data, vector, from, count);
+                break;
+            case Date:
+                writeDateField(data, vector, from, count);
+                break;
+            case Time:
+                writeTimeField(data, vector, from, count);
+                break;
+            case DateTime:
+                writeDateTimeField(data, vector, from, count);
+                break;
+            case Object: {
+                Class<?> clazz = ((ObjectType) type).getObjectClass();
+                if (clazz == Integer.class) {
+                    writeNullableIntField(data, vector, from, count);
+                } else if (clazz == Long.class) {
+                    writeNullableLongField(data, vector, from, count);
+                } else if (clazz == Double.class) {
+                    writeNullableDoubleField(data, vector, from, count);
+                } else if (clazz == Float.class) {
+                    writeNullableFloatField(data, vector, from, count);
+                } else if (clazz == Boolean.class) {
+                    writeNullableBooleanField(data, vector, from, count);
+                } else if (clazz == Byte.class) {
+                    writeNullableByteField(data, vector, from, count);
+                } else if (clazz == Short.class) {
+                    writeNullableShortField(data, vector, from, count);
+                } else if (clazz == Character.class) {
+                    writeNullableCharField(data, vector, from, count);
+                } else if (clazz == BigDecimal.class) {
+                    writeDecimalField(data, vector, from, count);
+                } else if (clazz == String.class) {
+                    writeStringField(data, vector, from, count);
+                } else if (clazz == LocalDate.class) {
+                    writeDateField(data, vector, from, count);
+                } else if (clazz == LocalTime.class) {
+                    writeTimeField(data, vector, from, count);
+                } else if (clazz == LocalDateTime.class) {
+                    writeDateTimeField(data, vector, from, count);
+                } else {
+                    throw new UnsupportedOperationException("Unsupported type: " + type);
+                }
+                break;
+            }
+            case Array: {
+                DataType etype = ((ArrayType) type).getComponentType();
+                if (etype.id() == DataType.ID.Byte) {
+                    writeByteArrayField(data, vector, from, count);
+                } else {
+                    throw new UnsupportedOperationException("Unsupported type: " + type);
+                }
+                break;
+            }
+
+            default:
+                throw new UnsupportedOperationException("Unsupported type: " + type);
         }
     }
 
     /** Reads a boolean column. */
-    private smile.data.vector.ValueVector readBitField(FieldVector fieldVector) {
+    private static smile.data.vector.ValueVector readBitField(FieldVector fieldVector) {
         int count = fieldVector.getValueCount();
         var name = fieldVector.getField().getName();
         BitVector vector = (BitVector) fieldVector;
@@ -418,7 +744,7 @@ public class Arrow {
     }
 
     /** Reads a byte column. */
-    private smile.data.vector.ValueVector readByteField(FieldVector fieldVector) {
+    private static smile.data.vector.ValueVector readByteField(FieldVector fieldVector) {
         int count = fieldVector.getValueCount();
         var name = fieldVector.getField().getName();
         TinyIntVector vector = (TinyIntVector) fieldVector;
@@ -442,7 +768,7 @@ public class Arrow {
     }
 
     /** Reads a char column. */
-    private smile.data.vector.ValueVector readCharField(FieldVector fieldVector) {
+    private static smile.data.vector.ValueVector readCharField(FieldVector fieldVector) {
         int count = fieldVector.getValueCount();
         var name = fieldVector.getField().getName();
         SmallIntVector vector = (SmallIntVector) fieldVector;
@@ -466,7 +792,7 @@ public class Arrow {
     }
 
     /** Reads a short column. */
-    private smile.data.vector.ValueVector readShortField(FieldVector fieldVector) {
+    private static smile.data.vector.ValueVector readShortField(FieldVector fieldVector) {
         int count = fieldVector.getValueCount();
         var name = fieldVector.getField().getName();
         SmallIntVector vector = (SmallIntVector) fieldVector;
@@ -490,7 +816,7 @@ public class Arrow {
     }
 
     /** Reads an int column. */
-    private smile.data.vector.ValueVector readIntField(FieldVector fieldVector) {
+    private static smile.data.vector.ValueVector readIntField(FieldVector fieldVector) {
         int count = fieldVector.getValueCount();
         var name = fieldVector.getField().getName();
         IntVector vector = (IntVector) fieldVector;
@@ -514,7 +840,7 @@ public class Arrow {
     }
 
     /** Reads a long column. */
-    private smile.data.vector.ValueVector readLongField(FieldVector fieldVector) {
+    private static smile.data.vector.ValueVector readLongField(FieldVector fieldVector) {
         int count = fieldVector.getValueCount();
         var name = fieldVector.getField().getName();
         BigIntVector vector = (BigIntVector) fieldVector;
@@ -538,7 +864,7 @@ public class Arrow {
     }
 
     /** Reads a float column. */
-    private smile.data.vector.ValueVector readFloatField(FieldVector fieldVector) {
+    private static smile.data.vector.ValueVector readFloatField(FieldVector fieldVector) {
         int count = fieldVector.getValueCount();
         var name = fieldVector.getField().getName();
         Float4Vector vector = (Float4Vector) fieldVector;
@@ -562,7 +888,7 @@ public class Arrow {
     }
 
     /** Reads a double column. */
-    private smile.data.vector.ValueVector readDoubleField(FieldVector fieldVector) {
+    private static smile.data.vector.ValueVector readDoubleField(FieldVector fieldVector) {
         int count = fieldVector.getValueCount();
         var name = fieldVector.getField().getName();
         Float8Vector vector = (Float8Vector) fieldVector;
@@ -586,7 +912,7 @@ public class Arrow {
     }
 
     /** Reads a decimal column. */
-    private smile.data.vector.ValueVector readDecimalField(FieldVector fieldVector) {
+    private static smile.data.vector.ValueVector readDecimalField(FieldVector fieldVector) {
         int count = fieldVector.getValueCount();
         var name = fieldVector.getField().getName();
         BigDecimal[] data = new BigDecimal[count];
@@ -600,7 +926,7 @@ public class Arrow {
     }
 
     /** Reads a date column. */
-    private smile.data.vector.ValueVector readDateField(FieldVector fieldVector) {
+    private static smile.data.vector.ValueVector readDateField(FieldVector fieldVector) {
         int count = fieldVector.getValueCount();
         var name = fieldVector.getField().getName();
         LocalDate[] data = new LocalDate[count];
@@ -620,7 +946,7 @@ public class Arrow {
     }
 
     /** Reads a time column. */
-    private smile.data.vector.ValueVector readTimeField(FieldVector fieldVector) {
+    private static smile.data.vector.ValueVector readTimeField(FieldVector fieldVector) {
         int count = fieldVector.getValueCount();
         var name = fieldVector.getField().getName();
         LocalTime[] data = new LocalTime[count];
@@ -653,7 +979,7 @@ public class Arrow {
     }
 
     /** Reads a DateTime column. */
-    private smile.data.vector.ValueVector readDateTimeField(FieldVector fieldVector) {
+    private static smile.data.vector.ValueVector readDateTimeField(FieldVector fieldVector) {
         int count = fieldVector.getValueCount();
         var name = fieldVector.getField().getName();
         LocalDateTime[] data = new LocalDateTime[count];
@@ -688,7 +1014,7 @@ public class Arrow {
     }
 
     /** Reads a byte[] column. */
-    private smile.data.vector.ValueVector readByteArrayField(FieldVector fieldVector) {
+    private static smile.data.vector.ValueVector readByteArrayField(FieldVector fieldVector) {
         int count = fieldVector.getValueCount();
         var name = fieldVector.getField().getName();
         byte[][] data = new byte[count][];
@@ -715,7 +1041,7 @@ public class Arrow {
     }
 
     /** Reads a String column. */
-    private smile.data.vector.ValueVector readStringField(FieldVector fieldVector) {
+    private static smile.data.vector.ValueVector readStringField(FieldVector fieldVector) {
         int count = fieldVector.getValueCount();
         var name = fieldVector.getField().getName();
         VarCharVector vector = (VarCharVector) fieldVector;
@@ -727,11 +1053,43 @@ public class Arrow {
                 data[i] = new String(vector.get(i));
         }
 
-        return new smile.data.vector.StringVector(name, data);
+        var field = new StructField(name, DataTypes.StringType);
+        return smile.data.vector.DictionaryVector.of(field, data);
+    }
+
+    /**
+     * Reads a dictionary encoded column. The indices of string values
+     * are used as the codes of dictionary vector without decoding.
+     * Other value types are decoded.
+     */
+    private static smile.data.vector.ValueVector readDictionaryField(FieldVector fieldVector, Dictionary dictionary) {
+        if (!(dictionary.getVector() instanceof VarCharVector values)) {
+            try (FieldVector decoded = (FieldVector) DictionaryEncoder.decode(fieldVector, dictionary)) {
+                return readField(decoded);
+            }
+        }
+
+        int size = values.getValueCount();
+        String[] levels = new String[size];
+        for (int k = 0; k < size; k++) {
+            levels[k] = values.isNull(k) ? null : new String(values.get(k));
+        }
+
+        int count = fieldVector.getValueCount();
+        var name = fieldVector.getField().getName();
+        BaseIntVector indices = (BaseIntVector) fieldVector;
+        int[] codes = new int[count];
+        for (int i = 0; i < count; i++) {
+            codes[i] = indices.isNull(i) ? -1 : (int) indices.getValueAsLong(i);
+            if (codes[i] >= 0 && levels[codes[i]] == null) codes[i] = -1;
+        }
+
+        var field = new StructField(name, DataTypes.StringType);
+        return new smile.data.vector.DictionaryVector(field, codes, levels);
     }
 
     /** Writes an int column. */
-    private void writeIntField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeIntField(DataFrame df, FieldVector fieldVector, int from, int count) {
         var column = df.column(fieldVector.getField().getName());
         if (column.isNullable()) {
             writeNullableIntField(df, fieldVector, from, count);
@@ -750,14 +1108,14 @@ public class Arrow {
     }
 
     /** Writes a nullable int column. */
-    private void writeNullableIntField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeNullableIntField(DataFrame df, FieldVector fieldVector, int from, int count) {
         fieldVector.setInitialCapacity(count);
         fieldVector.allocateNew();
 
         IntVector vector = (IntVector) fieldVector;
         smile.data.vector.ValueVector column = df.column(fieldVector.getField().getName());
         for (int i = 0, j = from; i < count; i++, j++) {
-            Integer x = (Integer) column.get(i);
+            Integer x = (Integer) column.get(j);
             if (x == null) {
                 vector.setNull(i);
             } else {
@@ -770,7 +1128,7 @@ public class Arrow {
     }
 
     /** Writes a boolean column. */
-    private void writeBooleanField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeBooleanField(DataFrame df, FieldVector fieldVector, int from, int count) {
         var column = df.column(fieldVector.getField().getName());
         if (column.isNullable()) {
             writeNullableBooleanField(df, fieldVector, from, count);
@@ -789,14 +1147,14 @@ public class Arrow {
     }
 
     /** Writes a nullable boolean column. */
-    private void writeNullableBooleanField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeNullableBooleanField(DataFrame df, FieldVector fieldVector, int from, int count) {
         fieldVector.setInitialCapacity(count);
         fieldVector.allocateNew();
 
         BitVector vector = (BitVector) fieldVector;
         var column = df.column(fieldVector.getField().getName());
         for (int i = 0, j = from; i < count; i++, j++) {
-            Boolean x = (Boolean) column.get(i);
+            Boolean x = (Boolean) column.get(j);
             if (x == null) {
                 vector.setNull(i);
             } else {
@@ -809,7 +1167,7 @@ public class Arrow {
     }
 
     /** Writes a byte column. */
-    private void writeCharField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeCharField(DataFrame df, FieldVector fieldVector, int from, int count) {
         var column = df.column(fieldVector.getField().getName());
         if (column.isNullable()) {
             writeNullableCharField(df, fieldVector, from, count);
@@ -828,14 +1186,14 @@ public class Arrow {
     }
 
     /** Writes a nullable char column. */
-    private void writeNullableCharField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeNullableCharField(DataFrame df, FieldVector fieldVector, int from, int count) {
         fieldVector.setInitialCapacity(count);
         fieldVector.allocateNew();
 
         UInt2Vector vector = (UInt2Vector) fieldVector;
         var column = df.column(fieldVector.getField().getName());
         for (int i = 0, j = from; i < count; i++, j++) {
-            Character x = (Character) column.get(i);
+            Character x = (Character) column.get(j);
             if (x == null) {
                 vector.setNull(i);
             } else {
@@ -848,7 +1206,7 @@ public class Arrow {
     }
 
     /** Writes a byte column. */
-    private void writeByteField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeByteField(DataFrame df, FieldVector fieldVector, int from, int count) {
         var column = df.column(fieldVector.getField().getName());
         if (column.isNullable()) {
             writeNullableByteField(df, fieldVector, from, count);
@@ -867,14 +1225,14 @@ public class Arrow {
     }
 
     /** Writes a nullable byte column. */
-    private void writeNullableByteField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeNullableByteField(DataFrame df, FieldVector fieldVector, int from, int count) {
         fieldVector.setInitialCapacity(count);
         fieldVector.allocateNew();
 
         TinyIntVector vector = (TinyIntVector) fieldVector;
         var column = df.column(fieldVector.getField().getName());
         for (int i = 0, j = from; i < count; i++, j++) {
-            Byte x = (Byte) column.get(i);
+            Byte x = (Byte) column.get(j);
             if (x == null) {
                 vector.setNull(i);
             } else {
@@ -887,7 +1245,7 @@ public class Arrow {
     }
 
     /** Writes a short column. */
-    private void writeShortField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeShortField(DataFrame df, FieldVector fieldVector, int from, int count) {
         var column = df.column(fieldVector.getField().getName());
         if (column.isNullable()) {
             writeNullableShortField(df, fieldVector, from, count);
@@ -906,14 +1264,14 @@ public class Arrow {
     }
 
     /** Writes a nullable short column. */
-    private void writeNullableShortField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeNullableShortField(DataFrame df, FieldVector fieldVector, int from, int count) {
         fieldVector.setInitialCapacity(count);
         fieldVector.allocateNew();
 
         SmallIntVector vector = (SmallIntVector) fieldVector;
         var column = df.column(fieldVector.getField().getName());
         for (int i = 0, j = from; i < count; i++, j++) {
-            Short x = (Short) column.get(i);
+            Short x = (Short) column.get(j);
             if (x == null) {
                 vector.setNull(i);
             } else {
@@ -926,7 +1284,7 @@ public class Arrow {
     }
 
     /** Writes a long column. */
-    private void writeLongField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeLongField(DataFrame df, FieldVector fieldVector, int from, int count) {
         var column = df.column(fieldVector.getField().getName());
         if (column.isNullable()) {
             writeNullableLongField(df, fieldVector, from, count);
@@ -945,14 +1303,14 @@ public class Arrow {
     }
 
     /** Writes a nullable long column. */
-    private void writeNullableLongField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeNullableLongField(DataFrame df, FieldVector fieldVector, int from, int count) {
         fieldVector.setInitialCapacity(count);
         fieldVector.allocateNew();
 
         BigIntVector vector = (BigIntVector) fieldVector;
         var column = df.column(fieldVector.getField().getName());
         for (int i = 0, j = from; i < count; i++, j++) {
-            Long x = (Long) column.get(i);
+            Long x = (Long) column.get(j);
             if (x == null) {
                 vector.setNull(i);
             } else {
@@ -965,7 +1323,7 @@ public class Arrow {
     }
 
     /** Writes a float column. */
-    private void writeFloatField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeFloatField(DataFrame df, FieldVector fieldVector, int from, int count) {
         var column = df.column(fieldVector.getField().getName());
         if (column.isNullable()) {
             writeNullableFloatField(df, fieldVector, from, count);
@@ -984,14 +1342,14 @@ public class Arrow {
     }
 
     /** Writes a nullable float column. */
-    private void writeNullableFloatField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeNullableFloatField(DataFrame df, FieldVector fieldVector, int from, int count) {
         fieldVector.setInitialCapacity(count);
         fieldVector.allocateNew();
 
         Float4Vector vector  = (Float4Vector) fieldVector;
         var column = df.column(fieldVector.getField().getName());
         for (int i = 0, j = from; i < count; i++, j++) {
-            Float x = (Float) column.get(i);
+            Float x = (Float) column.get(j);
             if (x == null) {
                 vector.setNull(i);
             } else {
@@ -1004,7 +1362,7 @@ public class Arrow {
     }
 
     /** Writes a double column. */
-    private void writeDoubleField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeDoubleField(DataFrame df, FieldVector fieldVector, int from, int count) {
         var column = df.column(fieldVector.getField().getName());
         if (column.isNullable()) {
             writeNullableDoubleField(df, fieldVector, from, count);
@@ -1023,14 +1381,14 @@ public class Arrow {
     }
 
     /** Writes a nullable double column. */
-    private void writeNullableDoubleField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeNullableDoubleField(DataFrame df, FieldVector fieldVector, int from, int count) {
         fieldVector.setInitialCapacity(count);
         fieldVector.allocateNew();
 
         Float8Vector vector  = (Float8Vector) fieldVector;
         var column = df.column(fieldVector.getField().getName());
         for (int i = 0, j = from; i < count; i++, j++) {
-            Double x = (Double) column.get(i);
+            Double x = (Double) column.get(j);
             if (x == null) {
                 vector.setNull(i);
             } else {
@@ -1043,7 +1401,7 @@ public class Arrow {
     }
 
     /** Writes a string column. */
-    private void writeStringField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeStringField(DataFrame df, FieldVector fieldVector, int from, int count) {
         fieldVector.setInitialCapacity(count);
         fieldVector.allocateNew();
 
@@ -1063,7 +1421,7 @@ public class Arrow {
     }
 
     /** Writes a decimal column. */
-    private void writeDecimalField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeDecimalField(DataFrame df, FieldVector fieldVector, int from, int count) {
         fieldVector.setInitialCapacity(count);
         fieldVector.allocateNew();
 
@@ -1083,7 +1441,7 @@ public class Arrow {
     }
 
     /** Writes a date column. */
-    private void writeDateField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeDateField(DataFrame df, FieldVector fieldVector, int from, int count) {
         fieldVector.setInitialCapacity(count);
         fieldVector.allocateNew();
 
@@ -1103,7 +1461,7 @@ public class Arrow {
     }
 
     /** Writes a time column. */
-    private void writeTimeField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeTimeField(DataFrame df, FieldVector fieldVector, int from, int count) {
         fieldVector.setInitialCapacity(count);
         fieldVector.allocateNew();
 
@@ -1123,7 +1481,7 @@ public class Arrow {
     }
 
     /** Writes a datetime column. */
-    private void writeDateTimeField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeDateTimeField(DataFrame df, FieldVector fieldVector, int from, int count) {
         fieldVector.setInitialCapacity(count);
         fieldVector.allocateNew();
 
@@ -1143,7 +1501,7 @@ public class Arrow {
     }
 
     /** Writes a byte array column. */
-    private void writeByteArrayField(DataFrame df, FieldVector fieldVector, int from, int count) {
+    private static void writeByteArrayField(DataFrame df, FieldVector fieldVector, int from, int count) {
         fieldVector.setInitialCapacity(count);
         fieldVector.allocateNew();
 
@@ -0,0 +1,961 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.io;
+
+import java.io.Serial;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.types.Types;
+import smile.data.type.DataType;
+import smile.data.type.DataTypes;
+import smile.data.type.StructField;
+import smile.data.vector.*;
+import smile.util.Index;
+
+/**
+ * The value vector backed by Arrow buffers without copying. A vector
+ * may consist of several chunks, e.g. the record batches of an Arrow
+ * file, which are located by binary search of row offsets. It supports
+ * boolean, integer (8, 16, 32 and 64 bits, and unsigned 16 bits as char),
+ * floating point and UTF-8 string vectors.
+ * <p>
+ * The vector owns the Arrow buffers, which are off-heap and should be
+ * released by {@link #close()}. Selecting rows by {@link #get(Index)}
+ * returns a copy on the Java heap, which is also the serialized form
+ * of vector. The values of fixed width vectors can be updated in place
+ * unless the buffers are read only, e.g. mapped from a read only file.
+ * String vectors are read only.
+ *
+ * @author Haifeng Li
+ */
+public abstract class ArrowVector extends AbstractVector implements AutoCloseable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** The Arrow vectors of chunks. */
+    final transient FieldVector[] chunks;
+    /** The row offsets of chunks, with the total size as the last element. */
+    final int[] offsets;
+    /** The flag if the buffers are read only. */
+    boolean readOnly;
+
+    /**
+     * Constructor.
+     * @param field the struct field of vector.
+     * @param chunks the Arrow vectors of chunks.
+     */
+    ArrowVector(StructField field, FieldVector[] chunks) {
+        super(field);
+        this.chunks = chunks;
+        this.offsets = new int[chunks.length + 1];
+        for (int k = 0; k < chunks.length; k++) {
+            offsets[k + 1] = offsets[k] + chunks[k].getValueCount();
+        }
+    }
+
+    /**
+     * Returns true if the Arrow vectors of given type can be wrapped.
+     * @param type the minor type of Arrow vector.
+     * @return true if the Arrow vectors of given type can be wrapped.
+     */
+    public static boolean isSupported(Types.MinorType type) {
+        return switch (type) {
+            case BIT, TINYINT, SMALLINT, UINT2, INT, BIGINT, FLOAT4, FLOAT8, VARCHAR -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Wraps an Arrow vector. The returned vector takes the
+     * ownership of Arrow vector.
+     * @param vector the Arrow vector.
+     * @return the value vector.
+     */
+    public static ArrowVector of(FieldVector vector) {
+        return of(List.of(vector));
+    }
+
+    /**
+     * Wraps the chunks of a column. The returned vector takes the
+     * ownership of Arrow vectors.
+     * @param chunks the Arrow vectors of same field.
+     * @return the value vector.
+     */
+    public static ArrowVector of(List<? extends FieldVector> chunks) {
+        if (chunks.isEmpty()) {
+            throw new IllegalArgumentException("Empty chunks");
+        }
+
+        FieldVector first = chunks.getFirst();
+        Types.MinorType type = first.getMinorType();
+        List<FieldVector> nonEmpty = new ArrayList<>();
+        for (FieldVector chunk : chunks) {
+            if (chunk.getMinorType() != type) {
+                throw new IllegalArgumentException(String.format("Chunks of different types: %s vs %s", type, chunk.getMinorType()));
+            }
+
+            if (chunk.getValueCount() > 0 || (nonEmpty.isEmpty() && chunk == chunks.getLast())) {
+                nonEmpty.add(chunk);
+            } else {
+                chunk.close();
+            }
+        }
+
+        String name = first.getField().getName();
+        boolean nullable = first.getField().isNullable();
+        FieldVector[] array = nonEmpty.toArray(new FieldVector[0]);
+        return switch (type) {
+            case BIT -> new Bit(new StructField(name, nullable ? DataTypes.NullableBooleanType : DataTypes.BooleanType), array);
+            case TINYINT -> new TinyInt(new StructField(name, nullable ? DataTypes.NullableByteType : DataTypes.ByteType), array);
+            case SMALLINT -> new SmallInt(new StructField(name, nullable ? DataTypes.NullableShortType : DataTypes.ShortType), array);
+            case UINT2 -> new UInt2(new StructField(name, nullable ? DataTypes.NullableCharType : DataTypes.CharType), array);
+            case INT -> new Int(new StructField(name, nullable ? DataTypes.NullableIntType : DataTypes.IntType), array);
+            case BIGINT -> new BigInt(new StructField(name, nullable ? DataTypes.NullableLongType : DataTypes.LongType), array);
+            case FLOAT4 -> new Float4(new StructField(name, nullable ? DataTypes.NullableFloatType : DataTypes.FloatType), array);
+            case FLOAT8 -> new Float8(new StructField(name, nullable ? DataTypes.NullableDoubleType : DataTypes.DoubleType), array);
+            case VARCHAR -> new VarChar(new StructField(name, DataTypes.StringType), array);
+            default -> throw new UnsupportedOperationException("Unsupported Arrow vector type: " + type);
+        };
+    }
+
+    /**
+     * Returns the Arrow vectors of chunks. The Arrow vectors are
+     * owned by this vector and should not be closed by the caller.
+     * @return the Arrow vectors of chunks.
+     */
+    public List<FieldVector> chunks() {
+        return List.of(chunks);
+    }
+
+    /**
+     * Releases the Arrow buffers.
+     */
+    @Override
+    public void close() {
+        for (FieldVector chunk : chunks) {
+            chunk.close();
+        }
+    }
+
+    /**
+     * Returns the index of chunk that contains a row.
+     * @param i the row index.
+     * @return the index of chunk.
+     */
+    final int chunk(int i) {
+        if (chunks.length == 1) return 0;
+        int k = Arrays.binarySearch(offsets, i);
+        return k >= 0 ? k : -k - 2;
+    }
+
+    /**
+     * Returns the data buffer of the chunk that contains a row.
+     * @param k the index of chunk.
+     * @return the data buffer.
+     */
+    final ArrowBuf data(int k) {
+        return chunks[k].getDataBuffer();
+    }
+
+    /**
+     * Returns the null mask of rows.
+     * @param index the row index.
+     * @return the null mask.
+     */
+    final BitSet nullMask(Index index) {
+        int n = index.size();
+        BitSet mask = new BitSet(n);
+        if (isNullable()) {
+            for (int i = 0; i < n; i++) {
+                if (isNullAt(index.apply(i))) mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Checks the value to set.
+     * @param value the value.
+     * @return true if the value is null.
+     */
+    final boolean isNull(Object value) {
+        if (value == null) {
+            if (!isNullable()) {
+                throw new IllegalArgumentException("Null value for non-nullable field: " + field().name());
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the heap copy for serialization.
+     * @return the heap copy.
+     */
+    @Serial
+    Object writeReplace() {
+        return get(Index.range(0, size()));
+    }
+
+    @Override
+    public int size() {
+        return offsets[chunks.length];
+    }
+
+    @Override
+    public boolean isNullable() {
+        return field().dtype().isNullable();
+    }
+
+    @Override
+    public boolean isNullAt(int i) {
+        int k = chunk(i);
+        return chunks[k].isNull(i - offsets[k]);
+    }
+
+    @Override
+    public int getNullCount() {
+        int count = 0;
+        for (FieldVector chunk : chunks) {
+            count += chunk.getNullCount();
+        }
+        return count;
+    }
+
+    @Override
+    public Stream<?> stream() {
+        return IntStream.range(0, size()).mapToObj(this::get);
+    }
+
+    /**
+     * The vector of fixed width values.
+     */
+    abstract static class FixedWidth extends ArrowVector {
+        /**
+         * Constructor.
+         * @param field the struct field of vector.
+         * @param chunks the Arrow vectors of chunks.
+         */
+        FixedWidth(StructField field, FieldVector[] chunks) {
+            super(field, chunks);
+        }
+
+        @Override
+        public void set(int i, Object value) {
+            if (readOnly) {
+                throw new UnsupportedOperationException("Arrow vector is read only: " + name());
+            }
+
+            int k = chunk(i);
+            int j = i - offsets[k];
+            BaseFixedWidthVector chunk = (BaseFixedWidthVector) chunks[k];
+            if (isNull(value)) {
+                chunk.setNull(j);
+            } else {
+                set(chunk, j, value);
+                BitVectorHelper.setBit(chunk.getValidityBuffer(), j);
+            }
+        }
+
+        /**
+         * Sets the value in a chunk.
+         * @param chunk the Arrow vector of chunk.
+         * @param j the index in chunk.
+         * @param value the non-null value.
+         */
+        abstract void set(BaseFixedWidthVector chunk, int j, Object value);
+
+        /**
+         * Returns the number of value.
+         * @param value the value.
+         * @return the number.
+         */
+        static Number number(Object value) {
+            if (value instanceof Number n) return n;
+            throw new IllegalArgumentException("Invalid value type: " + value.getClass());
+        }
+    }
+
+    /**
+     * The vector of integral values.
+     */
+    abstract static class Integral extends FixedWidth {
+        /**
+         * Constructor.
+         * @param field the struct field of vector.
+         * @param chunks the Arrow vectors of chunks.
+         */
+        Integral(StructField field, FieldVector[] chunks) {
+            super(field, chunks);
+        }
+
+        @Override
+        public IntStream intStream() {
+            boolean nullable = isNullable();
+            return IntStream.range(0, size()).map(i -> nullable && isNullAt(i) ? Integer.MIN_VALUE : getInt(i));
+        }
+
+        @Override
+        public LongStream longStream() {
+            boolean nullable = isNullable();
+            return IntStream.range(0, size()).mapToLong(i -> nullable && isNullAt(i) ? Long.MIN_VALUE : getLong(i));
+        }
+
+        @Override
+        public DoubleStream doubleStream() {
+            boolean nullable = isNullable();
+            return IntStream.range(0, size()).mapToDouble(i -> nullable && isNullAt(i) ? Double.NaN : getLong(i));
+        }
+
+        @Override
+        public boolean getBoolean(int i) {
+            return getLong(i) != 0;
+        }
+
+        @Override
+        public char getChar(int i) {
+            return (char) getLong(i);
+        }
+
+        @Override
+        public byte getByte(int i) {
+            return (byte) getLong(i);
+        }
+
+        @Override
+        public short getShort(int i) {
+            return (short) getLong(i);
+        }
+
+        @Override
+        public int getInt(int i) {
+            return (int) getLong(i);
+        }
+
+        @Override
+        public float getFloat(int i) {
+            return getLong(i);
+        }
+
+        @Override
+        public double getDouble(int i) {
+            return getLong(i);
+        }
+    }
+
+    /**
+     * The vector of floating point values.
+     */
+    abstract static class FloatingPoint extends FixedWidth {
+        /**
+         * Constructor.
+         * @param field the struct field of vector.
+         * @param chunks the Arrow vectors of chunks.
+         */
+        FloatingPoint(StructField field, FieldVector[] chunks) {
+            super(field, chunks);
+        }
+
+        @Override
+        public DoubleStream doubleStream() {
+            boolean nullable = isNullable();
+            return IntStream.range(0, size()).mapToDouble(i -> nullable && isNullAt(i) ? Double.NaN : getDouble(i));
+        }
+
+        @Override
+        public boolean getBoolean(int i) {
+            return getDouble(i) != 0.0;
+        }
+
+        @Override
+        public char getChar(int i) {
+            return (char) getDouble(i);
+        }
+
+        @Override
+        public byte getByte(int i) {
+            return (byte) getDouble(i);
+        }
+
+        @Override
+        public short getShort(int i) {
+            return (short) getDouble(i);
+        }
+
+        @Override
+        public int getInt(int i) {
+            return (int) getDouble(i);
+        }
+
+        @Override
+        public long getLong(int i) {
+            return (long) getDouble(i);
+        }
+
+        @Override
+        public float getFloat(int i) {
+            return (float) getDouble(i);
+        }
+    }
+
+    /** The boolean vector. */
+    static class Bit extends FixedWidth {
+        /**
+         * Constructor.
+         * @param field the struct field of vector.
+         * @param chunks the Arrow vectors of chunks.
+         */
+        Bit(StructField field, FieldVector[] chunks) {
+            super(field, chunks);
+        }
+
+        @Override
+        public Bit withName(String name) {
+            Bit vector = new Bit(field().withName(name), chunks);
+            vector.readOnly = readOnly;
+            return vector;
+        }
+
+        @Override
+        public IntStream intStream() {
+            return IntStream.range(0, size()).map(i -> getBoolean(i) ? 1 : 0);
+        }
+
+        @Override
+        void set(BaseFixedWidthVector chunk, int j, Object value) {
+            if (value instanceof Boolean b) {
+                ((BitVector) chunk).set(j, b ? 1 : 0);
+            } else {
+                throw new IllegalArgumentException("Invalid value type: " + value.getClass());
+            }
+        }
+
+        @Override
+        public ValueVector get(Index index) {
+            int n = index.size();
+            boolean[] data = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                data[i] = getBoolean(index.apply(i));
+            }
+            return isNullable() ? new NullableBooleanVector(field(), data, nullMask(index)) : new BooleanVector(field(), data);
+        }
+
+        @Override
+        public Boolean get(int i) {
+            return isNullAt(i) ? null : getBoolean(i);
+        }
+
+        @Override
+        public boolean getBoolean(int i) {
+            int k = chunk(i);
+            return BitVectorHelper.get(data(k), i - offsets[k]) != 0;
+        }
+
+        @Override
+        public char getChar(int i) {
+            return getBoolean(i) ? 'T' : 'F';
+        }
+
+        @Override
+        public byte getByte(int i) {
+            return getBoolean(i) ? (byte) 1 : 0;
+        }
+
+        @Override
+        public short getShort(int i) {
+            return getBoolean(i) ? (short) 1 : 0;
+        }
+
+        @Override
+        public int getInt(int i) {
+            return getBoolean(i) ? 1 : 0;
+        }
+
+        @Override
+        public long getLong(int i) {
+            return getBoolean(i) ? 1 : 0;
+        }
+
+        @Override
+        public float getFloat(int i) {
+            return getBoolean(i) ? 1 : 0;
+        }
+
+        @Override
+        public double getDouble(int i) {
+            return getBoolean(i) ? 1 : 0;
+        }
+    }
+
+    /** The byte vector. */
+    static class TinyInt extends Integral {
+        /**
+         * Constructor.
+         * @param field the struct field of vector.
+         * @param chunks the Arrow vectors of chunks.
+         */
+        TinyInt(StructField field, FieldVector[] chunks) {
+            super(field, chunks);
+        }
+
+        @Override
+        public TinyInt withName(String name) {
+            TinyInt vector = new TinyInt(field().withName(name), chunks);
+            vector.readOnly = readOnly;
+            return vector;
+        }
+
+        @Override
+        void set(BaseFixedWidthVector chunk, int j, Object value) {
+            chunk.getDataBuffer().setByte(j, number(value).byteValue());
+        }
+
+        @Override
+        public ValueVector get(Index index) {
+            int n = index.size();
+            byte[] data = new byte[n];
+            for (int i = 0; i < n; i++) {
+                data[i] = getByte(index.apply(i));
+            }
+            return isNullable() ? new NullableByteVector(field(), data, nullMask(index)) : new ByteVector(field(), data);
+        }
+
+        @Override
+        public Byte get(int i) {
+            return isNullAt(i) ? null : getByte(i);
+        }
+
+        @Override
+        public byte getByte(int i) {
+            int k = chunk(i);
+            return data(k).getByte(i - offsets[k]);
+        }
+
+        @Override
+        public long getLong(int i) {
+            return getByte(i);
+        }
+    }
+
+    /** The short vector. */
+    static class SmallInt extends Integral {
+        /**
+         * Constructor.
+         * @param field the struct field of vector.
+         * @param chunks the Arrow vectors of chunks.
+         */
+        SmallInt(StructField field, FieldVector[] chunks) {
+            super(field, chunks);
+        }
+
+        @Override
+        public SmallInt withName(String name) {
+            SmallInt vector = new SmallInt(field().withName(name), chunks);
+            vector.readOnly = readOnly;
+            return vector;
+        }
+
+        @Override
+        void set(BaseFixedWidthVector chunk, int j, Object value) {
+            chunk.getDataBuffer().setShort((long) j * Short.BYTES, number(value).shortValue());
+        }
+
+        @Override
+        public ValueVector get(Index index) {
+            int n = index.size();
+            short[] data = new short[n];
+            for (int i = 0; i < n; i++) {
+                data[i] = getShort(index.apply(i));
+            }
+            return isNullable() ? new NullableShortVector(field(), data, nullMask(index)) : new ShortVector(field(), data);
+        }
+
+        @Override
+        public Short get(int i) {
+            return isNullAt(i) ? null : getShort(i);
+        }
+
+        @Override
+        public short getShort(int i) {
+            int k = chunk(i);
+            return data(k).getShort((long) (i - offsets[k]) * Short.BYTES);
+        }
+
+        @Override
+        public long getLong(int i) {
+            return getShort(i);
+        }
+    }
+
+    /** The char vector of unsigned 16-bit integers. */
+    static class UInt2 extends Integral {
+        /**
+         * Constructor.
+         * @param field the struct field of vector.
+         * @param chunks the Arrow vectors of chunks.
+         */
+        UInt2(StructField field, FieldVector[] chunks) {
+            super(field, chunks);
+        }
+
+        @Override
+        public UInt2 withName(String name) {
+            UInt2 vector = new UInt2(field().withName(name), chunks);
+            vector.readOnly = readOnly;
+            return vector;
+        }
+
+        @Override
+        void set(BaseFixedWidthVector chunk, int j, Object value) {
+            char c = value instanceof Character x ? x : (char) number(value).intValue();
+            chunk.getDataBuffer().setChar((long) j * Character.BYTES, c);
+        }
+
+        @Override
+        public ValueVector get(Index index) {
+            int n = index.size();
+            char[] data = new char[n];
+            for (int i = 0; i < n; i++) {
+                data[i] = getChar(index.apply(i));
+            }
+            return isNullable() ? new NullableCharVector(field(), data, nullMask(index)) : new CharVector(field(), data);
+        }
+
+        @Override
+        public Character get(int i) {
+            return isNullAt(i) ? null : getChar(i);
+        }
+
+        @Override
+        public char getChar(int i) {
+            int k = chunk(i);
+            return data(k).getChar((long) (i - offsets[k]) * Character.BYTES);
+        }
+
+        @Override
+        public long getLong(int i) {
+            return getChar(i);
+        }
+    }
+
+    /** The int vector. */
+    static class Int extends Integral {
+        /**
+         * Constructor.
+         * @param field the struct field of vector.
+         * @param chunks the Arrow vectors of chunks.
+         */
+        Int(StructField field, FieldVector[] chunks) {
+            super(field, chunks);
+        }
+
+        @Override
+        public Int withName(String name) {
+            Int vector = new Int(field().withName(name), chunks);
+            vector.readOnly = readOnly;
+            return vector;
+        }
+
+        @Override
+        void set(BaseFixedWidthVector chunk, int j, Object value) {
+            chunk.getDataBuffer().setInt((long) j * Integer.BYTES, number(value).intValue());
+        }
+
+        @Override
+        public ValueVector get(Index index) {
+            int n = index.size();
+            int[] data = new int[n];
+            for (int i = 0; i < n; i++) {
+                data[i] = getInt(index.apply(i));
+            }
+            return isNullable() ? new NullableIntVector(field(), data, nullMask(index)) : new IntVector(field(), data);
+        }
+
+        @Override
+        public Integer get(int i) {
+            return isNullAt(i) ? null : getInt(i);
+        }
+
+        @Override
+        public int getInt(int i) {
+            int k = chunk(i);
+            return data(k).getInt((long) (i - offsets[k]) * Integer.BYTES);
+        }
+
+        @Override
+        public long getLong(int i) {
+            return getInt(i);
+        }
+    }
+
+    /** The long vector. */
+    static class BigInt extends Integral {
+        /**
+         * Constructor.
+         * @param field the struct field of vector.
+         * @param chunks the Arrow vectors of chunks.
+         */
+        BigInt(StructField field, FieldVector[] chunks) {
+            super(field, chunks);
+        }
+
+        @Override
+        public BigInt withName(String name) {
+            BigInt vector = new BigInt(field().withName(name), chunks);
+            vector.readOnly = readOnly;
+            return vector;
+        }
+
+        @Override
+        void set(BaseFixedWidthVector chunk, int j, Object value) {
+            chunk.getDataBuffer().setLong((long) j * Long.BYTES, number(value).longValue());
+        }
+
+        @Override
+        public ValueVector get(Index index) {
+            int n = index.size();
+            long[] data = new long[n];
+            for (int i = 0; i < n; i++) {
+                data[i] = getLong(index.apply(i));
+            }
+            return isNullable() ? new NullableLongVector(field(), data, nullMask(index)) : new LongVector(field(), data);
+        }
+
+        @Override
+        public Long get(int i) {
+            return isNullAt(i) ? null : getLong(i);
+        }
+
+        @Override
+        public long getLong(int i) {
+            int k = chunk(i);
+            return data(k).getLong((long) (i - offsets[k]) * Long.BYTES);
+        }
+    }
+
+    /** The float vector. */
+    static class Float4 extends FloatingPoint {
+        /**
+         * Constructor.
+         * @param field the struct field of vector.
+         * @param chunks the Arrow vectors of chunks.
+         */
+        Float4(StructField field, FieldVector[] chunks) {
+            super(field, chunks);
+        }
+
+        @Override
+        public Float4 withName(String name) {
+            Float4 vector = new Float4(field().withName(name), chunks);
+            vector.readOnly = readOnly;
+            return vector;
+        }
+
+        @Override
+        void set(BaseFixedWidthVector chunk, int j, Object value) {
+            chunk.getDataBuffer().setFloat((long) j * Float.BYTES, number(value).floatValue());
+        }
+
+        @Override
+        public ValueVector get(Index index) {
+            int n = index.size();
+            float[] data = new float[n];
+            for (int i = 0; i < n; i++) {
+                data[i] = getFloat(index.apply(i));
+            }
+            return isNullable() ? new NullableFloatVector(field(), data, nullMask(index)) : new FloatVector(field(), data);
+        }
+
+        @Override
+        public Float get(int i) {
+            return isNullAt(i) ? null : getFloat(i);
+        }
+
+        @Override
+        public float getFloat(int i) {
+            int k = chunk(i);
+            return data(k).getFloat((long) (i - offsets[k]) * Float.BYTES);
+        }
+
+        @Override
+        public double getDouble(int i) {
+            return getFloat(i);
+        }
+    }
+
+    /** The double vector. */
+    static class Float8 extends FloatingPoint {
+        /**
+         * Constructor.
+         * @param field the struct field of vector.
+         * @param chunks the Arrow vectors of chunks.
+         */
+        Float8(StructField field, FieldVector[] chunks) {
+            super(field, chunks);
+        }
+
+        @Override
+        public Float8 withName(String name) {
+            Float8 vector = new Float8(field().withName(name), chunks);
+            vector.readOnly = readOnly;
+            return vector;
+        }
+
+        @Override
+        void set(BaseFixedWidthVector chunk, int j, Object value) {
+            chunk.getDataBuffer().setDouble((long) j * Double.BYTES, number(value).doubleValue());
+        }
+
+        @Override
+        public ValueVector get(Index index) {
+            int n = index.size();
+            double[] data = new double[n];
+            for (int i = 0; i < n; i++) {
+                data[i] = getDouble(index.apply(i));
+            }
+            return isNullable() ? new NullableDoubleVector(field(), data, nullMask(index)) : new DoubleVector(field(), data);
+        }
+
+        @Override
+        public Double get(int i) {
+            return isNullAt(i) ? null : getDouble(i);
+        }
+
+        @Override
+        public double getDouble(int i) {
+            int k = chunk(i);
+            return data(k).getDouble((long) (i - offsets[k]) * Double.BYTES);
+        }
+    }
+
+    /** The UTF-8 string vector. */
+    static class VarChar extends ArrowVector {
+        /**
+         * Constructor.
+         * @param field the struct field of vector.
+         * @param chunks the Arrow vectors of chunks.
+         */
+        VarChar(StructField field, FieldVector[] chunks) {
+            super(field, chunks);
+        }
+
+        @Override
+        public boolean isNullable() {
+            // String type is always nullable.
+            return true;
+        }
+
+        @Override
+        public VarChar withName(String name) {
+            VarChar vector = new VarChar(field().withName(name), chunks);
+            vector.readOnly = readOnly;
+            return vector;
+        }
+
+        @Override
+        public void set(int i, Object value) {
+            throw new UnsupportedOperationException("Arrow string vector is read only");
+        }
+
+        @Override
+        public ValueVector get(Index index) {
+            int n = index.size();
+            String[] data = new String[n];
+            for (int i = 0; i < n; i++) {
+                data[i] = get(index.apply(i));
+            }
+            return new StringVector(field(), data);
+        }
+
+        @Override
+        public String get(int i) {
+            int k = chunk(i);
+            int j = i - offsets[k];
+            VarCharVector chunk = (VarCharVector) chunks[k];
+            return chunk.isNull(j) ? null : new String(chunk.get(j), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public IntStream intStream() {
+            return IntStream.range(0, size()).mapToObj(this::get).filter(s -> s != null).mapToInt(Integer::parseInt);
+        }
+
+        @Override
+        public LongStream longStream() {
+            return IntStream.range(0, size()).mapToObj(this::get).filter(s -> s != null).mapToLong(Long::parseLong);
+        }
+
+        @Override
+        public DoubleStream doubleStream() {
+            return IntStream.range(0, size()).mapToObj(this::get).filter(s -> s != null).mapToDouble(Double::parseDouble);
+        }
+
+        @Override
+        public boolean getBoolean(int i) {
+            return Boolean.parseBoolean(get(i));
+        }
+
+        @Override
+        public char getChar(int i) {
+            String s = get(i);
+            return s.isEmpty() ? '\u0000' : s.charAt(0);
+        }
+
+        @Override
+        public byte getByte(int i) {
+            return Byte.parseByte(get(i));
+        }
+
+        @Override
+        public short getShort(int i) {
+            return Short.parseShort(get(i));
+        }
+
+        @Override
+        public int getInt(int i) {
+            return Integer.parseInt(get(i));
+        }
+
+        @Override
+        public long getLong(int i) {
+            return Long.parseLong(get(i));
+        }
+
+        @Override
+        public float getFloat(int i) {
+            return Float.parseFloat(get(i));
+        }
+
+        @Override
+        public double getDouble(int i) {
+            return Double.parseDouble(get(i));
+        }
+    }
+}
@@ -24,6 +24,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileStream;
@@ -130,21 +131,74 @@ public class Avro {
             while (dataFileReader.hasNext() && rows.size() < limit) {
                 // Reuse the record to save memory
                 record = dataFileReader.next(record);
-                Object[] row = new Object[struct.length()];
-                for (int i = 0; i < row.length; i++) {
-                    row[i] = record.get(struct.field(i).name());
-                    if (row[i] instanceof Utf8) {
-                        String str = row[i].toString();
-                        Measure measure = struct.field(i).measure();
-                        row[i] = measure != null ? measure.valueOf(str) : str;
-                    }
-                }
-                rows.add(Tuple.of(struct, row));
+                rows.add(toTuple(record, struct));
             }
             return DataFrame.of(struct, rows);
         }
     }
 
+    /**
+     * Returns a lazy stream of data frame chunks of an avro file, so that
+     * a file larger than the heap can be processed chunk by chunk. The
+     * stream should be closed after use to release the file.
+     *
+     * @param path the input file path.
+     * @param size the number of rows in a chunk.
+     * @throws IOException when fails to read the file.
+     * @return the stream of data frame chunks.
+     */
+    public Stream<DataFrame> stream(Path path, int size) throws IOException {
+        return Chunks.open(Files.newInputStream(path), input -> stream(input, size));
+    }
+
+    /**
+     * Returns a lazy stream of data frame chunks of an avro file.
+     *
+     * @param path the input file path.
+     * @param size the number of rows in a chunk.
+     * @throws IOException when fails to read the file.
+     * @throws URISyntaxException when the file path syntax is wrong.
+     * @return the stream of data frame chunks.
+     */
+    public Stream<DataFrame> stream(String path, int size) throws IOException, URISyntaxException {
+        return Chunks.open(HadoopInput.stream(path), input -> stream(input, size));
+    }
+
+    /**
+     * Returns a lazy stream of data frame chunks of an avro file.
+     *
+     * @param input the input stream of data file.
+     * @param size the number of rows in a chunk.
+     * @throws IOException when fails to read the file.
+     * @return the stream of data frame chunks.
+     */
+    public Stream<DataFrame> stream(InputStream input, int size) throws IOException {
+        Chunks.check(size);
+        DatumReader<GenericRecord> datumReader = new GenericDatumReader<>(schema);
+        DataFileStream<GenericRecord> dataFileReader = new DataFileStream<>(input, datumReader);
+        StructType struct = toStructType(schema);
+        return Chunks.of(struct, () -> dataFileReader.hasNext() ? toTuple(dataFileReader.next(), struct) : null, size, dataFileReader);
+    }
+
+    /**
+     * Converts an avro record to tuple.
+     * @param record the avro record.
+     * @param struct the schema of tuple.
+     * @return the tuple.
+     */
+    private static Tuple toTuple(GenericRecord record, StructType struct) {
+        Object[] row = new Object[struct.length()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = record.get(struct.field(i).name());
+            if (row[i] instanceof Utf8) {
+                String str = row[i].toString();
+                Measure measure = struct.field(i).measure();
+                row[i] = measure != null ? measure.valueOf(str) : str;
+            }
+        }
+        return Tuple.of(struct, row);
+    }
+
     /**
      * Converts an avro type to smile data type.
      * @param schema an avro schema.
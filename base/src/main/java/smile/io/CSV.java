@@ -28,6 +28,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Stream;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
@@ -129,13 +130,25 @@ public class CSV {
     }
 
     /**
-     * Reads a limited number of records from a CSV file.
+     * Reads a limited number of records from a CSV file. If the format
+     * has a single character delimiter, no escape character and no null
+     * string, and the charset is ASCII compatible, the file is memory
+     * mapped and parsed in parallel chunks, and the schema, if not set,
+     * is inferred from all records in the same pass. Otherwise, the
+     * schema is inferred from the top 1000 rows.
      * @param path the input file path.
      * @param limit the number of records to read.
      * @throws IOException when fails to read the file.
      * @return the data frame.
      */
     public DataFrame read(Path path, int limit) throws IOException {
+        CSVReader reader = reader();
+        if (reader != null) {
+            DataFrame data = reader.read(path, schema, limit);
+            schema = data.schema();
+            return data;
+        }
+
         if (schema == null) {
             // infer the schema from top 1000 rows.
             schema = inferSchema(Files.newBufferedReader(path, charset), Math.min(1000, limit));
@@ -144,6 +157,28 @@ public class CSV {
         return read(Files.newBufferedReader(path, charset), limit);
     }
 
+    /**
+     * Returns the parallel reader if the format is supported.
+     * @return the parallel reader, or null if the format is not supported.
+     */
+    private CSVReader reader() {
+        String delimiter = format.getDelimiterString();
+        Character quote = format.getQuoteCharacter();
+        Character comment = format.getCommentMarker();
+        if (delimiter.length() != 1 || delimiter.charAt(0) > 127 || delimiter.charAt(0) == '\n' || delimiter.charAt(0) == '\r'
+                || (quote != null && quote > 127) || (comment != null && comment > 127)
+                || format.getEscapeCharacter() != null || format.getNullString() != null
+                || format.getTrailingDelimiter() || !format.getIgnoreEmptyLines()
+                || !CSVReader.isSupported(charset)) {
+            return null;
+        }
+
+        String[] header = format.getHeader();
+        boolean skip = header != null && (header.length == 0 || format.getSkipHeaderRecord());
+        String[] names = header == null || header.length == 0 ? null : header;
+        return new CSVReader(delimiter.charAt(0), quote, comment, charset, skip, names);
+    }
+
     private DataFrame read(Reader reader, int limit) throws IOException {
         if (schema == null) {
             // infer the schema from top 1000 rows.
@@ -158,13 +193,7 @@ public class CSV {
             boolean[] missing = new boolean[schema.length()];
 
             for (CSVRecord record : csv) {
-                Object[] row = new Object[fields.size()];
-                for (int i = 0; i < fields.size(); i++) {
-                    String s = record.get(i).trim();
-                    if (!s.isEmpty()) {
-                        row[i] = parser.get(i).apply(s);
-                    }
-                }
+                Object[] row = parse(record, parser);
 
                 // Check any missing values
                 for (int j = 0; j < fields.size(); j++) {
@@ -205,6 +234,84 @@ public class CSV {
         }
     }
 
+    /**
+     * Parses a record.
+     * @param record the CSV record.
+     * @param parser the parsers of fields.
+     * @return the row.
+     */
+    private static Object[] parse(CSVRecord record, List<Function<String, Object>> parser) {
+        Object[] row = new Object[parser.size()];
+        for (int i = 0; i < row.length; i++) {
+            String s = record.get(i).trim();
+            if (!s.isEmpty()) {
+                row[i] = parser.get(i).apply(s);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Returns a lazy stream of data frame chunks of a CSV file, so that
+     * a file larger than the heap can be processed chunk by chunk. If the
+     * schema is not set, it is inferred from the top 1000 rows with
+     * nullable primitive types, which is shared by all chunks. The stream
+     * should be closed after use to release the file.
+     * @param path the input file path.
+     * @param size the number of rows in a chunk.
+     * @throws IOException when fails to read the file.
+     * @return the stream of data frame chunks.
+     */
+    public Stream<DataFrame> stream(Path path, int size) throws IOException {
+        Chunks.check(size);
+        StructType struct = schema;
+        if (struct == null) {
+            try (Reader reader = Files.newBufferedReader(path, charset)) {
+                struct = Chunks.nullable(inferSchema(reader, 1000));
+            }
+        }
+
+        StructType chunkSchema = struct;
+        return Chunks.open(Files.newBufferedReader(path, charset), reader -> stream(reader, chunkSchema, size));
+    }
+
+    /**
+     * Returns a lazy stream of data frame chunks of a CSV file.
+     * @param path the input file path.
+     * @param size the number of rows in a chunk.
+     * @throws IOException when fails to read the file.
+     * @throws URISyntaxException when the file path syntax is wrong.
+     * @return the stream of data frame chunks.
+     * @see #stream(Path, int)
+     */
+    public Stream<DataFrame> stream(String path, int size) throws IOException, URISyntaxException {
+        Chunks.check(size);
+        StructType struct = schema;
+        if (struct == null) {
+            try (Reader reader = Input.reader(path, charset)) {
+                struct = Chunks.nullable(inferSchema(reader, 1000));
+            }
+        }
+
+        StructType chunkSchema = struct;
+        return Chunks.open(Input.reader(path, charset), reader -> stream(reader, chunkSchema, size));
+    }
+
+    /**
+     * Returns a lazy stream of data frame chunks.
+     * @param reader the file reader.
+     * @param schema the schema of chunks.
+     * @param size the number of rows in a chunk.
+     * @throws IOException when fails to read the file.
+     * @return the stream of data frame chunks.
+     */
+    private Stream<DataFrame> stream(Reader reader, StructType schema, int size) throws IOException {
+        List<Function<String, Object>> parser = schema.parser();
+        CSVParser csv = CSVParser.parse(reader, format);
+        Iterator<CSVRecord> records = csv.iterator();
+        return Chunks.of(schema, () -> records.hasNext() ? Tuple.of(schema, parse(records.next(), parser)) : null, size, csv);
+    }
+
     /**
      * Infer the schema from the top n rows.
      * <ol>
@@ -270,6 +377,26 @@ public class CSV {
      * @throws IOException when fails to write the file.
      */
     public void write(DataFrame data, Path path) throws IOException {
+        write(Stream.of(data), path);
+    }
+
+    /**
+     * Writes a stream of data frame chunks to a csv file with UTF-8 encoding.
+     * The chunks are pulled from the stream one at a time, so that the
+     * memory footprint is bounded by the chunk size no matter how large
+     * the output is. The header is taken from the schema of first chunk.
+     *
+     * @param chunks the data frame chunks.
+     * @param path the output file path.
+     * @throws IOException when fails to write the file.
+     */
+    public void write(Stream<DataFrame> chunks, Path path) throws IOException {
+        Iterator<DataFrame> iterator = chunks.iterator();
+        if (!iterator.hasNext()) {
+            throw new IllegalArgumentException("Empty data");
+        }
+
+        DataFrame data = iterator.next();
         int p = data.schema().length();
         String[] header = new String[p];
         for (int i = 0; i < p; i++) {
@@ -279,11 +406,16 @@ public class CSV {
         List<String> record = new ArrayList<>(p);
         try (CSVPrinter printer = format.print(path, charset)) {
             printer.printRecord((Object[]) header);
-            for (int i = 0; i < data.size(); i++) {
-                Tuple row = data.get(i);
-                for (int j = 0; j < p; j++) record.add(row.getString(j));
-                printer.printRecord(record);
-                record.clear();
+            while (true) {
+                for (int i = 0; i < data.size(); i++) {
+                    Tuple row = data.get(i);
+                    for (int j = 0; j < p; j++) record.add(row.getString(j));
+                    printer.printRecord(record);
+                    record.clear();
+                }
+
+                if (!iterator.hasNext()) break;
+                data = iterator.next();
             }
         }
     }
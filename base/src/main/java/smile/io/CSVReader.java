@@ -0,0 +1,1276 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import smile.data.DataFrame;
+import smile.data.type.DataType;
+import smile.data.type.DataTypes;
+import smile.data.type.StructField;
+import smile.data.type.StructType;
+import smile.data.vector.*;
+
+/**
+ * The parallel reader of local CSV files, which parses the bytes
+ * straight into columns. The file is memory mapped and split into
+ * chunks at record boundaries, which are parsed in parallel. Numbers
+ * are parsed from the bytes without creating strings, and are written
+ * into growable primitive columns with null masks. If the schema is
+ * not given, the column types are inferred in the same pass with the
+ * rules of {@link DataType#infer} and {@link DataType#coerce}.
+ * <p>
+ * It supports a subset of CSV formats: a single byte delimiter, an
+ * optional quote character that is recognized only at the beginning
+ * of fields, optional comment lines, and ASCII compatible charsets.
+ * Empty lines are ignored. The values are trimmed. Empty values and
+ * missing trailing fields are null.
+ *
+ * @author Haifeng Li
+ */
+class CSVReader {
+    /** The default chunk size in bytes. */
+    private static final int CHUNK = 16 << 20;
+    /** The buffer size of sequential scan. */
+    private static final int BUFFER = 1 << 20;
+    /** The token class of non-numbers. */
+    private static final int OTHER = 0;
+    /** The token class of integers, see {@link smile.util.Regex#INTEGER}. */
+    private static final int INT = 1;
+    /** The token class of long integers, see {@link smile.util.Regex#LONG}. */
+    private static final int LONG = 2;
+    /** The token class of floating numbers, see {@link smile.util.Regex#DOUBLE}. */
+    private static final int DOUBLE = 3;
+    /** The powers of ten that are exact in double precision. */
+    private static final double[] POW10 = {
+            1E0, 1E1, 1E2, 1E3, 1E4, 1E5, 1E6, 1E7, 1E8, 1E9, 1E10, 1E11,
+            1E12, 1E13, 1E14, 1E15, 1E16, 1E17, 1E18, 1E19, 1E20, 1E21, 1E22
+    };
+
+    /** The storage of column values. */
+    private enum Kind {
+        /** No values but nulls yet. */
+        NONE,
+        /** int array. */
+        INT,
+        /** long array. */
+        LONG,
+        /** float array. */
+        FLOAT,
+        /** double array. */
+        DOUBLE,
+        /** Object array. */
+        OBJECT
+    }
+
+    /** The field delimiter. */
+    private final byte delimiter;
+    /** The quote character, or {@code Integer.MIN_VALUE} if none, which never equals a byte. */
+    private final int quote;
+    /** The comment marker, or {@code Integer.MIN_VALUE} if none. */
+    private final int comment;
+    /** The charset of file. */
+    private final Charset charset;
+    /** If true, the first record is the header. */
+    private final boolean header;
+    /** The column names. If null, the names are read from the header or generated. */
+    private final String[] names;
+    /** The chunk size in bytes. */
+    private final int chunkSize;
+
+    /**
+     * Constructor.
+     * @param delimiter the field delimiter.
+     * @param quote the quote character, or null if none.
+     * @param comment the comment marker, or null if none.
+     * @param charset the charset of file, which should be ASCII compatible.
+     * @param header if true, the first record is the header.
+     * @param names the column names. If null, the names are read from
+     *              the header or generated.
+     */
+    CSVReader(char delimiter, Character quote, Character comment, Charset charset, boolean header, String[] names) {
+        this(delimiter, quote, comment, charset, header, names, CHUNK);
+    }
+
+    /**
+     * Constructor.
+     * @param delimiter the field delimiter.
+     * @param quote the quote character, or null if none.
+     * @param comment the comment marker, or null if none.
+     * @param charset the charset of file, which should be ASCII compatible.
+     * @param header if true, the first record is the header.
+     * @param names the column names. If null, the names are read from
+     *              the header or generated.
+     * @param chunkSize the chunk size in bytes.
+     */
+    CSVReader(char delimiter, Character quote, Character comment, Charset charset, boolean header, String[] names, int chunkSize) {
+        if (delimiter > 127 || (quote != null && quote > 127) || (comment != null && comment > 127)) {
+            throw new IllegalArgumentException("Non-ASCII delimiter, quote or comment marker");
+        }
+
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+
+        this.delimiter = (byte) delimiter;
+        this.quote = quote == null ? Integer.MIN_VALUE : quote;
+        this.comment = comment == null ? Integer.MIN_VALUE : comment;
+        this.charset = charset;
+        this.header = header;
+        this.names = names;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Returns true if the charset is supported, i.e. the ASCII
+     * characters are encoded as single bytes.
+     * @param charset the charset.
+     * @return true if the charset is supported.
+     */
+    static boolean isSupported(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII) || charset.equals(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Reads a limited number of records from a CSV file.
+     * @param path the input file path.
+     * @param schema the data schema. If null, the schema is inferred.
+     * @param limit the number of records to read.
+     * @throws IOException when fails to read the file.
+     * @return the data frame.
+     */
+    DataFrame read(Path path, StructType schema, int limit) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            // Reads the first record, which may be longer than the buffer.
+            Tokenizer tokenizer;
+            List<String> first = new ArrayList<>();
+            for (int length = (int) Math.min(size, BUFFER); ; length = (int) Math.min(size, 2L * length)) {
+                tokenizer = new Tokenizer(read(channel, 0, length));
+                first.clear();
+                if (tokenizer.nextRecord()) {
+                    while (tokenizer.nextField()) {
+                        String field = tokenizer.string();
+                        first.add(field == null ? "" : field);
+                    }
+                }
+
+                if (length == size || (!first.isEmpty() && tokenizer.terminated)) break;
+            }
+
+            if (first.isEmpty()) {
+                throw new IOException("Empty file");
+            }
+
+            long start = 0;
+
+            if (header) {
+                // skip the header record
+                start = Math.min(tokenizer.pos, size);
+            }
+
+            String[] columns = names;
+            if (columns == null) {
+                if (header) {
+                    columns = first.toArray(new String[0]);
+                } else {
+                    columns = new String[first.size()];
+                    for (int i = 0; i < columns.length; i++) {
+                        columns[i] = String.format("V%d", i + 1);
+                    }
+                }
+            }
+
+            StructField[] fields = schema == null ? null : schema.fields().toArray(new StructField[0]);
+            int p = fields == null ? columns.length : fields.length;
+
+            List<long[]> ranges = split(channel, start, size);
+            Chunk[] chunks;
+            try {
+                if (limit == Integer.MAX_VALUE) {
+                    chunks = ranges.parallelStream()
+                            .map(range -> parse(channel, range[0], range[1], fields, p, Integer.MAX_VALUE))
+                            .toArray(Chunk[]::new);
+                } else {
+                    // A limited read stops at the first chunks.
+                    List<Chunk> list = new ArrayList<>();
+                    int n = 0;
+                    for (long[] range : ranges) {
+                        if (n >= limit) break;
+                        Chunk chunk = parse(channel, range[0], range[1], fields, p, limit - n);
+                        list.add(chunk);
+                        n += chunk.size;
+                    }
+                    chunks = list.toArray(new Chunk[0]);
+                }
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+
+            int n = 0;
+            for (Chunk chunk : chunks) {
+                n += chunk.size;
+            }
+
+            ValueVector[] vectors = new ValueVector[p];
+            for (int j = 0; j < p; j++) {
+                DataType type = null;
+                StructField field;
+                if (fields == null) {
+                    for (Chunk chunk : chunks) {
+                        type = DataType.coerce(type, chunk.columns[j].type);
+                    }
+                    field = new StructField(columns[j], type == null ? DataTypes.StringType : type);
+                } else {
+                    field = fields[j];
+                }
+
+                // Align the storage of chunks, which may be inferred differently.
+                Kind kind = kind(field);
+                for (Chunk chunk : chunks) {
+                    final int column = j;
+                    chunk.columns[j].convert(kind, () -> {
+                        try {
+                            return strings(read(channel, chunk.start, (int) (chunk.end - chunk.start)), column, chunk.size);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    });
+                }
+
+                vectors[j] = concat(field, kind, chunks, j, n, fields == null);
+            }
+
+            return new DataFrame(vectors);
+        }
+    }
+
+    /**
+     * Reads a range of file.
+     * @param channel the file channel.
+     * @param start the start position.
+     * @param length the number of bytes.
+     * @throws IOException when fails to read the file.
+     * @return the bytes.
+     */
+    private static byte[] read(FileChannel channel, long start, int length) throws IOException {
+        byte[] buf = new byte[length];
+        channel.map(FileChannel.MapMode.READ_ONLY, start, length).get(buf);
+        return buf;
+    }
+
+    /**
+     * Splits the file into chunks at record boundaries. Without quotes,
+     * the boundary is the first line end after the target chunk size.
+     * Otherwise, the file is scanned sequentially to skip the line
+     * ends in quoted fields, which is much faster than parsing.
+     * @param channel the file channel.
+     * @param start the position of first record.
+     * @param size the file size.
+     * @throws IOException when fails to read the file.
+     * @return the ranges of chunks.
+     */
+    private List<long[]> split(FileChannel channel, long start, long size) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER);
+        boolean quoted = false;
+        boolean commented = false;
+        // The previous byte out of quotes, and the position of last closing quote.
+        byte prev = '\n';
+        long closed = -2;
+        long position = start;
+        long chunkStart = start;
+        while (chunkStart < size) {
+            long target = chunkStart + chunkSize;
+            if (target >= size) {
+                chunks.add(new long[]{chunkStart, size});
+                break;
+            }
+
+            long end = -1;
+            if (quote < 0) position = Math.max(position, target);
+            while (end < 0 && position < size) {
+                buffer.clear();
+                int length = channel.read(buffer, position);
+                if (length <= 0) {
+                    position = size;
+                    break;
+                }
+
+                byte[] buf = buffer.array();
+                int i = 0;
+                while (i < length) {
+                    if (quoted) {
+                        while (i < length && buf[i] != quote) i++;
+                        if (i < length) {
+                            quoted = false;
+                            closed = position + i;
+                            prev = buf[i++];
+                        }
+                    } else if (commented) {
+                        while (i < length && buf[i] != '\n') i++;
+                        if (i < length) {
+                            commented = false;
+                            prev = buf[i++];
+                        }
+                    } else {
+                        byte b = buf[i];
+                        if (b == '\n') {
+                            if (position + i >= target) {
+                                end = position + i + 1;
+                                break;
+                            }
+                        } else if (b == quote) {
+                            // an escaped quote reopens the quoted field.
+                            quoted = prev == delimiter || prev == '\n' || closed == position + i - 1;
+                        } else if (b == comment) {
+                            commented = prev == '\n';
+                        }
+                        prev = b;
+                        i++;
+                    }
+                }
+                position = end >= 0 ? end : position + length;
+            }
+
+            if (end < 0) end = size;
+            chunks.add(new long[]{chunkStart, end});
+            chunkStart = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Parses a chunk of file.
+     * @param channel the file channel.
+     * @param start the start position of chunk.
+     * @param end the end position of chunk.
+     * @param fields the schema fields, or null to infer the types.
+     * @param p the number of columns.
+     * @param limit the number of records to read.
+     * @return the parsed chunk.
+     */
+    private Chunk parse(FileChannel channel, long start, long end, StructField[] fields, int p, int limit) {
+        byte[] buf;
+        try {
+            buf = read(channel, start, (int) (end - start));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        Column[] columns = new Column[p];
+        for (int j = 0; j < p; j++) {
+            columns[j] = fields == null ? new Column(null, Kind.NONE) : new Column(fields[j].dtype(), kind(fields[j]));
+        }
+
+        Tokenizer tokenizer = new Tokenizer(buf);
+        int size = 0;
+        while (size < limit && tokenizer.nextRecord()) {
+            int j = 0;
+            for (; tokenizer.nextField(); j++) {
+                if (j < p) {
+                    if (fields == null) {
+                        infer(columns[j], j, tokenizer);
+                    } else {
+                        parse(columns[j], fields[j], tokenizer);
+                    }
+                }
+            }
+
+            for (; j < p; j++) {
+                columns[j].addNull();
+            }
+
+            if (++size == 64 && limit > size) {
+                // Presizes the columns by the record density of the first records.
+                long n = (long) buf.length * size / tokenizer.pos;
+                n = Math.min(limit, Math.min(Integer.MAX_VALUE - 8, n + (n >> 4) + 16));
+                for (Column column : columns) {
+                    column.reserve((int) n);
+                }
+            }
+        }
+
+        return new Chunk(start, end, size, columns);
+    }
+
+    /**
+     * Appends a field to a column of which the type is inferred.
+     * @param column the column.
+     * @param j the column index.
+     * @param tokenizer the tokenizer at the field.
+     */
+    private void infer(Column column, int j, Tokenizer tokenizer) {
+        byte[] buf = tokenizer.buf;
+        int start = tokenizer.start;
+        int end = tokenizer.end;
+
+        if (!tokenizer.quoted) {
+            if (start == end) {
+                column.addNull();
+                return;
+            }
+
+            int token = column.isString() ? OTHER : classify(buf, start, end);
+            if (token != OTHER) {
+                promote(column, token == INT ? DataTypes.IntType : token == LONG ? DataTypes.LongType : DataTypes.DoubleType, buf, j);
+                switch (column.kind) {
+                    case INT -> column.addInt(parseInt(buf, start, end));
+                    case LONG -> column.addLong(parseLong(buf, start, end));
+                    case DOUBLE -> column.addDouble(parseDouble(buf, start, end));
+                    default -> column.addObject(tokenizer.string());
+                }
+                return;
+            }
+        }
+
+        String s = tokenizer.string();
+        if (s == null) {
+            column.addNull();
+            return;
+        }
+
+        if (column.isString()) {
+            // No more inference once a column is string.
+            column.addObject(s);
+            return;
+        }
+
+        promote(column, DataType.infer(s), buf, j);
+        switch (column.kind) {
+            case INT -> column.addInt(Integer.parseInt(s));
+            case LONG -> column.addLong(Long.parseLong(s));
+            case DOUBLE -> column.addDouble(Double.parseDouble(s));
+            default -> column.addObject(s);
+        }
+    }
+
+    /**
+     * Coerces the inferred type of column with the type of new value.
+     * @param column the column.
+     * @param dtype the type of new value.
+     * @param buf the chunk buffer.
+     * @param j the column index.
+     */
+    private void promote(Column column, DataType dtype, byte[] buf, int j) {
+        if (column.type != dtype && DataType.coerce(column.type, dtype) != column.type) {
+            column.promote(dtype, () -> strings(buf, j, column.size));
+        }
+    }
+
+    /**
+     * Appends a field to a column of given type.
+     * @param column the column.
+     * @param field the column field.
+     * @param tokenizer the tokenizer at the field.
+     */
+    private void parse(Column column, StructField field, Tokenizer tokenizer) {
+        byte[] buf = tokenizer.buf;
+        int start = tokenizer.start;
+        int end = tokenizer.end;
+        if (!tokenizer.quoted && start == end) {
+            column.addNull();
+            return;
+        }
+
+        int token = tokenizer.quoted ? OTHER : classify(buf, start, end);
+        if (column.kind == Kind.INT && token == INT) {
+            column.addInt(parseInt(buf, start, end));
+        } else if (column.kind == Kind.LONG && (token == INT || token == LONG)) {
+            column.addLong(parseLong(buf, start, end));
+        } else if (column.kind == Kind.DOUBLE && token != OTHER) {
+            column.addDouble(parseDouble(buf, start, end));
+        } else {
+            String s = tokenizer.string();
+            if (s == null) {
+                column.addNull();
+                return;
+            }
+
+            switch (column.kind) {
+                case INT -> column.addInt(Integer.parseInt(s));
+                case LONG -> column.addLong(Long.parseLong(s));
+                case FLOAT -> column.addFloat(Float.parseFloat(s));
+                case DOUBLE -> column.addDouble(Double.parseDouble(s));
+                default -> {
+                    Object value = field.valueOf(s);
+                    if (value == null) {
+                        column.addNull();
+                    } else {
+                        column.addObject(value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the values of a column in a chunk as strings, which
+     * is used when the column turns out to be non-numeric.
+     * @param buf the chunk buffer.
+     * @param j the column index.
+     * @param size the number of records.
+     * @return the strings of column.
+     */
+    private String[] strings(byte[] buf, int j, int size) {
+        String[] values = new String[size];
+        Tokenizer tokenizer = new Tokenizer(buf);
+        for (int i = 0; i < size && tokenizer.nextRecord(); i++) {
+            for (int k = 0; tokenizer.nextField(); k++) {
+                if (k == j) values[i] = tokenizer.string();
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns the storage kind of field.
+     * @param field the field.
+     * @return the storage kind.
+     */
+    private static Kind kind(StructField field) {
+        if (field.measure() != null) return Kind.OBJECT;
+        return switch (field.dtype().id()) {
+            case Int -> Kind.INT;
+            case Long -> Kind.LONG;
+            case Float -> Kind.FLOAT;
+            case Double -> Kind.DOUBLE;
+            default -> Kind.OBJECT;
+        };
+    }
+
+    /**
+     * Returns the nullable field of primitive type.
+     * @param field the field.
+     * @return the nullable field.
+     */
+    private static StructField nullable(StructField field) {
+        DataType dtype = field.dtype();
+        if (!dtype.isPrimitive() || dtype.isNullable()) return field;
+
+        DataType type = switch (dtype.id()) {
+            case Int -> DataTypes.NullableIntType;
+            case Long -> DataTypes.NullableLongType;
+            case Float -> DataTypes.NullableFloatType;
+            case Double -> DataTypes.NullableDoubleType;
+            case Boolean -> DataTypes.NullableBooleanType;
+            case Byte -> DataTypes.NullableByteType;
+            case Short -> DataTypes.NullableShortType;
+            case Char -> DataTypes.NullableCharType;
+            default -> dtype;
+        };
+        return new StructField(field.name(), type, field.measure());
+    }
+
+    /**
+     * Concatenates a column of chunks.
+     * @param field the column field.
+     * @param kind the storage kind.
+     * @param chunks the chunks.
+     * @param j the column index.
+     * @param n the total number of rows.
+     * @param inferred true if the values of object columns are strings
+     *                 to be parsed.
+     * @return the column vector.
+     */
+    private static ValueVector concat(StructField field, Kind kind, Chunk[] chunks, int j, int n, boolean inferred) {
+        BitSet nulls = new BitSet(n);
+        int offset = 0;
+        for (Chunk chunk : chunks) {
+            BitSet bits = chunk.columns[j].nulls;
+            for (int i = bits.nextSetBit(0); i >= 0 && i < chunk.size; i = bits.nextSetBit(i + 1)) {
+                nulls.set(offset + i);
+            }
+            offset += chunk.size;
+        }
+
+        if (!nulls.isEmpty()) {
+            field = nullable(field);
+        }
+        boolean nullable = field.dtype().isNullable();
+
+        switch (kind) {
+            case INT -> {
+                int[] values = new int[n];
+                copy(chunks, j, Kind.INT, values);
+                for (int i = nulls.nextSetBit(0); i >= 0; i = nulls.nextSetBit(i + 1)) values[i] = Integer.MIN_VALUE;
+                return nullable ? new NullableIntVector(field, values, nulls) : new IntVector(field, values);
+            }
+
+            case LONG -> {
+                long[] values = new long[n];
+                copy(chunks, j, Kind.LONG, values);
+                for (int i = nulls.nextSetBit(0); i >= 0; i = nulls.nextSetBit(i + 1)) values[i] = Long.MIN_VALUE;
+                return nullable ? new NullableLongVector(field, values, nulls) : new LongVector(field, values);
+            }
+
+            case FLOAT -> {
+                float[] values = new float[n];
+                copy(chunks, j, Kind.FLOAT, values);
+                for (int i = nulls.nextSetBit(0); i >= 0; i = nulls.nextSetBit(i + 1)) values[i] = Float.NaN;
+                return nullable ? new NullableFloatVector(field, values, nulls) : new FloatVector(field, values);
+            }
+
+            case DOUBLE -> {
+                double[] values = new double[n];
+                copy(chunks, j, Kind.DOUBLE, values);
+                for (int i = nulls.nextSetBit(0); i >= 0; i = nulls.nextSetBit(i + 1)) values[i] = Double.NaN;
+                return nullable ? new NullableDoubleVector(field, values, nulls) : new DoubleVector(field, values);
+            }
+
+            default -> {
+                Object[] values = new Object[n];
+                copy(chunks, j, Kind.OBJECT, values);
+                if (inferred && field.dtype().id() != DataType.ID.String) {
+                    for (int i = 0; i < n; i++) {
+                        if (values[i] != null) values[i] = field.valueOf((String) values[i]);
+                    }
+                }
+                return vector(field, values, nulls);
+            }
+        }
+    }
+
+    /**
+     * Copies the values of chunks to the column array.
+     * @param chunks the chunks.
+     * @param j the column index.
+     * @param kind the storage kind.
+     * @param values the column array.
+     */
+    private static void copy(Chunk[] chunks, int j, Kind kind, Object values) {
+        int offset = 0;
+        for (Chunk chunk : chunks) {
+            Column column = chunk.columns[j];
+            if (column.kind == kind) {
+                Object array = switch (kind) {
+                    case INT -> column.ints;
+                    case LONG -> column.longs;
+                    case FLOAT -> column.floats;
+                    case DOUBLE -> column.doubles;
+                    default -> column.objects;
+                };
+                System.arraycopy(array, 0, values, offset, chunk.size);
+            }
+            offset += chunk.size;
+        }
+    }
+
+    /**
+     * Returns the column vector of objects.
+     * @param field the column field.
+     * @param values the column values.
+     * @param nulls the null mask.
+     * @return the column vector.
+     */
+    private static ValueVector vector(StructField field, Object[] values, BitSet nulls) {
+        int n = values.length;
+        boolean nullable = field.dtype().isNullable();
+        return switch (field.dtype().id()) {
+            case Boolean -> {
+                boolean[] data = new boolean[n];
+                for (int i = 0; i < n; i++) if (values[i] != null) data[i] = (Boolean) values[i];
+                yield nullable ? new NullableBooleanVector(field, data, nulls) : new BooleanVector(field, data);
+            }
+            case Char -> {
+                char[] data = new char[n];
+                for (int i = 0; i < n; i++) if (values[i] != null) data[i] = (Character) values[i];
+                yield nullable ? new NullableCharVector(field, data, nulls) : new CharVector(field, data);
+            }
+            case Byte -> {
+                byte[] data = new byte[n];
+                for (int i = 0; i < n; i++) data[i] = values[i] == null ? Byte.MIN_VALUE : ((Number) values[i]).byteValue();
+                yield nullable ? new NullableByteVector(field, data, nulls) : new ByteVector(field, data);
+            }
+            case Short -> {
+                short[] data = new short[n];
+                for (int i = 0; i < n; i++) data[i] = values[i] == null ? Short.MIN_VALUE : ((Number) values[i]).shortValue();
+                yield nullable ? new NullableShortVector(field, data, nulls) : new ShortVector(field, data);
+            }
+            case Int -> {
+                int[] data = new int[n];
+                for (int i = 0; i < n; i++) data[i] = values[i] == null ? Integer.MIN_VALUE : ((Number) values[i]).intValue();
+                yield nullable ? new NullableIntVector(field, data, nulls) : new IntVector(field, data);
+            }
+            case Long -> {
+                long[] data = new long[n];
+                for (int i = 0; i < n; i++) data[i] = values[i] == null ? Long.MIN_VALUE : ((Number) values[i]).longValue();
+                yield nullable ? new NullableLongVector(field, data, nulls) : new LongVector(field, data);
+            }
+            case Float -> {
+                float[] data = new float[n];
+                for (int i = 0; i < n; i++) data[i] = values[i] == null ? Float.NaN : ((Number) values[i]).floatValue();
+                yield nullable ? new NullableFloatVector(field, data, nulls) : new FloatVector(field, data);
+            }
+            case Double -> {
+                double[] data = new double[n];
+                for (int i = 0; i < n; i++) data[i] = values[i] == null ? Double.NaN : ((Number) values[i]).doubleValue();
+                yield nullable ? new NullableDoubleVector(field, data, nulls) : new DoubleVector(field, data);
+            }
+            case String -> {
+                String[] data = new String[n];
+                System.arraycopy(values, 0, data, 0, n);
+                yield DictionaryVector.of(field, data);
+            }
+            case Decimal -> {
+                BigDecimal[] data = new BigDecimal[n];
+                System.arraycopy(values, 0, data, 0, n);
+                yield new NumberVector<>(field, data);
+            }
+            default -> new ObjectVector<>(field, values);
+        };
+    }
+
+    /**
+     * Returns the class of token, which follows the regular expressions
+     * used in {@link DataType#infer}.
+     * @param buf the buffer.
+     * @param start the start of token.
+     * @param end the end of token.
+     * @return the token class.
+     */
+    private static int classify(byte[] buf, int start, int end) {
+        int i = start;
+        if (buf[i] == '-' || buf[i] == '+') i++;
+        int digits = i;
+        while (i < end && isDigit(buf[i])) i++;
+        digits = i - digits;
+
+        if (i == end) {
+            if (digits == 0) return OTHER;
+            return digits <= 9 ? INT : digits <= 19 ? LONG : DOUBLE;
+        }
+
+        if (buf[i] == '.') {
+            int fraction = ++i;
+            while (i < end && isDigit(buf[i])) i++;
+            if (i == fraction) return OTHER;
+        } else if (digits == 0) {
+            return OTHER;
+        }
+
+        if (i < end && (buf[i] == 'e' || buf[i] == 'E')) {
+            i++;
+            if (i < end && (buf[i] == '-' || buf[i] == '+')) i++;
+            int exponent = i;
+            while (i < end && isDigit(buf[i])) i++;
+            if (i == exponent) return OTHER;
+        }
+
+        return i == end ? DOUBLE : OTHER;
+    }
+
+    /**
+     * Returns true if the byte is an ASCII digit.
+     * @param b the byte.
+     * @return true if the byte is an ASCII digit.
+     */
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Parses an integer token of at most 9 digits.
+     * @param buf the buffer.
+     * @param start the start of token.
+     * @param end the end of token.
+     * @return the value.
+     */
+    private static int parseInt(byte[] buf, int start, int end) {
+        int i = start;
+        boolean negative = buf[i] == '-';
+        if (negative || buf[i] == '+') i++;
+        int value = 0;
+        for (; i < end; i++) {
+            value = value * 10 + (buf[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a long integer token of at most 19 digits.
+     * @param buf the buffer.
+     * @param start the start of token.
+     * @param end the end of token.
+     * @return the value.
+     */
+    private static long parseLong(byte[] buf, int start, int end) {
+        int i = start;
+        boolean negative = buf[i] == '-';
+        if (negative || buf[i] == '+') i++;
+        if (end - i > 18) {
+            // may overflow
+            return Long.parseLong(new String(buf, start, end - start, StandardCharsets.ISO_8859_1));
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            value = value * 10 + (buf[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a numeric token. If the decimal significand is less than
+     * 2<sup>53</sup> and the decimal exponent is at most 22 in magnitude,
+     * the value is computed by a single correctly rounded multiplication
+     * or division of exact doubles (Clinger's fast path). Otherwise, it
+     * falls back to {@link Double#parseDouble}.
+     * @param buf the buffer.
+     * @param start the start of token.
+     * @param end the end of token.
+     * @return the value.
+     */
+    private static double parseDouble(byte[] buf, int start, int end) {
+        int i = start;
+        boolean negative = buf[i] == '-';
+        if (negative || buf[i] == '+') i++;
+
+        long significand = 0;
+        int digits = 0;
+        int exponent = 0;
+        for (; i < end && isDigit(buf[i]); i++) {
+            significand = significand * 10 + (buf[i] - '0');
+            if (significand > 0) digits++;
+        }
+
+        if (i < end && buf[i] == '.') {
+            for (i++; i < end && isDigit(buf[i]); i++) {
+                significand = significand * 10 + (buf[i] - '0');
+                if (significand > 0) digits++;
+                exponent--;
+            }
+        }
+
+        if (i < end) {
+            // the exponent part
+            i++;
+            boolean negativeExponent = buf[i] == '-';
+            if (negativeExponent || buf[i] == '+') i++;
+            if (end - i > 4) {
+                return Double.parseDouble(new String(buf, start, end - start, StandardCharsets.ISO_8859_1));
+            }
+
+            int e = 0;
+            for (; i < end; i++) {
+                e = e * 10 + (buf[i] - '0');
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+
+        if (digits > 18 || significand >= (1L << 53) || exponent < -22 || exponent > 22) {
+            return Double.parseDouble(new String(buf, start, end - start, StandardCharsets.ISO_8859_1));
+        }
+
+        double value = significand;
+        value = exponent < 0 ? value / POW10[-exponent] : value * POW10[exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * The tokenizer of records and fields in a buffer.
+     */
+    private class Tokenizer {
+        /** The buffer. */
+        final byte[] buf;
+        /** The current position. */
+        int pos;
+        /** The start of current field. */
+        int start;
+        /** The end of current field. */
+        int end;
+        /** True if the current field is quoted. */
+        boolean quoted;
+        /** True if the current quoted field has escaped quotes. */
+        boolean escaped;
+        /** True if the current record has no more fields. */
+        boolean endOfRecord = true;
+        /**
+         * True if the current record ends with a line break in the buffer.
+         * Otherwise, the record may be truncated by the end of buffer.
+         */
+        boolean terminated;
+
+        /**
+         * Constructor.
+         * @param buf the buffer.
+         */
+        Tokenizer(byte[] buf) {
+            this.buf = buf;
+        }
+
+        /**
+         * Moves to the next record, skipping empty and comment lines.
+         * @return false if there are no more records.
+         */
+        boolean nextRecord() {
+            int length = buf.length;
+            while (pos < length) {
+                byte b = buf[pos];
+                if (b == '\n') {
+                    pos++;
+                } else if (b == '\r' && (pos + 1 == length || buf[pos + 1] == '\n')) {
+                    pos++;
+                } else if (b == comment) {
+                    while (pos < length && buf[pos] != '\n') pos++;
+                } else {
+                    endOfRecord = false;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Moves to the next field of current record. Unquoted fields
+         * are trimmed.
+         * @return false if there are no more fields in the record.
+         */
+        boolean nextField() {
+            if (endOfRecord) return false;
+
+            int length = buf.length;
+            int i = pos;
+            if (i < length && buf[i] == quote) {
+                quoted = true;
+                escaped = false;
+                start = ++i;
+                end = length;
+                while (i < length) {
+                    if (buf[i] == quote) {
+                        if (i + 1 < length && buf[i + 1] == quote) {
+                            escaped = true;
+                            i += 2;
+                        } else {
+                            end = i++;
+                            break;
+                        }
+                    } else {
+                        i++;
+                    }
+                }
+
+                while (i < length && buf[i] != delimiter && buf[i] != '\n') i++;
+            } else {
+                quoted = false;
+                while (i < length && buf[i] != delimiter && buf[i] != '\n') i++;
+                start = pos;
+                end = i;
+                while (start < end && (buf[start] & 0xFF) <= ' ') start++;
+                while (end > start && (buf[end - 1] & 0xFF) <= ' ') end--;
+            }
+
+            if (i >= length || buf[i] == '\n') {
+                endOfRecord = true;
+                terminated = i < length;
+            }
+            pos = i + 1;
+            return true;
+        }
+
+        /**
+         * Returns the current field as a trimmed string.
+         * @return the string, or null if the field is empty.
+         */
+        String string() {
+            if (start == end) return null;
+
+            String s = new String(buf, start, end - start, charset);
+            if (quoted) {
+                if (escaped) {
+                    String q = String.valueOf((char) quote);
+                    s = s.replace(q + q, q);
+                }
+                s = s.trim();
+                if (s.isEmpty()) return null;
+            }
+            return s;
+        }
+    }
+
+    /**
+     * A parsed chunk of file.
+     */
+    private static class Chunk {
+        /** The start position of chunk in the file. */
+        final long start;
+        /** The end position of chunk in the file. */
+        final long end;
+        /** The number of records. */
+        final int size;
+        /** The columns. */
+        final Column[] columns;
+
+        /**
+         * Constructor.
+         * @param start the start position of chunk in the file.
+         * @param end the end position of chunk in the file.
+         * @param size the number of records.
+         * @param columns the columns.
+         */
+        Chunk(long start, long end, int size, Column[] columns) {
+            this.start = start;
+            this.end = end;
+            this.size = size;
+            this.columns = columns;
+        }
+    }
+
+    /**
+     * The growable column of a chunk with null mask.
+     */
+    private static class Column {
+        /** The data type. Null if the type is inferred and all values are null so far. */
+        DataType type;
+        /** The storage kind. */
+        Kind kind;
+        /** The number of values. */
+        int size;
+        /** The int values. */
+        int[] ints;
+        /** The long values. */
+        long[] longs;
+        /** The float values. */
+        float[] floats;
+        /** The double values. */
+        double[] doubles;
+        /** The objects or unparsed strings. */
+        Object[] objects;
+        /** The null mask. */
+        final BitSet nulls = new BitSet();
+        /** The expected number of values. */
+        int expected = 16;
+
+        /**
+         * Constructor.
+         * @param type the data type, or null if inferred.
+         * @param kind the storage kind.
+         */
+        Column(DataType type, Kind kind) {
+            this.type = type;
+            this.kind = kind;
+            allocate(16);
+        }
+
+        /**
+         * Allocates the storage.
+         * @param capacity the capacity.
+         */
+        private void allocate(int capacity) {
+            switch (kind) {
+                case INT -> ints = new int[capacity];
+                case LONG -> longs = new long[capacity];
+                case FLOAT -> floats = new float[capacity];
+                case DOUBLE -> doubles = new double[capacity];
+                case OBJECT -> objects = new Object[capacity];
+                case NONE -> {}
+            }
+        }
+
+        /**
+         * Returns the capacity of storage.
+         * @return the capacity of storage.
+         */
+        private int capacity() {
+            return switch (kind) {
+                case INT -> ints.length;
+                case LONG -> longs.length;
+                case FLOAT -> floats.length;
+                case DOUBLE -> doubles.length;
+                case OBJECT -> objects.length;
+                case NONE -> Integer.MAX_VALUE;
+            };
+        }
+
+        /**
+         * Returns the capacity to grow to.
+         * @return the capacity to grow to.
+         */
+        private int newCapacity() {
+            return Math.max(expected, size + (size >> 1) + 16);
+        }
+
+        /**
+         * Resizes the storage.
+         * @param capacity the new capacity.
+         */
+        private void resize(int capacity) {
+            switch (kind) {
+                case INT -> ints = Arrays.copyOf(ints, capacity);
+                case LONG -> longs = Arrays.copyOf(longs, capacity);
+                case FLOAT -> floats = Arrays.copyOf(floats, capacity);
+                case DOUBLE -> doubles = Arrays.copyOf(doubles, capacity);
+                case OBJECT -> objects = Arrays.copyOf(objects, capacity);
+                case NONE -> {}
+            }
+        }
+
+        /**
+         * Grows the storage if it is full.
+         */
+        private void ensureCapacity() {
+            if (size >= capacity()) {
+                resize(newCapacity());
+            }
+        }
+
+        /**
+         * Reserves the storage for the expected number of values.
+         * @param n the expected number of values.
+         */
+        void reserve(int n) {
+            expected = n;
+            if (n > capacity()) {
+                resize(n);
+            }
+        }
+
+        /**
+         * Returns true if the column is inferred as string.
+         * @return true if the column is inferred as string.
+         */
+        boolean isString() {
+            return type != null && type.id() == DataType.ID.String;
+        }
+
+        /** Appends a null. */
+        void addNull() {
+            ensureCapacity();
+            nulls.set(size++);
+        }
+
+        /**
+         * Appends an int value.
+         * @param x the value.
+         */
+        void addInt(int x) {
+            if (size == ints.length) ensureCapacity();
+            ints[size++] = x;
+        }
+
+        /**
+         * Appends a long value.
+         * @param x the value.
+         */
+        void addLong(long x) {
+            if (size == longs.length) ensureCapacity();
+            longs[size++] = x;
+        }
+
+        /**
+         * Appends a float value.
+         * @param x the value.
+         */
+        void addFloat(float x) {
+            if (size == floats.length) ensureCapacity();
+            floats[size++] = x;
+        }
+
+        /**
+         * Appends a double value.
+         * @param x the value.
+         */
+        void addDouble(double x) {
+            if (size == doubles.length) ensureCapacity();
+            doubles[size++] = x;
+        }
+
+        /**
+         * Appends an object.
+         * @param x the value.
+         */
+        void addObject(Object x) {
+            if (size == objects.length) ensureCapacity();
+            objects[size++] = x;
+        }
+
+        /**
+         * Coerces the inferred type with the type of new value.
+         * @param dtype the type of new value.
+         * @param strings the supplier of column values as strings.
+         */
+        void promote(DataType dtype, Supplier<String[]> strings) {
+            DataType coerced = DataType.coerce(type, dtype);
+            if (coerced == type) return;
+
+            type = coerced;
+            convert(switch (coerced.id()) {
+                case Int -> Kind.INT;
+                case Long -> Kind.LONG;
+                case Double -> Kind.DOUBLE;
+                default -> Kind.OBJECT;
+            }, strings);
+        }
+
+        /**
+         * Converts the storage. Integers are widened to double.
+         * Numbers are converted to the strings in the file.
+         * @param target the target storage kind.
+         * @param strings the supplier of column values as strings.
+         */
+        void convert(Kind target, Supplier<String[]> strings) {
+            if (target == kind || kind == Kind.NONE) {
+                if (kind == Kind.NONE) {
+                    kind = target;
+                    allocate(newCapacity());
+                }
+                return;
+            }
+
+            int capacity = newCapacity();
+            switch (target) {
+                case DOUBLE -> {
+                    double[] values = new double[capacity];
+                    if (kind == Kind.INT) {
+                        for (int i = 0; i < size; i++) values[i] = ints[i];
+                    } else if (kind == Kind.LONG) {
+                        for (int i = 0; i < size; i++) values[i] = longs[i];
+                    } else {
+                        throw new IllegalStateException("Cannot convert " + kind + " to " + target);
+                    }
+                    doubles = values;
+                }
+
+                case OBJECT -> {
+                    objects = new Object[capacity];
+                    System.arraycopy(strings.get(), 0, objects, 0, size);
+                }
+
+                default -> throw new IllegalStateException("Cannot convert " + kind + " to " + target);
+            }
+
+            ints = null;
+            longs = null;
+            floats = null;
+            if (target != Kind.DOUBLE) doubles = null;
+            kind = target;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import smile.data.DataFrame;
+import smile.data.Tuple;
+import smile.data.type.DataType;
+import smile.data.type.DataTypes;
+import smile.data.type.StructField;
+import smile.data.type.StructType;
+import smile.util.Index;
+
+/**
+ * Helper functions of the lazy streams of data frame chunks. A chunk
+ * is read only when the stream consumer asks for it, so that a file
+ * larger than the heap can be processed at a fixed memory footprint.
+ * All chunks share the same schema and have the given number of rows
+ * except the last one.
+ *
+ * @author Haifeng Li
+ */
+interface Chunks {
+    /**
+     * The source of rows.
+     */
+    @FunctionalInterface
+    interface Rows {
+        /**
+         * Returns the next row.
+         * @throws IOException when fails to read the row.
+         * @return the next row, or null at the end of input.
+         */
+        Tuple next() throws IOException;
+    }
+
+    /**
+     * The function that opens a stream on an input.
+     * @param <T> the type of input.
+     */
+    @FunctionalInterface
+    interface Opener<T> {
+        /**
+         * Returns the stream of data frame chunks of an input.
+         * @param input the input.
+         * @throws IOException when fails to read the input.
+         * @return the stream of data frame chunks.
+         */
+        Stream<DataFrame> open(T input) throws IOException;
+    }
+
+    /**
+     * Opens a stream on an input, which is closed with the stream.
+     * If the stream fails to open, e.g. on an invalid file header,
+     * the input is closed before the exception is thrown.
+     * @param input the input.
+     * @param opener the function that opens a stream on the input.
+     * @param <T> the type of input.
+     * @throws IOException when fails to read the input.
+     * @return the stream of data frame chunks.
+     */
+    static <T extends Closeable> Stream<DataFrame> open(T input, Opener<T> opener) throws IOException {
+        try {
+            return opener.open(input);
+        } catch (IOException | RuntimeException ex) {
+            try {
+                input.close();
+            } catch (IOException e) {
+                ex.addSuppressed(e);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Checks the chunk size.
+     * @param size the number of rows in a chunk.
+     */
+    static void check(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid chunk size: " + size);
+        }
+    }
+
+    /**
+     * Returns a lazy stream of data frame chunks of rows.
+     * @param schema the schema of rows.
+     * @param rows the source of rows.
+     * @param size the number of rows in a chunk.
+     * @param input the input to close with the stream.
+     * @return the stream of data frame chunks.
+     */
+    static Stream<DataFrame> of(StructType schema, Rows rows, int size, Closeable input) {
+        check(size);
+        var chunks = new Spliterators.AbstractSpliterator<DataFrame>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super DataFrame> action) {
+                try {
+                    List<Tuple> chunk = new ArrayList<>(Math.min(size, 65536));
+                    Tuple row;
+                    while (chunk.size() < size && (row = rows.next()) != null) {
+                        chunk.add(row);
+                    }
+
+                    if (chunk.isEmpty()) return false;
+                    action.accept(DataFrame.of(schema, chunk));
+                    return true;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        };
+
+        return StreamSupport.stream(chunks, false).onClose(() -> {
+            try {
+                input.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * Splits and merges a stream of data frame batches, e.g. the row
+     * groups of a file, into chunks of given size. A chunk within a
+     * batch is a slice of the batch. A chunk across batches is merged
+     * row by row.
+     * @param batches the stream of data frame batches with same schema.
+     * @param size the number of rows in a chunk.
+     * @return the stream of data frame chunks.
+     */
+    static Stream<DataFrame> rechunk(Stream<DataFrame> batches, int size) {
+        check(size);
+        Iterator<DataFrame> iterator = batches.iterator();
+        var chunks = new Spliterators.AbstractSpliterator<DataFrame>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            /** The current batch. */
+            DataFrame batch;
+            /** The index of next row in the current batch. */
+            int offset;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super DataFrame> action) {
+                List<DataFrame> slices = new ArrayList<>();
+                int n = 0;
+                while (n < size) {
+                    if (batch == null || offset >= batch.size()) {
+                        if (!iterator.hasNext()) break;
+                        batch = iterator.next();
+                        offset = 0;
+                        continue;
+                    }
+
+                    int k = Math.min(size - n, batch.size() - offset);
+                    slices.add(offset == 0 && k == batch.size() ? batch : batch.get(Index.range(offset, offset + k)));
+                    offset += k;
+                    n += k;
+                }
+
+                if (slices.isEmpty()) return false;
+                DataFrame chunk = slices.getFirst();
+                if (slices.size() > 1) {
+                    chunk = chunk.concat(slices.subList(1, slices.size()).toArray(new DataFrame[0]));
+                }
+                action.accept(chunk);
+                return true;
+            }
+        };
+
+        return StreamSupport.stream(chunks, false).onClose(batches::close);
+    }
+
+    /**
+     * Returns the schema with nullable primitive types. As the schema
+     * inferred from the top rows is shared by all chunks, the columns
+     * are made nullable in case of missing values in later rows.
+     * @param schema the inferred schema.
+     * @return the schema with nullable primitive types.
+     */
+    static StructType nullable(StructType schema) {
+        List<StructField> fields = new ArrayList<>(schema.length());
+        for (StructField field : schema.fields()) {
+            DataType dtype = field.dtype();
+            if (dtype.isPrimitive() && !dtype.isNullable()) {
+                dtype = switch (dtype.id()) {
+                    case Boolean -> DataTypes.NullableBooleanType;
+                    case Char -> DataTypes.NullableCharType;
+                    case Byte -> DataTypes.NullableByteType;
+                    case Short -> DataTypes.NullableShortType;
+                    case Int -> DataTypes.NullableIntType;
+                    case Long -> DataTypes.NullableLongType;
+                    case Float -> DataTypes.NullableFloatType;
+                    case Double -> DataTypes.NullableDoubleType;
+                    default -> dtype;
+                };
+                field = new StructField(field.name(), dtype, field.measure());
+            }
+            fields.add(field);
+        }
+        return new StructType(fields);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.compression.CompressionCodecFactory;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopCodecs;
+
+/**
+ * Parquet codec factory of thread local decompressors. The pages of
+ * the row groups read by one file reader can be decompressed in
+ * parallel then, as the decompressors of a regular codec factory are
+ * shared and not thread safe. The pages are decompressed lazily when
+ * the column readers consume them, i.e. in the decoding threads.
+ *
+ * @author Haifeng Li
+ */
+class ConcurrentCodecFactory implements CompressionCodecFactory {
+    /** The codec factories of threads. */
+    private final List<CompressionCodecFactory> factories = new ArrayList<>();
+    /** The codec factory of current thread. */
+    private final ThreadLocal<CompressionCodecFactory> factory = ThreadLocal.withInitial(() -> {
+        CompressionCodecFactory codecs = HadoopCodecs.newFactory(0);
+        synchronized (factories) {
+            factories.add(codecs);
+        }
+        return codecs;
+    });
+
+    /** Constructor. */
+    public ConcurrentCodecFactory() {
+
+    }
+
+    @Override
+    public BytesInputCompressor getCompressor(CompressionCodecName codec) {
+        throw new UnsupportedOperationException("Compression is not supported");
+    }
+
+    @Override
+    public BytesInputDecompressor getDecompressor(CompressionCodecName codec) {
+        return new BytesInputDecompressor() {
+            @Override
+            public BytesInput decompress(BytesInput bytes, int uncompressedSize) throws IOException {
+                return factory.get().getDecompressor(codec).decompress(bytes, uncompressedSize);
+            }
+
+            @Override
+            public void decompress(ByteBuffer input, int compressedSize, ByteBuffer output, int uncompressedSize) throws IOException {
+                factory.get().getDecompressor(codec).decompress(input, compressedSize, output, uncompressedSize);
+            }
+
+            @Override
+            public void release() {
+                // The decompressors are released with their factories.
+            }
+        };
+    }
+
+    @Override
+    public void release() {
+        synchronized (factories) {
+            for (CompressionCodecFactory codecs : factories) {
+                codecs.release();
+            }
+            factories.clear();
+        }
+    }
+}
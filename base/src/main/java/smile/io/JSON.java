@@ -25,6 +25,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import smile.data.DataFrame;
@@ -172,7 +175,7 @@ public class JSON {
             List<Map<String, String>> maps = objectMapper.readValue(reader, new TypeReference<>() {
             });
             for (Map<String, String> map : maps) {
-                rows.add(toTuple(map, parser));
+                rows.add(toTuple(map, schema, parser));
                 if (rows.size() >= limit) break;
             }
         } else {
@@ -180,7 +183,7 @@ public class JSON {
             while (rows.size() < limit && line != null) {
                 try {
                     Map<String, String> map = objectMapper.readValue(line, new TypeReference<>() {});
-                    rows.add(toTuple(map, parser));
+                    rows.add(toTuple(map, schema, parser));
                 } catch (Exception ex) {
                     throw new RuntimeException(ex);
                 }
@@ -191,8 +194,91 @@ public class JSON {
         return DataFrame.of(schema, rows);
     }
 
+    /**
+     * Returns a lazy stream of data frame chunks of a JSON file, so that
+     * a file larger than the heap can be processed chunk by chunk. In the
+     * multi-line mode, the array of objects is parsed incrementally. If
+     * the schema is not set, it is inferred from the top 1000 objects with
+     * nullable primitive types, which is shared by all chunks. The stream
+     * should be closed after use to release the file.
+     * @param path the input file path.
+     * @param size the number of rows in a chunk.
+     * @throws IOException when fails to read the file.
+     * @return the stream of data frame chunks.
+     */
+    public Stream<DataFrame> stream(Path path, int size) throws IOException {
+        Chunks.check(size);
+        StructType struct = schema;
+        if (struct == null) {
+            try (BufferedReader reader = Files.newBufferedReader(path, charset)) {
+                struct = Chunks.nullable(inferSchema(reader, 1000));
+            }
+        }
+
+        StructType chunkSchema = struct;
+        return Chunks.open(Files.newBufferedReader(path, charset), reader -> stream(reader, chunkSchema, size));
+    }
+
+    /**
+     * Returns a lazy stream of data frame chunks of a JSON file.
+     * @param path the input file path.
+     * @param size the number of rows in a chunk.
+     * @throws IOException when fails to read the file.
+     * @throws URISyntaxException when the file path syntax is wrong.
+     * @return the stream of data frame chunks.
+     * @see #stream(Path, int)
+     */
+    public Stream<DataFrame> stream(String path, int size) throws IOException, URISyntaxException {
+        Chunks.check(size);
+        StructType struct = schema;
+        if (struct == null) {
+            try (BufferedReader reader = Input.reader(path, charset)) {
+                struct = Chunks.nullable(inferSchema(reader, 1000));
+            }
+        }
+
+        StructType chunkSchema = struct;
+        return Chunks.open(Input.reader(path, charset), reader -> stream(reader, chunkSchema, size));
+    }
+
+    /**
+     * Returns a lazy stream of data frame chunks.
+     * @param reader the file reader.
+     * @param schema the schema of chunks.
+     * @param size the number of rows in a chunk.
+     * @throws IOException when fails to read the file.
+     * @return the stream of data frame chunks.
+     */
+    private Stream<DataFrame> stream(BufferedReader reader, StructType schema, int size) throws IOException {
+        List<Function<String, Object>> parser = schema.parser();
+        ObjectMapper objectMapper = new ObjectMapper();
+        TypeReference<Map<String, String>> type = new TypeReference<>() {};
+
+        if (mode == Mode.MULTI_LINE) {
+            JsonParser json = objectMapper.getFactory().createParser(reader);
+            if (json.nextToken() != JsonToken.START_ARRAY) {
+                json.close();
+                throw new IOException("The file is not an array of objects");
+            }
+
+            return Chunks.of(schema, () -> {
+                JsonToken token = json.nextToken();
+                if (token == null || token == JsonToken.END_ARRAY) return null;
+                return toTuple(objectMapper.readValue(json, type), schema, parser);
+            }, size, json);
+        }
+
+        return Chunks.of(schema, () -> {
+            String line = reader.readLine();
+            while (line != null && line.isBlank()) {
+                line = reader.readLine();
+            }
+            return line == null ? null : toTuple(objectMapper.readValue(line, type), schema, parser);
+        }, size, reader);
+    }
+
     /** Converts a map to tuple. */
-    private Tuple toTuple(Map<String, String> map, List<Function<String, Object>> parser) {
+    private static Tuple toTuple(Map<String, String> map, StructType schema, List<Function<String, Object>> parser) {
         Object[] row = new Object[schema.length()];
         for (int i = 0; i < row.length; i++) {
             String s = map.get(schema.field(i).name());
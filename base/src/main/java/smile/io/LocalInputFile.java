@@ -17,6 +17,7 @@
 package smile.io;
 
 import java.io.EOFException;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
@@ -33,7 +34,7 @@ import org.apache.parquet.io.SeekableInputStream;
  */
 class LocalInputFile implements InputFile {
     /** Local file object. */
-    private final RandomAccessFile input;
+    private final File file;
 
     /**
      * Constructor.
@@ -41,16 +42,21 @@ class LocalInputFile implements InputFile {
      * @throws FileNotFoundException when file cannot be found.
      */
     public LocalInputFile(Path path) throws FileNotFoundException {
-        input = new RandomAccessFile(path.toFile(), "r");
+        file = path.toFile();
+        if (!file.isFile()) {
+            throw new FileNotFoundException(path.toString());
+        }
     }
 
     @Override
     public long getLength() throws IOException {
-        return input.length();
+        return file.length();
     }
 
     @Override
-    public SeekableInputStream newStream() {
+    public SeekableInputStream newStream() throws IOException {
+        // Each stream has its own file pointer and can be closed independently.
+        final RandomAccessFile input = new RandomAccessFile(file, "r");
         return new SeekableInputStream() {
             private final byte[] page = new byte[8192];
             private long markPos = 0;
@@ -17,6 +17,7 @@
 package smile.io;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URISyntaxException;
@@ -24,20 +25,38 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.file.Path;
 import java.time.*;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.apache.parquet.ParquetReadOptions;
 import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
 import org.apache.parquet.column.page.PageReadStore;
 import org.apache.parquet.example.data.Group;
 import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
 import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.io.ColumnIOFactory;
 import org.apache.parquet.io.InputFile;
 import org.apache.parquet.io.MessageColumnIO;
 import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.PrimitiveType;
@@ -45,6 +64,7 @@ import org.apache.parquet.schema.Type;
 import smile.data.DataFrame;
 import smile.data.Tuple;
 import smile.data.type.*;
+import smile.data.vector.*;
 
 /**
  * Apache Parquet is a columnar storage format that supports
@@ -125,27 +145,564 @@ public class Parquet {
      * @return the data frame.
      */
     public static DataFrame read(InputFile file, int limit) throws IOException {
-        try (ParquetFileReader reader = ParquetFileReader.open(file)) {
+        return read(file, limit, null);
+    }
+
+    /**
+     * Reads the projected columns of a local parquet file.
+     * @param path the input file path.
+     * @param filter the row group filter. If null, all row groups are read.
+     * @param columns the columns to read. If empty, all columns are read.
+     * @throws IOException when fails to read the file.
+     * @return the data frame.
+     */
+    public static DataFrame read(Path path, FilterPredicate filter, String... columns) throws IOException {
+        return read(new LocalInputFile(path), filter, columns);
+    }
+
+    /**
+     * Reads the projected columns of a parquet file. The row groups,
+     * of which the footer statistics, dictionaries or bloom filters
+     * show that no record matches the filter, are skipped without
+     * reading their pages. The filter is applied at the row group level
+     * only, i.e. all rows of the remaining row groups are returned.
+     * For example,
+     * <pre>{@code
+     *     import static org.apache.parquet.filter2.predicate.FilterApi.*;
+     *     var df = Parquet.read(file, gt(intColumn("id"), 1000), "id", "salary");
+     * }</pre>
+     * The column chunks of flat schemas are decoded straight into
+     * primitive arrays and null masks, and the row groups are decoded
+     * in parallel.
+     *
+     * @param file an interface with the methods needed by Parquet
+     *             to read data files. See HadoopInputFile for example.
+     * @param filter the row group filter. If null, all row groups are read.
+     * @param columns the columns to read. If empty, all columns are read.
+     * @throws IOException when fails to read the file.
+     * @return the data frame.
+     */
+    public static DataFrame read(InputFile file, FilterPredicate filter, String... columns) throws IOException {
+        return read(file, Integer.MAX_VALUE, filter, columns);
+    }
+
+    /**
+     * Reads a limited number of records of the projected columns.
+     * @param file the input file.
+     * @param limit the number of records to read.
+     * @param filter the row group filter. If null, all row groups are read.
+     * @param columns the columns to read. If empty, all columns are read.
+     * @throws IOException when fails to read the file.
+     * @return the data frame.
+     */
+    private static DataFrame read(InputFile file, int limit, FilterPredicate filter, String... columns) throws IOException {
+        // The row groups are decompressed in parallel. Each thread needs
+        // its own decompressors, which are not thread safe.
+        ParquetReadOptions.Builder builder = ParquetReadOptions.builder().withCodecFactory(new ConcurrentCodecFactory());
+        if (filter != null) {
+            builder.withRecordFilter(FilterCompat.get(filter));
+        }
+        ParquetReadOptions options = builder.build();
+
+        // The footer is read once. Its row group metadata is shared by
+        // the decoding tasks.
+        try (ParquetFileReader reader = ParquetFileReader.open(file, options)) {
             ParquetMetadata footer = reader.getFooter();
-            MessageType schema = footer.getFileMetaData().getSchema();
-            StructType struct = toStructType(schema);
             logger.debug("The meta data of parquet file {}: {}", file, ParquetMetadata.toPrettyJSON(footer));
+            MessageType schema = project(footer.getFileMetaData().getSchema(), columns);
+            String createdBy = footer.getFileMetaData().getCreatedBy();
+            List<BlockMetaData> blocks = reader.getRowGroups();
+            reader.setRequestedSchema(schema);
+
+            if (!isFlat(schema)) {
+                // Nested and repeated fields are assembled record by record.
+                StructType struct = toStructType(schema);
+                long total = blocks.stream().mapToLong(BlockMetaData::getRowCount).sum();
+                int size = (int) Math.min(total, limit);
+                List<Tuple> rows = new ArrayList<>(size);
+
+                PageReadStore store;
+                while ((store = reader.readNextRowGroup()) != null && rows.size() < size) {
+                    final long rowCount = store.getRowCount();
+                    final MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(schema);
+                    final RecordReader<Group> recordReader = columnIO.getRecordReader(store, new GroupRecordConverter(schema));
+                    for (int i = 0; i < rowCount && rows.size() < size; i++) {
+                        rows.add(Tuple.of(struct, readRowGroup(recordReader.read(), schema.getColumns(), struct)));
+                    }
+                }
+
+                return DataFrame.of(struct, rows);
+            }
+
+            return readColumns(reader, blocks, schema, createdBy, limit);
+        }
+    }
+
+    /**
+     * Reads the row groups of flat schema into columns. The row groups
+     * are read sequentially and decoded in parallel into disjoint ranges
+     * of the preallocated column buffers.
+     * @param reader the file reader.
+     * @param blocks the row groups to read.
+     * @param schema the projected schema.
+     * @param createdBy the writer of file.
+     * @param limit the number of records to read.
+     * @throws IOException when fails to read the file.
+     * @return the data frame.
+     */
+    private static DataFrame readColumns(ParquetFileReader reader, List<BlockMetaData> blocks, MessageType schema, String createdBy, int limit) throws IOException {
+        // The row range of each row group in the data frame.
+        int groups = 0;
+        int size = 0;
+        int[] offset = new int[blocks.size()];
+        int[] length = new int[blocks.size()];
+        for (BlockMetaData block : blocks) {
+            if (size >= limit) break;
+            long rowCount = Math.min(block.getRowCount(), limit - size);
+            if (size + rowCount > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many rows for a data frame, use Parquet.stream() instead: " + (size + rowCount));
+            }
+            offset[groups] = size;
+            length[groups] = (int) rowCount;
+            size += length[groups];
+            groups++;
+        }
+
+        final StructType struct = toStructType(schema);
+        final List<ColumnDescriptor> descriptors = schema.getColumns();
+        final int ncol = descriptors.size();
+        final Object[] buffers = new Object[ncol];
+        for (int j = 0; j < ncol; j++) {
+            buffers[j] = allocate(struct.field(j), size);
+        }
+
+        // The pages of at most as many row groups as the worker threads
+        // are held in memory while waiting for decoding.
+        final BitSet[][] nulls = new BitSet[ncol][groups];
+        final int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        Deque<ForkJoinTask<?>> tasks = new ArrayDeque<>();
+        try {
+            for (int g = 0; g < groups; g++) {
+                while (tasks.size() >= parallelism) {
+                    tasks.poll().join();
+                }
+
+                final int group = g;
+                final PageReadStore pages = reader.readRowGroup(g);
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    try (pages) {
+                        ColumnReadStoreImpl store = new ColumnReadStoreImpl(pages, new GroupRecordConverter(schema).getRootConverter(), schema, createdBy);
+                        for (int j = 0; j < ncol; j++) {
+                            ColumnDescriptor descriptor = descriptors.get(j);
+                            nulls[j][group] = decode(store.getColumnReader(descriptor), descriptor, struct.field(j), buffers[j], offset[group], length[group]);
+                        }
+                    }
+                }).fork());
+            }
+
+            while (!tasks.isEmpty()) {
+                tasks.poll().join();
+            }
+        } finally {
+            // Don't release the decompressors while the tasks are running.
+            for (ForkJoinTask<?> task : tasks) {
+                task.quietlyJoin();
+            }
+        }
+
+        BitSet[] masks = new BitSet[ncol];
+        for (int j = 0; j < ncol; j++) {
+            BitSet mask = new BitSet(size);
+            for (int g = 0; g < groups; g++) {
+                BitSet bits = nulls[j][g];
+                for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                    mask.set(offset[g] + i);
+                }
+            }
+            masks[j] = mask;
+        }
+
+        return toDataFrame(struct, buffers, masks);
+    }
+
+    /**
+     * Returns a lazy stream of the row groups of a local parquet file.
+     * @param path the input file path.
+     * @param columns the columns to read. If empty, all columns are read.
+     * @throws IOException when fails to open the file.
+     * @return the stream of row groups.
+     */
+    public static Stream<DataFrame> stream(Path path, String... columns) throws IOException {
+        return stream(new LocalInputFile(path), columns);
+    }
+
+    /**
+     * Returns a lazy stream of the row groups of a parquet file.
+     * Each row group is read and converted to a data frame only when
+     * the stream consumer asks for it, so that a file larger than the
+     * heap can be processed row group by row group. Only the projected
+     * columns are read from the file. The stream should be closed
+     * after use to release the file.
+     *
+     * @param file an interface with the methods needed by Parquet
+     *             to read data files. See HadoopInputFile for example.
+     * @param columns the columns to read. If empty, all columns are read.
+     * @throws IOException when fails to open the file.
+     * @return the stream of row groups.
+     */
+    public static Stream<DataFrame> stream(InputFile file, String... columns) throws IOException {
+        ParquetFileReader reader = ParquetFileReader.open(file);
+        MessageType schema;
+        String createdBy;
+        try {
+            schema = project(reader.getFooter().getFileMetaData().getSchema(), columns);
+            createdBy = reader.getFooter().getFileMetaData().getCreatedBy();
+            if (columns.length > 0) {
+                reader.setRequestedSchema(schema);
+            }
+        } catch (RuntimeException ex) {
+            reader.close();
+            throw ex;
+        }
+
+        final MessageType projection = schema;
+        final StructType struct = toStructType(projection);
+        final boolean flat = isFlat(projection);
+        var groups = new Spliterators.AbstractSpliterator<DataFrame>(reader.getRowGroups().size(), Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super DataFrame> action) {
+                try {
+                    PageReadStore store = reader.readNextRowGroup();
+                    if (store == null) return false;
+
+                    final int rowCount = (int) store.getRowCount();
+                    if (flat) {
+                        action.accept(readColumns(store, projection, struct, createdBy, rowCount));
+                        return true;
+                    }
+
+                    final MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(projection);
+                    final RecordReader<Group> recordReader = columnIO.getRecordReader(store, new GroupRecordConverter(projection));
+                    List<Tuple> rows = new ArrayList<>(rowCount);
+                    for (int i = 0; i < rowCount; i++) {
+                        rows.add(Tuple.of(struct, readRowGroup(recordReader.read(), projection.getColumns(), struct)));
+                    }
+
+                    action.accept(DataFrame.of(struct, rows));
+                    return true;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        };
+
+        return StreamSupport.stream(groups, false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * Returns a lazy stream of data frame chunks of a local parquet file.
+     * @param path the input file path.
+     * @param size the number of rows in a chunk.
+     * @param columns the columns to read. If empty, all columns are read.
+     * @throws IOException when fails to open the file.
+     * @return the stream of data frame chunks.
+     */
+    public static Stream<DataFrame> stream(Path path, int size, String... columns) throws IOException {
+        return stream(new LocalInputFile(path), size, columns);
+    }
+
+    /**
+     * Returns a lazy stream of data frame chunks of a parquet file.
+     * The row groups are read one by one and split or merged into
+     * chunks of given size. The stream should be closed after use
+     * to release the file.
+     *
+     * @param file an interface with the methods needed by Parquet
+     *             to read data files. See HadoopInputFile for example.
+     * @param size the number of rows in a chunk.
+     * @param columns the columns to read. If empty, all columns are read.
+     * @throws IOException when fails to open the file.
+     * @return the stream of data frame chunks.
+     */
+    public static Stream<DataFrame> stream(InputFile file, int size, String... columns) throws IOException {
+        Chunks.check(size);
+        return Chunks.rechunk(stream(file, columns), size);
+    }
+
+    /**
+     * Returns the projection of schema.
+     * @param schema the file schema.
+     * @param columns the columns to read. If empty, all columns are read.
+     * @return the projected schema.
+     */
+    private static MessageType project(MessageType schema, String... columns) {
+        if (columns.length == 0) return schema;
+
+        List<Type> fields = new ArrayList<>(columns.length);
+        for (String column : columns) {
+            fields.add(schema.getType(column));
+        }
+        return new MessageType(schema.getName(), fields);
+    }
+
+    /**
+     * Returns true if all columns are top level non-repeated fields,
+     * which can be decoded column by column.
+     * @param schema the parquet schema.
+     * @return true if the schema is flat.
+     */
+    private static boolean isFlat(MessageType schema) {
+        for (ColumnDescriptor column : schema.getColumns()) {
+            if (column.getPath().length != 1 || column.getMaxRepetitionLevel() != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a row group of flat schema column by column.
+     * @param pages the pages of row group.
+     * @param schema the parquet schema.
+     * @param struct the smile schema.
+     * @param createdBy the writer of file.
+     * @param size the number of rows.
+     * @return the data frame.
+     */
+    private static DataFrame readColumns(PageReadStore pages, MessageType schema, StructType struct, String createdBy, int size) {
+        ColumnReadStoreImpl store = new ColumnReadStoreImpl(pages, new GroupRecordConverter(schema).getRootConverter(), schema, createdBy);
+        List<ColumnDescriptor> descriptors = schema.getColumns();
+        int ncol = descriptors.size();
+        Object[] buffers = new Object[ncol];
+        BitSet[] masks = new BitSet[ncol];
+        for (int j = 0; j < ncol; j++) {
+            ColumnDescriptor descriptor = descriptors.get(j);
+            buffers[j] = allocate(struct.field(j), size);
+            masks[j] = decode(store.getColumnReader(descriptor), descriptor, struct.field(j), buffers[j], 0, size);
+        }
+        return toDataFrame(struct, buffers, masks);
+    }
+
+    /**
+     * Allocates the buffer of a column.
+     * @param field the column field.
+     * @param size the number of rows.
+     * @return the primitive array or object array of column.
+     */
+    private static Object allocate(StructField field, int size) {
+        return switch (field.dtype().id()) {
+            case Boolean -> new boolean[size];
+            case Int -> new int[size];
+            case Long -> new long[size];
+            case Float -> new float[size];
+            case Double -> new double[size];
+            case String -> new String[size];
+            case Decimal -> new BigDecimal[size];
+            default -> new Object[size];
+        };
+    }
+
+    /**
+     * Decodes the values of a column chunk into the buffer.
+     * @param column the column reader.
+     * @param descriptor the column descriptor.
+     * @param field the column field.
+     * @param buffer the column buffer.
+     * @param offset the offset of first row in the buffer.
+     * @param length the number of rows to decode.
+     * @return the null mask of decoded rows, of which the index
+     *         is relative to the offset.
+     */
+    private static BitSet decode(ColumnReader column, ColumnDescriptor descriptor, StructField field, Object buffer, int offset, int length) {
+        BitSet nulls = new BitSet();
+        int maxDef = descriptor.getMaxDefinitionLevel();
+        int end = offset + length;
+        switch (field.dtype().id()) {
+            case Boolean -> {
+                boolean[] values = (boolean[]) buffer;
+                for (int i = offset; i < end; i++) {
+                    if (column.getCurrentDefinitionLevel() == maxDef) {
+                        values[i] = column.getBoolean();
+                    } else {
+                        nulls.set(i - offset);
+                    }
+                    column.consume();
+                }
+            }
+
+            case Int -> {
+                int[] values = (int[]) buffer;
+                for (int i = offset; i < end; i++) {
+                    if (column.getCurrentDefinitionLevel() == maxDef) {
+                        values[i] = column.getInteger();
+                    } else {
+                        values[i] = Integer.MIN_VALUE;
+                        nulls.set(i - offset);
+                    }
+                    column.consume();
+                }
+            }
 
-            int size = (int) Math.min(reader.getRecordCount(), limit);
-            List<Tuple> rows = new ArrayList<>(size);
+            case Long -> {
+                long[] values = (long[]) buffer;
+                for (int i = offset; i < end; i++) {
+                    if (column.getCurrentDefinitionLevel() == maxDef) {
+                        values[i] = column.getLong();
+                    } else {
+                        values[i] = Long.MIN_VALUE;
+                        nulls.set(i - offset);
+                    }
+                    column.consume();
+                }
+            }
 
-            PageReadStore store;
-            while ((store = reader.readNextRowGroup()) != null) {
-                final long rowCount = store.getRowCount();
-                final MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(schema);
-                final RecordReader<Group> recordReader = columnIO.getRecordReader(store, new GroupRecordConverter(schema));
-                for (int i = 0; i < rowCount && rows.size() < size; i++) {
-                    rows.add(Tuple.of(struct, readRowGroup(recordReader.read(), schema.getColumns(), struct)));
+            case Float -> {
+                float[] values = (float[]) buffer;
+                for (int i = offset; i < end; i++) {
+                    if (column.getCurrentDefinitionLevel() == maxDef) {
+                        values[i] = column.getFloat();
+                    } else {
+                        values[i] = Float.NaN;
+                        nulls.set(i - offset);
+                    }
+                    column.consume();
                 }
             }
 
-            return DataFrame.of(struct, rows);
+            case Double -> {
+                double[] values = (double[]) buffer;
+                for (int i = offset; i < end; i++) {
+                    if (column.getCurrentDefinitionLevel() == maxDef) {
+                        values[i] = column.getDouble();
+                    } else {
+                        values[i] = Double.NaN;
+                        nulls.set(i - offset);
+                    }
+                    column.consume();
+                }
+            }
+
+            default -> {
+                Object[] values = (Object[]) buffer;
+                PrimitiveType type = descriptor.getPrimitiveType();
+                for (int i = offset; i < end; i++) {
+                    if (column.getCurrentDefinitionLevel() == maxDef) {
+                        values[i] = toObject(column, type);
+                    }
+                    column.consume();
+                }
+            }
         }
+        return nulls;
+    }
+
+    /**
+     * Returns the data frame of column buffers.
+     * @param struct the schema.
+     * @param buffers the column buffers.
+     * @param masks the null masks of columns.
+     * @return the data frame.
+     */
+    private static DataFrame toDataFrame(StructType struct, Object[] buffers, BitSet[] masks) {
+        List<ValueVector> columns = new ArrayList<>(buffers.length);
+        for (int j = 0; j < buffers.length; j++) {
+            StructField field = struct.field(j);
+            boolean nullable = field.dtype().isNullable();
+            BitSet mask = masks[j];
+            columns.add(switch (buffers[j]) {
+                case boolean[] values -> nullable ? new NullableBooleanVector(field, values, mask) : new BooleanVector(field, values);
+                case int[] values -> nullable ? new NullableIntVector(field, values, mask) : new IntVector(field, values);
+                case long[] values -> nullable ? new NullableLongVector(field, values, mask) : new LongVector(field, values);
+                case float[] values -> nullable ? new NullableFloatVector(field, values, mask) : new FloatVector(field, values);
+                case double[] values -> nullable ? new NullableDoubleVector(field, values, mask) : new DoubleVector(field, values);
+                case String[] values -> DictionaryVector.of(field, values);
+                case BigDecimal[] values -> new NumberVector<>(field, values);
+                case Object[] values -> new ObjectVector<>(field, values);
+                default -> throw new IllegalStateException("Unsupported column buffer: " + buffers[j].getClass());
+            });
+        }
+        return new DataFrame(struct, columns, null);
+    }
+
+    /**
+     * Returns the current value of a column reader as an object.
+     * @param column the column reader.
+     * @param type the primitive type of column.
+     * @return the value.
+     */
+    private static Object toObject(ColumnReader column, PrimitiveType type) {
+        LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+        return switch (type.getPrimitiveTypeName()) {
+            case BOOLEAN -> column.getBoolean();
+            case FLOAT -> column.getFloat();
+            case DOUBLE -> column.getDouble();
+
+            case INT32 -> switch (logicalType) {
+                case LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimalType -> BigDecimal.valueOf(column.getInteger(), decimalType.getScale());
+                case LogicalTypeAnnotation.DateLogicalTypeAnnotation dateType -> LocalDate.ofEpochDay(column.getInteger());
+                case LogicalTypeAnnotation.TimeLogicalTypeAnnotation timeType -> LocalTime.ofNanoOfDay(column.getInteger() * 1000000L);
+                case null, default -> column.getInteger();
+            };
+
+            case INT64 -> switch (logicalType) {
+                case LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimalType -> BigDecimal.valueOf(column.getLong(), decimalType.getScale());
+                case LogicalTypeAnnotation.TimeLogicalTypeAnnotation timeType -> switch (timeType.getUnit()) {
+                    case MILLIS -> throw new IllegalStateException("Invalid TimeUnit for INT64: " + timeType.getUnit());
+                    case MICROS -> LocalTime.ofNanoOfDay(column.getLong() * 1000);
+                    case NANOS -> LocalTime.ofNanoOfDay(column.getLong());
+                };
+                case LogicalTypeAnnotation.TimestampLogicalTypeAnnotation timeType -> {
+                    ZoneId zone = timeType.isAdjustedToUTC() ? ZoneOffset.UTC : ZoneId.systemDefault();
+                    long value = column.getLong();
+                    Instant instant = switch (timeType.getUnit()) {
+                        case MILLIS -> Instant.ofEpochMilli(value);
+                        case MICROS -> Instant.ofEpochSecond(Math.floorDiv(value, 1000000L), Math.floorMod(value, 1000000L) * 1000);
+                        case NANOS -> Instant.ofEpochSecond(Math.floorDiv(value, 1000000000L), Math.floorMod(value, 1000000000L));
+                    };
+                    yield LocalDateTime.ofInstant(instant, zone);
+                }
+                case null, default -> column.getLong();
+            };
+
+            case INT96 -> {
+                // The same conversion as in readRowGroup.
+                ByteBuffer buf = column.getBinary().toByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+                long nanoOfDay = buf.getLong();
+                int julianDay = buf.getInt();
+                LocalDate date = LocalDate.ofEpochDay(julianDay - 2440588);
+                LocalTime time = LocalTime.ofNanoOfDay(nanoOfDay);
+                yield LocalDateTime.of(date, time);
+            }
+
+            case FIXED_LEN_BYTE_ARRAY, BINARY -> {
+                Binary binary = column.getBinary();
+                yield switch (logicalType) {
+                    case LogicalTypeAnnotation.UUIDLogicalTypeAnnotation uuidType -> {
+                        ByteBuffer buf = binary.toByteBuffer();
+                        long high = buf.getLong();
+                        long low = buf.getLong();
+                        yield new UUID(high, low);
+                    }
+                    case LogicalTypeAnnotation.IntervalLogicalTypeAnnotation intervalType -> {
+                        ByteBuffer buf = binary.toByteBuffer();
+                        int months = buf.getInt();
+                        int days = buf.getInt();
+                        int millis = buf.getInt();
+                        yield Duration.ofDays(days).plusDays(months * 30L).plusMillis(millis);
+                    }
+                    case LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimalType -> new BigDecimal(new BigInteger(binary.getBytes()), decimalType.getScale());
+                    case LogicalTypeAnnotation.StringLogicalTypeAnnotation stringType -> binary.toStringUsingUTF8();
+                    case LogicalTypeAnnotation.JsonLogicalTypeAnnotation jsonType -> binary.toStringUsingUTF8();
+                    case null, default -> binary.getBytes();
+                };
+            }
+        };
     }
 
     private static Object[] readRowGroup(Group g, List<ColumnDescriptor> columns, StructType schema) {
@@ -277,12 +834,12 @@ public class Parquet {
                             case MICROS:
                                 if (rep == 1) {
                                     long micros = g.getLong(i, 0);
-                                    o[i] = LocalDateTime.ofInstant(Instant.ofEpochSecond(micros / 1000000, (int) (micros % 100000) * 1000), zone);
+                                    o[i] = LocalDateTime.ofInstant(Instant.ofEpochSecond(micros / 1000000, (int) (micros % 1000000) * 1000), zone);
                                 } else if (rep > 1) {
                                     LocalDateTime[] a = new LocalDateTime[rep];
                                     for (int j = 0; j < rep; j++) {
                                         long micros = g.getLong(i, j);
-                                        a[j] = LocalDateTime.ofInstant(Instant.ofEpochSecond(micros / 1000000, (int) (micros % 100000) * 1000), zone);
+                                        a[j] = LocalDateTime.ofInstant(Instant.ofEpochSecond(micros / 1000000, (int) (micros % 1000000) * 1000), zone);
                                     }
                                     o[i] = a;
                                 }
@@ -290,12 +847,12 @@ public class Parquet {
                             case NANOS:
                                 if (rep == 1) {
                                     long nanos = g.getLong(i, 0);
-                                    o[i] = LocalDateTime.ofInstant(Instant.ofEpochSecond(nanos / 1000000000, (int) (nanos % 100000000)), zone);
+                                    o[i] = LocalDateTime.ofInstant(Instant.ofEpochSecond(nanos / 1000000000, (int) (nanos % 1000000000)), zone);
                                 } else if (rep > 1) {
                                     LocalDateTime[] a = new LocalDateTime[rep];
                                     for (int j = 0; j < rep; j++) {
                                         long nanos = g.getLong(i, j);
-                                        a[j] = LocalDateTime.ofInstant(Instant.ofEpochSecond(nanos / 1000000000, (int) (nanos % 100000000)), zone);
+                                        a[j] = LocalDateTime.ofInstant(Instant.ofEpochSecond(nanos / 1000000000, (int) (nanos % 1000000000)), zone);
                                     }
                                     o[i] = a;
                                 }
@@ -27,6 +27,7 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.stream.Stream;
 
 import org.apache.commons.csv.CSVFormat;
 import smile.data.DataFrame;
@@ -111,6 +112,68 @@ public interface Read {
         throw new UnsupportedOperationException("Unsupported data format: " + ext);
     }
 
+    /**
+     * Returns a lazy stream of data frame chunks of a data file, so that
+     * feature transforms, online learners and scoring can process files
+     * larger than the memory at a fixed footprint. Infers the data format
+     * by the file name extension. All chunks share the same schema and have
+     * the given number of rows except the last one. The stream should be
+     * closed after use to release the file.
+     * @param path the input file path.
+     * @param size the number of rows in a chunk.
+     * @throws IOException when fails to read the file.
+     * @throws ParseException when fails to parse the file.
+     * @throws URISyntaxException when the file path syntax is wrong.
+     * @return the stream of data frame chunks.
+     */
+    static Stream<DataFrame> chunks(String path, int size) throws IOException, URISyntaxException, ParseException {
+        return chunks(path, null, size);
+    }
+
+    /**
+     * Returns a lazy stream of data frame chunks of a data file.
+     * Infers the data format by the file name extension.
+     * @param path the input file path.
+     * @param format the optional file format specification. For csv files,
+     *               it is such as <code>delimiter=\t,header=true,comment=#,escape=\,quote="</code>.
+     *               For json files, it is the file mode (single-line or
+     *               multi-line). For avro files, it is the path to the schema
+     *               file.
+     * @param size the number of rows in a chunk.
+     * @throws IOException when fails to read the file.
+     * @throws ParseException when fails to parse the file.
+     * @throws URISyntaxException when the file path syntax is wrong.
+     * @return the stream of data frame chunks.
+     * @see #chunks(String, int)
+     */
+    static Stream<DataFrame> chunks(String path, String format, int size) throws IOException, URISyntaxException, ParseException {
+        int dotIndex = path.lastIndexOf(".");
+        String ext = dotIndex < 0 ? "csv" : path.substring(dotIndex + 1);
+        switch (ext) {
+            case "dat":
+            case "txt":
+            case "csv": return new CSV(format == null ? CSVFormat.DEFAULT : csvFormat(format)).stream(path, size);
+            case "arff": return new Arff(path).stream(size);
+            case "json":
+                JSON.Mode mode = format == null ? JSON.Mode.SINGLE_LINE : JSON.Mode.valueOf(format);
+                return new JSON().mode(mode).stream(path, size);
+            case "sas7bdat": return SAS.stream(Input.stream(path), size);
+            case "avro": return new Avro(HadoopInput.stream(format)).stream(path, size);
+            case "parquet": return Parquet.stream(HadoopInput.file(path), size);
+            case "feather": return Chunks.rechunk(new Arrow().stream(Input.stream(path)), size);
+            default:
+                if (format != null) {
+                    if (format.equals("csv")) {
+                        return new CSV().stream(path, size);
+                    } else if (format.startsWith("csv,")) {
+                        return new CSV(csvFormat(format.substring(4))).stream(path, size);
+                    }
+                }
+        }
+
+        throw new UnsupportedOperationException("Unsupported data format: " + ext);
+    }
+
     /**
      * Reads a CSV file.
      * @param path the input file path.
@@ -132,6 +195,16 @@ public interface Read {
      * @return the data frame.
      */
     static DataFrame csv(String path, String format) throws IOException, URISyntaxException {
+        return csv(path, csvFormat(format));
+    }
+
+    /**
+     * Parses the CSV format specification.
+     * @param format the format specification in key-value pairs such as
+     *               <code>delimiter=\t,header=true,comment=#,escape=\,quote="</code>.
+     * @return the CSV file format.
+     */
+    private static CSVFormat csvFormat(String format) {
         CSVFormat.Builder formatBuilder = CSVFormat.Builder.create();
         for (String token : format.split(",")) {
             String[] option = token.split("=");
@@ -176,7 +249,7 @@ public interface Read {
             }
         }
 
-        return csv(path, formatBuilder.get());
+        return formatBuilder.get();
     }
 
     /**
@@ -18,15 +18,24 @@ package smile.io;
 
 import java.io.InputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import com.epam.parso.Column;
 import com.epam.parso.SasFileProperties;
 import com.epam.parso.SasFileReader;
 import com.epam.parso.impl.SasFileReaderImpl;
 import smile.data.DataFrame;
+import smile.data.type.DataTypes;
+import smile.data.type.StructField;
 import smile.data.vector.*;
 
 /**
@@ -74,34 +83,97 @@ public interface SAS {
         try (input) {
             SasFileReader reader = new SasFileReaderImpl(input);
             SasFileProperties properties = reader.getSasFileProperties();
-            List<Column> columns = reader.getColumns();
-            int nrow = (int) properties.getRowCount();
-            int ncol = (int) properties.getColumnsCount();
+            int nrow = (int) Math.min(properties.getRowCount(), limit);
 
-            Object[][] rows = new Object[Math.min(nrow, limit)][];
+            Object[][] rows = new Object[nrow][];
             for (int i = 0; i < rows.length; i++) {
                 rows[i] = reader.readNext();
             }
 
-            ValueVector[] vectors = new ValueVector[ncol];
-            for (int j = 0; j < ncol; j++) {
-                Column column = columns.get(j);
-                if (column.getType() == String.class) {
-                    String[] vector = new String[nrow];
-                    for (int i = 0; i < rows.length; i++) {
-                        vector[i] = (String) rows[i][j];
-                    }
-                    vectors[j] = new StringVector(column.getName(), vector);
-                } else {
-                    double[] vector = new double[nrow];
-                    for (int i = 0; i < rows.length; i++) {
-                        vector[i] = ((Number) rows[i][j]).doubleValue();
+            return toDataFrame(reader.getColumns(), rows);
+        }
+    }
+
+    /**
+     * Returns a lazy stream of data frame chunks of a SAS7BDAT file,
+     * so that a file larger than the heap can be processed chunk by
+     * chunk. The stream should be closed after use to release the file.
+     *
+     * @param path the input file path.
+     * @param size the number of rows in a chunk.
+     * @throws IOException when fails to read the file.
+     * @return the stream of data frame chunks.
+     */
+    static Stream<DataFrame> stream(Path path, int size) throws IOException {
+        return Chunks.open(Files.newInputStream(path), input -> stream(input, size));
+    }
+
+    /**
+     * Returns a lazy stream of data frame chunks of a SAS7BDAT file.
+     *
+     * @param input a SAS7BDAT file input stream.
+     * @param size the number of rows in a chunk.
+     * @return the stream of data frame chunks.
+     */
+    static Stream<DataFrame> stream(InputStream input, int size) {
+        Chunks.check(size);
+        SasFileReader reader = new SasFileReaderImpl(input);
+        List<Column> columns = reader.getColumns();
+        var chunks = new Spliterators.AbstractSpliterator<DataFrame>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super DataFrame> action) {
+                try {
+                    List<Object[]> rows = new ArrayList<>();
+                    Object[] row;
+                    while (rows.size() < size && (row = reader.readNext()) != null) {
+                        rows.add(row);
                     }
-                    vectors[j] = new DoubleVector(column.getName(), vector);
+
+                    if (rows.isEmpty()) return false;
+                    action.accept(toDataFrame(columns, rows.toArray(new Object[0][])));
+                    return true;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
                 }
             }
+        };
 
-            return new DataFrame(vectors);
+        return StreamSupport.stream(chunks, false).onClose(() -> {
+            try {
+                input.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * Converts the rows to a data frame. Missing numeric values are NaN.
+     *
+     * @param columns the SAS columns.
+     * @param rows the rows.
+     * @return the data frame.
+     */
+    private static DataFrame toDataFrame(List<Column> columns, Object[][] rows) {
+        int ncol = columns.size();
+        ValueVector[] vectors = new ValueVector[ncol];
+        for (int j = 0; j < ncol; j++) {
+            Column column = columns.get(j);
+            if (column.getType() == String.class) {
+                String[] vector = new String[rows.length];
+                for (int i = 0; i < rows.length; i++) {
+                    vector[i] = (String) rows[i][j];
+                }
+                vectors[j] = DictionaryVector.of(new StructField(column.getName(), DataTypes.StringType), vector);
+            } else {
+                double[] vector = new double[rows.length];
+                for (int i = 0; i < rows.length; i++) {
+                    vector[i] = rows[i][j] == null ? Double.NaN : ((Number) rows[i][j]).doubleValue();
+                }
+                vectors[j] = new DoubleVector(column.getName(), vector);
+            }
         }
+
+        return new DataFrame(vectors);
     }
 }
@@ -22,6 +22,7 @@ import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.stream.Stream;
 import org.apache.commons.csv.CSVFormat;
 import smile.data.DataFrame;
 
@@ -83,6 +84,30 @@ public interface Write {
         csv.write(data, path);
     }
 
+    /**
+     * Writes a stream of data frame chunks to a CSV file.
+     *
+     * @param chunks the data frame chunks.
+     * @param path the output file path.
+     * @throws IOException when fails to write the file.
+     */
+    static void csv(Stream<DataFrame> chunks, Path path) throws IOException {
+        csv(chunks, path, CSVFormat.DEFAULT);
+    }
+
+    /**
+     * Writes a stream of data frame chunks to a CSV file.
+     *
+     * @param chunks the data frame chunks.
+     * @param path the output file path.
+     * @param format the CSV file format.
+     * @throws IOException when fails to write the file.
+     */
+    static void csv(Stream<DataFrame> chunks, Path path, CSVFormat format) throws IOException {
+        CSV csv = new CSV(format);
+        csv.write(chunks, path);
+    }
+
     /**
      * Writes an Apache Arrow file.
      * Apache Arrow is a cross-language development platform for in-memory data.
@@ -99,6 +124,19 @@ public interface Write {
         arrow.write(data, path);
     }
 
+    /**
+     * Writes a stream of data frame chunks to an Apache Arrow file.
+     * Each chunk is written as one or more record batches.
+     *
+     * @param chunks the data frame chunks.
+     * @param path the output file path.
+     * @throws IOException when fails to write the file.
+     */
+    static void arrow(Stream<DataFrame> chunks, Path path) throws IOException {
+        Arrow arrow = new Arrow();
+        arrow.write(chunks, path);
+    }
+
     /**
      * Writes the data frame to an ARFF file.
      *
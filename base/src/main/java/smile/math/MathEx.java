@@ -2913,6 +2913,9 @@ public class MathEx {
 
     /**
      * Returns the pairwise distance matrix of multiple vectors.
+     * For large data, {@link smile.math.distance.PairwiseDistance}
+     * computes the distances much faster by matrix multiplication,
+     * at the cost of precision of the distances between close vectors.
      * @param x the vectors.
      * @param squared If true, compute the squared Euclidean distance.
      * @return the pairwise distance matrix.
@@ -34,11 +34,13 @@ public interface BLAS {
     BLAS engine = getInstance();
 
     /**
-     * Creates an instance.
+     * Creates an instance. The backend is chosen by the system property
+     * {@code smile.blas}, which may be {@code openblas} (default),
+     * {@code mkl}, {@code java} or a class name.
      * @return a BLAS instance.
      */
     static BLAS getInstance() {
-        return new smile.math.blas.openblas.OpenBLAS();
+        return Backend.blas();
     }
 
     /**
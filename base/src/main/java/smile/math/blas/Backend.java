@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.math.blas;
+
+/**
+ * The registry of BLAS and LAPACK backends. The backend is chosen by
+ * the system property {@code smile.blas}, which may be
+ * <ul>
+ * <li>{@code openblas} - OpenBLAS, which is the default.</li>
+ * <li>{@code mkl} - Intel MKL of smile-mkl module.</li>
+ * <li>{@code java} - the pure Java BLAS. LAPACK still uses OpenBLAS.</li>
+ * <li>the class name of a BLAS and/or LAPACK implementation.</li>
+ * </ul>
+ * <p>
+ * The native BLAS is used directly unless the system property
+ * {@code smile.blas.threshold} is set to a positive number, e.g.
+ * {@code -Dsmile.blas.threshold=4096}. In that case, the native BLAS
+ * is wrapped by {@link JavaBLAS} so that the calls on Java arrays with
+ * less floating point operations than the threshold run in Java without
+ * the overhead of JNI. The number of floating point operations is
+ * {@code n} for Level-1 routines, {@code 2mn} for matrix-vector
+ * multiplication and {@code 2mnk} for matrix multiplication. The
+ * break-even point depends on the hardware and the native library.
+ * A few thousands is a reasonable start, which keeps vectors and
+ * matrices of tens of elements in Java.
+ *
+ * @author Haifeng Li
+ */
+final class Backend {
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(Backend.class);
+    /** The system property of backend. */
+    static final String BACKEND = "smile.blas";
+    /** The system property of the minimum flops to offload to native BLAS. */
+    static final String THRESHOLD = "smile.blas.threshold";
+
+    /** Private constructor to prevent instance creation. */
+    private Backend() {
+
+    }
+
+    /**
+     * Returns the BLAS backend.
+     * @return the BLAS backend.
+     */
+    static BLAS blas() {
+        String name = System.getProperty(BACKEND, "").trim();
+        if (name.equalsIgnoreCase("java")) {
+            return new JavaBLAS();
+        }
+
+        BLAS blas = load(BLAS.class, name);
+        long threshold = Long.getLong(THRESHOLD, 0);
+        if (threshold <= 0) {
+            return blas;
+        }
+
+        logger.debug("BLAS backend: {}, threshold of native calls: {}", blas.getClass().getName(), threshold);
+        return new JavaBLAS(blas, threshold);
+    }
+
+    /**
+     * Returns the LAPACK backend.
+     * @return the LAPACK backend.
+     */
+    static LAPACK lapack() {
+        String name = System.getProperty(BACKEND, "").trim();
+        // There is no pure Java LAPACK.
+        return load(LAPACK.class, name.equalsIgnoreCase("java") ? "" : name);
+    }
+
+    /**
+     * Creates a backend instance.
+     * @param clazz the interface of backend.
+     * @param name the name or class name of backend.
+     * @param <T> the interface of backend.
+     * @return the backend instance.
+     */
+    private static <T> T load(Class<T> clazz, String name) {
+        String className = switch (name.toLowerCase()) {
+            case "", "openblas" -> "smile.math.blas.openblas.OpenBLAS";
+            case "mkl" -> "smile.math.blas.mkl.MKL";
+            default -> name;
+        };
+
+        try {
+            return clazz.cast(Class.forName(className).getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException | ClassCastException ex) {
+            throw new IllegalStateException("Invalid " + clazz.getSimpleName() + " backend: " + name, ex);
+        }
+    }
+}
@@ -0,0 +1,1253 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.math.blas;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.stream.IntStream;
+import org.bytedeco.javacpp.DoublePointer;
+
+/**
+ * Pure Java implementation of BLAS routines on Java arrays that
+ * are used by dense matrices. The loops are written in unit stride
+ * over columns so that the JIT compiler can vectorize them, and
+ * Level-3 routines are blocked for cache and run over panels of
+ * columns in parallel for large problems.
+ * <p>
+ * Calling native BLAS through JNI has a fixed overhead of copying
+ * or pinning arrays, which dominates the cost of small problems.
+ * When created with a native library, this class chooses the
+ * implementation per call by the number of floating point operations
+ * of problem. The problems smaller than the threshold run in Java
+ * and the others are offloaded to the native library. The routines
+ * on NIO buffers and native pointers, and the packed or banded
+ * routines are delegated to the native library. Without native
+ * library, only general matrix-vector multiplication on NIO buffers
+ * is supported, which is used by memory-mapped matrices.
+ *
+ * @author Haifeng Li
+ */
+public class JavaBLAS implements BLAS {
+    /** The block size of rows of Level-3 routines. */
+    private static final int MB = 256;
+    /** The block size of inner dimension of Level-3 routines. */
+    private static final int KB = 128;
+    /** The number of columns in a panel of Level-3 routines. */
+    private static final int NB = 32;
+    /** The minimum number of flops to run Level-3 routines in parallel. */
+    private static final long PARALLEL = 1L << 21;
+    /** The native BLAS library for large problems. May be null. */
+    private final BLAS delegate;
+    /** The minimum number of flops offloaded to the native library. */
+    private final long threshold;
+
+    /**
+     * Constructor of pure Java BLAS without native library.
+     */
+    public JavaBLAS() {
+        this(null, Long.MAX_VALUE);
+    }
+
+    /**
+     * Constructor.
+     * @param delegate the native BLAS library for large problems.
+     * @param threshold the minimum number of floating point operations
+     *                  of a problem to be offloaded to the native library.
+     */
+    public JavaBLAS(BLAS delegate, long threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Invalid threshold: " + threshold);
+        }
+
+        this.delegate = delegate;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public String toString() {
+        return delegate == null ? "JavaBLAS" : String.format("JavaBLAS(%s, threshold = %d)", delegate.getClass().getSimpleName(), threshold);
+    }
+
+    /**
+     * Returns true if the problem should run in the native library.
+     * @param flops the number of floating point operations.
+     * @return true if the problem should run in the native library.
+     */
+    private boolean offload(long flops) {
+        return delegate != null && flops >= threshold;
+    }
+
+    /**
+     * Returns the native library.
+     * @return the native library.
+     */
+    private BLAS delegate() {
+        if (delegate == null) {
+            throw new UnsupportedOperationException("Pure Java BLAS supports only Java arrays of general, symmetric and triangular matrices");
+        }
+        return delegate;
+    }
+
+    /**
+     * Returns the index of first element of a vector with increment.
+     * A negative increment starts at the end of vector.
+     */
+    private static int start(int n, int inc) {
+        return inc >= 0 ? 0 : (1 - n) * inc;
+    }
+
+    /**
+     * Returns the stream of column panels of a Level-3 routine,
+     * which is parallel for large problems.
+     */
+    private static IntStream panels(int n, long flops) {
+        IntStream panels = IntStream.range(0, (n + NB - 1) / NB);
+        return flops >= PARALLEL ? panels.parallel() : panels;
+    }
+
+    /** Returns the transpose operation of transposed matrix. */
+    private static Transpose flip(Transpose trans) {
+        return trans == Transpose.NO_TRANSPOSE ? Transpose.TRANSPOSE : Transpose.NO_TRANSPOSE;
+    }
+
+    /** Returns the triangular of transposed matrix. */
+    private static UPLO flip(UPLO uplo) {
+        return uplo == UPLO.UPPER ? UPLO.LOWER : UPLO.UPPER;
+    }
+
+    /** Returns the side of transposed product. */
+    private static Side flip(Side side) {
+        return side == Side.LEFT ? Side.RIGHT : Side.LEFT;
+    }
+
+    @Override
+    public double asum(int n, double[] x, int incx) {
+        if (offload(n)) {
+            return delegate.asum(n, x, incx);
+        }
+
+        double sum = 0.0;
+        if (n <= 0 || incx <= 0) return sum;
+        for (int i = 0, ix = 0; i < n; i++, ix += incx) {
+            sum += Math.abs(x[ix]);
+        }
+        return sum;
+    }
+
+    @Override
+    public void axpy(int n, double alpha, double[] x, int incx, double[] y, int incy) {
+        if (offload(n)) {
+            delegate.axpy(n, alpha, x, incx, y, incy);
+            return;
+        }
+
+        if (n <= 0 || alpha == 0.0) return;
+        if (incx == 1 && incy == 1) {
+            unitAxpy(n, alpha, x, 0, y, 0);
+        } else {
+            for (int i = 0, ix = start(n, incx), iy = start(n, incy); i < n; i++, ix += incx, iy += incy) {
+                y[iy] += alpha * x[ix];
+            }
+        }
+    }
+
+    @Override
+    public double dot(int n, double[] x, int incx, double[] y, int incy) {
+        if (offload(n)) {
+            return delegate.dot(n, x, incx, y, incy);
+        }
+
+        if (n <= 0) return 0.0;
+        if (incx == 1 && incy == 1) {
+            return unitDot(n, x, 0, y, 0);
+        }
+
+        double sum = 0.0;
+        for (int i = 0, ix = start(n, incx), iy = start(n, incy); i < n; i++, ix += incx, iy += incy) {
+            sum += x[ix] * y[iy];
+        }
+        return sum;
+    }
+
+    @Override
+    public double nrm2(int n, double[] x, int incx) {
+        if (offload(n)) {
+            return delegate.nrm2(n, x, incx);
+        }
+
+        if (n <= 0 || incx <= 0) return 0.0;
+        double ssq = 0.0;
+        for (int i = 0, ix = 0; i < n; i++, ix += incx) {
+            ssq += x[ix] * x[ix];
+        }
+
+        if (Double.isFinite(ssq) && ssq >= Double.MIN_NORMAL) {
+            return Math.sqrt(ssq);
+        }
+
+        // The sum of squares overflows or underflows. Scale by the max.
+        double scale = 0.0;
+        for (int i = 0, ix = 0; i < n; i++, ix += incx) {
+            scale = Math.max(scale, Math.abs(x[ix]));
+        }
+
+        if (scale == 0.0 || !Double.isFinite(scale)) return scale;
+        ssq = 0.0;
+        for (int i = 0, ix = 0; i < n; i++, ix += incx) {
+            double xi = x[ix] / scale;
+            ssq += xi * xi;
+        }
+        return scale * Math.sqrt(ssq);
+    }
+
+    @Override
+    public void scal(int n, double alpha, double[] x, int incx) {
+        if (offload(n)) {
+            delegate.scal(n, alpha, x, incx);
+            return;
+        }
+
+        if (n <= 0 || incx <= 0) return;
+        for (int i = 0, ix = 0; i < n; i++, ix += incx) {
+            x[ix] *= alpha;
+        }
+    }
+
+    @Override
+    public void swap(int n, double[] x, int incx, double[] y, int incy) {
+        if (offload(n)) {
+            delegate.swap(n, x, incx, y, incy);
+            return;
+        }
+
+        for (int i = 0, ix = start(n, incx), iy = start(n, incy); i < n; i++, ix += incx, iy += incy) {
+            double t = x[ix];
+            x[ix] = y[iy];
+            y[iy] = t;
+        }
+    }
+
+    @Override
+    public long iamax(int n, double[] x, int incx) {
+        if (offload(n)) {
+            return delegate.iamax(n, x, incx);
+        }
+
+        if (n <= 0 || incx <= 0) return 0;
+        int index = 0;
+        double max = Math.abs(x[0]);
+        for (int i = 1, ix = incx; i < n; i++, ix += incx) {
+            double xi = Math.abs(x[ix]);
+            if (xi > max) {
+                index = i;
+                max = xi;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public void gemv(Layout layout, Transpose trans, int m, int n, double alpha, double[] A, int lda, double[] x, int incx, double beta, double[] y, int incy) {
+        if (offload((long) m * n)) {
+            delegate.gemv(layout, trans, m, n, alpha, A, lda, x, incx, beta, y, incy);
+            return;
+        }
+
+        if (layout == Layout.ROW_MAJOR) {
+            // A row major matrix is the transpose of column major one.
+            gemv(Layout.COL_MAJOR, flip(trans), n, m, alpha, A, lda, x, incx, beta, y, incy);
+            return;
+        }
+
+        boolean notrans = trans == Transpose.NO_TRANSPOSE;
+        int lenx = notrans ? n : m;
+        int leny = notrans ? m : n;
+        int kx = start(lenx, incx);
+        int ky = start(leny, incy);
+        scal(leny, beta, y, ky, incy);
+        if (alpha == 0.0) return;
+
+        if (notrans) {
+            for (int j = 0, jx = kx; j < n; j++, jx += incx) {
+                double temp = alpha * x[jx];
+                if (temp == 0.0) continue;
+                if (incy == 1) {
+                    unitAxpy(m, temp, A, j * lda, y, 0);
+                } else {
+                    for (int i = 0, aij = j * lda, iy = ky; i < m; i++, aij++, iy += incy) {
+                        y[iy] += temp * A[aij];
+                    }
+                }
+            }
+        } else {
+            for (int j = 0, jy = ky; j < n; j++, jy += incy) {
+                double temp;
+                if (incx == 1) {
+                    temp = unitDot(m, A, j * lda, x, 0);
+                } else {
+                    temp = 0.0;
+                    for (int i = 0, aij = j * lda, ix = kx; i < m; i++, aij++, ix += incx) {
+                        temp += A[aij] * x[ix];
+                    }
+                }
+                y[jy] += alpha * temp;
+            }
+        }
+    }
+
+    @Override
+    public void symv(Layout layout, UPLO uplo, int n, double alpha, double[] A, int lda, double[] x, int incx, double beta, double[] y, int incy) {
+        if (offload((long) n * n)) {
+            delegate.symv(layout, uplo, n, alpha, A, lda, x, incx, beta, y, incy);
+            return;
+        }
+
+        // The upper triangular of row major matrix is the lower triangular of column major one.
+        boolean upper = (uplo == UPLO.UPPER) == (layout == Layout.COL_MAJOR);
+        symv(upper, n, alpha, A, lda, x, start(n, incx), incx, beta, y, start(n, incy), incy);
+    }
+
+    @Override
+    public void trmv(Layout layout, UPLO uplo, Transpose trans, Diag diag, int n, double[] A, int lda, double[] x, int incx) {
+        if (offload((long) n * n)) {
+            delegate.trmv(layout, uplo, trans, diag, n, A, lda, x, incx);
+            return;
+        }
+
+        if (layout == Layout.ROW_MAJOR) {
+            trmv(Layout.COL_MAJOR, flip(uplo), flip(trans), diag, n, A, lda, x, incx);
+            return;
+        }
+
+        boolean nounit = diag == Diag.NON_UNIT;
+        int kx = start(n, incx);
+        if (trans == Transpose.NO_TRANSPOSE) {
+            if (uplo == UPLO.UPPER) {
+                for (int j = 0, jx = kx; j < n; j++, jx += incx) {
+                    double temp = x[jx];
+                    for (int i = 0, ix = kx; i < j; i++, ix += incx) {
+                        x[ix] += temp * A[i + j * lda];
+                    }
+                    if (nounit) x[jx] *= A[j + j * lda];
+                }
+            } else {
+                for (int j = n - 1, jx = kx + j * incx; j >= 0; j--, jx -= incx) {
+                    double temp = x[jx];
+                    for (int i = n - 1, ix = kx + i * incx; i > j; i--, ix -= incx) {
+                        x[ix] += temp * A[i + j * lda];
+                    }
+                    if (nounit) x[jx] *= A[j + j * lda];
+                }
+            }
+        } else {
+            if (uplo == UPLO.UPPER) {
+                for (int j = n - 1, jx = kx + j * incx; j >= 0; j--, jx -= incx) {
+                    double temp = x[jx];
+                    if (nounit) temp *= A[j + j * lda];
+                    for (int i = j - 1, ix = jx - incx; i >= 0; i--, ix -= incx) {
+                        temp += A[i + j * lda] * x[ix];
+                    }
+                    x[jx] = temp;
+                }
+            } else {
+                for (int j = 0, jx = kx; j < n; j++, jx += incx) {
+                    double temp = x[jx];
+                    if (nounit) temp *= A[j + j * lda];
+                    for (int i = j + 1, ix = jx + incx; i < n; i++, ix += incx) {
+                        temp += A[i + j * lda] * x[ix];
+                    }
+                    x[jx] = temp;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void ger(Layout layout, int m, int n, double alpha, double[] x, int incx, double[] y, int incy, double[] A, int lda) {
+        if (offload((long) m * n)) {
+            delegate.ger(layout, m, n, alpha, x, incx, y, incy, A, lda);
+            return;
+        }
+
+        if (layout == Layout.ROW_MAJOR) {
+            ger(Layout.COL_MAJOR, n, m, alpha, y, incy, x, incx, A, lda);
+            return;
+        }
+
+        if (alpha == 0.0) return;
+        int kx = start(m, incx);
+        for (int j = 0, jy = start(n, incy); j < n; j++, jy += incy) {
+            double temp = alpha * y[jy];
+            if (temp == 0.0) continue;
+            if (incx == 1) {
+                unitAxpy(m, temp, x, 0, A, j * lda);
+            } else {
+                for (int i = 0, aij = j * lda, ix = kx; i < m; i++, aij++, ix += incx) {
+                    A[aij] += x[ix] * temp;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void syr(Layout layout, UPLO uplo, int n, double alpha, double[] x, int incx, double[] A, int lda) {
+        if (offload((long) n * n)) {
+            delegate.syr(layout, uplo, n, alpha, x, incx, A, lda);
+            return;
+        }
+
+        if (alpha == 0.0) return;
+        boolean upper = (uplo == UPLO.UPPER) == (layout == Layout.COL_MAJOR);
+        int kx = start(n, incx);
+        for (int j = 0, jx = kx; j < n; j++, jx += incx) {
+            double temp = alpha * x[jx];
+            if (temp == 0.0) continue;
+            if (upper) {
+                for (int i = 0, ix = kx; i <= j; i++, ix += incx) {
+                    A[i + j * lda] += x[ix] * temp;
+                }
+            } else {
+                for (int i = j, ix = jx; i < n; i++, ix += incx) {
+                    A[i + j * lda] += x[ix] * temp;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gemm(Layout layout, Transpose transA, Transpose transB, int m, int n, int k, double alpha, double[] A, int lda, double[] B, int ldb, double beta, double[] C, int ldc) {
+        long flops = (long) m * n * k;
+        if (offload(flops)) {
+            delegate.gemm(layout, transA, transB, m, n, k, alpha, A, lda, B, ldb, beta, C, ldc);
+            return;
+        }
+
+        if (layout == Layout.ROW_MAJOR) {
+            // C' = op(B)' * op(A)'
+            gemm(Layout.COL_MAJOR, transB, transA, n, m, k, alpha, B, ldb, A, lda, beta, C, ldc);
+            return;
+        }
+
+        boolean ta = transA != Transpose.NO_TRANSPOSE;
+        boolean tb = transB != Transpose.NO_TRANSPOSE;
+        panels(n, flops).forEach(panel -> {
+            int j0 = panel * NB;
+            int j1 = Math.min(n, j0 + NB);
+            for (int j = j0; j < j1; j++) {
+                scal(m, beta, C, j * ldc, 1);
+            }
+
+            if (alpha == 0.0) return;
+            for (int l0 = 0; l0 < k; l0 += KB) {
+                int l1 = Math.min(k, l0 + KB);
+                for (int i0 = 0; i0 < m; i0 += MB) {
+                    int mb = Math.min(m, i0 + MB) - i0;
+                    for (int j = j0; j < j1; j++) {
+                        int cj = i0 + j * ldc;
+                        if (!ta) {
+                            for (int l = l0; l < l1; l++) {
+                                double temp = alpha * (tb ? B[j + l * ldb] : B[l + j * ldb]);
+                                if (temp != 0.0) unitAxpy(mb, temp, A, i0 + l * lda, C, cj);
+                            }
+                        } else if (!tb) {
+                            for (int i = 0; i < mb; i++) {
+                                C[cj + i] += alpha * unitDot(l1 - l0, A, l0 + (i0 + i) * lda, B, l0 + j * ldb);
+                            }
+                        } else {
+                            for (int i = 0; i < mb; i++) {
+                                double temp = 0.0;
+                                for (int l = l0, ai = (i0 + i) * lda; l < l1; l++) {
+                                    temp += A[ai + l] * B[j + l * ldb];
+                                }
+                                C[cj + i] += alpha * temp;
+                            }
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public void symm(Layout layout, Side side, UPLO uplo, int m, int n, double alpha, double[] A, int lda, double[] B, int ldb, double beta, double[] C, int ldc) {
+        long flops = side == Side.LEFT ? (long) m * m * n : (long) m * n * n;
+        if (offload(flops)) {
+            delegate.symm(layout, side, uplo, m, n, alpha, A, lda, B, ldb, beta, C, ldc);
+            return;
+        }
+
+        if (layout == Layout.ROW_MAJOR) {
+            // C' = B' * A or C' = A * B'
+            symm(Layout.COL_MAJOR, flip(side), flip(uplo), n, m, alpha, A, lda, B, ldb, beta, C, ldc);
+            return;
+        }
+
+        boolean upper = uplo == UPLO.UPPER;
+        panels(n, flops).forEach(panel -> {
+            int j1 = Math.min(n, (panel + 1) * NB);
+            for (int j = panel * NB; j < j1; j++) {
+                if (side == Side.LEFT) {
+                    symv(upper, m, alpha, A, lda, B, j * ldb, 1, beta, C, j * ldc, 1);
+                } else {
+                    scal(m, beta, C, j * ldc, 1);
+                    if (alpha == 0.0) continue;
+                    for (int l = 0; l < n; l++) {
+                        // A[l, j] of symmetric matrix
+                        double temp = alpha * ((upper == (l <= j)) ? A[l + j * lda] : A[j + l * lda]);
+                        if (temp != 0.0) unitAxpy(m, temp, B, l * ldb, C, j * ldc);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Symmetric matrix-vector multiplication of column major matrix.
+     * y := alpha*A*x + beta*y.
+     */
+    private static void symv(boolean upper, int n, double alpha, double[] A, int lda, double[] x, int kx, int incx, double beta, double[] y, int ky, int incy) {
+        scal(n, beta, y, ky, incy);
+        if (alpha == 0.0) return;
+
+        for (int j = 0, jx = kx, jy = ky; j < n; j++, jx += incx, jy += incy) {
+            double temp1 = alpha * x[jx];
+            double temp2 = 0.0;
+            int i0 = upper ? 0 : j + 1;
+            int i1 = upper ? j : n;
+            for (int i = i0, ix = kx + i0 * incx, iy = ky + i0 * incy; i < i1; i++, ix += incx, iy += incy) {
+                double aij = A[i + j * lda];
+                y[iy] += temp1 * aij;
+                temp2 += aij * x[ix];
+            }
+            y[jy] += temp1 * A[j + j * lda] + alpha * temp2;
+        }
+    }
+
+    /**
+     * Scales a vector in place. When beta is zero, the vector is
+     * set to zero without reading it, which may contain NaN.
+     */
+    private static void scal(int n, double beta, double[] y, int ky, int incy) {
+        if (beta == 1.0) return;
+        for (int i = 0, iy = ky; i < n; i++, iy += incy) {
+            y[iy] = beta == 0.0 ? 0.0 : beta * y[iy];
+        }
+    }
+
+    /** Unit stride y[yo:yo+n] += alpha * x[xo:xo+n]. */
+    private static void unitAxpy(int n, double alpha, double[] x, int xo, double[] y, int yo) {
+        for (int i = 0; i < n; i++) {
+            y[yo + i] += alpha * x[xo + i];
+        }
+    }
+
+    /** Unit stride dot product of x[xo:xo+n] and y[yo:yo+n]. */
+    private static double unitDot(int n, double[] x, int xo, double[] y, int yo) {
+        // Independent partial sums break the dependency chain of additions.
+        double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+        int i = 0;
+        for (; i + 3 < n; i += 4) {
+            s0 += x[xo + i] * y[yo + i];
+            s1 += x[xo + i + 1] * y[yo + i + 1];
+            s2 += x[xo + i + 2] * y[yo + i + 2];
+            s3 += x[xo + i + 3] * y[yo + i + 3];
+        }
+        for (; i < n; i++) {
+            s0 += x[xo + i] * y[yo + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public float asum(int n, float[] x, int incx) {
+        if (offload(n)) {
+            return delegate.asum(n, x, incx);
+        }
+
+        float sum = 0.0f;
+        if (n <= 0 || incx <= 0) return sum;
+        for (int i = 0, ix = 0; i < n; i++, ix += incx) {
+            sum += Math.abs(x[ix]);
+        }
+        return sum;
+    }
+
+    @Override
+    public void axpy(int n, float alpha, float[] x, int incx, float[] y, int incy) {
+        if (offload(n)) {
+            delegate.axpy(n, alpha, x, incx, y, incy);
+            return;
+        }
+
+        if (n <= 0 || alpha == 0.0f) return;
+        if (incx == 1 && incy == 1) {
+            unitAxpy(n, alpha, x, 0, y, 0);
+        } else {
+            for (int i = 0, ix = start(n, incx), iy = start(n, incy); i < n; i++, ix += incx, iy += incy) {
+                y[iy] += alpha * x[ix];
+            }
+        }
+    }
+
+    @Override
+    public float dot(int n, float[] x, int incx, float[] y, int incy) {
+        if (offload(n)) {
+            return delegate.dot(n, x, incx, y, incy);
+        }
+
+        if (n <= 0) return 0.0f;
+        if (incx == 1 && incy == 1) {
+            return unitDot(n, x, 0, y, 0);
+        }
+
+        float sum = 0.0f;
+        for (int i = 0, ix = start(n, incx), iy = start(n, incy); i < n; i++, ix += incx, iy += incy) {
+            sum += x[ix] * y[iy];
+        }
+        return sum;
+    }
+
+    @Override
+    public float nrm2(int n, float[] x, int incx) {
+        if (offload(n)) {
+            return delegate.nrm2(n, x, incx);
+        }
+
+        if (n <= 0 || incx <= 0) return 0.0f;
+        float ssq = 0.0f;
+        for (int i = 0, ix = 0; i < n; i++, ix += incx) {
+            ssq += x[ix] * x[ix];
+        }
+
+        if (Float.isFinite(ssq) && ssq >= Float.MIN_NORMAL) {
+            return (float) Math.sqrt(ssq);
+        }
+
+        // The sum of squares overflows or underflows. Scale by the max.
+        float scale = 0.0f;
+        for (int i = 0, ix = 0; i < n; i++, ix += incx) {
+            scale = Math.max(scale, Math.abs(x[ix]));
+        }
+
+        if (scale == 0.0f || !Float.isFinite(scale)) return scale;
+        ssq = 0.0f;
+        for (int i = 0, ix = 0; i < n; i++, ix += incx) {
+            float xi = x[ix] / scale;
+            ssq += xi * xi;
+        }
+        return scale * (float) Math.sqrt(ssq);
+    }
+
+    @Override
+    public void scal(int n, float alpha, float[] x, int incx) {
+        if (offload(n)) {
+            delegate.scal(n, alpha, x, incx);
+            return;
+        }
+
+        if (n <= 0 || incx <= 0) return;
+        for (int i = 0, ix = 0; i < n; i++, ix += incx) {
+            x[ix] *= alpha;
+        }
+    }
+
+    @Override
+    public void swap(int n, float[] x, int incx, float[] y, int incy) {
+        if (offload(n)) {
+            delegate.swap(n, x, incx, y, incy);
+            return;
+        }
+
+        for (int i = 0, ix = start(n, incx), iy = start(n, incy); i < n; i++, ix += incx, iy += incy) {
+            float t = x[ix];
+            x[ix] = y[iy];
+            y[iy] = t;
+        }
+    }
+
+    @Override
+    public long iamax(int n, float[] x, int incx) {
+        if (offload(n)) {
+            return delegate.iamax(n, x, incx);
+        }
+
+        if (n <= 0 || incx <= 0) return 0;
+        int index = 0;
+        float max = Math.abs(x[0]);
+        for (int i = 1, ix = incx; i < n; i++, ix += incx) {
+            float xi = Math.abs(x[ix]);
+            if (xi > max) {
+                index = i;
+                max = xi;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public void gemv(Layout layout, Transpose trans, int m, int n, float alpha, float[] A, int lda, float[] x, int incx, float beta, float[] y, int incy) {
+        if (offload((long) m * n)) {
+            delegate.gemv(layout, trans, m, n, alpha, A, lda, x, incx, beta, y, incy);
+            return;
+        }
+
+        if (layout == Layout.ROW_MAJOR) {
+            // A row major matrix is the transpose of column major one.
+            gemv(Layout.COL_MAJOR, flip(trans), n, m, alpha, A, lda, x, incx, beta, y, incy);
+            return;
+        }
+
+        boolean notrans = trans == Transpose.NO_TRANSPOSE;
+        int lenx = notrans ? n : m;
+        int leny = notrans ? m : n;
+        int kx = start(lenx, incx);
+        int ky = start(leny, incy);
+        scal(leny, beta, y, ky, incy);
+        if (alpha == 0.0f) return;
+
+        if (notrans) {
+            for (int j = 0, jx = kx; j < n; j++, jx += incx) {
+                float temp = alpha * x[jx];
+                if (temp == 0.0f) continue;
+                if (incy == 1) {
+                    unitAxpy(m, temp, A, j * lda, y, 0);
+                } else {
+                    for (int i = 0, aij = j * lda, iy = ky; i < m; i++, aij++, iy += incy) {
+                        y[iy] += temp * A[aij];
+                    }
+                }
+            }
+        } else {
+            for (int j = 0, jy = ky; j < n; j++, jy += incy) {
+                float temp;
+                if (incx == 1) {
+                    temp = unitDot(m, A, j * lda, x, 0);
+                } else {
+                    temp = 0.0f;
+                    for (int i = 0, aij = j * lda, ix = kx; i < m; i++, aij++, ix += incx) {
+                        temp += A[aij] * x[ix];
+                    }
+                }
+                y[jy] += alpha * temp;
+            }
+        }
+    }
+
+    @Override
+    public void symv(Layout layout, UPLO uplo, int n, float alpha, float[] A, int lda, float[] x, int incx, float beta, float[] y, int incy) {
+        if (offload((long) n * n)) {
+            delegate.symv(layout, uplo, n, alpha, A, lda, x, incx, beta, y, incy);
+            return;
+        }
+
+        // The upper triangular of row major matrix is the lower triangular of column major one.
+        boolean upper = (uplo == UPLO.UPPER) == (layout == Layout.COL_MAJOR);
+        symv(upper, n, alpha, A, lda, x, start(n, incx), incx, beta, y, start(n, incy), incy);
+    }
+
+    @Override
+    public void trmv(Layout layout, UPLO uplo, Transpose trans, Diag diag, int n, float[] A, int lda, float[] x, int incx) {
+        if (offload((long) n * n)) {
+            delegate.trmv(layout, uplo, trans, diag, n, A, lda, x, incx);
+            return;
+        }
+
+        if (layout == Layout.ROW_MAJOR) {
+            trmv(Layout.COL_MAJOR, flip(uplo), flip(trans), diag, n, A, lda, x, incx);
+            return;
+        }
+
+        boolean nounit = diag == Diag.NON_UNIT;
+        int kx = start(n, incx);
+        if (trans == Transpose.NO_TRANSPOSE) {
+            if (uplo == UPLO.UPPER) {
+                for (int j = 0, jx = kx; j < n; j++, jx += incx) {
+                    float temp = x[jx];
+                    for (int i = 0, ix = kx; i < j; i++, ix += incx) {
+                        x[ix] += temp * A[i + j * lda];
+                    }
+                    if (nounit) x[jx] *= A[j + j * lda];
+                }
+            } else {
+                for (int j = n - 1, jx = kx + j * incx; j >= 0; j--, jx -= incx) {
+                    float temp = x[jx];
+                    for (int i = n - 1, ix = kx + i * incx; i > j; i--, ix -= incx) {
+                        x[ix] += temp * A[i + j * lda];
+                    }
+                    if (nounit) x[jx] *= A[j + j * lda];
+                }
+            }
+        } else {
+            if (uplo == UPLO.UPPER) {
+                for (int j = n - 1, jx = kx + j * incx; j >= 0; j--, jx -= incx) {
+                    float temp = x[jx];
+                    if (nounit) temp *= A[j + j * lda];
+                    for (int i = j - 1, ix = jx - incx; i >= 0; i--, ix -= incx) {
+                        temp += A[i + j * lda] * x[ix];
+                    }
+                    x[jx] = temp;
+                }
+            } else {
+                for (int j = 0, jx = kx; j < n; j++, jx += incx) {
+                    float temp = x[jx];
+                    if (nounit) temp *= A[j + j * lda];
+                    for (int i = j + 1, ix = jx + incx; i < n; i++, ix += incx) {
+                        temp += A[i + j * lda] * x[ix];
+                    }
+                    x[jx] = temp;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void ger(Layout layout, int m, int n, float alpha, float[] x, int incx, float[] y, int incy, float[] A, int lda) {
+        if (offload((long) m * n)) {
+            delegate.ger(layout, m, n, alpha, x, incx, y, incy, A, lda);
+            return;
+        }
+
+        if (layout == Layout.ROW_MAJOR) {
+            ger(Layout.COL_MAJOR, n, m, alpha, y, incy, x, incx, A, lda);
+            return;
+        }
+
+        if (alpha == 0.0f) return;
+        int kx = start(m, incx);
+        for (int j = 0, jy = start(n, incy); j < n; j++, jy += incy) {
+            float temp = alpha * y[jy];
+            if (temp == 0.0f) continue;
+            if (incx == 1) {
+                unitAxpy(m, temp, x, 0, A, j * lda);
+            } else {
+                for (int i = 0, aij = j * lda, ix = kx; i < m; i++, aij++, ix += incx) {
+                    A[aij] += x[ix] * temp;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void syr(Layout layout, UPLO uplo, int n, float alpha, float[] x, int incx, float[] A, int lda) {
+        if (offload((long) n * n)) {
+            delegate.syr(layout, uplo, n, alpha, x, incx, A, lda);
+            return;
+        }
+
+        if (alpha == 0.0f) return;
+        boolean upper = (uplo == UPLO.UPPER) == (layout == Layout.COL_MAJOR);
+        int kx = start(n, incx);
+        for (int j = 0, jx = kx; j < n; j++, jx += incx) {
+            float temp = alpha * x[jx];
+            if (temp == 0.0f) continue;
+            if (upper) {
+                for (int i = 0, ix = kx; i <= j; i++, ix += incx) {
+                    A[i + j * lda] += x[ix] * temp;
+                }
+            } else {
+                for (int i = j, ix = jx; i < n; i++, ix += incx) {
+                    A[i + j * lda] += x[ix] * temp;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gemm(Layout layout, Transpose transA, Transpose transB, int m, int n, int k, float alpha, float[] A, int lda, float[] B, int ldb, float beta, float[] C, int ldc) {
+        long flops = (long) m * n * k;
+        if (offload(flops)) {
+            delegate.gemm(layout, transA, transB, m, n, k, alpha, A, lda, B, ldb, beta, C, ldc);
+            return;
+        }
+
+        if (layout == Layout.ROW_MAJOR) {
+            // C' = op(B)' * op(A)'
+            gemm(Layout.COL_MAJOR, transB, transA, n, m, k, alpha, B, ldb, A, lda, beta, C, ldc);
+            return;
+        }
+
+        boolean ta = transA != Transpose.NO_TRANSPOSE;
+        boolean tb = transB != Transpose.NO_TRANSPOSE;
+        panels(n, flops).forEach(panel -> {
+            int j0 = panel * NB;
+            int j1 = Math.min(n, j0 + NB);
+            for (int j = j0; j < j1; j++) {
+                scal(m, beta, C, j * ldc, 1);
+            }
+
+            if (alpha == 0.0f) return;
+            for (int l0 = 0; l0 < k; l0 += KB) {
+                int l1 = Math.min(k, l0 + KB);
+                for (int i0 = 0; i0 < m; i0 += MB) {
+                    int mb = Math.min(m, i0 + MB) - i0;
+                    for (int j = j0; j < j1; j++) {
+                        int cj = i0 + j * ldc;
+                        if (!ta) {
+                            for (int l = l0; l < l1; l++) {
+                                float temp = alpha * (tb ? B[j + l * ldb] : B[l + j * ldb]);
+                                if (temp != 0.0f) unitAxpy(mb, temp, A, i0 + l * lda, C, cj);
+                            }
+                        } else if (!tb) {
+                            for (int i = 0; i < mb; i++) {
+                                C[cj + i] += alpha * unitDot(l1 - l0, A, l0 + (i0 + i) * lda, B, l0 + j * ldb);
+                            }
+                        } else {
+                            for (int i = 0; i < mb; i++) {
+                                float temp = 0.0f;
+                                for (int l = l0, ai = (i0 + i) * lda; l < l1; l++) {
+                                    temp += A[ai + l] * B[j + l * ldb];
+                                }
+                                C[cj + i] += alpha * temp;
+                            }
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public void symm(Layout layout, Side side, UPLO uplo, int m, int n, float alpha, float[] A, int lda, float[] B, int ldb, float beta, float[] C, int ldc) {
+        long flops = side == Side.LEFT ? (long) m * m * n : (long) m * n * n;
+        if (offload(flops)) {
+            delegate.symm(layout, side, uplo, m, n, alpha, A, lda, B, ldb, beta, C, ldc);
+            return;
+        }
+
+        if (layout == Layout.ROW_MAJOR) {
+            // C' = B' * A or C' = A * B'
+            symm(Layout.COL_MAJOR, flip(side), flip(uplo), n, m, alpha, A, lda, B, ldb, beta, C, ldc);
+            return;
+        }
+
+        boolean upper = uplo == UPLO.UPPER;
+        panels(n, flops).forEach(panel -> {
+            int j1 = Math.min(n, (panel + 1) * NB);
+            for (int j = panel * NB; j < j1; j++) {
+                if (side == Side.LEFT) {
+                    symv(upper, m, alpha, A, lda, B, j * ldb, 1, beta, C, j * ldc, 1);
+                } else {
+                    scal(m, beta, C, j * ldc, 1);
+                    if (alpha == 0.0f) continue;
+                    for (int l = 0; l < n; l++) {
+                        // A[l, j] of symmetric matrix
+                        float temp = alpha * ((upper == (l <= j)) ? A[l + j * lda] : A[j + l * lda]);
+                        if (temp != 0.0f) unitAxpy(m, temp, B, l * ldb, C, j * ldc);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Symmetric matrix-vector multiplication of column major matrix.
+     * y := alpha*A*x + beta*y.
+     */
+    private static void symv(boolean upper, int n, float alpha, float[] A, int lda, float[] x, int kx, int incx, float beta, float[] y, int ky, int incy) {
+        scal(n, beta, y, ky, incy);
+        if (alpha == 0.0f) return;
+
+        for (int j = 0, jx = kx, jy = ky; j < n; j++, jx += incx, jy += incy) {
+            float temp1 = alpha * x[jx];
+            float temp2 = 0.0f;
+            int i0 = upper ? 0 : j + 1;
+            int i1 = upper ? j : n;
+            for (int i = i0, ix = kx + i0 * incx, iy = ky + i0 * incy; i < i1; i++, ix += incx, iy += incy) {
+                float aij = A[i + j * lda];
+                y[iy] += temp1 * aij;
+                temp2 += aij * x[ix];
+            }
+            y[jy] += temp1 * A[j + j * lda] + alpha * temp2;
+        }
+    }
+
+    /**
+     * Scales a vector in place. When beta is zero, the vector is
+     * set to zero without reading it, which may contain NaN.
+     */
+    private static void scal(int n, float beta, float[] y, int ky, int incy) {
+        if (beta == 1.0f) return;
+        for (int i = 0, iy = ky; i < n; i++, iy += incy) {
+            y[iy] = beta == 0.0f ? 0.0f : beta * y[iy];
+        }
+    }
+
+    /** Unit stride y[yo:yo+n] += alpha * x[xo:xo+n]. */
+    private static void unitAxpy(int n, float alpha, float[] x, int xo, float[] y, int yo) {
+        for (int i = 0; i < n; i++) {
+            y[yo + i] += alpha * x[xo + i];
+        }
+    }
+
+    /** Unit stride dot product of x[xo:xo+n] and y[yo:yo+n]. */
+    private static float unitDot(int n, float[] x, int xo, float[] y, int yo) {
+        // Independent partial sums break the dependency chain of additions.
+        float s0 = 0.0f, s1 = 0.0f, s2 = 0.0f, s3 = 0.0f;
+        int i = 0;
+        for (; i + 3 < n; i += 4) {
+            s0 += x[xo + i] * y[yo + i];
+            s1 += x[xo + i + 1] * y[yo + i + 1];
+            s2 += x[xo + i + 2] * y[yo + i + 2];
+            s3 += x[xo + i + 3] * y[yo + i + 3];
+        }
+        for (; i < n; i++) {
+            s0 += x[xo + i] * y[yo + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public void gemv(Layout layout, Transpose trans, int m, int n, double alpha, DoubleBuffer A, int lda, DoubleBuffer x, int incx, double beta, DoubleBuffer y, int incy) {
+        if (delegate != null) {
+            delegate.gemv(layout, trans, m, n, alpha, A, lda, x, incx, beta, y, incy);
+            return;
+        }
+
+        // Without native library, e.g. memory-mapped matrices.
+        if (layout == Layout.ROW_MAJOR) {
+            gemv(Layout.COL_MAJOR, flip(trans), n, m, alpha, A, lda, x, incx, beta, y, incy);
+            return;
+        }
+
+        boolean notrans = trans == Transpose.NO_TRANSPOSE;
+        int lenx = notrans ? n : m;
+        int leny = notrans ? m : n;
+        int kx = start(lenx, incx);
+        int ky = start(leny, incy);
+        if (beta != 1.0) {
+            for (int i = 0, iy = ky; i < leny; i++, iy += incy) {
+                y.put(iy, beta == 0.0 ? 0.0 : beta * y.get(iy));
+            }
+        }
+        if (alpha == 0.0) return;
+
+        for (int j = 0, jx = kx, jy = ky; j < n; j++, jx += incx, jy += incy) {
+            if (notrans) {
+                double temp = alpha * x.get(jx);
+                for (int i = 0, aij = j * lda, iy = ky; i < m; i++, aij++, iy += incy) {
+                    y.put(iy, y.get(iy) + temp * A.get(aij));
+                }
+            } else {
+                double temp = 0.0;
+                for (int i = 0, aij = j * lda, ix = kx; i < m; i++, aij++, ix += incx) {
+                    temp += A.get(aij) * x.get(ix);
+                }
+                y.put(jy, y.get(jy) + alpha * temp);
+            }
+        }
+    }
+
+    @Override
+    public void gemv(Layout layout, Transpose trans, int m, int n, double alpha, DoublePointer A, int lda, DoublePointer x, int incx, double beta, DoublePointer y, int incy) {
+        delegate().gemv(layout, trans, m, n, alpha, A, lda, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void gemv(Layout layout, Transpose trans, int m, int n, float alpha, FloatBuffer A, int lda, FloatBuffer x, int incx, float beta, FloatBuffer y, int incy) {
+        delegate().gemv(layout, trans, m, n, alpha, A, lda, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void symv(Layout layout, UPLO uplo, int n, double alpha, DoubleBuffer A, int lda, DoubleBuffer x, int incx, double beta, DoubleBuffer y, int incy) {
+        delegate().symv(layout, uplo, n, alpha, A, lda, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void symv(Layout layout, UPLO uplo, int n, double alpha, DoublePointer A, int lda, DoublePointer x, int incx, double beta, DoublePointer y, int incy) {
+        delegate().symv(layout, uplo, n, alpha, A, lda, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void symv(Layout layout, UPLO uplo, int n, float alpha, FloatBuffer A, int lda, FloatBuffer x, int incx, float beta, FloatBuffer y, int incy) {
+        delegate().symv(layout, uplo, n, alpha, A, lda, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void spmv(Layout layout, UPLO uplo, int n, double alpha, double[] A, double[] x, int incx, double beta, double[] y, int incy) {
+        delegate().spmv(layout, uplo, n, alpha, A, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void spmv(Layout layout, UPLO uplo, int n, double alpha, DoubleBuffer A, DoubleBuffer x, int incx, double beta, DoubleBuffer y, int incy) {
+        delegate().spmv(layout, uplo, n, alpha, A, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void spmv(Layout layout, UPLO uplo, int n, float alpha, float[] A, float[] x, int incx, float beta, float[] y, int incy) {
+        delegate().spmv(layout, uplo, n, alpha, A, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void spmv(Layout layout, UPLO uplo, int n, float alpha, FloatBuffer A, FloatBuffer x, int incx, float beta, FloatBuffer y, int incy) {
+        delegate().spmv(layout, uplo, n, alpha, A, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void trmv(Layout layout, UPLO uplo, Transpose trans, Diag diag, int n, DoubleBuffer A, int lda, DoubleBuffer x, int incx) {
+        delegate().trmv(layout, uplo, trans, diag, n, A, lda, x, incx);
+    }
+
+    @Override
+    public void trmv(Layout layout, UPLO uplo, Transpose trans, Diag diag, int n, DoublePointer A, int lda, DoublePointer x, int incx) {
+        delegate().trmv(layout, uplo, trans, diag, n, A, lda, x, incx);
+    }
+
+    @Override
+    public void trmv(Layout layout, UPLO uplo, Transpose trans, Diag diag, int n, FloatBuffer A, int lda, FloatBuffer x, int incx) {
+        delegate().trmv(layout, uplo, trans, diag, n, A, lda, x, incx);
+    }
+
+    @Override
+    public void tpmv(Layout layout, UPLO uplo, Transpose trans, Diag diag, int n, double[] A, double[] x, int incx) {
+        delegate().tpmv(layout, uplo, trans, diag, n, A, x, incx);
+    }
+
+    @Override
+    public void tpmv(Layout layout, UPLO uplo, Transpose trans, Diag diag, int n, DoubleBuffer A, DoubleBuffer x, int incx) {
+        delegate().tpmv(layout, uplo, trans, diag, n, A, x, incx);
+    }
+
+    @Override
+    public void tpmv(Layout layout, UPLO uplo, Transpose trans, Diag diag, int n, float[] A, float[] x, int incx) {
+        delegate().tpmv(layout, uplo, trans, diag, n, A, x, incx);
+    }
+
+    @Override
+    public void tpmv(Layout layout, UPLO uplo, Transpose trans, Diag diag, int n, FloatBuffer A, FloatBuffer x, int incx) {
+        delegate().tpmv(layout, uplo, trans, diag, n, A, x, incx);
+    }
+
+    @Override
+    public void gbmv(Layout layout, Transpose trans, int m, int n, int kl, int ku, double alpha, double[] A, int lda, double[] x, int incx, double beta, double[] y, int incy) {
+        delegate().gbmv(layout, trans, m, n, kl, ku, alpha, A, lda, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void gbmv(Layout layout, Transpose trans, int m, int n, int kl, int ku, double alpha, DoubleBuffer A, int lda, DoubleBuffer x, int incx, double beta, DoubleBuffer y, int incy) {
+        delegate().gbmv(layout, trans, m, n, kl, ku, alpha, A, lda, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void gbmv(Layout layout, Transpose trans, int m, int n, int kl, int ku, float alpha, float[] A, int lda, float[] x, int incx, float beta, float[] y, int incy) {
+        delegate().gbmv(layout, trans, m, n, kl, ku, alpha, A, lda, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void gbmv(Layout layout, Transpose trans, int m, int n, int kl, int ku, float alpha, FloatBuffer A, int lda, FloatBuffer x, int incx, float beta, FloatBuffer y, int incy) {
+        delegate().gbmv(layout, trans, m, n, kl, ku, alpha, A, lda, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void sbmv(Layout layout, UPLO uplo, int n, int k, double alpha, double[] A, int lda, double[] x, int incx, double beta, double[] y, int incy) {
+        delegate().sbmv(layout, uplo, n, k, alpha, A, lda, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void sbmv(Layout layout, UPLO uplo, int n, int k, double alpha, DoubleBuffer A, int lda, DoubleBuffer x, int incx, double beta, DoubleBuffer y, int incy) {
+        delegate().sbmv(layout, uplo, n, k, alpha, A, lda, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void sbmv(Layout layout, UPLO uplo, int n, int k, float alpha, float[] A, int lda, float[] x, int incx, float beta, float[] y, int incy) {
+        delegate().sbmv(layout, uplo, n, k, alpha, A, lda, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void sbmv(Layout layout, UPLO uplo, int n, int k, float alpha, FloatBuffer A, int lda, FloatBuffer x, int incx, float beta, FloatBuffer y, int incy) {
+        delegate().sbmv(layout, uplo, n, k, alpha, A, lda, x, incx, beta, y, incy);
+    }
+
+    @Override
+    public void ger(Layout layout, int m, int n, double alpha, DoubleBuffer x, int incx, DoubleBuffer y, int incy, DoubleBuffer A, int lda) {
+        delegate().ger(layout, m, n, alpha, x, incx, y, incy, A, lda);
+    }
+
+    @Override
+    public void ger(Layout layout, int m, int n, double alpha, DoublePointer x, int incx, DoublePointer y, int incy, DoublePointer A, int lda) {
+        delegate().ger(layout, m, n, alpha, x, incx, y, incy, A, lda);
+    }
+
+    @Override
+    public void ger(Layout layout, int m, int n, float alpha, FloatBuffer x, int incx, FloatBuffer y, int incy, FloatBuffer A, int lda) {
+        delegate().ger(layout, m, n, alpha, x, incx, y, incy, A, lda);
+    }
+
+    @Override
+    public void syr(Layout layout, UPLO uplo, int n, double alpha, DoubleBuffer x, int incx, DoubleBuffer A, int lda) {
+        delegate().syr(layout, uplo, n, alpha, x, incx, A, lda);
+    }
+
+    @Override
+    public void syr(Layout layout, UPLO uplo, int n, double alpha, DoublePointer x, int incx, DoublePointer A, int lda) {
+        delegate().syr(layout, uplo, n, alpha, x, incx, A, lda);
+    }
+
+    @Override
+    public void syr(Layout layout, UPLO uplo, int n, float alpha, FloatBuffer x, int incx, FloatBuffer A, int lda) {
+        delegate().syr(layout, uplo, n, alpha, x, incx, A, lda);
+    }
+
+    @Override
+    public void spr(Layout layout, UPLO uplo, int n, double alpha, double[] x, int incx, double[] A) {
+        delegate().spr(layout, uplo, n, alpha, x, incx, A);
+    }
+
+    @Override
+    public void spr(Layout layout, UPLO uplo, int n, double alpha, DoubleBuffer x, int incx, DoubleBuffer A) {
+        delegate().spr(layout, uplo, n, alpha, x, incx, A);
+    }
+
+    @Override
+    public void spr(Layout layout, UPLO uplo, int n, float alpha, float[] x, int incx, float[] A) {
+        delegate().spr(layout, uplo, n, alpha, x, incx, A);
+    }
+
+    @Override
+    public void spr(Layout layout, UPLO uplo, int n, float alpha, FloatBuffer x, int incx, FloatBuffer A) {
+        delegate().spr(layout, uplo, n, alpha, x, incx, A);
+    }
+
+    @Override
+    public void gemm(Layout layout, Transpose transA, Transpose transB, int m, int n, int k, double alpha, DoubleBuffer A, int lda, DoubleBuffer B, int ldb, double beta, DoubleBuffer C, int ldc) {
+        delegate().gemm(layout, transA, transB, m, n, k, alpha, A, lda, B, ldb, beta, C, ldc);
+    }
+
+    @Override
+    public void gemm(Layout layout, Transpose transA, Transpose transB, int m, int n, int k, double alpha, DoublePointer A, int lda, DoublePointer B, int ldb, double beta, DoublePointer C, int ldc) {
+        delegate().gemm(layout, transA, transB, m, n, k, alpha, A, lda, B, ldb, beta, C, ldc);
+    }
+
+    @Override
+    public void gemm(Layout layout, Transpose transA, Transpose transB, int m, int n, int k, float alpha, FloatBuffer A, int lda, FloatBuffer B, int ldb, float beta, FloatBuffer C, int ldc) {
+        delegate().gemm(layout, transA, transB, m, n, k, alpha, A, lda, B, ldb, beta, C, ldc);
+    }
+
+    @Override
+    public void symm(Layout layout, Side side, UPLO uplo, int m, int n, double alpha, DoubleBuffer A, int lda, DoubleBuffer B, int ldb, double beta, DoubleBuffer C, int ldc) {
+        delegate().symm(layout, side, uplo, m, n, alpha, A, lda, B, ldb, beta, C, ldc);
+    }
+
+    @Override
+    public void symm(Layout layout, Side side, UPLO uplo, int m, int n, double alpha, DoublePointer A, int lda, DoublePointer B, int ldb, double beta, DoublePointer C, int ldc) {
+        delegate().symm(layout, side, uplo, m, n, alpha, A, lda, B, ldb, beta, C, ldc);
+    }
+
+    @Override
+    public void symm(Layout layout, Side side, UPLO uplo, int m, int n, float alpha, FloatBuffer A, int lda, FloatBuffer B, int ldb, float beta, FloatBuffer C, int ldc) {
+        delegate().symm(layout, side, uplo, m, n, alpha, A, lda, B, ldb, beta, C, ldc);
+    }
+}
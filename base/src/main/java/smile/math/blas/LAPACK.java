@@ -36,11 +36,13 @@ public interface LAPACK {
     LAPACK engine = getInstance();
 
     /**
-     * Creates an instance.
+     * Creates an instance. The backend is chosen by the system property
+     * {@code smile.blas}, which may be {@code openblas} (default),
+     * {@code mkl}, {@code java} or a class name.
      * @return a LAPACK instance.
      */
     static LAPACK getInstance() {
-        return new smile.math.blas.openblas.OpenBLAS();
+        return Backend.lapack();
     }
 
     /**
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.math.distance;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import smile.math.MathEx;
+import smile.math.blas.BLAS;
+import smile.math.blas.Layout;
+import smile.math.blas.Transpose;
+import smile.math.blas.UPLO;
+import smile.math.matrix.SymmMatrix;
+
+/**
+ * Blocked pairwise dot product and Euclidean distance of dense vectors.
+ * The pairwise matrix is computed by tiles, each of which is a matrix
+ * multiplication by BLAS-3. The squared Euclidean distance is derived
+ * from the dot products as {@code ||x||<sup>2</sup> + ||y||<sup>2</sup> - 2x'y}
+ * with cached squared norms. The tiles are computed in parallel and
+ * passed to a consumer, which may write them to a dense, packed symmetric
+ * or linearized matrix, or process them on the fly without materializing
+ * the whole matrix.
+ * <p>
+ * The dot product formulation loses precision by cancellation when two
+ * vectors are very close to each other compared to their norms. Such
+ * pairs, of which the squared distance is less than {@code 1E-6} of the
+ * sum of squared norms, are recomputed directly from the vectors. The
+ * other distances have the relative error in the order of
+ * {@code d * 1E-10} for vectors of dimension {@code d}. The distances
+ * are clamped to be non-negative, and the distance of a vector to itself
+ * is exactly zero. When the full precision is required for all pairs,
+ * use {@link smile.math.MathEx#pdist(double[][], boolean) MathEx.pdist}.
+ * <p>
+ * The Euclidean proximity matrix of hierarchical clustering and the
+ * kernel matrices of Gaussian process regression on dense vectors use
+ * this engine by default. Set the system property
+ * {@code smile.pairwise_distance.blocked} to {@code false} to compute
+ * them pair by pair instead.
+ *
+ * @author Haifeng Li
+ */
+public class PairwiseDistance {
+    /** The number of vectors in a tile. */
+    private static final int BLOCK = 256;
+    /**
+     * The relative squared distance below which the distance
+     * is recomputed directly to avoid cancellation.
+     */
+    private static final double CANCELLATION = 1E-6;
+
+    /**
+     * The consumer of tiles of pairwise matrix. A tile may be processed
+     * concurrently with other tiles. The tile buffer is reused after
+     * the call so that it should not be retained.
+     */
+    @FunctionalInterface
+    public interface TileConsumer {
+        /**
+         * Consumes a tile of pairwise matrix.
+         * @param i the row index of the first element of tile.
+         * @param j the column index of the first element of tile.
+         * @param m the number of rows of tile.
+         * @param n the number of columns of tile.
+         * @param tile the elements of tile in column major order,
+         *             i.e. element (i+a, j+b) is {@code tile[a + b*m]}.
+         */
+        void accept(int i, int j, int m, int n, double[] tile);
+    }
+
+    /** Private constructor to prevent instance creation. */
+    private PairwiseDistance() {
+
+    }
+
+    /**
+     * Returns true if the consumers of dense vectors, e.g. linkage
+     * proximity and Gaussian process kernel matrices, should use the
+     * blocked engine, which is controlled by the system property
+     * {@code smile.pairwise_distance.blocked} (true by default).
+     * @return true if the blocked engine is enabled by default.
+     */
+    public static boolean isDefault() {
+        return Boolean.parseBoolean(System.getProperty("smile.pairwise_distance.blocked", "true"));
+    }
+
+    /**
+     * Computes the pairwise dot products of vectors. As the matrix is
+     * symmetric, only the tiles in the lower half, i.e. {@code i >= j},
+     * are computed. The diagonal tiles are complete squares.
+     * @param x the vectors.
+     * @param consumer the tile consumer.
+     */
+    public static void dot(double[][] x, TileConsumer consumer) {
+        tiles(x, x, true, null, null, false, consumer);
+    }
+
+    /**
+     * Computes the dot products between two sets of vectors.
+     * @param x the row vectors.
+     * @param y the column vectors.
+     * @param consumer the tile consumer.
+     */
+    public static void dot(double[][] x, double[][] y, TileConsumer consumer) {
+        tiles(x, y, false, null, null, false, consumer);
+    }
+
+    /**
+     * Computes the pairwise Euclidean distance of vectors. As the matrix
+     * is symmetric, only the tiles in the lower half, i.e. {@code i >= j},
+     * are computed. The diagonal tiles are complete squares.
+     * @param x the vectors.
+     * @param squared if true, computes the squared Euclidean distance.
+     * @param consumer the tile consumer.
+     */
+    public static void distance(double[][] x, boolean squared, TileConsumer consumer) {
+        double[] norm = norm(x);
+        tiles(x, x, true, norm, norm, squared, consumer);
+    }
+
+    /**
+     * Computes the Euclidean distance between two sets of vectors.
+     * @param x the row vectors.
+     * @param y the column vectors.
+     * @param squared if true, computes the squared Euclidean distance.
+     * @param consumer the tile consumer.
+     */
+    public static void distance(double[][] x, double[][] y, boolean squared, TileConsumer consumer) {
+        tiles(x, y, false, norm(x), norm(y), squared, consumer);
+    }
+
+    /**
+     * Returns the pairwise Euclidean distance matrix of vectors.
+     * @param x the vectors.
+     * @param squared if true, computes the squared Euclidean distance.
+     * @return the packed symmetric distance matrix.
+     */
+    public static SymmMatrix pdist(double[][] x, boolean squared) {
+        SymmMatrix D = new SymmMatrix(UPLO.LOWER, x.length);
+        distance(x, squared, (i, j, m, n, tile) -> {
+            for (int b = 0; b < n; b++) {
+                for (int a = 0; a < m; a++) {
+                    if (i + a >= j + b) {
+                        D.set(i + a, j + b, tile[a + b * m]);
+                    }
+                }
+            }
+        });
+        return D;
+    }
+
+    /**
+     * Returns the squared norms of vectors.
+     * @param x the vectors.
+     * @return the squared norms.
+     */
+    private static double[] norm(double[][] x) {
+        double[] norm = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            norm[i] = MathEx.dot(x[i], x[i]);
+        }
+        return norm;
+    }
+
+    /**
+     * Packs the vectors into blocks, each of which is a column major
+     * matrix of which the columns are the vectors.
+     * @param x the vectors.
+     * @param d the dimension of vectors.
+     * @return the blocks.
+     */
+    private static double[][] pack(double[][] x, int d) {
+        int blocks = (x.length + BLOCK - 1) / BLOCK;
+        double[][] pack = new double[blocks][];
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            int offset = b * BLOCK;
+            int size = Math.min(BLOCK, x.length - offset);
+            double[] block = new double[size * d];
+            for (int i = 0; i < size; i++) {
+                double[] xi = x[offset + i];
+                if (xi.length != d) {
+                    throw new IllegalArgumentException(String.format("Vectors have different length: %d vs %d", xi.length, d));
+                }
+                System.arraycopy(xi, 0, block, i * d, d);
+            }
+            pack[b] = block;
+        });
+        return pack;
+    }
+
+    /**
+     * Computes the tiles of dot products or distances. Each block row
+     * is a parallel task that reuses one tile buffer.
+     *
+     * @param x the row vectors.
+     * @param y the column vectors.
+     * @param symmetric if true, y is x and only the lower half tiles
+     *                  are computed.
+     * @param xnorm the squared norms of x, or null for dot products.
+     * @param ynorm the squared norms of y, or null for dot products.
+     * @param squared if true, outputs the squared distance.
+     * @param consumer the tile consumer.
+     */
+    private static void tiles(double[][] x, double[][] y, boolean symmetric, double[] xnorm, double[] ynorm, boolean squared, TileConsumer consumer) {
+        if (x.length == 0 || y.length == 0) return;
+
+        int d = x[0].length;
+        if (y[0].length != d) {
+            throw new IllegalArgumentException(String.format("Vectors have different length: %d vs %d", d, y[0].length));
+        }
+
+        double[][] xp = pack(x, d);
+        double[][] yp = symmetric ? xp : pack(y, d);
+
+        IntStream.range(0, xp.length).parallel().forEach(bi -> {
+            int i = bi * BLOCK;
+            int m = Math.min(BLOCK, x.length - i);
+            double[] tile = new double[m * BLOCK];
+            int blocks = symmetric ? bi + 1 : yp.length;
+            for (int bj = 0; bj < blocks; bj++) {
+                int j = bj * BLOCK;
+                int n = Math.min(BLOCK, y.length - j);
+                if (d > 0) {
+                    BLAS.engine.gemm(Layout.COL_MAJOR, Transpose.TRANSPOSE, Transpose.NO_TRANSPOSE, m, n, d, 1.0, xp[bi], d, yp[bj], d, 0.0, tile, m);
+                } else {
+                    Arrays.fill(tile, 0.0);
+                }
+
+                if (xnorm != null) {
+                    for (int b = 0; b < n; b++) {
+                        double yb = ynorm[j + b];
+                        for (int a = 0; a < m; a++) {
+                            int k = a + b * m;
+                            double norm = xnorm[i + a] + yb;
+                            double dist = norm - 2 * tile[k];
+                            if (dist <= CANCELLATION * norm) {
+                                dist = MathEx.squaredDistance(x[i + a], y[j + b]);
+                            }
+                            dist = Math.max(0.0, dist);
+                            tile[k] = squared ? dist : Math.sqrt(dist);
+                        }
+                    }
+
+                    if (symmetric && bi == bj) {
+                        for (int a = 0; a < m; a++) {
+                            tile[a + a * m] = 0.0;
+                        }
+                    }
+                }
+
+                consumer.accept(i, j, m, n, tile);
+            }
+        });
+    }
+}
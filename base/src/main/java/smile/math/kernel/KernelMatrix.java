@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.math.kernel;
+
+import smile.math.Function;
+import smile.math.blas.UPLO;
+import smile.math.distance.PairwiseDistance;
+import smile.math.matrix.Matrix;
+
+/**
+ * Kernel matrices of dense vectors for isotropic and dot product kernels,
+ * which are computed from the blocked pairwise distance or dot product
+ * of {@link PairwiseDistance}. For large data, it is much faster than
+ * {@link MercerKernel#K(Object[])}, which evaluates the kernel pair by
+ * pair exactly. For example,
+ * <pre>{@code
+ *     Matrix K = KernelMatrix.isotropic(new GaussianKernel(1.0), x);
+ * }</pre>
+ *
+ * @author Haifeng Li
+ */
+public interface KernelMatrix {
+    /**
+     * Returns the kernel matrix of an isotropic kernel.
+     * @param kernel the isotropic kernel.
+     * @param x the vectors.
+     * @return the kernel matrix.
+     */
+    static Matrix isotropic(IsotropicKernel kernel, double[][] x) {
+        Matrix K = new Matrix(x.length, x.length);
+        PairwiseDistance.distance(x, false, (i, j, m, n, tile) -> lower(K, kernel, i, j, m, n, tile));
+        K.uplo(UPLO.LOWER);
+        return K;
+    }
+
+    /**
+     * Returns the kernel matrix of an isotropic kernel.
+     * @param kernel the isotropic kernel.
+     * @param x the row vectors.
+     * @param y the column vectors.
+     * @return the kernel matrix.
+     */
+    static Matrix isotropic(IsotropicKernel kernel, double[][] x, double[][] y) {
+        Matrix K = new Matrix(x.length, y.length);
+        PairwiseDistance.distance(x, y, false, (i, j, m, n, tile) -> set(K, kernel, i, j, m, n, tile));
+        return K;
+    }
+
+    /**
+     * Returns the kernel matrix of a dot product kernel.
+     * @param kernel the dot product kernel.
+     * @param x the vectors.
+     * @return the kernel matrix.
+     */
+    static Matrix dot(DotProductKernel kernel, double[][] x) {
+        Matrix K = new Matrix(x.length, x.length);
+        PairwiseDistance.dot(x, (i, j, m, n, tile) -> lower(K, kernel, i, j, m, n, tile));
+        K.uplo(UPLO.LOWER);
+        return K;
+    }
+
+    /**
+     * Returns the kernel matrix of a dot product kernel.
+     * @param kernel the dot product kernel.
+     * @param x the row vectors.
+     * @param y the column vectors.
+     * @return the kernel matrix.
+     */
+    static Matrix dot(DotProductKernel kernel, double[][] x, double[][] y) {
+        Matrix K = new Matrix(x.length, y.length);
+        PairwiseDistance.dot(x, y, (i, j, m, n, tile) -> set(K, kernel, i, j, m, n, tile));
+        return K;
+    }
+
+    /** Writes a tile of the lower half and its transpose. */
+    private static void lower(Matrix K, Function kernel, int i, int j, int m, int n, double[] tile) {
+        for (int b = 0; b < n; b++) {
+            for (int a = 0; a < m; a++) {
+                if (i + a >= j + b) {
+                    double k = kernel.f(tile[a + b * m]);
+                    K.set(i + a, j + b, k);
+                    K.set(j + b, i + a, k);
+                }
+            }
+        }
+    }
+
+    /** Writes a tile. */
+    private static void set(Matrix K, Function kernel, int i, int j, int m, int n, double[] tile) {
+        for (int b = 0; b < n; b++) {
+            for (int a = 0; a < m; a++) {
+                K.set(i + a, j + b, kernel.f(tile[a + b * m]));
+            }
+        }
+    }
+}
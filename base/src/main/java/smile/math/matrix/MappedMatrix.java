@@ -0,0 +1,476 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.math.matrix;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import smile.math.blas.BLAS;
+import smile.math.blas.Transpose;
+
+import static smile.math.blas.Layout.COL_MAJOR;
+import static smile.math.blas.Transpose.*;
+
+/**
+ * Dense matrix of double precision values backed by a memory-mapped file.
+ * The matrix lives off the heap and is paged in by the operating system
+ * on demand, so that it may be much larger than the heap or even the
+ * physical memory. It is mostly used as the input of iterative algorithms
+ * such as {@link Lanczos} and {@link ARPACK}, which access the matrix only
+ * through matrix-vector multiplications.
+ * <p>
+ * The file has a 32 bytes header of magic number, version, the number
+ * of rows and columns, followed by the elements in column major order
+ * and little endian. As a single mapping is limited to 2GB, the file
+ * is mapped in segments of whole columns. The matrix-vector products
+ * are passed through to BLAS segment by segment without copying the
+ * matrix. The vectors are copied to direct buffers that are allocated
+ * once and reused, so that the products of a matrix are serialized.
+ * <p>
+ * The mapping is released by {@link #close()} rather than waiting for
+ * the garbage collector, which matters when the file is deleted or
+ * remapped. The accessors throw {@link IllegalStateException} after
+ * the matrix is closed. As the memory is unmapped immediately, the
+ * matrix must not be closed while other threads are still accessing
+ * it, which may otherwise read the unmapped memory and crash the JVM.
+ *
+ * @author Haifeng Li
+ */
+public class MappedMatrix extends IMatrix implements AutoCloseable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MappedMatrix.class);
+    /** The magic number of file format, "SMMM" in ASCII. */
+    private static final int MAGIC = 0x534D4D4D;
+    /** The version of file format. */
+    private static final int VERSION = 1;
+    /** The size of file header. */
+    private static final int HEADER = 32;
+    /** The maximum size of a mapped segment in bytes. */
+    private static final long SEGMENT = Integer.MAX_VALUE & ~7L;
+
+    /**
+     * The number of rows.
+     */
+    private final int m;
+    /**
+     * The number of columns.
+     */
+    private final int n;
+    /**
+     * The file path.
+     */
+    private final String path;
+    /**
+     * True if the matrix can be updated.
+     */
+    private final boolean writable;
+    /**
+     * The number of columns in a segment.
+     */
+    private transient int cols;
+    /**
+     * The mapped segments of columns.
+     */
+    private transient MappedByteBuffer[] buffers;
+    /**
+     * The double views of mapped segments.
+     */
+    private transient volatile DoubleBuffer[] segments;
+    /**
+     * The direct buffer of input vector for BLAS.
+     */
+    private transient DoubleBuffer input;
+    /**
+     * The direct buffer of output vector for BLAS.
+     */
+    private transient DoubleBuffer output;
+
+    /**
+     * Constructor.
+     * @param path the file path.
+     * @param m the number of rows.
+     * @param n the number of columns.
+     * @param writable true if the matrix can be updated.
+     * @param segment the maximum size of a mapped segment in bytes.
+     */
+    private MappedMatrix(Path path, int m, int n, boolean writable, long segment) throws IOException {
+        this.path = path.toString();
+        this.m = m;
+        this.n = n;
+        this.writable = writable;
+        map(segment);
+    }
+
+    /**
+     * Maps the file in segments of whole columns.
+     * @param segment the maximum size of a mapped segment in bytes.
+     */
+    private void map(long segment) throws IOException {
+        if (ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN) {
+            throw new UnsupportedOperationException("Memory-mapped matrix requires little endian platform");
+        }
+
+        long column = Double.BYTES * (long) m;
+        if (column > SEGMENT) {
+            throw new IllegalArgumentException("Too many rows to map a column: " + m);
+        }
+
+        cols = (int) Math.min(n, Math.max(1, segment / column));
+        buffers = new MappedByteBuffer[(n + cols - 1) / cols];
+        segments = new DoubleBuffer[buffers.length];
+        var mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        var options = writable ?
+                new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE} :
+                new StandardOpenOption[]{StandardOpenOption.READ};
+        try (FileChannel channel = FileChannel.open(Path.of(path), options)) {
+            if (channel.size() < HEADER + column * n) {
+                throw new IOException("Truncated matrix file: " + path);
+            }
+
+            for (int s = 0; s < segments.length; s++) {
+                int size = Math.min(cols, n - s * cols);
+                buffers[s] = channel.map(mode, HEADER + column * s * cols, column * size);
+                segments[s] = buffers[s].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+            }
+        }
+    }
+
+    /**
+     * Creates a zero matrix backed by a new file.
+     * @param path the file path.
+     * @param m the number of rows.
+     * @param n the number of columns.
+     * @throws IOException when fails to create the file.
+     * @return the matrix.
+     */
+    public static MappedMatrix create(Path path, int m, int n) throws IOException {
+        return create(path, m, n, SEGMENT);
+    }
+
+    /**
+     * Creates a zero matrix backed by a new file.
+     * @param path the file path.
+     * @param m the number of rows.
+     * @param n the number of columns.
+     * @param segment the maximum size of a mapped segment in bytes.
+     * @throws IOException when fails to create the file.
+     * @return the matrix.
+     */
+    static MappedMatrix create(Path path, int m, int n, long segment) throws IOException {
+        if (m <= 0 || n <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid matrix size: %d x %d", m, n));
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(m).putInt(n).flip();
+            channel.write(header, 0);
+            // Extends the file as a sparse file of zeros.
+            channel.write(ByteBuffer.allocate(1), HEADER + Double.BYTES * (long) m * n - 1);
+        }
+
+        return new MappedMatrix(path, m, n, true, segment);
+    }
+
+    /**
+     * Writes a matrix to a file and maps it.
+     * @param path the file path.
+     * @param A the matrix.
+     * @throws IOException when fails to write the file.
+     * @return the memory-mapped matrix.
+     */
+    public static MappedMatrix of(Path path, Matrix A) throws IOException {
+        int m = A.nrow();
+        int n = A.ncol();
+        MappedMatrix matrix = create(path, m, n);
+        for (int j = 0; j < n; j++) {
+            DoubleBuffer column = matrix.column(j);
+            for (int i = 0; i < m; i++) {
+                column.put(i, A.get(i, j));
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Maps a matrix file in read only mode.
+     * @param path the file path.
+     * @throws IOException when fails to read the file.
+     * @return the matrix.
+     */
+    public static MappedMatrix map(Path path) throws IOException {
+        return map(path, false);
+    }
+
+    /**
+     * Maps a matrix file.
+     * @param path the file path.
+     * @param writable true if the matrix can be updated, which
+     *                 writes through to the file.
+     * @throws IOException when fails to read the file.
+     * @return the matrix.
+     */
+    public static MappedMatrix map(Path path, boolean writable) throws IOException {
+        return map(path, writable, SEGMENT);
+    }
+
+    /**
+     * Maps a matrix file.
+     * @param path the file path.
+     * @param writable true if the matrix can be updated.
+     * @param segment the maximum size of a mapped segment in bytes.
+     * @throws IOException when fails to read the file.
+     * @return the matrix.
+     */
+    static MappedMatrix map(Path path, boolean writable, long segment) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the complete header
+            }
+        }
+
+        header.flip();
+        if (header.remaining() < HEADER || header.getInt() != MAGIC) {
+            throw new IOException("Invalid matrix file: " + path);
+        }
+
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported matrix file version: " + version);
+        }
+
+        int m = header.getInt();
+        int n = header.getInt();
+        return new MappedMatrix(path, m, n, writable, segment);
+    }
+
+    /**
+     * Returns the file path.
+     * @return the file path.
+     */
+    public Path path() {
+        return Path.of(path);
+    }
+
+    @Override
+    public int nrow() {
+        return m;
+    }
+
+    @Override
+    public int ncol() {
+        return n;
+    }
+
+    @Override
+    public long size() {
+        return (long) m * n;
+    }
+
+    /**
+     * Returns the view of a column.
+     * @param j the column index.
+     * @return the view of column.
+     */
+    private DoubleBuffer column(int j) {
+        return ensureOpen()[j / cols].slice((j % cols) * m, m);
+    }
+
+    /**
+     * Returns the mapped segments if the matrix is open.
+     * @return the mapped segments.
+     * @throws IllegalStateException if the matrix is closed.
+     */
+    private DoubleBuffer[] ensureOpen() {
+        DoubleBuffer[] segments = this.segments;
+        if (segments == null) {
+            throw new IllegalStateException("Closed matrix: " + path);
+        }
+        return segments;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return ensureOpen()[j / cols].get((j % cols) * m + i);
+    }
+
+    @Override
+    public void set(int i, int j, double x) {
+        if (!writable) {
+            throw new UnsupportedOperationException("Read only matrix: " + path);
+        }
+        ensureOpen()[j / cols].put((j % cols) * m + i, x);
+    }
+
+    /**
+     * Returns the j-th column.
+     * @param j the column index.
+     * @return the column.
+     */
+    public double[] col(int j) {
+        double[] x = new double[m];
+        column(j).get(0, x);
+        return x;
+    }
+
+    /**
+     * Sets the j-th column.
+     * @param j the column index.
+     * @param x the column.
+     */
+    public void col(int j, double[] x) {
+        if (!writable) {
+            throw new UnsupportedOperationException("Read only matrix: " + path);
+        }
+
+        if (x.length != m) {
+            throw new IllegalArgumentException(String.format("Invalid column size: %d != %d", x.length, m));
+        }
+        column(j).put(0, x);
+    }
+
+    /**
+     * Flushes the changes to the file.
+     */
+    public void flush() {
+        if (writable && buffers != null) {
+            for (MappedByteBuffer buffer : buffers) {
+                buffer.force();
+            }
+        }
+    }
+
+    /**
+     * Returns a direct buffer of native order for BLAS.
+     * @param length the number of elements.
+     * @return the direct buffer.
+     */
+    private static DoubleBuffer direct(int length) {
+        return ByteBuffer.allocateDirect(Double.BYTES * length)
+                .order(ByteOrder.nativeOrder())
+                .asDoubleBuffer();
+    }
+
+    /**
+     * Matrix-vector multiplication on direct buffers.
+     */
+    private void mv(Transpose trans, double alpha, DoubleBuffer x, double beta, DoubleBuffer y) {
+        DoubleBuffer[] segments = ensureOpen();
+        for (int s = 0; s < segments.length; s++) {
+            int j = s * cols;
+            int size = Math.min(cols, n - j);
+            if (trans == NO_TRANSPOSE) {
+                // y = alpha * A[:, j:j+size] * x[j:j+size] + y
+                BLAS.engine.gemv(COL_MAJOR, NO_TRANSPOSE, m, size, alpha, segments[s], m, x.slice(j, size), 1, s == 0 ? beta : 1.0, y, 1);
+            } else {
+                BLAS.engine.gemv(COL_MAJOR, TRANSPOSE, m, size, alpha, segments[s], m, x, 1, beta, y.slice(j, size), 1);
+            }
+        }
+    }
+
+    /**
+     * Matrix-vector multiplication on arrays, which are copied
+     * to and from the reused direct buffers.
+     */
+    private synchronized void mv(Transpose trans, double alpha, double[] x, int inputOffset, double beta, double[] y, int outputOffset) {
+        ensureOpen();
+        if (input == null) {
+            input = direct(Math.max(m, n));
+            output = direct(Math.max(m, n));
+        }
+
+        int k = trans == NO_TRANSPOSE ? n : m;
+        int l = trans == NO_TRANSPOSE ? m : n;
+        input.put(0, x, inputOffset, k);
+        if (beta != 0.0) {
+            output.put(0, y, outputOffset, l);
+        }
+        mv(trans, alpha, input, beta, output);
+        output.get(0, y, outputOffset, l);
+    }
+
+    @Override
+    public void mv(Transpose trans, double alpha, double[] x, double beta, double[] y) {
+        mv(trans, alpha, x, 0, beta, y, 0);
+    }
+
+    @Override
+    public void mv(double[] work, int inputOffset, int outputOffset) {
+        mv(NO_TRANSPOSE, 1.0, work, inputOffset, 0.0, work, outputOffset);
+    }
+
+    @Override
+    public void tv(double[] work, int inputOffset, int outputOffset) {
+        mv(TRANSPOSE, 1.0, work, inputOffset, 0.0, work, outputOffset);
+    }
+
+    /**
+     * Flushes the changes and unmaps the file. The matrix must not
+     * be accessed by other threads during or after the call.
+     */
+    @Override
+    public synchronized void close() {
+        if (buffers == null) return;
+
+        flush();
+        MappedByteBuffer[] mapped = buffers;
+        buffers = null;
+        segments = null;
+        input = null;
+        output = null;
+        for (MappedByteBuffer buffer : mapped) {
+            unmap(buffer);
+        }
+    }
+
+    /**
+     * Unmaps a buffer without waiting for the garbage collector.
+     * If the JDK internal API is not accessible, the buffer is left
+     * to the garbage collector.
+     * @param buffer the mapped buffer.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> clazz = Class.forName("sun.misc.Unsafe");
+            Field field = clazz.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            clazz.getMethod("invokeCleaner", ByteBuffer.class).invoke(field.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            logger.debug("Failed to unmap the buffer: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Remaps the file after deserialization.
+     * @param in the object input stream.
+     * @throws IOException when fails to read the stream or the file.
+     * @throws ClassNotFoundException when fails to load the class.
+     */
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        map(SEGMENT);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.math.matrix;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Randomized singular value decomposition. The randomized range finder
+ * multiplies the matrix with a Gaussian random matrix of k + p columns,
+ * where p is the oversampling, to find an orthonormal basis Q that
+ * captures the action of the matrix. The power iterations multiply
+ * with {@code (AA')^q} to sharpen the decay of singular values, with
+ * re-orthonormalization between the products for numerical stability.
+ * The matrix is then projected to the small subspace {@code B = Q'A},
+ * whose SVD is computed by LAPACK and lifted back by Q.
+ * <p>
+ * Compared to Lanczos or ARPACK, which perform a long sequence of
+ * matrix-vector products, all the work is done in a few matrix-matrix
+ * products. They run as BLAS-3 for dense matrices, and in parallel
+ * with one pass over the nonzeros for sparse matrices. For other
+ * matrices, the columns are multiplied in parallel.
+ *
+ * <h2>References</h2>
+ * <ol>
+ * <li>N. Halko, P. G. Martinsson, and J. A. Tropp. Finding structure with randomness: Probabilistic algorithms for constructing approximate matrix decompositions. SIAM Review, 53(2):217-288, 2011.</li>
+ * </ol>
+ *
+ * @author Haifeng Li
+ */
+public class RandomizedSVD {
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(RandomizedSVD.class);
+
+    /** Private constructor to prevent instance creation. */
+    private RandomizedSVD() {
+
+    }
+
+    /**
+     * Computes k-largest approximate singular triples of a matrix
+     * with oversampling 10 and 2 power iterations.
+     *
+     * @param A the matrix to decompose.
+     * @param k the number of singular triples to compute.
+     * @return the singular value decomposition.
+     */
+    public static Matrix.SVD svd(IMatrix A, int k) {
+        return svd(A, k, 10, 2);
+    }
+
+    /**
+     * Computes k-largest approximate singular triples of a matrix.
+     *
+     * @param A the matrix to decompose.
+     * @param k the number of singular triples to compute.
+     * @param p the oversampling, i.e. the number of extra random vectors.
+     * @param q the number of power iterations.
+     * @return the singular value decomposition.
+     */
+    public static Matrix.SVD svd(IMatrix A, int k, int p, int q) {
+        int m = A.nrow();
+        int n = A.ncol();
+        if (k < 1 || k > Math.min(m, n)) {
+            throw new IllegalArgumentException("Invalid number of singular triples: " + k);
+        }
+
+        if (p < 0) {
+            throw new IllegalArgumentException("Invalid oversampling: " + p);
+        }
+
+        int l = Math.min(k + p, Math.min(m, n));
+        Matrix Q = range(A, l, q);
+
+        // B' = A' * Q = W * S * Z', so that A ~ Q * B = (Q * Z) * S * W'.
+        Matrix.SVD svd = tm(A, Q).svd(true, true);
+        int r = Math.min(k, svd.s.length);
+        double[] s = Arrays.copyOf(svd.s, r);
+        Matrix U = Q.mm(svd.V).submatrix(0, 0, m - 1, r - 1);
+        Matrix V = svd.U.submatrix(0, 0, n - 1, r - 1);
+        logger.info("Randomized SVD of {} x {} matrix with {} random vectors and {} power iterations", m, n, l, q);
+        return new Matrix.SVD(s, U, V);
+    }
+
+    /**
+     * Returns an orthonormal basis of the approximate range of a matrix,
+     * i.e. the randomized range finder.
+     *
+     * @param A the matrix.
+     * @param l the number of basis vectors.
+     * @param q the number of power iterations.
+     * @return the m x l matrix of orthonormal basis.
+     */
+    public static Matrix range(IMatrix A, int l, int q) {
+        int m = A.nrow();
+        int n = A.ncol();
+        if (l < 1 || l > Math.min(m, n)) {
+            throw new IllegalArgumentException("Invalid number of basis vectors: " + l);
+        }
+
+        if (q < 0) {
+            throw new IllegalArgumentException("Invalid number of power iterations: " + q);
+        }
+
+        Matrix omega = Matrix.randn(n, l);
+        Matrix Q = orthonormalize(mm(A, omega));
+        for (int i = 0; i < q; i++) {
+            Q = orthonormalize(tm(A, Q));
+            Q = orthonormalize(mm(A, Q));
+        }
+        return Q;
+    }
+
+    /**
+     * Returns the orthonormal basis of the column space by QR decomposition.
+     * @param Y the matrix, which will be overwritten.
+     * @return the orthonormal basis.
+     */
+    private static Matrix orthonormalize(Matrix Y) {
+        return Y.qr(true).Q();
+    }
+
+    /**
+     * Returns {@code A * X}.
+     * @param A the matrix.
+     * @param X the dense matrix.
+     * @return the multiplication.
+     */
+    private static Matrix mm(IMatrix A, Matrix X) {
+        if (A instanceof Matrix dense) {
+            return dense.mm(X);
+        }
+
+        if (A instanceof SparseMatrix sparse) {
+            return sparse.mm(X);
+        }
+
+        Matrix Y = new Matrix(A.nrow(), X.ncol());
+        IntStream.range(0, X.ncol()).parallel().forEach(j -> {
+            double[] y = A.mv(X.col(j));
+            for (int i = 0; i < y.length; i++) {
+                Y.set(i, j, y[i]);
+            }
+        });
+        return Y;
+    }
+
+    /**
+     * Returns {@code A' * X}.
+     * @param A the matrix.
+     * @param X the dense matrix.
+     * @return the multiplication.
+     */
+    private static Matrix tm(IMatrix A, Matrix X) {
+        if (A instanceof Matrix dense) {
+            return dense.tm(X);
+        }
+
+        if (A instanceof SparseMatrix sparse) {
+            return sparse.tm(X);
+        }
+
+        Matrix Y = new Matrix(A.ncol(), X.ncol());
+        IntStream.range(0, X.ncol()).parallel().forEach(j -> {
+            double[] y = A.tv(X.col(j));
+            for (int i = 0; i < y.length; i++) {
+                Y.set(i, j, y[i]);
+            }
+        });
+        return Y;
+    }
+}
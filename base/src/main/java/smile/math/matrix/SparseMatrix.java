@@ -22,6 +22,8 @@ import java.io.Serial;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -86,6 +88,15 @@ public class SparseMatrix extends IMatrix implements Iterable<SparseMatrix.Entry
      * The array of nonzero values stored column by column.
      */
     private final double[] nonzeros;
+    /**
+     * The lazily built compressed sparse row view for row parallel products.
+     */
+    private transient volatile CSR csr;
+
+    /**
+     * The minimum number of nonzeros to run the kernels in parallel.
+     */
+    private static final int PARALLEL_NNZ = 1 << 16;
 
     /**
      * Encapsulates an entry in a matrix for use in streaming. As typical stream object,
@@ -375,24 +386,14 @@ public class SparseMatrix extends IMatrix implements Iterable<SparseMatrix.Entry
     public void mv(Transpose trans, double alpha, double[] x, double beta, double[] y) {
         int k = trans == Transpose.NO_TRANSPOSE ? m : n;
         double[] ax = y;
-        if (beta == 0.0) {
-            Arrays.fill(y, 0.0);
-        } else {
+        if (beta != 0.0) {
             ax = new double[k];
         }
 
         if (trans == Transpose.NO_TRANSPOSE) {
-            for (int j = 0; j < n; j++) {
-                for (int i = colIndex[j]; i < colIndex[j + 1]; i++) {
-                    ax[rowIndex[i]] += nonzeros[i] * x[j];
-                }
-            }
+            ax(x, 0, ax, 0);
         } else {
-            for (int i = 0; i < n; i++) {
-                for (int j = colIndex[i]; j < colIndex[i + 1]; j++) {
-                    ax[i] += nonzeros[j] * x[rowIndex[j]];
-                }
-            }
+            atx(x, 0, ax, 0);
         }
 
         if (beta != 0.0 || alpha != 1.0) {
@@ -404,57 +405,191 @@ public class SparseMatrix extends IMatrix implements Iterable<SparseMatrix.Entry
 
     @Override
     public void mv(double[] work, int inputOffset, int outputOffset) {
-        Arrays.fill(work, outputOffset, outputOffset + m, 0.0);
-
-        for (int j = 0; j < n; j++) {
-            for (int i = colIndex[j]; i < colIndex[j + 1]; i++) {
-                work[outputOffset + rowIndex[i]] += nonzeros[i] * work[inputOffset + j];
-            }
-        }
+        ax(work, inputOffset, work, outputOffset);
     }
 
     @Override
     public void tv(double[] work, int inputOffset, int outputOffset) {
-        Arrays.fill(work, outputOffset, outputOffset + n, 0.0);
+        atx(work, inputOffset, work, outputOffset);
+    }
 
-        for (int i = 0; i < n; i++) {
-            for (int j = colIndex[i]; j < colIndex[i + 1]; j++) {
-                work[outputOffset + i] += nonzeros[j] * work[inputOffset + rowIndex[j]];
+    /**
+     * Computes {@code y[yo:yo+m] = A * x[xo:xo+n]}. Large matrices
+     * are multiplied in parallel by blocks of rows through the row
+     * compressed view so that each thread writes its own part of y.
+     */
+    private void ax(double[] x, int xo, double[] y, int yo) {
+        if (nonzeros.length < PARALLEL_NNZ) {
+            Arrays.fill(y, yo, yo + m, 0.0);
+            for (int j = 0; j < n; j++) {
+                for (int i = colIndex[j]; i < colIndex[j + 1]; i++) {
+                    y[yo + rowIndex[i]] += nonzeros[i] * x[xo + j];
+                }
             }
+            return;
         }
+
+        CSR csr = csr();
+        int[] blocks = partition(csr.rowIndex, m, parts(nonzeros.length));
+        IntStream.range(0, blocks.length - 1).parallel().forEach(b -> {
+            for (int i = blocks[b]; i < blocks[b + 1]; i++) {
+                double yi = 0.0;
+                for (int k = csr.rowIndex[i]; k < csr.rowIndex[i + 1]; k++) {
+                    yi += nonzeros[csr.pos[k]] * x[xo + csr.colIndex[k]];
+                }
+                y[yo + i] = yi;
+            }
+        });
     }
 
     /**
-     * Returns the transpose of matrix.
-     * @return the transpose of matrix.
+     * Computes {@code y[yo:yo+n] = A' * x[xo:xo+m]}, which is
+     * a dot product per column and is parallel by blocks of columns.
      */
-    public SparseMatrix transpose() {
-        SparseMatrix trans = new SparseMatrix(n, m, nonzeros.length);
-
-        int[] count = new int[m];
-        for (int i = 0; i < n; i++) {
-            for (int j = colIndex[i]; j < colIndex[i + 1]; j++) {
-                int k = rowIndex[j];
-                count[k]++;
+    private void atx(double[] x, int xo, double[] y, int yo) {
+        int[] blocks = partition(colIndex, n, parts(nonzeros.length));
+        stream(blocks).forEach(b -> {
+            for (int j = blocks[b]; j < blocks[b + 1]; j++) {
+                double yj = 0.0;
+                for (int k = colIndex[j]; k < colIndex[j + 1]; k++) {
+                    yj += nonzeros[k] * x[xo + rowIndex[k]];
+                }
+                y[yo + j] = yj;
             }
-        }
+        });
+    }
 
-        for (int j = 0; j < m; j++) {
-            trans.colIndex[j + 1] = trans.colIndex[j] + count[j];
+    /**
+     * Returns the number of blocks to partition the work.
+     * @param nnz the number of nonzeros involved.
+     * @return the number of blocks.
+     */
+    private static int parts(long nnz) {
+        return nnz < PARALLEL_NNZ ? 1 : ForkJoinPool.getCommonPoolParallelism();
+    }
+
+    /**
+     * Partitions the columns (or rows of CSR) into consecutive blocks
+     * of about equal number of nonzeros.
+     * @param index the index of the start of columns.
+     * @param n the number of columns.
+     * @param parts the number of blocks.
+     * @return the boundaries of blocks, of which block b is
+     *         {@code [blocks[b], blocks[b+1])}.
+     */
+    private static int[] partition(int[] index, int n, int parts) {
+        int[] blocks = new int[parts + 1];
+        long nnz = index[n];
+        for (int b = 1, j = 0; b < parts; b++) {
+            long target = nnz * b / parts;
+            while (j < n && index[j] < target) j++;
+            blocks[b] = j;
+        }
+        blocks[parts] = n;
+        return blocks;
+    }
+
+    /**
+     * Returns the stream of block indices, which is parallel
+     * if there are multiple blocks.
+     */
+    private static IntStream stream(int[] blocks) {
+        IntStream stream = IntStream.range(0, blocks.length - 1);
+        return blocks.length > 2 ? stream.parallel() : stream;
+    }
+
+    /**
+     * The compressed sparse row view of matrix. It holds the structure
+     * only and refers to the values by their storage index, so it is
+     * valid after the nonzero values are updated.
+     *
+     * @param rowIndex the index of the start of rows.
+     * @param colIndex the column indices of nonzero values row by row.
+     * @param pos the storage index of nonzero values row by row.
+     */
+    private record CSR(int[] rowIndex, int[] colIndex, int[] pos) {
+
+    }
+
+    /**
+     * Returns the cached compressed sparse row view of matrix.
+     * @return the compressed sparse row view.
+     */
+    private CSR csr() {
+        CSR view = csr;
+        if (view == null) {
+            view = rows();
+            csr = view;
         }
+        return view;
+    }
 
-        Arrays.fill(count, 0);
-        for (int i = 0; i < n; i++) {
-            for (int j = colIndex[i]; j < colIndex[i + 1]; j++) {
-                int k = rowIndex[j];
-                int index = trans.colIndex[k] + count[k];
-                trans.rowIndex[index] = i;
-                trans.nonzeros[index] = nonzeros[j];
-                count[k]++;
+    /**
+     * Builds the compressed sparse row view by counting sort of row
+     * indices. Each block of columns counts and scatters its nonzeros
+     * in parallel. The columns of each row stay in increasing order.
+     * @return the compressed sparse row view.
+     */
+    private CSR rows() {
+        int nnz = nonzeros.length;
+        int[] blocks = partition(colIndex, n, parts(nnz));
+        int parts = blocks.length - 1;
+
+        // count[b][i] is the number of nonzeros of row i in block b.
+        int[][] count = new int[parts][];
+        stream(blocks).forEach(b -> {
+            int[] c = new int[m];
+            for (int k = colIndex[blocks[b]]; k < colIndex[blocks[b + 1]]; k++) {
+                c[rowIndex[k]]++;
+            }
+            count[b] = c;
+        });
+
+        // Turns the counts into the start position of each block in each row.
+        int[] rowPtr = new int[m + 1];
+        for (int i = 0; i < m; i++) {
+            int offset = rowPtr[i];
+            for (int b = 0; b < parts; b++) {
+                int c = count[b][i];
+                count[b][i] = offset;
+                offset += c;
+            }
+            rowPtr[i + 1] = offset;
+        }
+
+        int[] cols = new int[nnz];
+        int[] pos = new int[nnz];
+        stream(blocks).forEach(b -> {
+            int[] next = count[b];
+            for (int j = blocks[b]; j < blocks[b + 1]; j++) {
+                for (int k = colIndex[j]; k < colIndex[j + 1]; k++) {
+                    int index = next[rowIndex[k]]++;
+                    cols[index] = j;
+                    pos[index] = k;
+                }
             }
-        }
+        });
+
+        return new CSR(rowPtr, cols, pos);
+    }
 
-        return trans;
+    /**
+     * Returns the transpose of matrix.
+     * @return the transpose of matrix.
+     */
+    public SparseMatrix transpose() {
+        CSR cached = csr;
+        CSR view = cached != null ? cached : rows();
+        int[] pos = view.pos;
+        double[] x = new double[pos.length];
+        int[] blocks = partition(view.rowIndex, m, parts(pos.length));
+        stream(blocks).forEach(b -> {
+            for (int k = view.rowIndex[blocks[b]]; k < view.rowIndex[blocks[b + 1]]; k++) {
+                x[k] = nonzeros[pos[k]];
+            }
+        });
+
+        return new SparseMatrix(n, m, x, view.colIndex.clone(), view.rowIndex.clone());
     }
 
     /**
@@ -467,63 +602,187 @@ public class SparseMatrix extends IMatrix implements Iterable<SparseMatrix.Entry
             throw new IllegalArgumentException(String.format("Matrix dimensions do not match for matrix multiplication: %d x %d vs %d x %d", nrow(), ncol(), B.nrow(), B.ncol()));
         }
 
+        return multiply(this, B, false);
+    }
+
+    /**
+     * Returns the matrix multiplication C = A * B with a dense matrix.
+     * The rows of C are computed in parallel by blocks of rows through
+     * the row compressed view, so that the nonzeros are visited once
+     * for all the columns of B.
+     * @param B the dense operand.
+     * @return the multiplication.
+     */
+    public Matrix mm(Matrix B) {
+        if (n != B.nrow()) {
+            throw new IllegalArgumentException(String.format("Matrix dimensions do not match for matrix multiplication: %d x %d vs %d x %d", nrow(), ncol(), B.nrow(), B.ncol()));
+        }
+
+        int l = B.ncol();
+        double[] b = rowMajor(B);
+        Matrix C = new Matrix(m, l);
+        CSR csr = csr();
+        int[] blocks = partition(csr.rowIndex, m, parts((long) nonzeros.length * l));
+        stream(blocks).forEach(block -> {
+            double[] ci = new double[l];
+            for (int i = blocks[block]; i < blocks[block + 1]; i++) {
+                Arrays.fill(ci, 0.0);
+                for (int k = csr.rowIndex[i]; k < csr.rowIndex[i + 1]; k++) {
+                    double a = nonzeros[csr.pos[k]];
+                    int offset = csr.colIndex[k] * l;
+                    for (int t = 0; t < l; t++) {
+                        ci[t] += a * b[offset + t];
+                    }
+                }
+
+                for (int t = 0; t < l; t++) {
+                    C.set(i, t, ci[t]);
+                }
+            }
+        });
+        return C;
+    }
+
+    /**
+     * Returns the matrix multiplication C = A' * B with a dense matrix.
+     * The rows of C, i.e. the columns of A, are computed in parallel
+     * by blocks of columns.
+     * @param B the dense operand.
+     * @return the multiplication.
+     */
+    public Matrix tm(Matrix B) {
+        if (m != B.nrow()) {
+            throw new IllegalArgumentException(String.format("Matrix dimensions do not match for matrix multiplication: %d x %d vs %d x %d", ncol(), nrow(), B.nrow(), B.ncol()));
+        }
+
+        int l = B.ncol();
+        double[] b = rowMajor(B);
+        Matrix C = new Matrix(n, l);
+        int[] blocks = partition(colIndex, n, parts((long) nonzeros.length * l));
+        stream(blocks).forEach(block -> {
+            double[] cj = new double[l];
+            for (int j = blocks[block]; j < blocks[block + 1]; j++) {
+                Arrays.fill(cj, 0.0);
+                for (int k = colIndex[j]; k < colIndex[j + 1]; k++) {
+                    double a = nonzeros[k];
+                    int offset = rowIndex[k] * l;
+                    for (int t = 0; t < l; t++) {
+                        cj[t] += a * b[offset + t];
+                    }
+                }
+
+                for (int t = 0; t < l; t++) {
+                    C.set(j, t, cj[t]);
+                }
+            }
+        });
+        return C;
+    }
+
+    /**
+     * Returns the elements of a dense matrix in row major order
+     * so that a row is contiguous in the inner loop of products.
+     */
+    private static double[] rowMajor(Matrix B) {
+        int m = B.nrow();
+        int n = B.ncol();
+        double[] b = new double[m * n];
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < m; i++) {
+                b[i * n + j] = B.get(i, j);
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Returns C = A * B. As each column of C depends only on the same
+     * column of B, the columns of B are partitioned into blocks of
+     * about equal number of nonzeros, which are multiplied in parallel
+     * with private workspaces and then concatenated.
+     * @param A the left operand.
+     * @param B the right operand.
+     * @param sort if true, sorts the row indices of each column of C.
+     * @return the multiplication.
+     */
+    private static SparseMatrix multiply(SparseMatrix A, SparseMatrix B, boolean sort) {
+        int m = A.m;
         int n = B.n;
-        int anz = colIndex[n];
         int[] Bp = B.colIndex;
         int[] Bi = B.rowIndex;
         double[] Bx = B.nonzeros;
-        int bnz = Bp[n];
 
-        int[] w = new int[m];
-        double[] abj = new double[m];
+        int[] blocks = partition(Bp, n, parts((long) A.nonzeros.length + Bx.length));
+        int parts = blocks.length - 1;
+        int[][] Ci = new int[parts][];
+        double[][] Cx = new double[parts][];
+        int[] Cp = new int[n + 1];
+
+        stream(blocks).forEach(b -> {
+            int[] w = new int[m];
+            double[] abj = new double[m];
+            int[] ci = new int[Math.max(16, Bp[blocks[b + 1]] - Bp[blocks[b]])];
+            double[] cx = new double[ci.length];
+
+            int nz = 0;
+            for (int j = blocks[b]; j < blocks[b + 1]; j++) {
+                // upper bound of the number of nonzeros of C(:,j)
+                long bound = 0;
+                for (int p = Bp[j]; p < Bp[j + 1]; p++) {
+                    bound += A.colIndex[Bi[p] + 1] - A.colIndex[Bi[p]];
+                }
 
-        int nzmax = Math.max(anz + bnz, m);
+                if (nz + Math.min(bound, m) > ci.length) {
+                    int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(2L * ci.length, nz + Math.min(bound, m)));
+                    ci = Arrays.copyOf(ci, capacity);
+                    cx = Arrays.copyOf(cx, capacity);
+                }
 
-        SparseMatrix C = new SparseMatrix(m, n, nzmax);
-        int[] Cp = C.colIndex;
-        int[] Ci = C.rowIndex;
-        double[] Cx = C.nonzeros;
+                int start = nz;
+                for (int p = Bp[j]; p < Bp[j + 1]; p++) {
+                    nz = scatter(A, Bi[p], Bx[p], w, abj, j + 1, ci, nz);
+                }
 
-        int nz = 0;
-        for (int j = 0; j < n; j++) {
-            if (nz + m > nzmax) {
-                nzmax = 2 * nzmax + m;
-                double[] Cx2 = new double[nzmax];
-                int[] Ci2 = new int[nzmax];
-                System.arraycopy(Ci, 0, Ci2, 0, nz);
-                System.arraycopy(Cx, 0, Cx2, 0, nz);
-                Ci = Ci2;
-                Cx = Cx2;
-                C = new SparseMatrix(m, n, Cx2, Ci2, Cp);
-            }
+                if (sort) {
+                    Arrays.sort(ci, start, nz);
+                }
 
-            // column j of C starts here
-            Cp[j] = nz;
+                for (int p = start; p < nz; p++) {
+                    cx[p] = abj[ci[p]];
+                }
 
-            for (int p = Bp[j]; p < Bp[j + 1]; p++) {
-                nz = scatter(this, Bi[p], Bx[p], w, abj, j + 1, C, nz);
+                Cp[j + 1] = nz - start;
             }
 
-            for (int p = Cp[j]; p < nz; p++) {
-                Cx[p] = abj[Ci[p]];
-            }
+            Ci[b] = ci;
+            Cx[b] = cx;
+        });
+
+        for (int j = 0; j < n; j++) {
+            Cp[j + 1] += Cp[j];
         }
 
-        // finalize the last column of C
-        Cp[n] = nz;
+        int nnz = Cp[n];
+        int[] rowIndex = new int[nnz];
+        double[] nonzeros = new double[nnz];
+        stream(blocks).forEach(b -> {
+            int offset = Cp[blocks[b]];
+            int length = Cp[blocks[b + 1]] - offset;
+            System.arraycopy(Ci[b], 0, rowIndex, offset, length);
+            System.arraycopy(Cx[b], 0, nonzeros, offset, length);
+        });
 
-        return C;
+        return new SparseMatrix(m, n, nonzeros, rowIndex, Cp);
     }
 
     /**
      * x = x + beta * A(:,j), where x is a dense vector and A(:,j) is sparse.
      */
-    private static int scatter(SparseMatrix A, int j, double beta, int[] w, double[] x, int mark, SparseMatrix C, int nz) {
+    private static int scatter(SparseMatrix A, int j, double beta, int[] w, double[] x, int mark, int[] Ci, int nz) {
         int[] Ap = A.colIndex;
         int[] Ai = A.rowIndex;
         double[] Ax = A.nonzeros;
 
-        int[] Ci = C.rowIndex;
         for (int p = Ap[j]; p < Ap[j + 1]; p++) {
             int i = Ai[p];                // A(i,j) is nonzero
             if (w[i] < mark) {
@@ -544,7 +803,7 @@ public class SparseMatrix extends IMatrix implements Iterable<SparseMatrix.Entry
      */
     public SparseMatrix ata() {
         SparseMatrix AT = transpose();
-        return AT.aat(this);
+        return multiply(AT, this, true);
     }
 
     /**
@@ -553,85 +812,7 @@ public class SparseMatrix extends IMatrix implements Iterable<SparseMatrix.Entry
      */
     public SparseMatrix aat() {
         SparseMatrix AT = transpose();
-        return aat(AT);
-    }
-
-    /** Returns A * A' */
-    private SparseMatrix aat(SparseMatrix AT) {
-        int[] done = new int[m];
-        for (int i = 0; i < m; i++) {
-            done[i] = -1;
-        }
-
-        // First pass determines the number of nonzeros.
-        int nvals = 0;
-        // Outer loop over columns of A' in AA'
-        for (int j = 0; j < m; j++) {
-            for (int i = AT.colIndex[j]; i < AT.colIndex[j + 1]; i++) {
-                int k = AT.rowIndex[i];
-                for (int l = colIndex[k]; l < colIndex[k + 1]; l++) {
-                    int h = rowIndex[l];
-                    // Test if contribution already included.
-                    if (done[h] != j) {
-                        done[h] = j;
-                        nvals++;
-                    }
-                }
-            }
-        }
-
-        SparseMatrix aat = new SparseMatrix(m, m, nvals);
-
-        nvals = 0;
-        for (int i = 0; i < m; i++) {
-            done[i] = -1;
-        }
-
-        // Second pass determines columns of aat. Code is identical to first
-        // pass except colIndex and rowIndex get assigned at appropriate places.
-        for (int j = 0; j < m; j++) {
-            aat.colIndex[j] = nvals;
-            for (int i = AT.colIndex[j]; i < AT.colIndex[j + 1]; i++) {
-                int k = AT.rowIndex[i];
-                for (int l = colIndex[k]; l < colIndex[k + 1]; l++) {
-                    int h = rowIndex[l];
-                    if (done[h] != j) {
-                        done[h] = j;
-                        aat.rowIndex[nvals] = h;
-                        nvals++;
-                    }
-                }
-            }
-        }
-
-        // Set last value.
-        aat.colIndex[m] = nvals;
-
-        // Sort columns.
-        for (int j = 0; j < m; j++) {
-            if (aat.colIndex[j + 1] - aat.colIndex[j] > 1) {
-                Arrays.sort(aat.rowIndex, aat.colIndex[j], aat.colIndex[j + 1]);
-            }
-        }
-
-        double[] temp = new double[m];
-        for (int i = 0; i < m; i++) {
-            for (int j = AT.colIndex[i]; j < AT.colIndex[i + 1]; j++) {
-                int k = AT.rowIndex[j];
-                for (int l = colIndex[k]; l < colIndex[k + 1]; l++) {
-                    int h = rowIndex[l];
-                    temp[h] += AT.nonzeros[j] * nonzeros[l];
-                }
-            }
-
-            for (int j = aat.colIndex[i]; j < aat.colIndex[i + 1]; j++) {
-                int k = aat.rowIndex[j];
-                aat.nonzeros[j] = temp[k];
-                temp[k] = 0.0;
-            }
-        }
-
-        return aat;
+        return multiply(this, AT, true);
     }
 
     @Override
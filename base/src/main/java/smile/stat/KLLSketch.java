@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.stat;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.DoubleStream;
+import smile.data.vector.ValueVector;
+import smile.math.MathEx;
+import smile.sort.QuickSort;
+import smile.util.DoubleArrayList;
+
+/**
+ * KLL sketch for streaming quantile estimation. The sketch keeps
+ * a hierarchy of compactors. An item at level h represents 2<sup>h</sup>
+ * original values. When a compactor is full, it is sorted and every
+ * other item, starting at a random offset, is promoted to the next
+ * level. The capacities decrease geometrically toward the lower levels
+ * so that the sketch keeps about 3k items in total, and the rank error
+ * is about 1.65 / k with high probability, independent of the data size.
+ * Sketches of disjoint data can be merged, which makes it suitable for
+ * chunked and parallel processing with a sketch per thread. The sketch
+ * is exact as long as no compaction happens.
+ * <p>
+ * A sketch is not synchronized. Missing values (NaN) are ignored.
+ * The coin flips of compaction are drawn from the sketch's own random
+ * number generator with a fixed seed by default, so that the sketch of
+ * same data is reproducible and doesn't consume the random numbers
+ * of {@link MathEx}.
+ *
+ * <h2>References</h2>
+ * <ol>
+ * <li>Z. Karnin, K. Lang, and E. Liberty. Optimal quantile approximation in streams. FOCS, 2016.</li>
+ * </ol>
+ *
+ * @author Haifeng Li
+ */
+public class KLLSketch implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    /** The capacity decay factor of lower levels. */
+    private static final double C = 2.0 / 3.0;
+    /** The default seed of random number generator. */
+    private static final long SEED = 19650218L;
+
+    /** The capacity of top compactor. */
+    private final int k;
+    /** The compactors of each level. */
+    private final List<DoubleArrayList> compactors = new ArrayList<>();
+    /** The number of retained items. */
+    private int size;
+    /** The total capacity of compactors. */
+    private int capacity;
+    /** The number of values. */
+    private long n;
+    /** The minimum. */
+    private double min = Double.POSITIVE_INFINITY;
+    /** The maximum. */
+    private double max = Double.NEGATIVE_INFINITY;
+    /** The random number generator of compaction. */
+    private final Random random;
+
+    /**
+     * Constructor with k = 200, which has about 1% rank error.
+     */
+    public KLLSketch() {
+        this(200);
+    }
+
+    /**
+     * Constructor.
+     * @param k the capacity of top compactor, which controls the accuracy.
+     */
+    public KLLSketch(int k) {
+        this(k, SEED);
+    }
+
+    /**
+     * Constructor.
+     * @param k the capacity of top compactor, which controls the accuracy.
+     * @param seed the seed of random number generator of compaction.
+     */
+    public KLLSketch(int k, long seed) {
+        if (k < 8) {
+            throw new IllegalArgumentException("Invalid sketch size: " + k);
+        }
+
+        this.k = k;
+        this.random = new Random(seed);
+        compactors.add(new DoubleArrayList());
+        capacity = capacity(0);
+    }
+
+    /**
+     * Returns the sketch of an array.
+     * @param x the data.
+     * @return the sketch.
+     */
+    public static KLLSketch of(double... x) {
+        KLLSketch sketch = new KLLSketch();
+        for (double xi : x) {
+            sketch.add(xi);
+        }
+        return sketch;
+    }
+
+    /**
+     * Returns the sketch of a stream, which may be parallel.
+     * @param stream the data stream.
+     * @return the sketch.
+     */
+    public static KLLSketch of(DoubleStream stream) {
+        return stream.collect(KLLSketch::new, KLLSketch::add, KLLSketch::merge);
+    }
+
+    /**
+     * Returns the sketch of a numeric column. Null values are ignored.
+     * @param vector the column vector.
+     * @return the sketch.
+     */
+    public static KLLSketch of(ValueVector vector) {
+        KLLSketch sketch = new KLLSketch();
+        int length = vector.size();
+        boolean nullable = vector.isNullable();
+        for (int i = 0; i < length; i++) {
+            if (!nullable || !vector.isNullAt(i)) {
+                sketch.add(vector.getDouble(i));
+            }
+        }
+        return sketch;
+    }
+
+    /**
+     * Returns the capacity of a level.
+     * @param level the level of compactor.
+     * @return the capacity.
+     */
+    private int capacity(int level) {
+        int depth = compactors.size() - level - 1;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(C, depth)));
+    }
+
+    /**
+     * Adds a value. NaN is ignored.
+     * @param x the value.
+     */
+    public void add(double x) {
+        if (Double.isNaN(x)) return;
+
+        n++;
+        if (x < min) min = x;
+        if (x > max) max = x;
+        compactors.get(0).add(x);
+        if (++size >= capacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Merges the sketch of another disjoint set of data into this one.
+     * @param other the other sketch.
+     * @return this sketch.
+     */
+    public KLLSketch merge(KLLSketch other) {
+        if (other.n == 0) return this;
+
+        while (compactors.size() < other.compactors.size()) {
+            compactors.add(new DoubleArrayList());
+        }
+
+        for (int h = 0; h < other.compactors.size(); h++) {
+            compactors.get(h).add(other.compactors.get(h).toArray());
+        }
+
+        n += other.n;
+        size += other.size;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        updateCapacity();
+        while (size >= capacity) {
+            compress();
+        }
+        return this;
+    }
+
+    /** Updates the total capacity. */
+    private void updateCapacity() {
+        capacity = 0;
+        for (int h = 0; h < compactors.size(); h++) {
+            capacity += capacity(h);
+        }
+    }
+
+    /**
+     * Compacts the lowest level that exceeds its capacity.
+     */
+    private void compress() {
+        for (int h = 0; h < compactors.size(); h++) {
+            DoubleArrayList compactor = compactors.get(h);
+            if (compactor.size() >= capacity(h)) {
+                if (h + 1 == compactors.size()) {
+                    compactors.add(new DoubleArrayList());
+                }
+
+                double[] items = compactor.toArray();
+                Arrays.sort(items);
+                compactor.clear();
+                // An odd item stays at this level.
+                int start = 0;
+                if (items.length % 2 == 1) {
+                    compactor.add(items[0]);
+                    start = 1;
+                }
+
+                DoubleArrayList next = compactors.get(h + 1);
+                for (int i = start + random.nextInt(2); i < items.length; i += 2) {
+                    next.add(items[i]);
+                }
+
+                size -= (items.length - start) / 2;
+                updateCapacity();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of values.
+     * @return the number of values.
+     */
+    public long count() {
+        return n;
+    }
+
+    /**
+     * Returns the minimum.
+     * @return the minimum.
+     */
+    public double min() {
+        return n == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * Returns the maximum.
+     * @return the maximum.
+     */
+    public double max() {
+        return n == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Returns the retained items and their cumulative weights,
+     * sorted by items.
+     * @return the pair of items and cumulative weights.
+     */
+    private double[][] sorted() {
+        double[] items = new double[size];
+        double[] weights = new double[size];
+        for (int h = 0, i = 0; h < compactors.size(); h++) {
+            DoubleArrayList compactor = compactors.get(h);
+            double weight = 1L << h;
+            for (int j = 0; j < compactor.size(); j++, i++) {
+                items[i] = compactor.get(j);
+                weights[i] = weight;
+            }
+        }
+
+        QuickSort.sort(items, weights);
+        for (int i = 1; i < size; i++) {
+            weights[i] += weights[i - 1];
+        }
+        return new double[][]{items, weights};
+    }
+
+    /**
+     * Returns the estimated p-quantile, which is the value of
+     * rank {@code floor(p * n)} in the 0-based sorted order.
+     * @param p the probability.
+     * @return the quantile.
+     */
+    public double quantile(double p) {
+        return quantile(new double[]{p})[0];
+    }
+
+    /**
+     * Returns the estimated quantiles.
+     * @param p the probabilities.
+     * @return the quantiles.
+     */
+    public double[] quantile(double... p) {
+        double[] q = new double[p.length];
+        if (n == 0) {
+            Arrays.fill(q, Double.NaN);
+            return q;
+        }
+
+        double[][] sorted = sorted();
+        double[] items = sorted[0];
+        double[] cumulative = sorted[1];
+        // The weights of retained items sum up to n only approximately
+        // after compaction, so the ranks are scaled to the total weight.
+        double total = cumulative[size - 1];
+        for (int i = 0; i < p.length; i++) {
+            if (p[i] < 0.0 || p[i] > 1.0) {
+                throw new IllegalArgumentException("Invalid probability: " + p[i]);
+            }
+
+            if (p[i] == 0.0) {
+                q[i] = min;
+            } else if (p[i] == 1.0) {
+                q[i] = max;
+            } else {
+                double rank = Math.floor(p[i] * total);
+                int j = 0;
+                while (j < size - 1 && cumulative[j] <= rank) j++;
+                q[i] = items[j];
+            }
+        }
+        return q;
+    }
+
+    /**
+     * Returns the estimated fraction of values less than or equal to x.
+     * @param x the value.
+     * @return the cumulative distribution function at x.
+     */
+    public double cdf(double x) {
+        if (n == 0) return Double.NaN;
+
+        double weight = 0.0;
+        double total = 0.0;
+        for (int h = 0; h < compactors.size(); h++) {
+            DoubleArrayList compactor = compactors.get(h);
+            double w = 1L << h;
+            for (int j = 0; j < compactor.size(); j++) {
+                if (compactor.get(j) <= x) weight += w;
+                total += w;
+            }
+        }
+        return weight / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("KLLSketch(k = %d, count = %d, retained = %d)", k, n, size);
+    }
+}
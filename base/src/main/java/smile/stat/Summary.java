@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.stat;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.stream.DoubleStream;
+import smile.data.vector.ValueVector;
+
+/**
+ * Streaming descriptive statistics of count, sum, mean, variance,
+ * skewness, kurtosis, min and max in a single pass. The central moments
+ * are updated incrementally by Welford's algorithm, which is numerically
+ * stable. Two summaries of disjoint data can be merged by the pairwise
+ * formulas of Chan et al., so that the data may be processed in chunks
+ * or in parallel with a summary per thread, e.g.
+ * <pre>{@code
+ *     Summary summary = stream.parallel().collect(Summary::new, Summary::add, Summary::merge);
+ * }</pre>
+ * A summary is not synchronized. Each thread should update its own
+ * summary, which are merged afterward. Missing values (NaN) are ignored.
+ *
+ * <h2>References</h2>
+ * <ol>
+ * <li>B. P. Welford. Note on a method for calculating corrected sums of squares and products. Technometrics, 4(3):419-420, 1962.</li>
+ * <li>T. F. Chan, G. H. Golub, and R. J. LeVeque. Updating formulae and a pairwise algorithm for computing sample variances. Technical Report STAN-CS-79-773, Stanford University, 1979.</li>
+ * <li>P. Pébay. Formulas for robust, one-pass parallel computation of covariances and arbitrary-order statistical moments. Technical Report SAND2008-6212, Sandia National Laboratories, 2008.</li>
+ * </ol>
+ *
+ * @author Haifeng Li
+ */
+public class Summary implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** The number of values. */
+    private long n;
+    /** The sum of values. */
+    private double sum;
+    /** The running mean. */
+    private double mu;
+    /** The sum of squared deviations from the mean. */
+    private double m2;
+    /** The sum of cubed deviations from the mean. */
+    private double m3;
+    /** The sum of 4th power deviations from the mean. */
+    private double m4;
+    /** The minimum. */
+    private double min = Double.POSITIVE_INFINITY;
+    /** The maximum. */
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Constructor of empty summary.
+     */
+    public Summary() {
+
+    }
+
+    /**
+     * Returns the summary of an array.
+     * @param x the data.
+     * @return the summary.
+     */
+    public static Summary of(double... x) {
+        Summary summary = new Summary();
+        for (double xi : x) {
+            summary.add(xi);
+        }
+        return summary;
+    }
+
+    /**
+     * Returns the summary of a stream, which may be parallel.
+     * @param stream the data stream.
+     * @return the summary.
+     */
+    public static Summary of(DoubleStream stream) {
+        return stream.collect(Summary::new, Summary::add, Summary::merge);
+    }
+
+    /**
+     * Returns the summary of a numeric column. Null values are ignored.
+     * @param vector the column vector.
+     * @return the summary.
+     */
+    public static Summary of(ValueVector vector) {
+        Summary summary = new Summary();
+        int size = vector.size();
+        boolean nullable = vector.isNullable();
+        for (int i = 0; i < size; i++) {
+            if (!nullable || !vector.isNullAt(i)) {
+                summary.add(vector.getDouble(i));
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Adds a value. NaN is ignored.
+     * @param x the value.
+     */
+    public void add(double x) {
+        if (Double.isNaN(x)) return;
+
+        long n1 = n++;
+        double delta = x - mu;
+        double deltaN = delta / n;
+        double deltaN2 = deltaN * deltaN;
+        double term = delta * deltaN * n1;
+        mu += deltaN;
+        m4 += term * deltaN2 * ((double) n * n - 3.0 * n + 3) + 6 * deltaN2 * m2 - 4 * deltaN * m3;
+        m3 += term * deltaN * (n - 2) - 3 * deltaN * m2;
+        m2 += term;
+        sum += x;
+        if (x < min) min = x;
+        if (x > max) max = x;
+    }
+
+    /**
+     * Merges the summary of another disjoint set of data into this one.
+     * @param other the other summary.
+     * @return this summary.
+     */
+    public Summary merge(Summary other) {
+        if (other.n == 0) return this;
+        if (n == 0) {
+            n = other.n;
+            sum = other.sum;
+            mu = other.mu;
+            m2 = other.m2;
+            m3 = other.m3;
+            m4 = other.m4;
+            min = other.min;
+            max = other.max;
+            return this;
+        }
+
+        double na = n;
+        double nb = other.n;
+        double nn = na + nb;
+        double delta = other.mu - mu;
+        double delta2 = delta * delta;
+        double delta3 = delta2 * delta;
+        double delta4 = delta2 * delta2;
+
+        double M2 = m2 + other.m2 + delta2 * na * nb / nn;
+        double M3 = m3 + other.m3 + delta3 * na * nb * (na - nb) / (nn * nn)
+                  + 3.0 * delta * (na * other.m2 - nb * m2) / nn;
+        double M4 = m4 + other.m4 + delta4 * na * nb * (na * na - na * nb + nb * nb) / (nn * nn * nn)
+                  + 6.0 * delta2 * (na * na * other.m2 + nb * nb * m2) / (nn * nn)
+                  + 4.0 * delta * (na * other.m3 - nb * m3) / nn;
+
+        n += other.n;
+        sum += other.sum;
+        mu += delta * nb / nn;
+        m2 = M2;
+        m3 = M3;
+        m4 = M4;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * Returns the number of values.
+     * @return the number of values.
+     */
+    public long count() {
+        return n;
+    }
+
+    /**
+     * Returns the sum of values.
+     * @return the sum of values.
+     */
+    public double sum() {
+        return sum;
+    }
+
+    /**
+     * Returns the mean, which is the sum divided by the count
+     * so that it agrees with {@code MathEx.mean}.
+     * @return the mean.
+     */
+    public double mean() {
+        return n == 0 ? Double.NaN : sum / n;
+    }
+
+    /**
+     * Returns the sample variance.
+     * @return the sample variance.
+     */
+    public double variance() {
+        return n < 2 ? Double.NaN : m2 / (n - 1);
+    }
+
+    /**
+     * Returns the sample standard deviation.
+     * @return the sample standard deviation.
+     */
+    public double sd() {
+        return Math.sqrt(variance());
+    }
+
+    /**
+     * Returns the skewness, i.e. the third standardized moment.
+     * @return the skewness.
+     */
+    public double skewness() {
+        return n < 2 || m2 == 0.0 ? Double.NaN : Math.sqrt(n) * m3 / Math.pow(m2, 1.5);
+    }
+
+    /**
+     * Returns the excess kurtosis, i.e. the fourth standardized
+     * moment minus 3.
+     * @return the excess kurtosis.
+     */
+    public double kurtosis() {
+        return n < 2 || m2 == 0.0 ? Double.NaN : n * m4 / (m2 * m2) - 3.0;
+    }
+
+    /**
+     * Returns the minimum.
+     * @return the minimum.
+     */
+    public double min() {
+        return n == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * Returns the maximum.
+     * @return the maximum.
+     */
+    public double max() {
+        return n == 0 ? Double.NaN : max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Summary(count = %d, mean = %.4f, sd = %.4f, min = %.4f, max = %.4f)", n, mean(), sd(), min(), max());
+    }
+}
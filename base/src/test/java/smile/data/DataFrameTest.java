@@ -24,6 +24,7 @@ import smile.data.type.DataType;
 import smile.data.type.DataTypes;
 import smile.data.type.StructField;
 import smile.data.type.StructType;
+import smile.data.vector.DoubleVector;
 import smile.data.vector.StringVector;
 import smile.math.MathEx;
 import smile.math.matrix.Matrix;
@@ -318,6 +319,28 @@ public class DataFrameTest {
         assertEquals(230000., output.get(4,11));
     }
 
+    @Test
+    public void testDescribeReproducible() {
+        System.out.println("describe reproducible");
+        MathEx.setSeed(19650218);
+        DataFrame data = new DataFrame(new DoubleVector("x", MathEx.random(20000)), new DoubleVector("y", MathEx.random(20000)));
+        MathEx.setSeed(19650218);
+        double expected = MathEx.random();
+
+        DataFrame first = data.describe();
+        DataFrame second = data.describe();
+        for (int i = 0; i < 2; i++) {
+            for (int j = 8; j <= 10; j++) {
+                assertEquals(first.getDouble(i, j), second.getDouble(i, j));
+            }
+        }
+
+        // describe() doesn't consume the seeded random numbers of caller.
+        MathEx.setSeed(19650218);
+        data.describe();
+        assertEquals(expected, MathEx.random());
+    }
+
     /**
      * Test of toMatrix method, of class DataFrame.
      */
@@ -26,6 +26,7 @@ import smile.data.measure.NominalScale;
 import smile.data.type.DataTypes;
 import smile.data.type.StructField;
 import smile.data.type.StructType;
+import smile.data.vector.ByteVector;
 import smile.io.Read;
 import smile.math.matrix.Matrix;
 import smile.util.Paths;
@@ -199,6 +200,29 @@ public class FormulaTest {
         assertEquals(schema, outputSchema);
     }
 
+    @Test
+    public void testInteractionValues() {
+        System.out.println("interaction values");
+
+        Formula formula = Formula.rhs(interact("water", "sowing_density"));
+        NominalScale water = new NominalScale(new int[]{10, 20}, new String[]{"dry", "wet"});
+        NominalScale density = new NominalScale(new int[]{-1, 5}, new String[]{"low", "high"});
+        DataFrame df = new DataFrame(
+                new ByteVector(new StructField("water", DataTypes.ByteType, water), new byte[]{10, 10, 20, 20, 20}),
+                new ByteVector(new StructField("sowing_density", DataTypes.ByteType, density), new byte[]{-1, 5, -1, 5, -1})
+        );
+
+        DataFrame output = formula.x(df);
+        var scale = (NominalScale) output.schema().field(0).measure();
+        assertArrayEquals(new String[]{"dry:low", "dry:high", "wet:low", "wet:high"}, scale.levels());
+        int[] expected = {0, 1, 2, 3, 2};
+        assertArrayEquals(expected, output.column(0).toIntArray());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], formula.x(df.get(i)).getInt(0));
+        }
+        assertEquals("wet:high", scale.toString(output.getInt(3, 0)));
+    }
+
     @Test
     public void testCrossing() {
         System.out.println("crossing");
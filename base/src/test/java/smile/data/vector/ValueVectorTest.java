@@ -17,8 +17,10 @@
 package smile.data.vector;
 
 import java.time.*;
+import smile.data.DataFrame;
 import smile.data.measure.NominalScale;
 import smile.data.type.DataTypes;
+import smile.data.type.StructField;
 import smile.util.Index;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -79,4 +81,78 @@ public class ValueVectorTest {
         var arrayVector = ObjectVector.of("E", Index.range(0, 4).toArray(), new int[]{3, 3, 3, 3});
         assertEquals(DataTypes.IntArrayType, arrayVector.dtype());
     }
+
+    @Test
+    public void testDictionary() {
+        System.out.println("dictionary");
+        var field = new StructField("country", DataTypes.StringType);
+        String[] values = {"US", "CN", "US", null, "DE", "CN", "US", "US"};
+        var vector = DictionaryVector.of(field, values);
+        assertTrue(vector instanceof DictionaryVector);
+        assertEquals(DataTypes.StringType, vector.dtype());
+        assertEquals(values.length, vector.size());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], vector.get(i));
+        }
+        assertTrue(vector.isNullAt(3));
+        assertEquals(1, vector.getNullCount());
+
+        var dict = (DictionaryVector) vector;
+        assertArrayEquals(new String[]{"US", "CN", "DE"}, dict.dictionary());
+        assertArrayEquals(new int[]{0, 1, 0, -1, 2, 1, 0, 0}, dict.codes());
+
+        var slice = dict.get(Index.range(4, 8));
+        assertSame(dict.dictionary(), slice.dictionary());
+        assertEquals("DE", slice.get(0));
+
+        slice.set(1, "FR");
+        slice.set(2, "US");
+        assertEquals("FR", slice.get(1));
+        assertEquals("US", slice.get(2));
+        assertEquals("CN", dict.get(5));
+        assertEquals(3, dict.dictionary().length);
+
+        var scale = dict.nominal();
+        assertArrayEquals(new String[]{"CN", "DE", "US"}, scale.levels());
+        var factor = dict.factorize(scale);
+        assertEquals(DataTypes.ByteType, factor.dtype());
+        assertArrayEquals(new int[]{2, 0, 2, -1, 1, 0, 2, 2}, factor.toIntArray());
+
+        String[] unique = {"a", "b", "c", "d"};
+        assertTrue(DictionaryVector.of(field, unique) instanceof StringVector);
+    }
+
+    @Test
+    public void testDictionarySlice() {
+        System.out.println("dictionary slice");
+        var field = new StructField("country", DataTypes.StringType);
+        String[] values = {"US", "CN", "US", null, "DE", "CN", "US", "US"};
+        var dict = (DictionaryVector) DictionaryVector.of(field, values);
+        var slice = dict.get(Index.range(0, 4));
+        assertSame(dict.dictionary(), slice.dictionary());
+        assertArrayEquals(new String[]{"CN", "US"}, slice.nominal().levels());
+
+        var data = new DataFrame(slice).factorize("country");
+        var scale = (NominalScale) data.schema().field("country").measure();
+        assertArrayEquals(new String[]{"CN", "US"}, scale.levels());
+        assertArrayEquals(new int[]{1, 0, 1, -1}, data.column("country").toIntArray());
+    }
+
+    @Test
+    public void testDictionaryWithName() {
+        System.out.println("dictionary withName");
+        var field = new StructField("country", DataTypes.StringType);
+        String[] values = {"US", "CN", "US", null, "DE", "CN", "US", "US"};
+        var dict = (DictionaryVector) DictionaryVector.of(field, values);
+        var renamed = dict.withName("nation");
+
+        renamed.set(0, "FR");
+        assertEquals("FR", renamed.get(0));
+        assertEquals("FR", dict.get(0));
+        dict.set(3, "JP");
+        assertEquals("JP", dict.get(3));
+        assertEquals("JP", renamed.get(3));
+        assertArrayEquals(dict.dictionary(), renamed.dictionary());
+        assertEquals(renamed.stream().toList(), dict.stream().toList());
+    }
 }
@@ -195,4 +195,28 @@ public class ArffTest {
             assertEquals(5644, mushrooms.dropna().size());
         }
     }
+
+    @Test
+    public void testStream() throws Exception {
+        System.out.println("stream");
+        DataFrame iris;
+        try (Arff arff = new Arff(Paths.getTestData("weka/iris.arff"))) {
+            iris = arff.read();
+        }
+
+        Arff arff = new Arff(Paths.getTestData("weka/iris.arff"));
+        try (var stream = arff.stream(40)) {
+            int[] offset = {0};
+            stream.forEach(chunk -> {
+                assertEquals(Math.min(40, 150 - offset[0]), chunk.size());
+                assertEquals(DataTypes.NullableFloatType, chunk.schema().field("sepallength").dtype());
+                for (int i = 0; i < chunk.size(); i++) {
+                    assertEquals(iris.getFloat(offset[0] + i, 0), chunk.getFloat(i, 0), 1E-7);
+                    assertEquals(iris.getString(offset[0] + i, 4), chunk.getString(i, 4));
+                }
+                offset[0] += chunk.size();
+            });
+            assertEquals(150, offset[0]);
+        }
+    }
 }
@@ -21,9 +21,15 @@ import smile.data.type.DataTypes;
 import smile.data.type.StructField;
 import smile.data.type.StructType;
 import smile.math.matrix.Matrix;
+import smile.util.Index;
 import smile.util.Paths;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
 import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.sql.*;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -169,4 +175,90 @@ public class ArrowTest {
         assertEquals(5.94, output.get(2, 0), 1E-10);
         assertEquals(0.99, output.get(3, 0), 1E-10);
     }
+
+    /**
+     * Test of zero-copy map, wrap and export.
+     */
+    @Test
+    public void testZeroCopy() throws Exception {
+        System.out.println("zero copy");
+        File temp = File.createTempFile("chinook", "feather");
+        temp.deleteOnExit();
+        Path path = temp.toPath();
+        try (VectorSchemaRoot root = Arrow.toArrow(df);
+             FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+             ArrowFileWriter writer = new ArrowFileWriter(root, null, channel)) {
+            writer.start();
+            writer.writeBatch();
+            writer.writeBatch();
+            writer.end();
+        }
+
+        DataFrame data = arrow.map(path);
+        assertEquals(2 * df.size(), data.size());
+        assertEquals(df.schema(), data.schema());
+        for (int j = 0; j < df.ncol(); j++) {
+            assertTrue(data.column(j) instanceof ArrowVector);
+        }
+
+        int n = df.size();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < 5; j++) {
+                assertEquals(df.getString(i, j), data.getString(i, j));
+                assertEquals(df.getString(i, j), data.getString(i + n, j));
+            }
+            assertEquals(df.getDouble(i, 5), data.getDouble(i + n, 5), 1E-10);
+        }
+        assertEquals(5.65194, data.describe().getDouble(5, 5), 1E-5);
+
+        // copy-on-write mapping
+        data.column(5).set(0, 1.0);
+        assertEquals(1.0, data.getDouble(0, 5), 1E-10);
+
+        DataFrame batch = data.get(Index.range(0, n));
+        try (VectorSchemaRoot root = Arrow.toArrow(batch)) {
+            assertEquals(n, root.getRowCount());
+            DataFrame wrapped = Arrow.wrap(root);
+            assertTrue(wrapped.column(5) instanceof ArrowVector);
+            assertEquals(1.0, wrapped.getDouble(0, 5), 1E-10);
+            assertEquals("Köhler", wrapped.getString(7, 3));
+
+            // The single chunk columns share the buffers.
+            try (VectorSchemaRoot shared = Arrow.toArrow(wrapped)) {
+                assertEquals(n, shared.getRowCount());
+                for (var column : wrapped.columns()) {
+                    ((ArrowVector) column).close();
+                }
+
+                DataFrame copy = Arrow.wrap(shared);
+                assertEquals(df.getDouble(1, 5), copy.getDouble(1, 5), 1E-10);
+                assertEquals("Köhler", copy.getString(7, 3));
+                for (var column : copy.columns()) {
+                    ((ArrowVector) column).close();
+                }
+            }
+        }
+
+        for (var column : data.columns()) {
+            ((ArrowVector) column).close();
+        }
+
+        // read only mapping, which is skipped if the file is still
+        // writable, e.g. by root.
+        assertTrue(temp.setWritable(false));
+        if (!Files.isWritable(path)) {
+            DataFrame readOnly = arrow.map(path);
+            assertEquals(df.getDouble(0, 5), readOnly.getDouble(0, 5), 1E-10);
+            assertThrows(UnsupportedOperationException.class, () -> readOnly.column(5).set(0, 1.0));
+            assertThrows(UnsupportedOperationException.class, () -> readOnly.column(5).withName("price").set(0, 1.0));
+            try (VectorSchemaRoot root = Arrow.toArrow(readOnly)) {
+                assertEquals(2 * n, root.getRowCount());
+                assertEquals(df.getDouble(0, 5), Arrow.wrap(root).getDouble(0, 5), 1E-10);
+            }
+
+            for (var column : readOnly.columns()) {
+                ((ArrowVector) column).close();
+            }
+        }
+    }
 }
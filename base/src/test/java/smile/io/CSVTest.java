@@ -16,6 +16,10 @@
  */
 package smile.io;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import org.apache.commons.csv.CSVFormat;
 import smile.data.DataFrame;
 import smile.data.type.DataTypes;
@@ -276,4 +280,114 @@ public class CSVTest {
         assertEquals("Internal Auditor", df.getString(0, 11));
         assertEquals("1E+02", df.getString(0, 12));
     }
+
+    @Test
+    public void testParallelChunks() throws Exception {
+        System.out.println("parallel chunks");
+
+        Path path = Files.createTempFile("smile-csv", ".csv");
+        path.toFile().deleteOnExit();
+        StringBuilder sb = new StringBuilder("id,name,x,flag\n");
+        for (int i = 0; i < 1000; i++) {
+            if (i % 100 == 0) sb.append("# comment with \"quote\n");
+            String name = i % 7 == 0 ? "\"line\nbreak, \"\"" + i + "\"\"\"" : "name" + i;
+            String x = i % 11 == 0 ? "" : String.valueOf(i * 0.25);
+            sb.append(i).append(',').append(name).append(',').append(x).append(',').append(i % 2 == 0).append('\n');
+        }
+        Files.writeString(path, sb);
+
+        CSVFormat format = CSVFormat.Builder.create()
+                .setHeader()
+                .setCommentMarker('#')
+                .get();
+        CSV csv = new CSV(format);
+        DataFrame df = csv.read(path);
+        System.out.println(df);
+
+        assertEquals(1000, df.size());
+        StructType schema = new StructType(
+                new StructField("id", DataTypes.IntType),
+                new StructField("name", DataTypes.StringType),
+                new StructField("x", DataTypes.NullableDoubleType),
+                new StructField("flag", DataTypes.BooleanType)
+        );
+        assertEquals(schema, df.schema());
+        assertEquals("line\nbreak, \"7\"", df.getString(7, 1));
+        assertTrue(df.column("x").isNullAt(11));
+        assertEquals(0.25, df.getDouble(1, 2), 1E-10);
+
+        // Tiny chunks split the file at many record boundaries.
+        for (int chunkSize : new int[]{1, 13, 1024}) {
+            CSVReader reader = new CSVReader(',', '"', '#', StandardCharsets.UTF_8, true, null, chunkSize);
+            DataFrame chunked = reader.read(path, null, Integer.MAX_VALUE);
+            assertEquals(df.schema(), chunked.schema());
+            assertEquals(df.size(), chunked.size());
+            for (int i = 0; i < df.size(); i++) {
+                for (int j = 0; j < df.ncol(); j++) {
+                    assertEquals(df.get(i, j), chunked.get(i, j));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLongFirstRecord() throws Exception {
+        System.out.println("long first record");
+
+        // The header is longer than the buffer to read the first record.
+        Path path = Files.createTempFile("smile-csv", ".csv");
+        path.toFile().deleteOnExit();
+        String name = "x".repeat(3 << 20);
+        StringBuilder sb = new StringBuilder("id,").append(name).append(",flag\n");
+        for (int i = 0; i < 10; i++) {
+            sb.append(i).append(',').append(i * 0.5).append(',').append(i % 2 == 0).append('\n');
+        }
+        Files.writeString(path, sb);
+
+        CSVFormat format = CSVFormat.Builder.create()
+                .setHeader()
+                .get();
+        CSV csv = new CSV(format);
+        DataFrame df = csv.read(path);
+        assertEquals(10, df.size());
+        assertEquals(3, df.ncol());
+        assertEquals(name, df.schema().field(1).name());
+        assertEquals("flag", df.schema().field(2).name());
+        assertEquals(4.5, df.getDouble(9, 1), 1E-10);
+
+        // Without header, the long field is the first record.
+        format = CSVFormat.Builder.create().get();
+        csv = new CSV(format);
+        df = csv.read(path);
+        assertEquals(11, df.size());
+        assertEquals(3, df.ncol());
+        assertEquals(name, df.getString(0, 1));
+        assertEquals("flag", df.getString(0, 2));
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        System.out.println("stream");
+
+        Path path = Paths.getTestData("regression/abalone-train.data");
+        DataFrame abalone = new CSV().read(path);
+        int[] sizes = {1000, 1000, 1000, 133};
+        List<DataFrame> chunks;
+        try (var stream = new CSV().stream(path, 1000)) {
+            chunks = stream.toList();
+        }
+
+        assertEquals(sizes.length, chunks.size());
+        for (int i = 0, offset = 0; i < sizes.length; offset += sizes[i++]) {
+            DataFrame chunk = chunks.get(i);
+            assertEquals(sizes[i], chunk.size());
+            assertEquals(chunks.getFirst().schema(), chunk.schema());
+            assertTrue(chunk.schema().field(8).dtype().isNullable());
+            for (int j = 0; j < chunk.size(); j++) {
+                assertEquals(abalone.getString(offset + j, 0), chunk.getString(j, 0));
+                assertEquals(abalone.getDouble(offset + j, 1), chunk.getDouble(j, 1), 1E-10);
+                assertEquals(abalone.getInt(offset + j, 8), chunk.getInt(j, 8));
+            }
+        }
+    }
 }
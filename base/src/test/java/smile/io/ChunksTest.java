@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import smile.data.DataFrame;
+import smile.data.vector.IntVector;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Haifeng Li
+ */
+public class ChunksTest {
+
+    public ChunksTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() throws Exception {
+    }
+
+    @AfterAll
+    public static void tearDownClass() throws Exception {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /** Returns the batches of consecutive integers. */
+    private static Stream<DataFrame> batches(int... sizes) {
+        int[] offset = {0};
+        return IntStream.of(sizes).mapToObj(size -> {
+            int[] x = IntStream.range(offset[0], offset[0] + size).toArray();
+            offset[0] += size;
+            return new DataFrame(new IntVector("x", x));
+        });
+    }
+
+    @Test
+    public void testRechunk() {
+        System.out.println("rechunk");
+        boolean[] closed = {false};
+        List<DataFrame> chunks;
+        try (var stream = Chunks.rechunk(batches(3, 5, 2, 7).onClose(() -> closed[0] = true), 4)) {
+            chunks = stream.toList();
+        }
+        assertTrue(closed[0]);
+
+        // The chunks span the batches of 3, 5, 2 and 7 rows.
+        int[] sizes = {4, 4, 4, 4, 1};
+        assertEquals(sizes.length, chunks.size());
+        for (int i = 0, offset = 0; i < sizes.length; offset += sizes[i++]) {
+            DataFrame chunk = chunks.get(i);
+            assertEquals(sizes[i], chunk.size());
+            for (int j = 0; j < chunk.size(); j++) {
+                assertEquals(offset + j, chunk.getInt(j, 0));
+            }
+        }
+
+        chunks = Chunks.rechunk(batches(3, 5, 2, 7), 20).toList();
+        assertEquals(1, chunks.size());
+        assertArrayEquals(IntStream.range(0, 17).toArray(), chunks.getFirst().column(0).toIntArray());
+
+        chunks = Chunks.rechunk(batches(3, 0, 5), 3).toList();
+        assertEquals(List.of(3, 3, 2), chunks.stream().map(DataFrame::size).toList());
+        assertEquals(5, chunks.get(1).getInt(2, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> Chunks.rechunk(batches(3), 0));
+    }
+
+    @Test
+    public void testOpen() {
+        System.out.println("open");
+        boolean[] closed = {false};
+        Closeable input = () -> closed[0] = true;
+        assertThrows(IOException.class, () -> Chunks.open(input, in -> {
+            throw new IOException("Invalid file header");
+        }));
+        assertTrue(closed[0]);
+
+        closed[0] = false;
+        assertThrows(IllegalStateException.class, () -> Chunks.open(input, in -> {
+            throw new IllegalStateException("Invalid file header");
+        }));
+        assertTrue(closed[0]);
+    }
+}
@@ -16,6 +16,8 @@
  */
 package smile.io;
 
+import java.util.List;
+import java.util.stream.Stream;
 import smile.data.DataFrame;
 import smile.data.type.DataTypes;
 import smile.data.type.StructField;
@@ -122,4 +124,28 @@ public class JSONTest {
         assertEquals("Michael McCandless", df.get(6, 2));
         assertEquals(30.5, df.getDouble(6, 3), 1E-7);
     }
+
+    @Test
+    public void testStream() throws Exception {
+        System.out.println("stream");
+        JSON json = new JSON().mode(JSON.Mode.MULTI_LINE);
+        List<DataFrame> chunks;
+        try (Stream<DataFrame> stream = json.stream(Paths.getTestData("kylo/books_array.json"), 3)) {
+            chunks = stream.toList();
+        }
+
+        assertEquals(3, chunks.size());
+        assertEquals(3, chunks.get(0).size());
+        assertEquals(3, chunks.get(1).size());
+        assertEquals(1, chunks.get(2).size());
+        for (DataFrame chunk : chunks) {
+            assertEquals(chunks.getFirst().schema(), chunk.schema());
+        }
+        assertEquals(DataTypes.NullableIntType, chunks.getFirst().schema().field("pages_i").dtype());
+
+        assertEquals("Percy Jackson and the Olympians", chunks.get(0).column("series_t").getString(0));
+        assertEquals(384, chunks.get(0).column("pages_i").getInt(0));
+        assertEquals("Michael McCandless", chunks.get(2).column("author").getString(0));
+        assertEquals(30.5, chunks.get(2).column("price").getDouble(0), 1E-7);
+    }
 }
@@ -16,7 +16,17 @@
  */
 package smile.io;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
 import smile.data.DataFrame;
 import smile.data.type.DataTypes;
 import smile.data.type.StructField;
@@ -24,6 +34,7 @@ import smile.data.type.StructType;
 import smile.math.matrix.Matrix;
 import smile.util.Paths;
 import org.junit.jupiter.api.*;
+import static org.apache.parquet.filter2.predicate.FilterApi.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -162,4 +173,75 @@ public class ParquetTest {
         assertEquals(90263.05, output.get(3, 1), 1E-10);
         assertTrue(Double.isNaN(output.get(4, 1)));
     }
+
+    /**
+     * Test of read method with projection and row group filter.
+     */
+    @Test
+    public void testProjectionAndFilter() throws Exception {
+        System.out.println("projection and filter");
+        DataFrame data = Parquet.read(Paths.getTestData("kylo/userdata1.parquet"), gt(intColumn("id"), 500), "id", "salary");
+        System.out.println(data);
+        assertEquals(1000, data.size());
+        assertEquals(2, data.ncol());
+        assertEquals(new StructType(
+                new StructField("id", DataTypes.NullableIntType),
+                new StructField("salary", DataTypes.NullableDoubleType)
+        ), data.schema());
+        assertEquals(1, data.getInt(0, 0));
+        assertEquals(49756.53, data.getDouble(0, 1), 1E-10);
+        assertTrue(data.isNullAt(4, 1));
+
+        // No row group may have id > 1000 by the footer statistics.
+        data = Parquet.read(Paths.getTestData("kylo/userdata1.parquet"), gt(intColumn("id"), 1000), "id");
+        assertEquals(0, data.size());
+    }
+
+    @Test
+    public void testRowGroups() throws Exception {
+        System.out.println("row groups");
+        MessageType schema = MessageTypeParser.parseMessageType(
+                "message test { required int32 id; optional double x; optional binary name (STRING); }");
+        Path path = Files.createTempFile("smile-parquet", ".parquet");
+        path.toFile().deleteOnExit();
+
+        // Small row groups of compressed pages.
+        int n = 20000;
+        SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        try (var writer = ExampleParquetWriter.builder(new LocalOutputFile(path))
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withType(schema)
+                .withCompressionCodec(CompressionCodecName.SNAPPY)
+                .withRowGroupSize(16 * 1024L)
+                .withPageSize(1024)
+                .build()) {
+            for (int i = 0; i < n; i++) {
+                Group group = factory.newGroup().append("id", i);
+                if (i % 10 != 0) group.append("x", 0.5 * i);
+                group.append("name", "name" + i);
+                writer.write(group);
+            }
+        }
+
+        try (var stream = Parquet.stream(path)) {
+            assertTrue(stream.count() > 10);
+        }
+
+        DataFrame data = Parquet.read(path);
+        assertEquals(n, data.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, data.getInt(i, 0));
+            if (i % 10 == 0) {
+                assertTrue(data.isNullAt(i, 1));
+            } else {
+                assertEquals(0.5 * i, data.getDouble(i, 1), 1E-10);
+            }
+            assertEquals("name" + i, data.getString(i, 2));
+        }
+
+        data = Parquet.read(path, 12345);
+        assertEquals(12345, data.size());
+        assertEquals(12344, data.getInt(12344, 0));
+    }
 }
+
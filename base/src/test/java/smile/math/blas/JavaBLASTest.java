@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.math.blas;
+
+import smile.math.MathEx;
+import smile.math.blas.openblas.OpenBLAS;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test pure Java BLAS against OpenBLAS.
+ *
+ * @author Haifeng Li
+ */
+public class JavaBLASTest {
+    BLAS java = new JavaBLAS();
+    BLAS openblas = new OpenBLAS();
+
+    public JavaBLASTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() throws Exception {
+    }
+
+    @AfterAll
+    public static void tearDownClass() throws Exception {
+    }
+
+    @BeforeEach
+    public void setUp() {
+        MathEx.setSeed(19650218); // to get repeatable results.
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    private static double[] random(int n) {
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = MathEx.random(-1, 1);
+        }
+        return x;
+    }
+
+    @Test
+    public void testBackend() {
+        System.out.println("Backend");
+        assertTrue(BLAS.getInstance() instanceof OpenBLAS);
+        try {
+            System.setProperty(Backend.THRESHOLD, "4096");
+            assertTrue(BLAS.getInstance() instanceof JavaBLAS);
+            System.setProperty(Backend.BACKEND, "java");
+            assertEquals("JavaBLAS", BLAS.getInstance().toString());
+            assertTrue(LAPACK.getInstance() instanceof OpenBLAS);
+        } finally {
+            System.clearProperty(Backend.THRESHOLD);
+            System.clearProperty(Backend.BACKEND);
+        }
+    }
+
+    @Test
+    public void testLevel1() {
+        System.out.println("Level 1");
+        double[] x = random(1001);
+        double[] y = random(1001);
+        assertEquals(openblas.asum(x), java.asum(x), 1E-10);
+        assertEquals(openblas.dot(x, y), java.dot(x, y), 1E-10);
+        assertEquals(openblas.nrm2(x), java.nrm2(x), 1E-10);
+        assertEquals(openblas.iamax(x), java.iamax(x));
+        assertEquals(openblas.dot(500, x, 2, y, -2), java.dot(500, x, 2, y, -2), 1E-10);
+
+        double[] z = y.clone();
+        openblas.axpy(0.5, x, y);
+        java.axpy(0.5, x, z);
+        assertArrayEquals(y, z, 1E-10);
+        assertEquals(5.0, java.nrm2(2, new double[]{3E200, 4E200}, 1) / 1E200, 1E-10);
+    }
+
+    @Test
+    public void testGemv() {
+        System.out.println("gemv");
+        int m = 37, n = 23;
+        for (Layout layout : Layout.values()) {
+            for (Transpose trans : new Transpose[]{Transpose.NO_TRANSPOSE, Transpose.TRANSPOSE}) {
+                double[] A = random(m * n);
+                int lda = layout == Layout.COL_MAJOR ? m : n;
+                boolean notrans = trans == Transpose.NO_TRANSPOSE;
+                double[] x = random(notrans ? n : m);
+                double[] y = random(notrans ? m : n);
+                double[] z = y.clone();
+                openblas.gemv(layout, trans, m, n, 0.5, A, lda, x, 1, 0.3, y, 1);
+                java.gemv(layout, trans, m, n, 0.5, A, lda, x, 1, 0.3, z, 1);
+                assertArrayEquals(y, z, 1E-10);
+            }
+        }
+    }
+
+    @Test
+    public void testSymv() {
+        System.out.println("symv");
+        int n = 31;
+        for (Layout layout : Layout.values()) {
+            for (UPLO uplo : UPLO.values()) {
+                double[] A = random(n * n);
+                double[] x = random(n);
+                double[] y = random(n);
+                double[] z = y.clone();
+                openblas.symv(layout, uplo, n, 2.0, A, n, x, 1, 1.0, y, 1);
+                java.symv(layout, uplo, n, 2.0, A, n, x, 1, 1.0, z, 1);
+                assertArrayEquals(y, z, 1E-10);
+
+                for (Transpose trans : new Transpose[]{Transpose.NO_TRANSPOSE, Transpose.TRANSPOSE}) {
+                    y = x.clone();
+                    z = x.clone();
+                    openblas.trmv(layout, uplo, trans, Diag.NON_UNIT, n, A, n, y, 1);
+                    java.trmv(layout, uplo, trans, Diag.NON_UNIT, n, A, n, z, 1);
+                    assertArrayEquals(y, z, 1E-10);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGemm() {
+        System.out.println("gemm");
+        int m = 300, n = 70, k = 150;
+        Transpose[] transposes = {Transpose.NO_TRANSPOSE, Transpose.TRANSPOSE};
+        for (Layout layout : Layout.values()) {
+            for (Transpose transA : transposes) {
+                for (Transpose transB : transposes) {
+                    boolean ta = transA == Transpose.TRANSPOSE;
+                    boolean tb = transB == Transpose.TRANSPOSE;
+                    boolean colMajor = layout == Layout.COL_MAJOR;
+                    int lda = colMajor == ta ? k : m;
+                    int ldb = colMajor == tb ? n : k;
+                    int ldc = colMajor ? m : n;
+                    double[] A = random(m * k);
+                    double[] B = random(k * n);
+                    double[] C = random(m * n);
+                    double[] D = C.clone();
+                    openblas.gemm(layout, transA, transB, m, n, k, 1.5, A, lda, B, ldb, -0.5, C, ldc);
+                    java.gemm(layout, transA, transB, m, n, k, 1.5, A, lda, B, ldb, -0.5, D, ldc);
+                    assertArrayEquals(C, D, 1E-10);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSymm() {
+        System.out.println("symm");
+        int m = 45, n = 38;
+        for (Layout layout : Layout.values()) {
+            for (Side side : Side.values()) {
+                for (UPLO uplo : UPLO.values()) {
+                    int na = side == Side.LEFT ? m : n;
+                    int ldb = layout == Layout.COL_MAJOR ? m : n;
+                    double[] A = random(na * na);
+                    double[] B = random(m * n);
+                    double[] C = random(m * n);
+                    double[] D = C.clone();
+                    openblas.symm(layout, side, uplo, m, n, 0.9, A, na, B, ldb, 0.1, C, ldb);
+                    java.symm(layout, side, uplo, m, n, 0.9, A, na, B, ldb, 0.1, D, ldb);
+                    assertArrayEquals(C, D, 1E-10);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDispatch() {
+        System.out.println("dispatch");
+        BLAS hybrid = new JavaBLAS(openblas, 4096);
+        int n = 100;
+        double[] A = random(n * n);
+        double[] B = random(n * n);
+        double[] C = new double[n * n];
+        double[] D = new double[n * n];
+        openblas.gemm(Layout.COL_MAJOR, Transpose.NO_TRANSPOSE, Transpose.NO_TRANSPOSE, n, n, n, 1.0, A, n, B, n, 0.0, C, n);
+        hybrid.gemm(Layout.COL_MAJOR, Transpose.NO_TRANSPOSE, Transpose.NO_TRANSPOSE, n, n, n, 1.0, A, n, B, n, 0.0, D, n);
+        assertArrayEquals(C, D, 1E-10);
+        assertThrows(UnsupportedOperationException.class, () ->
+                java.spmv(Layout.COL_MAJOR, UPLO.LOWER, 2, 1.0, new double[3], new double[2], 1, 0.0, new double[2], 1));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.math.distance;
+
+import smile.math.MathEx;
+import smile.math.kernel.GaussianKernel;
+import smile.math.kernel.KernelMatrix;
+import smile.math.kernel.PolynomialKernel;
+import smile.math.matrix.Matrix;
+import smile.math.matrix.SymmMatrix;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Haifeng Li
+ */
+public class PairwiseDistanceTest {
+    double[][] x;
+    double[][] y;
+
+    public PairwiseDistanceTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() throws Exception {
+    }
+
+    @AfterAll
+    public static void tearDownClass() throws Exception {
+    }
+
+    @BeforeEach
+    public void setUp() {
+        MathEx.setSeed(19650218); // to get repeatable results.
+        // more than one block of vectors
+        x = new double[600][];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = MathEx.random(10);
+        }
+        y = new double[300][];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = MathEx.random(10);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    @Test
+    public void testDistance() {
+        System.out.println("pairwise distance");
+        SymmMatrix d = PairwiseDistance.pdist(x, false);
+        SymmMatrix d2 = PairwiseDistance.pdist(x, true);
+        for (int i = 0; i < x.length; i++) {
+            assertEquals(0.0, d.get(i, i));
+            for (int j = 0; j < i; j++) {
+                assertEquals(MathEx.distance(x[i], x[j]), d.get(i, j), 1E-7);
+                assertEquals(MathEx.squaredDistance(x[i], x[j]), d2.get(j, i), 1E-12);
+            }
+        }
+
+        int[] count = new int[1];
+        PairwiseDistance.distance(x, y, true, (i, j, m, n, tile) -> {
+            for (int b = 0; b < n; b++) {
+                for (int a = 0; a < m; a++) {
+                    assertEquals(MathEx.squaredDistance(x[i + a], y[j + b]), tile[a + b * m], 1E-12);
+                }
+            }
+            synchronized (count) {
+                count[0] += m * n;
+            }
+        });
+        assertEquals(x.length * y.length, count[0]);
+    }
+
+    @Test
+    public void testNearDuplicate() {
+        System.out.println("near duplicate");
+        // Far from the origin, the dot product formulation would
+        // lose all digits of the distances between these points.
+        double[][] data = new double[300][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new double[10];
+            for (int k = 0; k < 10; k++) {
+                data[i][k] = 1000 + 1E-6 * MathEx.random();
+            }
+        }
+        data[1] = data[0].clone();
+
+        SymmMatrix d = PairwiseDistance.pdist(data, false);
+        Matrix exact = MathEx.pdist(data);
+        assertEquals(0.0, d.get(1, 0));
+        for (int i = 0; i < data.length; i++) {
+            for (int j = 0; j < i; j++) {
+                assertEquals(MathEx.distance(data[i], data[j]), exact.get(i, j));
+                assertEquals(exact.get(i, j), d.get(i, j), 1E-12 * exact.get(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void testDot() {
+        System.out.println("pairwise dot product");
+        PairwiseDistance.dot(x, (i, j, m, n, tile) -> {
+            assertTrue(i >= j);
+            for (int b = 0; b < n; b++) {
+                for (int a = 0; a < m; a++) {
+                    assertEquals(MathEx.dot(x[i + a], x[j + b]), tile[a + b * m], 1E-12);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testKernel() {
+        System.out.println("kernel matrix");
+        GaussianKernel gaussian = new GaussianKernel(1.5);
+        Matrix K = KernelMatrix.isotropic(gaussian, x);
+        Matrix G = KernelMatrix.isotropic(gaussian, x, y);
+        for (int i = 0; i < x.length; i++) {
+            for (int j = 0; j < x.length; j++) {
+                assertEquals(gaussian.k(x[i], x[j]), K.get(i, j), 1E-10);
+            }
+            for (int j = 0; j < y.length; j++) {
+                assertEquals(gaussian.k(x[i], y[j]), G.get(i, j), 1E-10);
+            }
+        }
+
+        PolynomialKernel polynomial = new PolynomialKernel(2, 0.5, 1.0);
+        K = KernelMatrix.dot(polynomial, y);
+        for (int i = 0; i < y.length; i++) {
+            for (int j = 0; j < y.length; j++) {
+                assertEquals(polynomial.k(y[i], y[j]), K.get(i, j), 1E-10);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.math.matrix;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import smile.math.MathEx;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static smile.math.blas.Transpose.*;
+
+/**
+ *
+ * @author Haifeng Li
+ */
+public class MappedMatrixTest {
+    double[][] A = {
+        {0.9000, 0.4000, 0.7000},
+        {0.4000, 0.5000, 0.3000},
+        {0.7000, 0.3000, 0.8000}
+    };
+    double[] eigenValues = {1.7498382, 0.3165784, 0.1335834};
+
+    public MappedMatrixTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() throws Exception {
+    }
+
+    @AfterAll
+    public static void tearDownClass() throws Exception {
+    }
+
+    @BeforeEach
+    public void setUp() {
+        MathEx.setSeed(19650218); // to get repeatable results.
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    @Test
+    public void testMapping() throws Exception {
+        System.out.println("mapping");
+        Path temp = Files.createTempFile("smile-matrix", ".bin");
+        temp.toFile().deleteOnExit();
+
+        Matrix a = Matrix.of(A);
+        MappedMatrix mapped = MappedMatrix.of(temp, a);
+        mapped.flush();
+        assertEquals(3, mapped.nrow());
+        assertEquals(3, mapped.ncol());
+        assertEquals(9, mapped.size());
+
+        MappedMatrix matrix = MappedMatrix.map(temp);
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(A[i][j], matrix.get(i, j), 1E-15);
+            }
+        }
+        assertThrows(UnsupportedOperationException.class, () -> matrix.set(0, 0, 1.0));
+
+        Matrix.EVD eigen = Lanczos.eigen(matrix, 3);
+        assertTrue(MathEx.equals(eigenValues, eigen.wr, 1E-7));
+
+        mapped.close();
+        matrix.close();
+        assertThrows(IllegalStateException.class, () -> matrix.get(0, 0));
+        assertThrows(IllegalStateException.class, () -> matrix.col(0));
+    }
+
+    @Test
+    public void testSegments() throws Exception {
+        System.out.println("segments");
+        Path temp = Files.createTempFile("smile-matrix", ".bin");
+        temp.toFile().deleteOnExit();
+
+        int m = 100, n = 37;
+        Matrix a = Matrix.rand(m, n);
+        // 8 columns per segment and the last segment has 5 columns.
+        MappedMatrix matrix = MappedMatrix.create(temp, m, n, 8 * 8 * m);
+        for (int j = 0; j < n; j++) {
+            matrix.col(j, a.col(j));
+        }
+
+        MappedMatrix mapped = MappedMatrix.map(temp, false, 8 * 8 * m + 7);
+        double[] x = MathEx.random(n);
+        double[] z = MathEx.random(m);
+        double[] y1 = MathEx.random(m);
+        double[] y2 = y1.clone();
+        a.mv(NO_TRANSPOSE, 1.5, x, 0.5, y1);
+        mapped.mv(NO_TRANSPOSE, 1.5, x, 0.5, y2);
+        assertArrayEquals(y1, y2, 1E-10);
+
+        double[] t1 = a.tv(z);
+        double[] t2 = mapped.tv(z);
+        assertArrayEquals(t1, t2, 1E-10);
+
+        double[] work = new double[m + n];
+        System.arraycopy(x, 0, work, 0, n);
+        mapped.mv(work, 0, n);
+        double[] ax = a.mv(x);
+        for (int i = 0; i < m; i++) {
+            assertEquals(ax[i], work[n + i], 1E-10);
+        }
+        assertArrayEquals(a.col(20), mapped.col(20), 1E-15);
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        System.out.println("close");
+        Path temp = Files.createTempFile("smile-matrix", ".bin");
+        temp.toFile().deleteOnExit();
+
+        int m = 50, n = 80;
+        Matrix a = Matrix.rand(m, n);
+        MappedMatrix matrix = MappedMatrix.of(temp, a);
+        // The direct buffers are reused across the calls of different shapes.
+        for (int iter = 0; iter < 3; iter++) {
+            double[] x = MathEx.random(n);
+            double[] z = MathEx.random(m);
+            assertArrayEquals(a.mv(x), matrix.mv(x), 1E-10);
+            assertArrayEquals(a.tv(z), matrix.tv(z), 1E-10);
+
+            double[] work = new double[m + n];
+            System.arraycopy(z, 0, work, n, m);
+            matrix.tv(work, n, 0);
+            double[] tz = a.tv(z);
+            for (int j = 0; j < n; j++) {
+                assertEquals(tz[j], work[j], 1E-10);
+            }
+        }
+
+        matrix.close();
+        matrix.close();
+        assertThrows(IllegalStateException.class, () -> matrix.mv(new double[n]));
+        assertThrows(IllegalStateException.class, () -> matrix.set(0, 0, 1.0));
+        assertThrows(IllegalStateException.class, () -> matrix.col(0, new double[m]));
+        Files.delete(temp);
+        assertFalse(Files.exists(temp));
+    }
+}
@@ -185,6 +185,75 @@ public class SparseMatrixTest {
         }
     }
 
+    @Test
+    public void testParallel() {
+        System.out.println("parallel");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        int m = 2000, n = 1500;
+        double[][] dense = new double[m][n];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                if (MathEx.random() < 0.05) {
+                    dense[i][j] = MathEx.random(-1, 1);
+                }
+            }
+        }
+
+        SparseMatrix a = new SparseMatrix(dense);
+        double[] x = MathEx.random(n);
+        double[] z = MathEx.random(m);
+        double[] ax = new double[m];
+        double[] atz = new double[n];
+        a.mv(x, ax);
+        a.tv(z, atz);
+        for (int i = 0; i < m; i++) {
+            assertEquals(MathEx.dot(dense[i], x), ax[i], 1E-10);
+        }
+        for (int j = 0; j < n; j++) {
+            double yj = 0.0;
+            for (int i = 0; i < m; i++) {
+                yj += dense[i][j] * z[i];
+            }
+            assertEquals(yj, atz[j], 1E-10);
+        }
+
+        SparseMatrix at = a.transpose();
+        assertEquals(a.size(), at.size());
+        for (int i = 0; i < m; i += 7) {
+            for (int j = 0; j < n; j += 11) {
+                assertEquals(dense[i][j], at.get(j, i), 1E-15);
+            }
+        }
+
+        SparseMatrix aat = a.aat();
+        SparseMatrix mm = a.mm(at);
+        SparseMatrix ata = a.ata();
+        assertEquals(aat.size(), mm.size());
+        for (int i = 0; i < m; i += 97) {
+            for (int j = 0; j < m; j += 89) {
+                double cij = MathEx.dot(dense[i], dense[j]);
+                assertEquals(cij, aat.get(i, j), 1E-10);
+                assertEquals(cij, mm.get(i, j), 1E-10);
+            }
+        }
+        for (int i = 0; i < n; i += 97) {
+            for (int j = 0; j < n; j += 89) {
+                double cij = 0.0;
+                for (int k = 0; k < m; k++) {
+                    cij += dense[k][i] * dense[k][j];
+                }
+                assertEquals(cij, ata.get(i, j), 1E-10);
+            }
+        }
+
+        // The row compressed view refers to the values by storage index.
+        a.set(0, a.get(0) + 1.0);
+        SparseMatrix.Entry e = a.iterator().next();
+        double[] ax2 = new double[m];
+        a.mv(x, ax2);
+        assertEquals(ax[e.i] + x[e.j], ax2[e.i], 1E-10);
+    }
+
     @Test
     public void testIteration() {
         System.out.println("iteration");
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.stat;
+
+import smile.math.MathEx;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Haifeng Li
+ */
+public class KLLSketchTest {
+
+    public KLLSketchTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() throws Exception {
+    }
+
+    @AfterAll
+    public static void tearDownClass() throws Exception {
+    }
+
+    @BeforeEach
+    public void setUp() {
+        MathEx.setSeed(19650218); // to get repeatable results.
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    @Test
+    public void testExact() {
+        System.out.println("exact");
+        double[] x = {5, 1, 4, 2, 3, 9, 8, 7};
+        KLLSketch sketch = KLLSketch.of(x);
+        assertEquals(MathEx.q1(x.clone()), sketch.quantile(0.25));
+        assertEquals(MathEx.median(x.clone()), sketch.quantile(0.5));
+        assertEquals(MathEx.q3(x.clone()), sketch.quantile(0.75));
+        assertEquals(1.0, sketch.quantile(0.0));
+        assertEquals(9.0, sketch.quantile(1.0));
+        assertEquals(0.5, sketch.cdf(4.5), 1E-15);
+    }
+
+    @Test
+    public void testQuantile() {
+        System.out.println("quantile");
+        int n = 100000;
+        double[] x = new double[n];
+        int[] permutation = MathEx.permutate(n);
+        for (int i = 0; i < n; i++) {
+            x[i] = permutation[i];
+        }
+
+        KLLSketch sketch = KLLSketch.of(x);
+        KLLSketch merged = new KLLSketch();
+        for (int i = 0; i < 10; i++) {
+            KLLSketch part = new KLLSketch();
+            for (int j = i; j < n; j += 10) {
+                part.add(x[j]);
+            }
+            merged.merge(part);
+        }
+
+        assertEquals(n, sketch.count());
+        assertEquals(n, merged.count());
+        for (double p = 0.05; p < 1.0; p += 0.05) {
+            assertEquals(p * n, sketch.quantile(p), 0.02 * n);
+            assertEquals(p * n, merged.quantile(p), 0.02 * n);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.stat;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import smile.math.MathEx;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Haifeng Li
+ */
+public class SummaryTest {
+
+    public SummaryTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() throws Exception {
+    }
+
+    @AfterAll
+    public static void tearDownClass() throws Exception {
+    }
+
+    @BeforeEach
+    public void setUp() {
+        MathEx.setSeed(19650218); // to get repeatable results.
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    @Test
+    public void testSummary() {
+        System.out.println("summary");
+        double[] x = {1.0, 2.0, 2.0, 3.0, 7.0, 11.0, Double.NaN};
+        Summary summary = Summary.of(x);
+        assertEquals(6, summary.count());
+        assertEquals(26.0, summary.sum(), 1E-15);
+        assertEquals(26.0 / 6, summary.mean(), 1E-15);
+        assertEquals(MathEx.var(new double[]{1.0, 2.0, 2.0, 3.0, 7.0, 11.0}), summary.variance(), 1E-12);
+        assertEquals(0.9382234, summary.skewness(), 1E-7);
+        assertEquals(-0.6616023, summary.kurtosis(), 1E-7);
+        assertEquals(1.0, summary.min(), 1E-15);
+        assertEquals(11.0, summary.max(), 1E-15);
+    }
+
+    @Test
+    public void testMerge() {
+        System.out.println("merge");
+        double[] x = new double[10000];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = MathEx.random() * 100 + 1000;
+        }
+
+        Summary all = Summary.of(x);
+        Summary merged = new Summary();
+        IntStream.range(0, 10).parallel()
+                .mapToObj(i -> Summary.of(Arrays.copyOfRange(x, i * 1000, (i + 1) * 1000)))
+                .toList()
+                .forEach(merged::merge);
+        assertEquals(all.count(), merged.count());
+        assertEquals(all.mean(), merged.mean(), 1E-9);
+        assertEquals(all.variance(), merged.variance(), 1E-8);
+        assertEquals(all.skewness(), merged.skewness(), 1E-8);
+        assertEquals(all.kurtosis(), merged.kurtosis(), 1E-8);
+        assertEquals(all.min(), merged.min(), 1E-15);
+        assertEquals(all.max(), merged.max(), 1E-15);
+        assertEquals(MathEx.mean(x), all.mean(), 1E-10);
+        assertEquals(MathEx.var(x), all.variance(), 1E-8);
+        assertEquals(all.variance(), Summary.of(Arrays.stream(x).parallel()).variance(), 1E-8);
+    }
+}
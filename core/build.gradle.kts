@@ -4,4 +4,6 @@ plugins {
 
 dependencies {
     api(project(":base"))
+
+    testImplementation("org.apache.parquet:parquet-hadoop:1.15.0") { exclude("org.slf4j:slf4j-log4j12") }
 }
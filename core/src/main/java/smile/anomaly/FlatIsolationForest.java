@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.anomaly;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * An isolation forest compiled into flat arrays. The nodes of all trees
+ * are laid out in preorder so that the left child of an internal node
+ * is always the next node. The random hyperplane of each internal node
+ * is stored as its bias and a slice of the shared slope array. Scoring
+ * is a tight loop over primitive arrays without object traversal.
+ * <p>
+ * A compiled forest can be saved in a compact binary format with
+ * {@link #write(Path)}, which is the node arrays in little-endian
+ * byte order after a small header. {@link #map(Path)} loads it by
+ * memory mapping the file and scores the nodes in place without
+ * copying them to the heap. The JVMs on the same host share the
+ * pages of model in the OS page cache. The file must be smaller
+ * than 2GB. A forest compiled on the heap keeps the nodes in primitive
+ * arrays, which are faster to traverse than the buffers of a mapped file.
+ *
+ * @author Haifeng Li
+ */
+public class FlatIsolationForest {
+    /** The magic number of compact binary format, "SMIF" in ASCII. */
+    private static final int MAGIC = 0x46494D53;
+    /** The version of compact binary format. */
+    private static final int VERSION = 1;
+
+    /** The normalizing factor. */
+    private final double c;
+    /** The dimension of samples. */
+    private final int p;
+    /** The root node of each tree. */
+    private final int[] root;
+    /** The adjusted depth of node. Null if mapped. */
+    private final double[] depth;
+    /** The dot product of slope and intercept of internal node. Null if mapped. */
+    private final double[] bias;
+    /** The right child of internal node. The left child is always the next node. Null if mapped. */
+    private final int[] right;
+    /** The offset of slope of internal node, -1 for leaf nodes. Null if mapped. */
+    private final int[] plane;
+    /** The normal vectors of hyperplanes of internal nodes. Null if mapped. */
+    private final double[] slope;
+    /** The nodes in a memory mapped file. Null if on the heap. */
+    private final MappedNodes mapped;
+
+    /**
+     * The node arrays of a forest in a memory mapped file.
+     * @param depth the adjusted depth of node.
+     * @param bias the bias of hyperplane of node.
+     * @param right the right child of node.
+     * @param plane the offset of slope of node, -1 for leaf nodes.
+     * @param slope the normal vectors of hyperplanes.
+     */
+    private record MappedNodes(DoubleBuffer depth, DoubleBuffer bias, IntBuffer right, IntBuffer plane, DoubleBuffer slope) {
+        /**
+         * Returns the path length from the root to the leaf node of a tree.
+         * @param node the root node of tree.
+         * @param x the sample.
+         * @param p the dimension of samples.
+         * @return the path length.
+         */
+        double path(int node, double[] x, int p) {
+            int o;
+            while ((o = plane.get(node)) >= 0) {
+                double dot = 0.0;
+                for (int j = 0; j < p; j++) {
+                    dot += x[j] * slope.get(o + j);
+                }
+                node = dot < bias.get(node) ? node + 1 : right.get(node);
+            }
+            return depth.get(node);
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param c the normalizing factor.
+     * @param p the dimension of samples.
+     * @param trees the isolation trees.
+     */
+    FlatIsolationForest(double c, int p, IsolationTree[] trees) {
+        if (trees.length == 0) {
+            throw new IllegalArgumentException("Empty isolation forest");
+        }
+
+        this.c = c;
+        this.p = p;
+
+        int[] count = new int[2]; // the number of nodes and internal nodes
+        for (IsolationTree tree : trees) {
+            count(tree.root(), count);
+        }
+
+        root = new int[trees.length];
+        depth = new double[count[0]];
+        bias = new double[count[0]];
+        right = new int[count[0]];
+        plane = new int[count[0]];
+        slope = new double[count[1] * p];
+        mapped = null;
+
+        int[] cursor = {0, 0}; // the next node and slope slot
+        for (int t = 0; t < trees.length; t++) {
+            root[t] = cursor[0];
+            compile(trees[t].root(), cursor);
+        }
+    }
+
+    /**
+     * Constructor of a copied or loaded forest. Either the node arrays
+     * or the mapped nodes are null.
+     * @param c the normalizing factor.
+     * @param p the dimension of samples.
+     * @param root the root node of each tree.
+     * @param depth the adjusted depth of node.
+     * @param bias the bias of hyperplane of node.
+     * @param right the right child of node.
+     * @param plane the offset of slope of node.
+     * @param slope the normal vectors of hyperplanes.
+     * @param mapped the nodes in a memory mapped file.
+     */
+    private FlatIsolationForest(double c, int p, int[] root, double[] depth, double[] bias,
+                                int[] right, int[] plane, double[] slope, MappedNodes mapped) {
+        this.c = c;
+        this.p = p;
+        this.root = root;
+        this.depth = depth;
+        this.bias = bias;
+        this.right = right;
+        this.plane = plane;
+        this.slope = slope;
+        this.mapped = mapped;
+    }
+
+    /**
+     * Counts the nodes of a subtree.
+     * @param node the root of subtree.
+     * @param count the number of nodes and internal nodes.
+     */
+    private static void count(IsolationTree.Node node, int[] count) {
+        count[0]++;
+        if (node.slope != null) {
+            count[1]++;
+            count(node.left, count);
+            count(node.right, count);
+        }
+    }
+
+    /**
+     * Lays out a subtree in preorder.
+     * @param node the root of subtree.
+     * @param cursor the next node and slope slot.
+     */
+    private void compile(IsolationTree.Node node, int[] cursor) {
+        int i = cursor[0]++;
+        depth[i] = node.depth;
+        if (node.slope != null) {
+            int slot = cursor[1];
+            cursor[1] += p;
+            plane[i] = slot;
+            System.arraycopy(node.slope, 0, slope, slot, p);
+            bias[i] = node.bias;
+            compile(node.left, cursor);
+            right[i] = cursor[0];
+            compile(node.right, cursor);
+        } else {
+            plane[i] = -1;
+        }
+    }
+
+    /**
+     * Returns the number of trees.
+     * @return the number of trees.
+     */
+    public int size() {
+        return root.length;
+    }
+
+    /**
+     * Returns the path length from the root to the leaf node of a tree.
+     * @param t the tree index.
+     * @param x the sample.
+     * @return the path length.
+     */
+    private double path(int t, double[] x) {
+        int node = root[t];
+        if (mapped != null) {
+            return mapped.path(node, x, p);
+        }
+
+        int o;
+        while ((o = plane[node]) >= 0) {
+            double dot = 0.0;
+            for (int j = 0; j < p; j++) {
+                dot += x[j] * slope[o + j];
+            }
+            node = dot < bias[node] ? node + 1 : right[node];
+        }
+        return depth[node];
+    }
+
+    /**
+     * Returns the anomaly score.
+     *
+     * @param x the sample.
+     * @return the anomaly score.
+     */
+    public double score(double[] x) {
+        double length = 0.0;
+        for (int t = 0; t < root.length; t++) {
+            length += path(t, x);
+        }
+
+        length /= root.length;
+        return Math.pow(2.0, -length/c);
+    }
+
+    /**
+     * Returns the anomaly scores.
+     *
+     * @param x the samples.
+     * @return the anomaly scores.
+     */
+    public double[] score(double[][] x) {
+        return Arrays.stream(x).parallel().mapToDouble(this::score).toArray();
+    }
+
+    /**
+     * Writes the forest in the compact binary format.
+     * @param path the file path.
+     * @throws IOException if fail to write the file.
+     */
+    public void write(Path path) throws IOException {
+        if (mapped != null) {
+            heap().write(path);
+            return;
+        }
+
+        int nodes = depth.length;
+        long size = 8 * Integer.BYTES
+                + (long) (1 + 2 * nodes + slope.length) * Double.BYTES
+                + (long) (root.length + 2 * nodes) * Integer.BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("The model is too large for the compact format: " + size + " bytes");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(p).putInt(root.length)
+                    .putInt(nodes).putInt(slope.length).putInt(0).putInt(0);
+
+            // The double sections go first so that they are 8-byte aligned.
+            buffer.putDouble(c);
+            section(buffer, nodes * Double.BYTES).asDoubleBuffer().put(depth);
+            section(buffer, nodes * Double.BYTES).asDoubleBuffer().put(bias);
+            section(buffer, slope.length * Double.BYTES).asDoubleBuffer().put(slope);
+            section(buffer, root.length * Integer.BYTES).asIntBuffer().put(root);
+            section(buffer, nodes * Integer.BYTES).asIntBuffer().put(right);
+            section(buffer, nodes * Integer.BYTES).asIntBuffer().put(plane);
+            buffer.force();
+        }
+    }
+
+    /**
+     * Loads a forest in the compact binary format by memory mapping
+     * the file. The nodes are scored in place.
+     * @param path the file path.
+     * @return the forest.
+     * @throws IOException if fail to read the file or the file is
+     *         not in the compact binary format.
+     */
+    public static FlatIsolationForest map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a compiled isolation forest file: " + path);
+            }
+
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported compiled isolation forest version: " + version);
+            }
+
+            int p = buffer.getInt();
+            int ntrees = buffer.getInt();
+            int nodes = buffer.getInt();
+            int nslope = buffer.getInt();
+            buffer.getInt(); // reserved
+            buffer.getInt(); // reserved
+
+            double c = buffer.getDouble();
+            DoubleBuffer depth = section(buffer, nodes * Double.BYTES).asDoubleBuffer();
+            DoubleBuffer bias = section(buffer, nodes * Double.BYTES).asDoubleBuffer();
+            DoubleBuffer slope = section(buffer, nslope * Double.BYTES).asDoubleBuffer();
+            int[] root = new int[ntrees];
+            section(buffer, ntrees * Integer.BYTES).asIntBuffer().get(root);
+            IntBuffer right = section(buffer, nodes * Integer.BYTES).asIntBuffer();
+            IntBuffer plane = section(buffer, nodes * Integer.BYTES).asIntBuffer();
+            return new FlatIsolationForest(c, p, root, null, null, null, null, null,
+                    new MappedNodes(depth, bias, right, plane, slope));
+        }
+    }
+
+    /**
+     * Returns a copy of mapped forest with the nodes on the heap.
+     * @return the copy of forest on the heap.
+     */
+    private FlatIsolationForest heap() {
+        int nodes = mapped.depth.limit();
+        double[] depth = new double[nodes];
+        mapped.depth.get(0, depth);
+        double[] bias = new double[nodes];
+        mapped.bias.get(0, bias);
+        int[] right = new int[nodes];
+        mapped.right.get(0, right);
+        int[] plane = new int[nodes];
+        mapped.plane.get(0, plane);
+        double[] slope = new double[mapped.slope.limit()];
+        mapped.slope.get(0, slope);
+        return new FlatIsolationForest(c, p, root, depth, bias, right, plane, slope, null);
+    }
+
+    /**
+     * Returns the section of buffer at the current position and
+     * advances the position of buffer over the section.
+     * @param buffer the buffer.
+     * @param bytes the size of section in bytes.
+     * @return the section.
+     */
+    private static ByteBuffer section(ByteBuffer buffer, int bytes) {
+        int position = buffer.position();
+        ByteBuffer section = buffer.slice(position, bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(position + bytes);
+        return section;
+    }
+}
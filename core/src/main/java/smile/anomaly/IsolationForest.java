@@ -222,6 +222,19 @@ public class IsolationForest implements Serializable {
         return extensionLevel;
     }
 
+    /**
+     * Compiles the forest into flat arrays for fast scoring and
+     * compact storage.
+     *
+     * @return the compiled forest.
+     */
+    public FlatIsolationForest compile() {
+        // The dimension of samples is the length of slope of any internal node.
+        int p = Arrays.stream(trees).map(IsolationTree::root).filter(node -> node.slope != null)
+                .mapToInt(node -> node.slope.length).findFirst().orElse(0);
+        return new FlatIsolationForest(c, p, trees);
+    }
+
     /**
      * Returns the anomaly score.
      *
@@ -118,6 +118,14 @@ public class IsolationTree implements Serializable {
         return root.path(x);
     }
 
+    /**
+     * Returns the root node.
+     * @return the root node.
+     */
+    Node root() {
+        return root;
+    }
+
     /**
      * Builds an isolation tree node.
      * @param data the training data.
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.base.cart;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import smile.data.DataFrame;
+import smile.data.measure.NominalScale;
+import smile.data.type.StructType;
+
+/**
+ * Quantile bins of ordinal columns for histogram-based split finding.
+ * Each ordinal column is discretized into at most {@code maxBins} bins
+ * of (roughly) equal frequency and stored as byte (up to 256 bins)
+ * or short codes. Compared to the sorted sample index of
+ * {@link CART#order(DataFrame)}, which takes n ints per column and is
+ * filtered and copied for every tree, the bin codes take only 1 or 2
+ * bytes per value and are shared by all trees of an ensemble.
+ * <p>
+ * With binned data, the best split of a node on an ordinal column is
+ * searched over the bin boundaries by scanning the histogram of
+ * response statistics, which is built in a single pass over the
+ * samples of node. Because the histogram of a node is the sum of
+ * the histograms of its children, only the smaller child needs a
+ * fresh histogram. The histogram of the larger child is obtained
+ * by subtraction.
+ * <p>
+ * Nominal columns are not binned. Their splits are searched as usual.
+ *
+ * @author Haifeng Li
+ */
+public class Bins {
+    /** The maximum number of bins supported. */
+    public static final int MAX_BINS = 65536;
+    /**
+     * The upper boundaries of bins of each ordinal column. A value
+     * {@code x} falls into bin {@code b} if {@code cut[b-1] < x <= cut[b]}.
+     * The last bin has no upper boundary. Null for nominal columns.
+     */
+    private final double[][] cut;
+    /** The byte bin codes of each column if at most 256 bins. */
+    private final byte[][] bytes;
+    /** The short bin codes of each column if more than 256 bins. */
+    private final short[][] shorts;
+
+    /**
+     * Constructor.
+     * @param cut the upper boundaries of bins of each ordinal column.
+     * @param bytes the byte bin codes of each column.
+     * @param shorts the short bin codes of each column.
+     */
+    private Bins(double[][] cut, byte[][] bytes, short[][] shorts) {
+        this.cut = cut;
+        this.bytes = bytes;
+        this.shorts = shorts;
+    }
+
+    /**
+     * Discretizes the ordinal columns of data frame into quantile bins.
+     * @param x the predictors.
+     * @param maxBins the maximum number of bins per column.
+     * @return the quantile bins.
+     */
+    public static Bins of(DataFrame x, int maxBins) {
+        if (maxBins < 2 || maxBins > MAX_BINS) {
+            throw new IllegalArgumentException("Invalid maximum number of bins: " + maxBins);
+        }
+
+        int p = x.ncol();
+        StructType schema = x.schema();
+        double[][] cut = new double[p][];
+        byte[][] bytes = maxBins <= 256 ? new byte[p][] : null;
+        short[][] shorts = maxBins <= 256 ? null : new short[p][];
+
+        IntStream.range(0, p).parallel().forEach(j -> {
+            if (schema.field(j).measure() instanceof NominalScale) return;
+
+            double[] a = x.column(j).toDoubleArray();
+            double[] cj = cuts(a.clone(), maxBins);
+            cut[j] = cj;
+
+            if (bytes != null) {
+                byte[] code = new byte[a.length];
+                for (int i = 0; i < a.length; i++) {
+                    code[i] = (byte) bin(cj, a[i]);
+                }
+                bytes[j] = code;
+            } else {
+                short[] code = new short[a.length];
+                for (int i = 0; i < a.length; i++) {
+                    code[i] = (short) bin(cj, a[i]);
+                }
+                shorts[j] = code;
+            }
+        });
+
+        return new Bins(cut, bytes, shorts);
+    }
+
+    /**
+     * Returns the bin boundaries at (roughly) equal frequency quantiles.
+     * The boundaries are the midpoints between consecutive distinct values
+     * so that they are also valid split values for the original data.
+     * @param a the column values, which will be sorted in place.
+     * @param maxBins the maximum number of bins.
+     * @return the upper boundaries of all but the last bins.
+     */
+    private static double[] cuts(double[] a, int maxBins) {
+        Arrays.sort(a);
+        int n = a.length;
+        double[] cut = new double[maxBins - 1];
+        int m = 0;
+        for (int q = 1; q < maxBins; q++) {
+            int i = (int) ((long) q * n / maxBins);
+            if (i == 0) continue;
+            // Move to the end of run of ties so that equal
+            // values always fall into the same bin.
+            double v = a[i - 1];
+            int hi = i;
+            while (hi < n && a[hi] == v) hi++;
+            if (hi >= n) break;
+            double c = (v + a[hi]) / 2;
+            if (m == 0 || c > cut[m - 1]) {
+                cut[m++] = c;
+            }
+        }
+        return Arrays.copyOf(cut, m);
+    }
+
+    /**
+     * Returns the bin of a value.
+     * @param cut the bin boundaries.
+     * @param x the value.
+     * @return the bin index.
+     */
+    private static int bin(double[] cut, double x) {
+        int i = Arrays.binarySearch(cut, x);
+        return i >= 0 ? i : -(i + 1);
+    }
+
+    /**
+     * Returns true if the column is binned.
+     * @param j the column index.
+     * @return true if the column is binned.
+     */
+    public boolean isBinned(int j) {
+        return cut[j] != null;
+    }
+
+    /**
+     * Returns the number of bins of a column.
+     * @param j the column index.
+     * @return the number of bins.
+     */
+    public int size(int j) {
+        return cut[j].length + 1;
+    }
+
+    /**
+     * Returns the upper boundary of a bin, which is used as the split
+     * value if the node is split after this bin.
+     * @param j the column index.
+     * @param b the bin index.
+     * @return the upper boundary of bin.
+     */
+    public double cut(int j, int b) {
+        return cut[j][b];
+    }
+
+    /**
+     * Returns the bin code of a sample.
+     * @param j the column index.
+     * @param i the sample index.
+     * @return the bin code.
+     */
+    public int get(int j, int i) {
+        return bytes != null ? bytes[j][i] & 0xFF : shorts[j][i] & 0xFFFF;
+    }
+}
@@ -31,6 +31,7 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.IntStream;
 import java.util.AbstractMap.SimpleEntry;
 
@@ -43,6 +44,19 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
     @Serial
     private static final long serialVersionUID = 2L;
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CART.class);
+    /**
+     * The minimum number of samples in a node to search its splits in
+     * parallel. The split search of smaller nodes is sequential as the
+     * overhead of task scheduling would dominate.
+     */
+    private static final int PARALLEL_NODE_SIZE = Integer.parseInt(System.getProperty("smile.cart.parallel_node_size", "4096"));
+    /**
+     * The maximum number of queued splits that keep the histograms of
+     * their nodes in best first split. The histograms of the splits of
+     * lowest scores are released beyond it and recomputed from the samples
+     * if those splits are taken eventually.
+     */
+    private static final int MAX_QUEUED_HISTOGRAMS = Integer.parseInt(System.getProperty("smile.cart.max_queued_histograms", "32"));
 
     /** The model formula. */
     protected Formula formula;
@@ -108,6 +122,13 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
      */
     protected transient int[][] order;
 
+    /**
+     * The quantile bins of ordinal columns. If not null, the splits on
+     * ordinal columns are searched on the histograms of bins instead
+     * of the sorted {@link #order} index, which is not needed then.
+     */
+    protected transient Bins bins;
+
     /**
      * The working buffer for reordering {@link #index} array.
      */
@@ -150,6 +171,29 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
      *              that only numeric attributes need be sorted.
      */
     public CART(DataFrame x, StructField y, int maxDepth, int maxNodes, int nodeSize, int mtry, int[] samples, int[][] order) {
+        this(x, y, maxDepth, maxNodes, nodeSize, mtry, samples, order, null);
+    }
+
+    /**
+     * Constructor.
+     * @param x the data frame of the explanatory variable.
+     * @param y the response variables.
+     * @param maxDepth the maximum depth of the tree.
+     * @param maxNodes the maximum number of leaf nodes in the tree.
+     * @param nodeSize the minimum size of leaf nodes.
+     * @param mtry the number of input variables to pick to split on at each
+     *             node. It seems that sqrt(p) give generally good performance,
+     *             where p is the number of variables.
+     * @param samples the sample set of instances for stochastic learning.
+     *               samples[i] is the number of sampling for instance i.
+     * @param order the index of training values in ascending order. Note
+     *              that only numeric attributes need be sorted. Ignored
+     *              if bins is not null.
+     * @param bins the quantile bins of ordinal columns for histogram-based
+     *             split finding. If null, the exact splits are searched
+     *             on the sorted index of training values.
+     */
+    public CART(DataFrame x, StructField y, int maxDepth, int maxNodes, int nodeSize, int mtry, int[] samples, int[][] order, Bins bins) {
         int n = x.nrow();
         int p = x.ncol();
 
@@ -191,7 +235,11 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
 
         buffer  = new int[index.length];
 
-        if (order == null) {
+        this.bins = bins;
+        if (bins != null) {
+            // The histograms of bins replace the sorted index.
+            this.order = null;
+        } else if (order == null) {
             this.order = order(x);
         } else {
             this.order = new int[order.length][];
@@ -255,6 +303,7 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
     protected void clear() {
         this.x = null;
         this.order = null;
+        this.bins = null;
         this.index = null;
         this.samples = null;
         this.buffer = null;
@@ -272,6 +321,11 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
             throw new IllegalStateException("Split a node with invalid feature.");
         }
 
+        // The histograms are consumed by the children or discarded if
+        // the split fails. Don't hold them in the split any longer.
+        final double[][] parentHistogram = split.histogram;
+        split.histogram = null;
+
         if (split.depth >= maxDepth) {
             logger.debug("Reach maximum depth");
             return false;
@@ -303,8 +357,48 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
 
         shuffle(split.lo, mid, split.hi, trues);
 
-        Optional<Split> trueSplit = findBestSplit(trueChild, split.lo, mid, split.unsplittable.clone());
-        Optional<Split> falseSplit = findBestSplit(falseChild, mid, split.hi, split.unsplittable); // reuse parent's array
+        double[][] trueHistogram = null;
+        double[][] falseHistogram = null;
+        if (parentHistogram != null) {
+            // Histogram subtraction: only the smaller child needs a fresh
+            // histogram. The larger one is parent's minus the sibling's.
+            boolean smallerTrue = trueSamples.length <= falseSamples.length;
+            int lo = smallerTrue ? split.lo : mid;
+            int hi = smallerTrue ? mid : split.hi;
+
+            double[][] smaller = new double[parentHistogram.length][];
+            IntStream columns = IntStream.range(0, parentHistogram.length);
+            (parallel(hi - lo) ? columns.parallel() : columns).forEach(j -> {
+                double[] h = parentHistogram[j];
+                if (h != null && !split.unsplittable[j]) {
+                    double[] s = histogram(j, lo, hi);
+                    for (int b = 0; b < h.length; b++) {
+                        h[b] -= s[b];
+                    }
+                    smaller[j] = s;
+                } else {
+                    parentHistogram[j] = null;
+                }
+            });
+
+            trueHistogram = smallerTrue ? smaller : parentHistogram;
+            falseHistogram = smallerTrue ? parentHistogram : smaller;
+        }
+
+        Optional<Split> trueSplit;
+        Optional<Split> falseSplit;
+        final boolean[] trueUnsplittable = split.unsplittable.clone();
+        final double[][] trueChildHistogram = trueHistogram;
+        if (parallel(split.hi - split.lo)) {
+            // The children occupy disjoint ranges of the sample index.
+            // Search their splits concurrently.
+            ForkJoinTask<Optional<Split>> task = ForkJoinTask.adapt(() -> findBestSplit(trueChild, split.lo, mid, trueUnsplittable, trueChildHistogram)).fork();
+            falseSplit = findBestSplit(falseChild, mid, split.hi, split.unsplittable, falseHistogram); // reuse parent's array
+            trueSplit = task.join();
+        } else {
+            trueSplit = findBestSplit(trueChild, split.lo, mid, trueUnsplittable, trueChildHistogram);
+            falseSplit = findBestSplit(falseChild, mid, split.hi, split.unsplittable, falseHistogram); // reuse parent's array
+        }
 
         // Prune the branch if both children are leaf nodes and of same output value.
         if (trueChild.equals(falseChild) && trueSplit.isEmpty() && falseSplit.isEmpty()) {
@@ -321,23 +415,56 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
             throw new IllegalStateException("split.parent and leaf don't match");
         }
 
-        importance[node.feature] += node.score;
+        synchronized (importance) {
+            importance[node.feature] += node.score;
+        }
         trueSplit.ifPresent(s -> {s.parent = node; s.depth = split.depth + 1;});
         falseSplit.ifPresent(s -> {s.parent = node; s.depth = split.depth + 1;});
+        if (split.depth + 1 >= maxDepth) {
+            // The children won't split further.
+            trueSplit.ifPresent(s -> s.histogram = null);
+            falseSplit.ifPresent(s -> s.histogram = null);
+        }
 
         if (queue == null) {
             // deep first split
-            trueSplit.ifPresent(s -> split(s, null));
-            falseSplit.ifPresent(s -> split(s, null));
+            if (trueSplit.isPresent() && falseSplit.isPresent() && parallel(split.hi - split.lo)) {
+                // The subtrees are independent. Grow them concurrently.
+                ForkJoinTask<?> task = ForkJoinTask.adapt(() -> split(trueSplit.get(), null)).fork();
+                split(falseSplit.get(), null);
+                task.join();
+            } else {
+                trueSplit.ifPresent(s -> split(s, null));
+                falseSplit.ifPresent(s -> split(s, null));
+            }
         } else {
             // best first split
             trueSplit.ifPresent(queue::add);
             falseSplit.ifPresent(queue::add);
+            if (bins != null) {
+                releaseHistograms(queue);
+            }
         }
 
         return true;
     }
 
+    /**
+     * Releases the histograms of the queued splits of lowest scores
+     * if more than {@link #MAX_QUEUED_HISTOGRAMS} splits keep them.
+     * @param queue the queue of splits.
+     */
+    private void releaseHistograms(PriorityQueue<Split> queue) {
+        List<Split> splits = queue.stream()
+                .filter(s -> s.histogram != null)
+                .sorted(Split.comparator)
+                .toList();
+
+        for (int i = 0; i < splits.size() - MAX_QUEUED_HISTOGRAMS; i++) {
+            splits.get(i).histogram = null;
+        }
+    }
+
     /**
      * Finds the best attribute to split on a set of samples. at the current node. Returns
      * <code>Optional.empty</code> if a split doesn't exist to reduce the impurity.
@@ -348,6 +475,21 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
      * @return the best split candidate.
      */
     protected Optional<Split> findBestSplit(LeafNode node, int lo, int hi, boolean[] unsplittable) {
+        return findBestSplit(node, lo, hi, unsplittable, null);
+    }
+
+    /**
+     * Finds the best attribute to split on a set of samples. at the current node. Returns
+     * <code>Optional.empty</code> if a split doesn't exist to reduce the impurity.
+     * @param node the leaf node to split.
+     * @param lo the inclusive lower bound of the data partition in the reordered sample index array.
+     * @param hi the exclusive upper bound of the data partition in the reordered sample index array.
+     * @param unsplittable unsplittable[j] is true if the column j cannot be split further in the node.
+     * @param histogram the histograms of binned columns in the node. May be null
+     *                  or have null elements, which will be calculated on demand.
+     * @return the best split candidate.
+     */
+    private Optional<Split> findBestSplit(LeafNode node, int lo, int hi, boolean[] unsplittable, double[][] histogram) {
         if (node.size() < 2 * nodeSize) {
             return Optional.empty(); // one child will have less than nodeSize samples.
         }
@@ -366,10 +508,17 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
             MathEx.permutate(columns);
         }
 
+        final double[][] hist = bins == null ? null : (histogram != null ? histogram : new double[p][]);
         IntStream stream = Arrays.stream(columns).limit(mtry);
-        Optional<Split> split = (mtry < p ? stream : stream.parallel()) // random forest is in parallel already
+        Optional<Split> split = (parallel(hi - lo) ? stream.parallel() : stream)
                 .mapToObj(j -> {
-                    Optional<Split> s = findBestSplit(node, j, impurity, lo, hi);
+                    Optional<Split> s;
+                    if (hist != null && bins.isBinned(j)) {
+                        if (hist[j] == null) hist[j] = histogram(j, lo, hi);
+                        s = findBestSplit(node, j, impurity, lo, hi, hist[j]);
+                    } else {
+                        s = findBestSplit(node, j, impurity, lo, hi);
+                    }
                     if (s.isEmpty()) unsplittable[j] = true;
                     return s;
                 })
@@ -377,10 +526,27 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
                 .map(Optional::get)
                 .max(Split.comparator);
 
-        split.ifPresent(s -> s.unsplittable = unsplittable);
+        split.ifPresent(s -> {
+            s.unsplittable = unsplittable;
+            s.histogram = hist;
+        });
         return split;
     }
 
+    /**
+     * Returns true if the split search of a node should run in parallel.
+     * Random forest grows trees in parallel already. Besides, the random
+     * selection of columns depends on the thread local random number
+     * generator. Therefore, only the trees that consider all columns
+     * (e.g. single decision tree, gradient boosting) split in parallel.
+     *
+     * @param size the number of samples in the node.
+     * @return true if the split search of a node should run in parallel.
+     */
+    private boolean parallel(int size) {
+        return mtry >= schema.length() && size >= PARALLEL_NODE_SIZE;
+    }
+
     /**
      * Returns the impurity of node.
      * @param node the node to calculate the impurity.
@@ -406,6 +572,30 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
      */
     protected abstract Optional<Split> findBestSplit(LeafNode node, int column, double impurity, int lo, int hi);
 
+    /**
+     * Returns the histogram of response statistics over the bins of
+     * given column for the samples in the node. The histogram is a
+     * flat array of the statistics of each bin, which must be additive
+     * so that the histogram of a node equals to the sum of its children.
+     * @param column the binned column.
+     * @param lo the lower bound of sample index in the node.
+     * @param hi the upper bound of sample index in the node.
+     * @return the histogram.
+     */
+    protected abstract double[] histogram(int column, int lo, int hi);
+
+    /**
+     * Finds the best split for given binned column on its histogram.
+     * @param node the node to split.
+     * @param column the binned column to split on.
+     * @param impurity the impurity of node.
+     * @param lo the lower bound of sample index in the node.
+     * @param hi the upper bound of sample index in the node.
+     * @param histogram the histogram of response statistics over the bins.
+     * @return the best split.
+     */
+    protected abstract Optional<Split> findBestSplit(LeafNode node, int column, double impurity, int lo, int hi, double[] histogram);
+
     /**
      * Returns the variable importance. Every time a split of a node is made
      * on variable the (GINI, information gain, etc.) impurity criterion for
@@ -492,9 +682,11 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
     private void shuffle(int low, int split, int high, boolean[] predicate) {
         // Arrays.stream(order).filter(Objects::nonNull).forEach(o -> shuffle(o, low, split, high, predicate));
         // Use plain loop to avoid stream overhead
-        for (var column : order) {
-            if (column != null) {
-                shuffle(column, low, split, high, predicate);
+        if (order != null) {
+            for (var column : order) {
+                if (column != null) {
+                    shuffle(column, low, split, high, predicate);
+                }
             }
         }
         shuffle(index, low, split, high, predicate);
@@ -506,9 +698,8 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
      * for which goesLeft(i) is true come before all elements for
      * which it is false, but element ordering is otherwise preserved.
      * The number of true values returned by goesLeft must equal
-     * {@code split - low}. buffer is scratch space large enough
-     * (i.e., at least {@code high - split} long) to hold all
-     * elements for which goesLeft is false.
+     * {@code split - low}. The elements for which goesLeft is false
+     * are held in the range from low of scratch buffer.
      *
      * @param a the array to shuffle.
      * @param low the low bound of the segment of the order arrays
@@ -520,7 +711,9 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
      *                  the right side of the partition.
      */
     private void shuffle(int[] a, int low, int split, int high, boolean[] predicate) {
-        int k = 0;
+        // Use the same range of buffer so that disjoint
+        // partitions can be shuffled concurrently.
+        int k = low;
         for (int i = low, j = low; i < high; i++) {
             if (predicate[a[i]]) {
                 a[j++] = a[i];
@@ -529,8 +722,8 @@ public abstract class CART implements SHAP<Tuple>, Serializable {
             }
         }
 
-        assert(split + k == high);
-        System.arraycopy(buffer, 0, a, split, k);
+        assert(split + k - low == high);
+        System.arraycopy(buffer, low, a, split, k - low);
     }
 
     /**
@@ -0,0 +1,746 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.base.cart;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import smile.data.DataFrame;
+import smile.data.formula.Formula;
+import smile.math.MathEx;
+import smile.util.IntSet;
+
+/**
+ * A tree ensemble compiled into flat arrays for fast batch inference.
+ * The nodes of all trees are laid out in preorder in a struct of
+ * primitive arrays (split feature, split value, false branch child
+ * offset) so that the true branch child of an internal node is always
+ * the next node. The traversal is a tight loop over primitive arrays
+ * without virtual calls, and the scoring of a batch of instances
+ * doesn't allocate per row.
+ * <p>
+ * The raw score of an instance is the additive model
+ * {@code bias + sum(weight[t] * leaf_t(x))}, where the leaf value is
+ * the output of regression tree or the posteriori probabilities of
+ * decision tree. The raw score is then transformed to the prediction
+ * by the link function of ensemble.
+ * <p>
+ * The input of compiled forest is the predictors in the order of
+ * schema of training data, i.e. the output of {@link Formula#x}, as
+ * a {@code double[]} row per instance. Nominal variables take their
+ * integer codes. A data frame can also be scored column-wise, for
+ * which the formula is bound and applied only once per batch.
+ * <p>
+ * A compiled forest can be saved in a compact binary format with
+ * {@link #write(Path)}, which is the node arrays in little-endian
+ * byte order after a small header. {@link #map(Path)} loads it by
+ * memory mapping the file and scores the nodes in place without
+ * copying them to the heap. Loading takes about constant time and
+ * the JVMs on the same host share the pages of model in the OS
+ * page cache. The file must be smaller than 2GB. A forest compiled
+ * on the heap keeps the nodes in primitive arrays, which are faster
+ * to traverse than the buffers of a mapped file.
+ *
+ * @author Haifeng Li
+ */
+public class FlatForest implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    /** The magic number of compact binary format, "SMFF" in ASCII. */
+    private static final int MAGIC = 0x46464D53;
+    /** The version of compact binary format. */
+    private static final int VERSION = 1;
+
+    /** The transformation of raw scores to predictions. */
+    public enum Link {
+        /** The raw score is the regression output. */
+        IDENTITY,
+        /**
+         * The raw scores are the weighted sum of posteriori probabilities,
+         * which are normalized to sum to 1.
+         */
+        NORMALIZE,
+        /**
+         * The raw score is half of the log odds of positive class in
+         * binary classification.
+         */
+        LOGISTIC,
+        /** The raw scores of classes are transformed by softmax. */
+        SOFTMAX,
+        /**
+         * The raw scores are the weighted votes of trees for their
+         * predicted classes, which are normalized to sum to 1.
+         */
+        VOTE
+    }
+
+    /** The model formula. */
+    private final Formula formula;
+    /** The link function. */
+    private final Link link;
+    /** The class labels. Null for regression. */
+    private final IntSet classes;
+    /** The number of classes. 1 for regression. */
+    private final int k;
+    /** The initial raw scores. */
+    private final double[] bias;
+    /** The weight of each tree. */
+    private final double[] weight;
+    /** The offset of each tree's leaf values in the raw scores. */
+    private final int[] offset;
+    /** The root node of each tree. */
+    private final int[] root;
+    /** The split feature of node, -1 for leaf nodes. Null if mapped. */
+    private final int[] feature;
+    /** Nonzero if the split feature of node is nominal. Null if mapped. */
+    private final byte[] nominal;
+    /** The split value of node. Null if mapped. */
+    private final double[] value;
+    /**
+     * The false branch child of internal node. The true branch child
+     * is always the next node. For leaf nodes, the offset of leaf
+     * value in {@link #output}. Null if mapped.
+     */
+    private final int[] next;
+    /** The number of values of each leaf node. */
+    private final int width;
+    /** The values of leaf nodes. Null if mapped. */
+    private final double[] output;
+    /** The nodes in a memory mapped file. Null if on the heap. */
+    private final transient MappedNodes mapped;
+    /** The predictors that the trees split on. */
+    private final int[] features;
+
+    /**
+     * The node arrays of a forest in a memory mapped file.
+     * @param feature the split feature of node, -1 for leaf nodes.
+     * @param nominal nonzero if the split feature of node is nominal.
+     * @param value the split value of node.
+     * @param next the false branch child of internal node, or the
+     *             offset of leaf value for leaf nodes.
+     * @param output the values of leaf nodes.
+     */
+    private record MappedNodes(IntBuffer feature, ByteBuffer nominal, DoubleBuffer value, IntBuffer next, DoubleBuffer output) {
+        /**
+         * Returns the offset of leaf value of the tree for an instance.
+         * @param node the root node of tree.
+         * @param x the instance.
+         * @return the offset of leaf value.
+         */
+        int leaf(int node, double[] x) {
+            int j;
+            while ((j = feature.get(node)) >= 0) {
+                double xj = x[j];
+                boolean branch = nominal.get(node) != 0 ? xj == value.get(node) : xj <= value.get(node);
+                node = branch ? node + 1 : next.get(node);
+            }
+            return next.get(node);
+        }
+
+        /**
+         * Returns the offset of leaf value of the tree for an instance
+         * in columnar data.
+         * @param node the root node of tree.
+         * @param x the columns of predictors.
+         * @param i the row index.
+         * @return the offset of leaf value.
+         */
+        int leaf(int node, double[][] x, int i) {
+            int j;
+            while ((j = feature.get(node)) >= 0) {
+                double xj = x[j][i];
+                boolean branch = nominal.get(node) != 0 ? xj == value.get(node) : xj <= value.get(node);
+                node = branch ? node + 1 : next.get(node);
+            }
+            return next.get(node);
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param formula the model formula.
+     * @param trees the trees of ensemble.
+     * @param offset the offset of each tree's leaf values in the raw scores.
+     * @param weight the weight of each tree.
+     * @param bias the initial raw scores.
+     * @param link the link function.
+     * @param classes the class labels. Null for regression.
+     */
+    public FlatForest(Formula formula, CART[] trees, int[] offset, double[] weight, double[] bias, Link link, IntSet classes) {
+        if (trees.length == 0) {
+            throw new IllegalArgumentException("Empty tree ensemble");
+        }
+
+        if (offset.length != trees.length || weight.length != trees.length) {
+            throw new IllegalArgumentException("The sizes of trees, offsets and weights are different");
+        }
+
+        this.formula = formula;
+        this.link = link;
+        this.classes = classes;
+        this.k = classes == null ? 1 : classes.size();
+        this.bias = bias;
+        this.weight = weight;
+        this.offset = offset;
+
+        Node leaf = trees[0].root;
+        while (leaf instanceof InternalNode node) {
+            leaf = node.trueChild;
+        }
+        this.width = leaf instanceof DecisionNode node ? node.count().length : 1;
+
+        int size = 0;
+        for (CART tree : trees) {
+            size += tree.size();
+        }
+        int leaves = (size + trees.length) / 2;
+
+        root = new int[trees.length];
+        feature = new int[size];
+        nominal = new byte[size];
+        value = new double[size];
+        next = new int[size];
+        output = new double[leaves * width];
+        mapped = null;
+
+        int[] cursor = {0, 0}; // the next node and leaf value slot
+        for (int t = 0; t < trees.length; t++) {
+            root[t] = cursor[0];
+            compile(trees[t].root, cursor);
+        }
+
+        features = Arrays.stream(feature).filter(j -> j >= 0).distinct().sorted().toArray();
+    }
+
+    /**
+     * Constructor of a copied or loaded forest. Either the node arrays
+     * or the mapped nodes are null.
+     * @param formula the model formula.
+     * @param link the link function.
+     * @param classes the class labels. Null for regression.
+     * @param bias the initial raw scores.
+     * @param weight the weight of each tree.
+     * @param offset the offset of each tree's leaf values in the raw scores.
+     * @param root the root node of each tree.
+     * @param features the predictors that the trees split on.
+     * @param width the number of values of each leaf node.
+     * @param feature the split feature of node.
+     * @param nominal the nominal flag of node.
+     * @param value the split value of node.
+     * @param next the false branch child of node.
+     * @param output the values of leaf nodes.
+     * @param mapped the nodes in a memory mapped file.
+     */
+    private FlatForest(Formula formula, Link link, IntSet classes, double[] bias, double[] weight, int[] offset,
+                       int[] root, int[] features, int width, int[] feature, byte[] nominal,
+                       double[] value, int[] next, double[] output, MappedNodes mapped) {
+        this.formula = formula;
+        this.link = link;
+        this.classes = classes;
+        this.k = classes == null ? 1 : classes.size();
+        this.bias = bias;
+        this.weight = weight;
+        this.offset = offset;
+        this.root = root;
+        this.features = features;
+        this.width = width;
+        this.feature = feature;
+        this.nominal = nominal;
+        this.value = value;
+        this.next = next;
+        this.output = output;
+        this.mapped = mapped;
+    }
+
+    /**
+     * Lays out a subtree in preorder.
+     * @param node the root of subtree.
+     * @param cursor the next node and leaf value slot.
+     */
+    private void compile(Node node, int[] cursor) {
+        int i = cursor[0]++;
+        if (node instanceof InternalNode split) {
+            feature[i] = split.feature;
+            if (split instanceof NominalNode nominalNode) {
+                nominal[i] = 1;
+                value[i] = nominalNode.value;
+            } else {
+                value[i] = ((OrdinalNode) split).value;
+            }
+
+            compile(split.trueChild, cursor);
+            next[i] = cursor[0];
+            compile(split.falseChild, cursor);
+        } else {
+            feature[i] = -1;
+            int slot = cursor[1];
+            cursor[1] += width;
+            next[i] = slot;
+            if (node instanceof DecisionNode leaf) {
+                if (link == Link.VOTE) {
+                    output[slot + leaf.output()] = 1.0;
+                } else {
+                    System.arraycopy(leaf.posteriori(new double[width]), 0, output, slot, width);
+                }
+            } else {
+                output[slot] = ((RegressionNode) node).output();
+            }
+        }
+    }
+
+    /**
+     * Returns the model formula.
+     * @return the model formula.
+     */
+    public Formula formula() {
+        return formula;
+    }
+
+    /**
+     * Returns the number of trees.
+     * @return the number of trees.
+     */
+    public int ntrees() {
+        return root.length;
+    }
+
+    /**
+     * Returns the total number of nodes.
+     * @return the total number of nodes.
+     */
+    public int size() {
+        return mapped == null ? feature.length : mapped.feature.limit();
+    }
+
+    /**
+     * Returns the number of raw scores per instance.
+     * @return the number of raw scores per instance.
+     */
+    public int outputs() {
+        return bias.length;
+    }
+
+    /**
+     * Returns the offset of leaf value of the tree for an instance.
+     * @param t the tree index.
+     * @param x the instance.
+     * @return the offset of leaf value.
+     */
+    private int leaf(int t, double[] x) {
+        int node = root[t];
+        if (mapped != null) {
+            return mapped.leaf(node, x);
+        }
+
+        int j;
+        while ((j = feature[node]) >= 0) {
+            double xj = x[j];
+            boolean branch = nominal[node] != 0 ? xj == value[node] : xj <= value[node];
+            node = branch ? node + 1 : next[node];
+        }
+        return next[node];
+    }
+
+    /**
+     * Returns the offset of leaf value of the tree for an instance
+     * in columnar data.
+     * @param t the tree index.
+     * @param x the columns of predictors.
+     * @param i the row index.
+     * @return the offset of leaf value.
+     */
+    private int leaf(int t, double[][] x, int i) {
+        int node = root[t];
+        if (mapped != null) {
+            return mapped.leaf(node, x, i);
+        }
+
+        int j;
+        while ((j = feature[node]) >= 0) {
+            double xj = x[j][i];
+            boolean branch = nominal[node] != 0 ? xj == value[node] : xj <= value[node];
+            node = branch ? node + 1 : next[node];
+        }
+        return next[node];
+    }
+
+    /**
+     * Returns the leaf value.
+     * @param i the offset of leaf value.
+     * @return the leaf value.
+     */
+    private double output(int i) {
+        return mapped == null ? output[i] : mapped.output.get(i);
+    }
+
+    /**
+     * Adds the weighted leaf value of a tree to the raw scores.
+     * @param t the tree index.
+     * @param leaf the offset of leaf value.
+     * @param score the raw scores.
+     */
+    private void add(int t, int leaf, double[] score) {
+        double w = weight[t];
+        int o = offset[t];
+        for (int l = 0; l < width; l++) {
+            score[o + l] += w * output(leaf + l);
+        }
+    }
+
+    /**
+     * Computes the raw scores of an instance.
+     * @param x the predictors.
+     * @param score the output raw scores of size {@link #outputs()}.
+     */
+    public void score(double[] x, double[] score) {
+        System.arraycopy(bias, 0, score, 0, bias.length);
+        for (int t = 0; t < root.length; t++) {
+            add(t, leaf(t, x), score);
+        }
+    }
+
+    /**
+     * Computes the raw scores of an instance in columnar data.
+     * @param x the columns of predictors.
+     * @param i the row index.
+     * @param score the output raw scores of size {@link #outputs()}.
+     */
+    private void score(double[][] x, int i, double[] score) {
+        System.arraycopy(bias, 0, score, 0, bias.length);
+        for (int t = 0; t < root.length; t++) {
+            add(t, leaf(t, x, i), score);
+        }
+    }
+
+    /**
+     * Returns the predictor columns that the trees split on.
+     * Other columns are left null.
+     * @param data the data frame.
+     * @return the predictor columns.
+     */
+    private double[][] columns(DataFrame data) {
+        DataFrame x = formula == null ? data : formula.x(data);
+        double[][] columns = new double[x.ncol()][];
+        for (int j : features) {
+            columns[j] = x.column(j).toDoubleArray();
+        }
+        return columns;
+    }
+
+    /**
+     * Transforms the raw scores to posteriori probabilities in place.
+     * @param p the raw scores on input and the posteriori probabilities
+     *          on output, which has at least k elements.
+     * @return the class index.
+     */
+    private int posteriori(double[] p) {
+        switch (link) {
+            case LOGISTIC:
+                double f = p[0];
+                p[0] = 1.0 / (1.0 + Math.exp(2 * f));
+                p[1] = 1.0 - p[0];
+                return f > 0 ? 1 : 0;
+            case SOFTMAX:
+                return MathEx.softmax(p, k);
+            case NORMALIZE:
+            case VOTE:
+                MathEx.unitize1(p);
+                return MathEx.whichMax(p);
+            default:
+                throw new UnsupportedOperationException("Regression ensemble has no posteriori probabilities");
+        }
+    }
+
+    /**
+     * Predicts the dependent variable of an instance for regression.
+     * @param x the predictors.
+     * @return the predicted value.
+     */
+    public double predict(double[] x) {
+        if (classes != null) {
+            throw new UnsupportedOperationException("Use predict(double[], double[]) for classification");
+        }
+
+        double y = bias[0];
+        for (int t = 0; t < root.length; t++) {
+            y += weight[t] * output(leaf(t, x));
+        }
+        return y;
+    }
+
+    /**
+     * Predicts the dependent variables of a batch for regression.
+     * @param x the predictors of instances.
+     * @param y the output predicted values.
+     */
+    public void predict(double[][] x, double[] y) {
+        for (int i = 0; i < x.length; i++) {
+            y[i] = predict(x[i]);
+        }
+    }
+
+    /**
+     * Predicts the dependent variables of a data frame for regression.
+     * The data frame is scored column-wise.
+     * @param data the data frame.
+     * @return the predicted values.
+     */
+    public double[] predict(DataFrame data) {
+        if (classes != null) {
+            throw new UnsupportedOperationException("Use predict(DataFrame, double[][]) for classification");
+        }
+
+        double[][] x = columns(data);
+        int n = data.size();
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            double yi = bias[0];
+            for (int t = 0; t < root.length; t++) {
+                yi += weight[t] * output(leaf(t, x, i));
+            }
+            y[i] = yi;
+        }
+        return y;
+    }
+
+    /**
+     * Predicts the class label of an instance and also calculates
+     * a posteriori probabilities.
+     * @param x the predictors.
+     * @param posteriori the output posteriori probabilities of size k.
+     * @return the predicted class label.
+     */
+    public int predict(double[] x, double[] posteriori) {
+        if (classes == null) {
+            throw new UnsupportedOperationException("Use predict(double[]) for regression");
+        }
+
+        score(x, posteriori);
+        return classes.valueOf(posteriori(posteriori));
+    }
+
+    /**
+     * Predicts the class labels of a batch and also calculates
+     * a posteriori probabilities.
+     * @param x the predictors of instances.
+     * @param y the output predicted class labels.
+     * @param posteriori the output posteriori probabilities, one row of
+     *                   size k per instance.
+     */
+    public void predict(double[][] x, int[] y, double[][] posteriori) {
+        for (int i = 0; i < x.length; i++) {
+            y[i] = predict(x[i], posteriori[i]);
+        }
+    }
+
+    /**
+     * Predicts the class labels of a data frame and also calculates
+     * a posteriori probabilities. The data frame is scored column-wise.
+     * @param data the data frame.
+     * @param posteriori the output posteriori probabilities, one row of
+     *                   size k per instance.
+     * @return the predicted class labels.
+     */
+    public int[] predict(DataFrame data, double[][] posteriori) {
+        if (classes == null) {
+            throw new UnsupportedOperationException("Use predict(DataFrame) for regression");
+        }
+
+        double[][] x = columns(data);
+        int n = data.size();
+        int[] y = new int[n];
+        for (int i = 0; i < n; i++) {
+            double[] p = posteriori[i];
+            score(x, i, p);
+            y[i] = classes.valueOf(posteriori(p));
+        }
+        return y;
+    }
+
+    /**
+     * Writes the forest in the compact binary format.
+     * @param path the file path.
+     * @throws IOException if fail to write the file.
+     */
+    public void write(Path path) throws IOException {
+        if (mapped != null) {
+            heap().write(path);
+            return;
+        }
+
+        byte[] formulaBytes = new byte[0];
+        if (formula != null) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(formula);
+            }
+            formulaBytes = bytes.toByteArray();
+        }
+
+        int[] labels = classes == null ? new int[0] : classes.values;
+        int nodes = size();
+        long size = 12 * Integer.BYTES
+                + (long) (bias.length + weight.length + nodes + output.length) * Double.BYTES
+                + (long) (labels.length + offset.length + root.length + features.length + 2 * nodes) * Integer.BYTES
+                + nodes + formulaBytes.length;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("The model is too large for the compact format: " + size + " bytes");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(link.ordinal()).putInt(width)
+                    .putInt(labels.length).putInt(bias.length).putInt(root.length).putInt(nodes)
+                    .putInt(output.length).putInt(features.length).putInt(formulaBytes.length).putInt(0);
+
+            // The double sections go first so that they are 8-byte aligned.
+            section(buffer, bias.length * Double.BYTES).asDoubleBuffer().put(bias);
+            section(buffer, weight.length * Double.BYTES).asDoubleBuffer().put(weight);
+            section(buffer, nodes * Double.BYTES).asDoubleBuffer().put(value);
+            section(buffer, output.length * Double.BYTES).asDoubleBuffer().put(output);
+            section(buffer, labels.length * Integer.BYTES).asIntBuffer().put(labels);
+            section(buffer, offset.length * Integer.BYTES).asIntBuffer().put(offset);
+            section(buffer, root.length * Integer.BYTES).asIntBuffer().put(root);
+            section(buffer, features.length * Integer.BYTES).asIntBuffer().put(features);
+            section(buffer, nodes * Integer.BYTES).asIntBuffer().put(feature);
+            section(buffer, nodes * Integer.BYTES).asIntBuffer().put(next);
+            section(buffer, nodes).put(nominal);
+            buffer.put(formulaBytes);
+            buffer.force();
+        }
+    }
+
+    /**
+     * Loads a forest in the compact binary format by memory mapping
+     * the file. The nodes are scored in place.
+     * @param path the file path.
+     * @return the forest.
+     * @throws IOException if fail to read the file or the file is
+     *         not in the compact binary format.
+     */
+    public static FlatForest map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a compiled forest file: " + path);
+            }
+
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported compiled forest version: " + version);
+            }
+
+            Link link = Link.values()[buffer.getInt()];
+            int width = buffer.getInt();
+            int nclasses = buffer.getInt();
+            int nbias = buffer.getInt();
+            int ntrees = buffer.getInt();
+            int nodes = buffer.getInt();
+            int noutput = buffer.getInt();
+            int nfeatures = buffer.getInt();
+            int nformula = buffer.getInt();
+            buffer.getInt(); // reserved
+
+            double[] bias = new double[nbias];
+            section(buffer, nbias * Double.BYTES).asDoubleBuffer().get(bias);
+            double[] weight = new double[ntrees];
+            section(buffer, ntrees * Double.BYTES).asDoubleBuffer().get(weight);
+            DoubleBuffer value = section(buffer, nodes * Double.BYTES).asDoubleBuffer();
+            DoubleBuffer output = section(buffer, noutput * Double.BYTES).asDoubleBuffer();
+            int[] labels = new int[nclasses];
+            section(buffer, nclasses * Integer.BYTES).asIntBuffer().get(labels);
+            int[] offset = new int[ntrees];
+            section(buffer, ntrees * Integer.BYTES).asIntBuffer().get(offset);
+            int[] root = new int[ntrees];
+            section(buffer, ntrees * Integer.BYTES).asIntBuffer().get(root);
+            int[] features = new int[nfeatures];
+            section(buffer, nfeatures * Integer.BYTES).asIntBuffer().get(features);
+            IntBuffer feature = section(buffer, nodes * Integer.BYTES).asIntBuffer();
+            IntBuffer next = section(buffer, nodes * Integer.BYTES).asIntBuffer();
+            ByteBuffer nominal = section(buffer, nodes);
+
+            Formula formula = null;
+            if (nformula > 0) {
+                byte[] bytes = new byte[nformula];
+                buffer.get(bytes);
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    formula = (Formula) in.readObject();
+                } catch (ClassNotFoundException ex) {
+                    throw new IOException("Failed to read the model formula", ex);
+                }
+            }
+
+            IntSet classes = nclasses == 0 ? null : new IntSet(labels);
+            return new FlatForest(formula, link, classes, bias, weight, offset, root, features,
+                    width, null, null, null, null, null, new MappedNodes(feature, nominal, value, next, output));
+        }
+    }
+
+    /**
+     * Returns the section of buffer at the current position and
+     * advances the position of buffer over the section.
+     * @param buffer the buffer.
+     * @param bytes the size of section in bytes.
+     * @return the section.
+     */
+    private static ByteBuffer section(ByteBuffer buffer, int bytes) {
+        int position = buffer.position();
+        ByteBuffer section = buffer.slice(position, bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(position + bytes);
+        return section;
+    }
+
+    /**
+     * Returns a copy of mapped forest with the nodes on the heap.
+     * @return the copy of forest on the heap.
+     */
+    private FlatForest heap() {
+        int nodes = size();
+        int[] feature = new int[nodes];
+        mapped.feature.get(0, feature);
+        byte[] nominal = new byte[nodes];
+        mapped.nominal.get(0, nominal);
+        double[] value = new double[nodes];
+        mapped.value.get(0, value);
+        int[] next = new int[nodes];
+        mapped.next.get(0, next);
+        double[] output = new double[mapped.output.limit()];
+        mapped.output.get(0, output);
+        return new FlatForest(formula, link, classes, bias, weight, offset, root, features,
+                width, feature, nominal, value, next, output, null);
+    }
+
+    /**
+     * Serializes a mapped forest as a copy on the heap as the buffers
+     * are not serializable.
+     * @return the object to serialize.
+     */
+    @Serial
+    private Object writeReplace() {
+        return mapped == null ? this : heap();
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.base.cart;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import smile.data.DataFrame;
+import smile.data.formula.Formula;
+
+/**
+ * Batch TreeSHAP of a tree ensemble compiled into flat arrays.
+ * The nodes of all trees are laid out in preorder as in
+ * {@link FlatForest}, together with the cover (number of training
+ * samples) of each node, once per ensemble. The recursive path
+ * traversal of TreeSHAP then works on preallocated scratch buffers,
+ * one path segment per tree depth, instead of copying the path at
+ * every node. The scratch buffers are allocated once per block of
+ * rows and reused for all rows and trees of the block, so that
+ * explaining a data frame doesn't allocate per row except for the
+ * output.
+ * <p>
+ * The SHAP values of an instance are the weighted sum of SHAP values
+ * of trees. The SHAP values of tree {@code t} on feature {@code j}
+ * and leaf output {@code l} are accumulated to the element
+ * {@code j * k + offset[t] + l} of output, where {@code k} is the
+ * number of outputs per feature.
+ *
+ * @author Haifeng Li
+ */
+public class FlatTreeSHAP {
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(FlatTreeSHAP.class);
+    /** The number of rows explained with the same scratch buffers. */
+    private static final int BLOCK = 256;
+
+    /** The model formula. */
+    private final Formula formula;
+    /** The number of outputs per feature. */
+    private final int k;
+    /** The weight of each tree. */
+    private final double[] weight;
+    /** The offset of each tree's leaf values in the outputs of feature. */
+    private final int[] offset;
+    /** The root node of each tree. */
+    private final int[] root;
+    /** The split feature of node, -1 for leaf nodes. */
+    private final int[] feature;
+    /** True if the split feature of node is nominal. */
+    private final boolean[] nominal;
+    /** The split value of node. */
+    private final double[] value;
+    /**
+     * The false branch child of internal node. The true branch child
+     * is always the next node. For leaf nodes, the offset of leaf
+     * value in {@link #output}.
+     */
+    private final int[] next;
+    /** The number of training samples of node. */
+    private final double[] cover;
+    /** The number of values of each leaf node. */
+    private final int width;
+    /** The values of leaf nodes. */
+    private final double[] output;
+    /** The maximum length of path, i.e. the maximum depth of trees. */
+    private final int depth;
+
+    /**
+     * Constructor of the SHAP values averaged over the trees.
+     * @param formula the model formula.
+     * @param trees the trees of ensemble.
+     */
+    public FlatTreeSHAP(Formula formula, CART[] trees) {
+        this(formula, trees, new int[trees.length], weight(trees.length), width(trees[0]));
+    }
+
+    /**
+     * Constructor.
+     * @param formula the model formula.
+     * @param trees the trees of ensemble.
+     * @param offset the offset of each tree's leaf values in the outputs of feature.
+     * @param weight the weight of each tree.
+     * @param k the number of outputs per feature.
+     */
+    public FlatTreeSHAP(Formula formula, CART[] trees, int[] offset, double[] weight, int k) {
+        if (trees.length == 0) {
+            throw new IllegalArgumentException("Empty tree ensemble");
+        }
+
+        if (offset.length != trees.length || weight.length != trees.length) {
+            throw new IllegalArgumentException("The sizes of trees, offsets and weights are different");
+        }
+
+        this.formula = formula;
+        this.k = k;
+        this.weight = weight;
+        this.offset = offset;
+        this.width = width(trees[0]);
+
+        if (width > k) {
+            throw new IllegalArgumentException("Invalid number of outputs per feature: " + k);
+        }
+
+        int size = 0;
+        int maxDepth = 0;
+        for (CART tree : trees) {
+            size += tree.size();
+            maxDepth = Math.max(maxDepth, tree.root.depth());
+        }
+        int leaves = (size + trees.length) / 2;
+        this.depth = maxDepth + 1;
+
+        root = new int[trees.length];
+        feature = new int[size];
+        nominal = new boolean[size];
+        value = new double[size];
+        next = new int[size];
+        cover = new double[size];
+        output = new double[leaves * width];
+
+        int[] cursor = {0, 0};
+        for (int t = 0; t < trees.length; t++) {
+            root[t] = cursor[0];
+            compile(trees[t].root, cursor);
+        }
+    }
+
+    /**
+     * Returns the equal weights of trees.
+     * @param ntrees the number of trees.
+     * @return the weights of trees.
+     */
+    private static double[] weight(int ntrees) {
+        double[] weight = new double[ntrees];
+        Arrays.fill(weight, 1.0 / ntrees);
+        return weight;
+    }
+
+    /**
+     * Returns the number of values of leaf nodes.
+     * @param tree the tree.
+     * @return the number of values of leaf nodes.
+     */
+    private static int width(CART tree) {
+        Node leaf = tree.root;
+        while (leaf instanceof InternalNode node) {
+            leaf = node.trueChild;
+        }
+        return leaf instanceof DecisionNode node ? node.count().length : 1;
+    }
+
+    /**
+     * Lays out a subtree in preorder.
+     * @param node the root of subtree.
+     * @param cursor the next node and leaf value slot.
+     */
+    private void compile(Node node, int[] cursor) {
+        int i = cursor[0]++;
+        cover[i] = node.size();
+        if (node instanceof InternalNode split) {
+            feature[i] = split.feature;
+            if (split instanceof NominalNode nominalNode) {
+                nominal[i] = true;
+                value[i] = nominalNode.value;
+            } else {
+                value[i] = ((OrdinalNode) split).value;
+            }
+
+            compile(split.trueChild, cursor);
+            next[i] = cursor[0];
+            compile(split.falseChild, cursor);
+        } else {
+            feature[i] = -1;
+            int slot = cursor[1];
+            cursor[1] += width;
+            next[i] = slot;
+            if (node instanceof DecisionNode leaf) {
+                double[] prob = leaf.posteriori(new double[width]);
+                System.arraycopy(prob, 0, output, slot, width);
+            } else {
+                output[slot] = ((RegressionNode) node).output();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of outputs per feature.
+     * @return the number of outputs per feature.
+     */
+    public int outputs() {
+        return k;
+    }
+
+    /**
+     * Returns the SHAP values of each row of a data frame. The rows
+     * are explained in parallel.
+     * @param data the data frame.
+     * @return the SHAP values of size {@code n x (p * k)}, where
+     *         {@code p} is the number of predictors.
+     */
+    public double[][] shap(DataFrame data) {
+        long start = System.nanoTime();
+        DataFrame x = formula == null ? data : formula.x(data);
+        int n = x.size();
+        int p = x.ncol();
+        double[][] columns = new double[p][];
+        for (int j = 0; j < p; j++) {
+            columns[j] = x.column(j).toDoubleArray();
+        }
+
+        double[][] phi = new double[n][];
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            Scratch scratch = new Scratch(depth);
+            int end = Math.min(n, (b + 1) * BLOCK);
+            for (int i = b * BLOCK; i < end; i++) {
+                double[] phii = new double[p * k];
+                for (int t = 0; t < root.length; t++) {
+                    recurse(t, columns, i, phii, scratch, root[t], 0, 0, 1, 1, -1);
+                }
+                phi[i] = phii;
+            }
+        });
+
+        double time = (System.nanoTime() - start) / 1E9;
+        logger.info("SHAP values of {} rows computed in {} seconds ({} rows/sec)",
+                n, String.format("%.3f", time), String.format("%.1f", n / time));
+        return phi;
+    }
+
+    /**
+     * The preallocated path of unique features we have split on so far
+     * during SHAP recursive traverse. The path at the recursion level
+     * {@code r} takes the segment {@code [r * depth, (r + 1) * depth)}
+     * of arrays.
+     */
+    private static class Scratch {
+        /** The unique feature index. */
+        final int[] d;
+        /**
+         * The fraction of zero paths (where this feature is not
+         * in the non-zero index set S) that flow through this path.
+         */
+        final double[] z;
+        /**
+         * The fraction of one path (where this feature is
+         * in the non-zero index set S) that flow through this path.
+         */
+        final double[] o;
+        /**
+         * The proportion of sets of a given cardinality that are present.
+         */
+        final double[] w;
+
+        /**
+         * Constructor.
+         * @param depth the maximum length of path.
+         */
+        Scratch(int depth) {
+            int size = depth * depth;
+            d = new int[size];
+            z = new double[size];
+            o = new double[size];
+            w = new double[size];
+        }
+    }
+
+    /**
+     * Recursively keep track of what proportion of all possible subsets
+     * flow down into each of the leaves of the tree.
+     * @param t the tree index.
+     * @param x the columns of predictors.
+     * @param i the row index.
+     * @param phi the SHAP values of row.
+     * @param s the scratch buffers.
+     * @param node the current node.
+     * @param level the recursion level.
+     * @param l the length of parent path.
+     * @param pz the fraction of zero paths.
+     * @param po the fraction of one paths.
+     * @param pi the split feature of parent node.
+     */
+    private void recurse(int t, double[][] x, int i, double[] phi, Scratch s, int node,
+                         int level, int l, double pz, double po, int pi) {
+        int[] d = s.d;
+        double[] z = s.z;
+        double[] o = s.o;
+        double[] w = s.w;
+
+        // Extends the parent path into the segment of this level.
+        int m = level * depth;
+        if (level > 0) {
+            int parent = m - depth;
+            System.arraycopy(d, parent, d, m, l);
+            System.arraycopy(z, parent, z, m, l);
+            System.arraycopy(o, parent, o, m, l);
+            System.arraycopy(w, parent, w, m, l);
+        }
+
+        d[m + l] = pi;
+        z[m + l] = pz;
+        o[m + l] = po;
+        w[m + l] = l == 0 ? 1 : 0;
+        for (int j = l - 1; j >= 0; j--) {
+            w[m + j + 1] += po * w[m + j] * (j + 1) / (l + 1);
+            w[m + j] = pz * w[m + j] * (l - j) / (l + 1);
+        }
+        int length = l + 1;
+
+        int dj = feature[node];
+        if (dj >= 0) {
+            double xj = x[dj][i];
+            boolean branch = nominal[node] ? xj == value[node] : xj <= value[node];
+            int h = branch ? node + 1 : next[node];
+            int c = branch ? next[node] : node + 1;
+            double rj = cover[node];
+
+            int e = 0;
+            for (; e < length; e++) {
+                if (d[m + e] == dj) break;
+            }
+
+            double iz = 1.0;
+            double io = 1.0;
+            if (e < length) {
+                iz = z[m + e];
+                io = o[m + e];
+                unwind(s, m, length, e);
+                length--;
+            }
+
+            recurse(t, x, i, phi, s, h, level + 1, length, iz * cover[h] / rj, io, dj);
+            recurse(t, x, i, phi, s, c, level + 1, length, iz * cover[c] / rj, 0, dj);
+        } else {
+            int slot = next[node];
+            double wt = weight[t];
+            int ot = offset[t];
+            for (int j = 1; j < length; j++) {
+                double u = wt * unwoundSum(s, m, length, j) * (o[m + j] - z[m + j]);
+                int dk = d[m + j] * k + ot;
+                for (int r = 0; r < width; r++) {
+                    phi[dk + r] += u * output[slot + r];
+                }
+            }
+        }
+    }
+
+    /**
+     * Undo previous extensions when we split on the same feature twice.
+     * @param s the scratch buffers.
+     * @param m the start of path segment.
+     * @param length the length of path.
+     * @param i the index of extension to undo.
+     */
+    private static void unwind(Scratch s, int m, int length, int i) {
+        int[] d = s.d;
+        double[] z = s.z;
+        double[] o = s.o;
+        double[] w = s.w;
+
+        double po = o[m + i];
+        double pz = z[m + i];
+        int l = length - 1;
+
+        double n = w[m + l];
+        if (po != 0) {
+            for (int j = l - 1; j >= 0; j--) {
+                double t = w[m + j];
+                w[m + j] = n * (l + 1) / ((j + 1) * po);
+                n = t - w[m + j] * pz * (l - j) / (l + 1);
+            }
+        } else {
+            for (int j = l - 1; j >= 0; j--) {
+                w[m + j] = (w[m + j] * (l + 1)) / (pz * (l - j));
+            }
+        }
+
+        for (int j = i; j < l; j++) {
+            d[m + j] = d[m + j + 1];
+            z[m + j] = z[m + j + 1];
+            o[m + j] = o[m + j + 1];
+        }
+    }
+
+    /**
+     * Return the total permutation weight if we unwind a previous
+     * extension in the decision path.
+     * @param s the scratch buffers.
+     * @param m the start of path segment.
+     * @param length the length of path.
+     * @param i the index of extension to unwind.
+     * @return the total permutation weight.
+     */
+    private static double unwoundSum(Scratch s, int m, int length, int i) {
+        double[] z = s.z;
+        double[] o = s.o;
+        double[] w = s.w;
+
+        double po = o[m + i];
+        double pz = z[m + i];
+        int l = length - 1;
+        double sum = 0.0;
+
+        double n = w[m + l];
+        if (po != 0) {
+            for (int j = l - 1; j >= 0; j--) {
+                double t = n / ((j + 1) * po);
+                sum += t;
+                n = w[m + j] - t * pz * (l - j);
+            }
+        } else {
+            for (int j = l - 1; j >= 0; j--) {
+                sum += w[m + j] / (pz * (l - j));
+            }
+        }
+
+        return sum * (l + 1);
+    }
+}
@@ -57,6 +57,23 @@ public interface Loss {
      */
     double[] residual();
 
+    /**
+     * Returns the average loss of predictions, which is used to monitor
+     * the performance on validation data. By default, it is the mean
+     * squared error.
+     * @param y the response variable.
+     * @param yhat the predictions.
+     * @return the average loss.
+     */
+    default double loss(double[] y, double[] yhat) {
+        double loss = 0.0;
+        for (int i = 0; i < y.length; i++) {
+            double r = y[i] - yhat[i];
+            loss += r * r;
+        }
+        return loss / y.length;
+    }
+
     /** The type of loss. */
     enum Type {
         /**
@@ -240,6 +257,16 @@ public interface Loss {
                 return residual;
             }
 
+            @Override
+            public double loss(double[] y, double[] yhat) {
+                double loss = 0.0;
+                for (int i = 0; i < y.length; i++) {
+                    double r = y[i] - yhat[i];
+                    loss += r >= 0 ? p * r : (p - 1) * r;
+                }
+                return loss / y.length;
+            }
+
             @Override
             public String toString() {
                 return String.format("Quantile(%3.1f%%)", 100*p);
@@ -296,6 +323,15 @@ public interface Loss {
                 return residual;
             }
 
+            @Override
+            public double loss(double[] y, double[] yhat) {
+                double loss = 0.0;
+                for (int i = 0; i < y.length; i++) {
+                    loss += Math.abs(y[i] - yhat[i]);
+                }
+                return loss / y.length;
+            }
+
             @Override
             public String toString() {
                 return "LeastAbsoluteDeviation";
@@ -322,6 +358,11 @@ public interface Loss {
             double[] residual;
             /** The cutoff. */
             private double delta;
+            /**
+             * The cutoff of the monitoring loss, which is fixed at the
+             * first iteration so that the losses of iterations are comparable.
+             */
+            private double cutoff;
 
             @Override
             public double output(int[] nodeSamples, int[] sampleCount) {
@@ -347,7 +388,10 @@ public interface Loss {
 
                 for (int i = 0; i < n; i++) {
                     residual[i] = y[i] - b;
+                    response[i] = Math.abs(residual[i]);
                 }
+
+                cutoff = QuickSelect.select(response, (int) (n * p));
                 return b;
             }
 
@@ -376,6 +420,16 @@ public interface Loss {
                 return residual;
             }
 
+            @Override
+            public double loss(double[] y, double[] yhat) {
+                double loss = 0.0;
+                for (int i = 0; i < y.length; i++) {
+                    double r = Math.abs(y[i] - yhat[i]);
+                    loss += r <= cutoff ? 0.5 * r * r : cutoff * (r - 0.5 * cutoff);
+                }
+                return loss / y.length;
+            }
+
             @Override
             public String toString() {
                 return String.format("Huber(%3.1f%%)", 100*p);
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.base.cart;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.Stream;
+import smile.data.DataFrame;
+import smile.data.formula.Formula;
+import smile.data.measure.CategoricalMeasure;
+import smile.data.type.DataTypes;
+import smile.data.type.StructField;
+import smile.data.type.StructType;
+import smile.data.vector.FloatVector;
+import smile.data.vector.IntVector;
+import smile.data.vector.ValueVector;
+import smile.math.Random;
+
+/**
+ * A fixed size uniform random sample of rows drawn from a stream of
+ * data frame chunks by reservoir sampling. It is the working set of
+ * a tree trained out of core, i.e. on data that doesn't fit in memory.
+ * The predictors are kept in compact primitive form, 4 bytes per value,
+ * so that the memory footprint is bounded by the capacity of reservoir
+ * regardless of the size of data.
+ *
+ * @author Haifeng Li
+ */
+public class Reservoir {
+    /** The schema of predictors. */
+    private final StructType schema;
+    /** The predictors in column major order. */
+    private final float[][] x;
+    /** The response variable. */
+    private final double[] y;
+    /** The positions of sampled rows in the data. */
+    private final long[] index;
+    /** The random number generator. */
+    private final Random random;
+    /** The number of rows in the reservoir. */
+    private int size;
+    /** The number of rows offered to the reservoir. */
+    private long count;
+
+    /**
+     * Constructor.
+     * @param schema the schema of predictors.
+     * @param capacity the maximum number of rows in the reservoir.
+     * @param random the random number generator.
+     */
+    public Reservoir(StructType schema, int capacity, Random random) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid reservoir capacity: " + capacity);
+        }
+
+        this.schema = schema;
+        this.x = new float[schema.length()][capacity];
+        this.y = new double[capacity];
+        this.index = new long[capacity];
+        this.random = random;
+    }
+
+    /**
+     * Offers a row of data chunk to the reservoir. The row is
+     * kept with probability {@code capacity / count}, where
+     * count is the number of rows offered so far.
+     * @param x the predictors of data chunk in column major order.
+     * @param y the response variable of data chunk.
+     * @param i the row index in the data chunk.
+     * @param row the position of row in the data.
+     */
+    public void offer(float[][] x, double[] y, int i, long row) {
+        count++;
+        int slot;
+        if (size < this.y.length) {
+            slot = size++;
+        } else {
+            long r = (long) (random.nextDouble() * count);
+            if (r >= size) return;
+            slot = (int) r;
+        }
+
+        for (int j = 0; j < x.length; j++) {
+            this.x[j][slot] = x[j][i];
+        }
+        this.y[slot] = y[i];
+        this.index[slot] = row;
+    }
+
+    /**
+     * Returns the number of rows in the reservoir.
+     * @return the number of rows in the reservoir.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the predictors of sampled rows. Categorical columns
+     * are stored as int vectors, and others as float vectors.
+     * @return the predictors of sampled rows.
+     */
+    public DataFrame x() {
+        ValueVector[] columns = new ValueVector[x.length];
+        for (int j = 0; j < x.length; j++) {
+            StructField field = schema.field(j);
+            float[] xj = Arrays.copyOf(x[j], size);
+            if (field.measure() instanceof CategoricalMeasure) {
+                int[] codes = new int[size];
+                for (int i = 0; i < size; i++) {
+                    codes[i] = (int) xj[i];
+                }
+                columns[j] = new IntVector(new StructField(field.name(), DataTypes.IntType, field.measure()), codes);
+            } else {
+                columns[j] = new FloatVector(new StructField(field.name(), DataTypes.FloatType, field.measure()), xj);
+            }
+        }
+        return new DataFrame(columns);
+    }
+
+    /**
+     * Returns the response variable of sampled rows.
+     * @return the response variable of sampled rows.
+     */
+    public double[] y() {
+        return Arrays.copyOf(y, size);
+    }
+
+    /**
+     * Returns the positions of sampled rows in the data, which identify
+     * the rows across the passes over the data.
+     * @return the positions of sampled rows in the data.
+     */
+    public long[] index() {
+        return Arrays.copyOf(index, size);
+    }
+
+    /**
+     * Returns the predictors of data chunk in column major order.
+     * @param x the predictors of data chunk.
+     * @return the column major array.
+     */
+    private static float[][] columns(DataFrame x) {
+        int p = x.ncol();
+        float[][] columns = new float[p][];
+        for (int j = 0; j < p; j++) {
+            double[] xj = x.column(j).toDoubleArray();
+            float[] column = new float[xj.length];
+            for (int i = 0; i < xj.length; i++) {
+                column[i] = (float) xj[i];
+            }
+            columns[j] = column;
+        }
+        return columns;
+    }
+
+    /**
+     * Scans the data chunks once and draws the training samples of a
+     * group of trees. Each row is assigned to the training stream of
+     * a tree with the probability given by the sampling rate function
+     * of its response. The stream is then sampled by the reservoir of
+     * tree. The rows not in the reservoir of a tree are out-of-bag for
+     * the tree.
+     *
+     * @param formula the model formula, which should be bound to the schema of data.
+     * @param chunks the data chunks.
+     * @param rate the sampling rate function of response.
+     * @param train the reservoirs of training samples of each tree.
+     * @param eval the reservoir of all rows to evaluate the trees on
+     *             their out-of-bag rows. May be null.
+     * @param random the random number generators of each tree.
+     * @return the number of rows in the data.
+     */
+    public static long sample(Formula formula, Stream<DataFrame> chunks, DoubleUnaryOperator rate,
+                              Reservoir[] train, Reservoir eval, Random[] random) {
+        long[] n = new long[1];
+        chunks.forEach(chunk -> {
+            float[][] x = columns(formula.x(chunk));
+            double[] y = formula.y(chunk).toDoubleArray();
+            for (int i = 0; i < y.length; i++) {
+                long row = n[0] + i;
+                double p = rate.applyAsDouble(y[i]);
+                for (int t = 0; t < train.length; t++) {
+                    if (random[t].nextDouble() < p) {
+                        train[t].offer(x, y, i, row);
+                    }
+                }
+
+                if (eval != null) {
+                    eval.offer(x, y, i, row);
+                }
+            }
+            n[0] += y.length;
+        });
+        return n[0];
+    }
+
+    /**
+     * Returns the mask of out-of-bag rows of a tree in the evaluation sample.
+     * @param train the reservoir of training samples of tree.
+     * @param eval the positions of evaluation rows in the data.
+     * @return the mask of out-of-bag rows.
+     */
+    public static boolean[] oob(Reservoir train, long[] eval) {
+        long[] index = train.index();
+        Arrays.sort(index);
+        boolean[] oob = new boolean[eval.length];
+        for (int i = 0; i < eval.length; i++) {
+            oob[i] = Arrays.binarySearch(index, eval[i]) < 0;
+        }
+        return oob;
+    }
+}
@@ -81,6 +81,13 @@ public abstract class Split {
      */
     boolean[] unsplittable;
 
+    /**
+     * The histograms of binned columns in the node, which are used to
+     * derive the histograms of children by subtraction. Null if the
+     * tree is not trained on binned data.
+     */
+    double[][] histogram;
+
     /** The depth of node in the tree. */
     int depth = 1;
 
@@ -48,6 +48,43 @@ public interface ActivationFunction extends Serializable {
      */
     void g(double[] g, double[] y);
 
+    /**
+     * The output function in single precision. By default, it evaluates
+     * the function in double precision.
+     * @param x the input vector.
+     */
+    default void f(float[] x) {
+        double[] y = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            y[i] = x[i];
+        }
+        f(y);
+        for (int i = 0; i < x.length; i++) {
+            x[i] = (float) y[i];
+        }
+    }
+
+    /**
+     * The gradient function in single precision. By default, it evaluates
+     * the function in double precision.
+     * @param g the gradient vector. On input, it holds W'*g, where W and g are the
+     *          weight matrix and gradient of upper layer, respectively.
+     *          On output, it is the gradient of this layer.
+     * @param y the output vector.
+     */
+    default void g(float[] g, float[] y) {
+        double[] gd = new double[g.length];
+        double[] yd = new double[y.length];
+        for (int i = 0; i < g.length; i++) {
+            gd[i] = g[i];
+            yd[i] = y[i];
+        }
+        g(gd, yd);
+        for (int i = 0; i < g.length; i++) {
+            g[i] = (float) gd[i];
+        }
+    }
+
     /**
      * Linear/Identity activation function.
      *
@@ -69,6 +106,16 @@ public interface ActivationFunction extends Serializable {
             public void g(double[] g, double[] y) {
 
             }
+
+            @Override
+            public void f(float[] x) {
+                // Identity function keeps the input as is.
+            }
+
+            @Override
+            public void g(float[] g, float[] y) {
+
+            }
         };
     }
 
@@ -112,6 +159,20 @@ public interface ActivationFunction extends Serializable {
                     g[i] *= y[i] > 0 ? 1 : 0;
                 }
             }
+
+            @Override
+            public void f(float[] x) {
+                for (int i = 0; i < x.length; i++) {
+                    x[i] = Math.max(0.0f, x[i]);
+                }
+            }
+
+            @Override
+            public void g(float[] g, float[] y) {
+                for (int i = 0; i < g.length; i++) {
+                    g[i] *= y[i] > 0 ? 1 : 0;
+                }
+            }
         };
     }
 
@@ -157,6 +218,22 @@ public interface ActivationFunction extends Serializable {
                     g[i] *= y[i] > 0 ? 1 : a;
                 }
             }
+
+            @Override
+            public void f(float[] x) {
+                float b = (float) a;
+                for (int i = 0; i < x.length; i++) {
+                    x[i] = Math.max(b * x[i], x[i]);
+                }
+            }
+
+            @Override
+            public void g(float[] g, float[] y) {
+                float b = (float) a;
+                for (int i = 0; i < g.length; i++) {
+                    g[i] *= y[i] > 0 ? 1 : b;
+                }
+            }
         };
     }
 
@@ -189,6 +266,20 @@ public interface ActivationFunction extends Serializable {
                     g[i] *= y[i] * (1.0 - y[i]);
                 }
             }
+
+            @Override
+            public void f(float[] x) {
+                for (int i = 0; i < x.length; i++) {
+                    x[i] = (float) MathEx.sigmoid(x[i]);
+                }
+            }
+
+            @Override
+            public void g(float[] g, float[] y) {
+                for (int i = 0; i < g.length; i++) {
+                    g[i] *= y[i] * (1.0f - y[i]);
+                }
+            }
         };
     }
 
@@ -221,6 +312,22 @@ public interface ActivationFunction extends Serializable {
                     g[i] *= ym1 * ym1;
                 }
             }
+
+            @Override
+            public void f(float[] x) {
+                for (int i = 0; i < x.length; i++) {
+                    x[i] = (float) Math.tanh(x[i]);
+                }
+            }
+
+            @Override
+            public void g(float[] g, float[] y) {
+                int n = y.length;
+                for (int i = 0; i < n; i++) {
+                    float ym1 = 1.0f - y[i];
+                    g[i] *= ym1 * ym1;
+                }
+            }
         };
     }
 
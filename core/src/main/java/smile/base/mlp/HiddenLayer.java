@@ -17,6 +17,7 @@
 package smile.base.mlp;
 
 import java.io.Serial;
+import smile.math.matrix.Matrix;
 
 /**
  * A hidden layer in the neural network.
@@ -56,6 +57,32 @@ public class HiddenLayer extends Layer {
         activation.f(x);
     }
 
+    @Override
+    protected void transform(double[] x, int m) {
+        // The activation functions are element-wise.
+        activation.f(x);
+    }
+
+    @Override
+    protected void transform(float[] x, int m) {
+        // The activation functions are element-wise.
+        activation.f(x);
+    }
+
+    @Override
+    public void backpropagateBatch(Matrix lowerLayerGradient) {
+        Batch batch = this.batch.get();
+        activation.g(batch.gradient, batch.output);
+        super.backpropagateBatch(lowerLayerGradient);
+    }
+
+    @Override
+    public void backpropagateBatch(smile.math.matrix.fp32.Matrix lowerLayerGradient) {
+        FloatBatch batch = this.floatBatch.get();
+        activation.g(batch.gradient, batch.output);
+        super.backpropagateBatch(lowerLayerGradient);
+    }
+
     @Override
     public void backpropagate(double[] lowerLayerGradient) {
         double[] output = this.output.get();
@@ -18,6 +18,7 @@ package smile.base.mlp;
 
 import java.io.IOException;
 import java.io.Serial;
+import smile.math.matrix.Matrix;
 
 /**
  * An input layer in the neural network.
@@ -55,6 +56,8 @@ public class InputLayer extends Layer {
     private void readObject(java.io.ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
         output = ThreadLocal.withInitial(() -> new double[n]);
+        batch = new ThreadLocal<>();
+        floatBatch = new ThreadLocal<>();
 
         if (dropout > 0.0) {
             mask = ThreadLocal.withInitial(() -> new byte[n]);
@@ -75,11 +78,69 @@ public class InputLayer extends Layer {
         System.arraycopy(x, 0, output.get(), 0, p);
     }
 
+    /**
+     * Copies the input signals of a mini-batch to the output matrix,
+     * of which each column is a sample.
+     * @param x the input signals.
+     */
+    public void propagate(double[][] x) {
+        int m = x.length;
+        double[] output = batch(m).output;
+        for (int j = 0; j < m; j++) {
+            System.arraycopy(x[j], 0, output, j * p, p);
+        }
+    }
+
+    @Override
+    public void propagate(Matrix x) {
+        int m = x.ncol();
+        double[] output = batch(m).output;
+        for (int j = 0; j < m; j++) {
+            for (int i = 0; i < p; i++) {
+                output[j * p + i] = x.get(i, j);
+            }
+        }
+    }
+
+    /**
+     * Copies the input signals of a mini-batch to the output matrix
+     * in single precision, of which each column is a sample.
+     * @param x the input signals.
+     */
+    public void propagate(float[][] x) {
+        int m = x.length;
+        float[] output = floatBatch(m).output;
+        for (int j = 0; j < m; j++) {
+            System.arraycopy(x[j], 0, output, j * p, p);
+        }
+    }
+
+    @Override
+    public void propagate(smile.math.matrix.fp32.Matrix x) {
+        int m = x.ncol();
+        float[] output = floatBatch(m).output;
+        for (int j = 0; j < m; j++) {
+            for (int i = 0; i < p; i++) {
+                output[j * p + i] = x.get(i, j);
+            }
+        }
+    }
+
     @Override
     public void backpropagate(double[] lowerLayerGradient) {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void backpropagateBatch(Matrix lowerLayerGradient) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void backpropagateBatch(smile.math.matrix.fp32.Matrix lowerLayerGradient) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void transform(double[] x) {
         // identity activation function
@@ -90,6 +151,16 @@ public class InputLayer extends Layer {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void computeGradient(Matrix x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void computeGradient(smile.math.matrix.fp32.Matrix x) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void computeGradientUpdate(double[] x, double learningRate, double momentum, double decay) {
         throw new UnsupportedOperationException();
@@ -29,8 +29,19 @@ import smile.math.MathEx;
 import smile.math.matrix.Matrix;
 import smile.util.Regex;
 
+import static smile.math.blas.Transpose.NO_TRANSPOSE;
+import static smile.math.blas.Transpose.TRANSPOSE;
+
 /**
  * A layer in the neural network.
+ * <p>
+ * Besides the double precision, the mini-batch training can run in
+ * single precision, where the input signals, outputs, gradients and
+ * the weights in the matrix multiplications are float and multiplied
+ * by single precision BLAS. The master copy of weights and the states
+ * of optimizer stay in double precision so that the small updates are
+ * not lost in rounding. The float weights are refreshed from the master
+ * copy after each update.
  *
  * @author Haifeng Li
  */
@@ -102,6 +113,95 @@ public abstract class Layer implements AutoCloseable, Serializable {
      * The dropout mask.
      */
     protected transient ThreadLocal<byte[]> mask;
+    /**
+     * The workspace of mini-batch.
+     */
+    transient ThreadLocal<Batch> batch;
+    /**
+     * The workspace of mini-batch in single precision.
+     */
+    transient ThreadLocal<FloatBatch> floatBatch;
+    /**
+     * The single precision copy of weight matrix, which
+     * is created by the first mini-batch in single precision.
+     */
+    private transient smile.math.matrix.fp32.Matrix floatWeight;
+    /**
+     * The flag if the single precision copy of weight matrix is out of date.
+     */
+    private transient boolean floatWeightStale = true;
+
+    /**
+     * The workspace of mini-batch. Each column of the matrices is a sample.
+     * The matrices wrap the arrays so that both BLAS-3 routines and the
+     * element-wise activation functions work on the same storage.
+     * The workspace is reused as long as the batch size doesn't change.
+     */
+    static class Batch {
+        /** The batch size. */
+        final int size;
+        /** The output of mini-batch. */
+        final double[] output;
+        /** The output matrix, which wraps the output array. */
+        final Matrix outputMatrix;
+        /** The output gradient of mini-batch. */
+        final double[] gradient;
+        /** The gradient matrix, which wraps the gradient array. */
+        final Matrix gradientMatrix;
+        /** The dropout mask of mini-batch. */
+        final byte[] mask;
+
+        /**
+         * Constructor.
+         * @param n the number of neurons.
+         * @param size the batch size.
+         * @param dropout true if the layer has dropout.
+         */
+        Batch(int n, int size, boolean dropout) {
+            this.size = size;
+            this.output = new double[n * size];
+            this.outputMatrix = new Matrix(n, size, n, output);
+            this.gradient = new double[n * size];
+            this.gradientMatrix = new Matrix(n, size, n, gradient);
+            this.mask = dropout ? new byte[n * size] : null;
+        }
+    }
+
+    /**
+     * The workspace of mini-batch in single precision.
+     * Each column of the matrices is a sample.
+     */
+    static class FloatBatch {
+        /** The batch size. */
+        final int size;
+        /** The output of mini-batch. */
+        final float[] output;
+        /** The output matrix, which wraps the output array. */
+        final smile.math.matrix.fp32.Matrix outputMatrix;
+        /** The output gradient of mini-batch. */
+        final float[] gradient;
+        /** The gradient matrix, which wraps the gradient array. */
+        final smile.math.matrix.fp32.Matrix gradientMatrix;
+        /** The dropout mask of mini-batch. */
+        final byte[] mask;
+        /** The weight gradient of mini-batch. Allocated on first use. */
+        smile.math.matrix.fp32.Matrix weightGradient;
+
+        /**
+         * Constructor.
+         * @param n the number of neurons.
+         * @param size the batch size.
+         * @param dropout true if the layer has dropout.
+         */
+        FloatBatch(int n, int size, boolean dropout) {
+            this.size = size;
+            this.output = new float[n * size];
+            this.outputMatrix = new smile.math.matrix.fp32.Matrix(n, size, n, output);
+            this.gradient = new float[n * size];
+            this.gradientMatrix = new smile.math.matrix.fp32.Matrix(n, size, n, gradient);
+            this.mask = dropout ? new byte[n * size] : null;
+        }
+    }
 
     /**
      * Constructor for input layer.
@@ -119,6 +219,8 @@ public abstract class Layer implements AutoCloseable, Serializable {
         this.dropout = dropout;
 
         output = ThreadLocal.withInitial(() -> new double[n]);
+        batch = new ThreadLocal<>();
+        floatBatch = new ThreadLocal<>();
 
         if (dropout > 0.0) {
             mask = ThreadLocal.withInitial(() -> new byte[n]);
@@ -188,6 +290,8 @@ public abstract class Layer implements AutoCloseable, Serializable {
         if (weightUpdate != null) weightUpdate.remove();
         if (biasUpdate != null) biasUpdate.remove();
         if (mask != null) mask.remove();
+        if (batch != null) batch.remove();
+        if (floatBatch != null) floatBatch.remove();
     }
 
     /**
@@ -216,6 +320,9 @@ public abstract class Layer implements AutoCloseable, Serializable {
         biasGradientMoment2 = ThreadLocal.withInitial(() -> new double[n]);
         weightUpdate = ThreadLocal.withInitial(() -> new Matrix(n, p));
         biasUpdate = ThreadLocal.withInitial(() -> new double[n]);
+        batch = new ThreadLocal<>();
+        floatBatch = new ThreadLocal<>();
+        floatWeightStale = true;
 
         if (dropout > 0.0) {
             mask = ThreadLocal.withInitial(() -> new byte[n]);
@@ -343,6 +450,7 @@ public abstract class Layer implements AutoCloseable, Serializable {
         if (decay > 0.9 && decay < 1.0) {
             weight.mul(decay);
         }
+        floatWeightStale = true;
     }
 
     /**
@@ -361,6 +469,121 @@ public abstract class Layer implements AutoCloseable, Serializable {
         }
     }
 
+    /**
+     * Returns the workspace of mini-batch of the current thread.
+     * The workspace is allocated only when the batch size changes.
+     * @param m the batch size.
+     * @return the workspace.
+     */
+    Batch batch(int m) {
+        Batch workspace = batch.get();
+        if (workspace == null || workspace.size != m) {
+            workspace = new Batch(n, m, dropout > 0.0);
+            batch.set(workspace);
+        }
+        return workspace;
+    }
+
+    /**
+     * Propagates the signals of a mini-batch from a lower layer to this
+     * layer by matrix-matrix multiplication.
+     * @param x the lower layer signals, of which each column is a sample.
+     */
+    public void propagate(Matrix x) {
+        int m = x.ncol();
+        Batch batch = batch(m);
+        double[] output = batch.output;
+        for (int j = 0; j < m; j++) {
+            System.arraycopy(bias, 0, output, j * n, n);
+        }
+
+        batch.outputMatrix.mm(NO_TRANSPOSE, weight, NO_TRANSPOSE, x, 1.0, 1.0);
+        transform(output, m);
+    }
+
+    /**
+     * The activation or output function of mini-batch. By default,
+     * it applies {@link #transform(double[])} to each sample.
+     * @param x the input and output values in column major order,
+     *          of which each column is a sample.
+     * @param m the batch size.
+     */
+    protected void transform(double[] x, int m) {
+        double[] output = this.output.get();
+        for (int j = 0; j < m; j++) {
+            System.arraycopy(x, j * n, output, 0, n);
+            transform(output);
+            System.arraycopy(output, 0, x, j * n, n);
+        }
+    }
+
+    /**
+     * Propagates the output signals of mini-batch through the implicit
+     * dropout layer. It should only be applied during training.
+     */
+    public void propagateBatchDropout() {
+        if (dropout > 0.0) {
+            Batch batch = this.batch.get();
+            double[] output = batch.output;
+            byte[] mask = batch.mask;
+            double scale = 1.0 / (1.0 - dropout);
+            for (int i = 0; i < output.length; i++) {
+                byte retain = (byte) (MathEx.random() < dropout ? 0 : 1);
+                mask[i] = retain;
+                output[i] *= retain * scale;
+            }
+        }
+    }
+
+    /**
+     * Propagates the errors of mini-batch back to a lower layer.
+     * @param lowerLayerGradient the gradient matrix of lower layer,
+     *                           of which each column is a sample.
+     *                           It is null for the first hidden layer.
+     */
+    public void backpropagateBatch(Matrix lowerLayerGradient) {
+        if (lowerLayerGradient != null) {
+            Batch batch = this.batch.get();
+            lowerLayerGradient.mm(TRANSPOSE, weight, NO_TRANSPOSE, batch.gradientMatrix);
+        }
+    }
+
+    /**
+     * Propagates the errors of mini-batch back through the (implicit)
+     * dropout layer.
+     */
+    public void backpropagateBatchDropout() {
+        if (dropout > 0.0) {
+            Batch batch = this.batch.get();
+            double[] gradient = batch.gradient;
+            byte[] mask = batch.mask;
+            double scale = 1.0 / (1.0 - dropout);
+            for (int i = 0; i < gradient.length; i++) {
+                gradient[i] *= mask[i] * scale;
+            }
+        }
+    }
+
+    /**
+     * Computes the parameter gradient of a mini-batch, which is added
+     * to the accumulated gradient by matrix-matrix multiplication.
+     *
+     * @param x the input signals, of which each column is a sample.
+     */
+    public void computeGradient(Matrix x) {
+        Batch batch = this.batch.get();
+        Matrix weightGradient = this.weightGradient.get();
+        double[] biasGradient = this.biasGradient.get();
+
+        weightGradient.mm(NO_TRANSPOSE, batch.gradientMatrix, TRANSPOSE, x, 1.0, 1.0);
+        double[] gradient = batch.gradient;
+        for (int j = 0; j < batch.size; j++) {
+            for (int i = 0, offset = j * n; i < n; i++) {
+                biasGradient[i] += gradient[offset + i];
+            }
+        }
+    }
+
     /**
      * Adjust network weights by back-propagation algorithm.
      *
@@ -439,6 +662,163 @@ public abstract class Layer implements AutoCloseable, Serializable {
 
         weightGradient.fill(0.0);
         Arrays.fill(biasGradient, 0.0);
+        floatWeightStale = true;
+    }
+
+    /**
+     * Returns the workspace of mini-batch in single precision of the
+     * current thread. The workspace is allocated only when the batch
+     * size changes.
+     * @param m the batch size.
+     * @return the workspace.
+     */
+    FloatBatch floatBatch(int m) {
+        FloatBatch workspace = floatBatch.get();
+        if (workspace == null || workspace.size != m) {
+            workspace = new FloatBatch(n, m, dropout > 0.0);
+            floatBatch.set(workspace);
+        }
+        return workspace;
+    }
+
+    /**
+     * Returns the single precision copy of weight matrix,
+     * which is refreshed if the weights have been updated.
+     * @return the single precision copy of weight matrix.
+     */
+    smile.math.matrix.fp32.Matrix floatWeight() {
+        if (floatWeight == null) {
+            floatWeight = new smile.math.matrix.fp32.Matrix(n, p);
+        }
+
+        if (floatWeightStale) {
+            for (int j = 0; j < p; j++) {
+                for (int i = 0; i < n; i++) {
+                    floatWeight.set(i, j, (float) weight.get(i, j));
+                }
+            }
+            floatWeightStale = false;
+        }
+        return floatWeight;
+    }
+
+    /**
+     * Propagates the signals of a mini-batch in single precision from
+     * a lower layer to this layer by matrix-matrix multiplication.
+     * @param x the lower layer signals, of which each column is a sample.
+     */
+    public void propagate(smile.math.matrix.fp32.Matrix x) {
+        int m = x.ncol();
+        FloatBatch batch = floatBatch(m);
+        float[] output = batch.output;
+        for (int i = 0; i < n; i++) {
+            output[i] = (float) bias[i];
+        }
+        for (int j = 1; j < m; j++) {
+            System.arraycopy(output, 0, output, j * n, n);
+        }
+
+        batch.outputMatrix.mm(NO_TRANSPOSE, floatWeight(), NO_TRANSPOSE, x, 1.0f, 1.0f);
+        transform(output, m);
+    }
+
+    /**
+     * The activation or output function of mini-batch in single precision.
+     * By default, it applies {@link #transform(double[])} to each sample.
+     * @param x the input and output values in column major order,
+     *          of which each column is a sample.
+     * @param m the batch size.
+     */
+    protected void transform(float[] x, int m) {
+        double[] output = this.output.get();
+        for (int j = 0; j < m; j++) {
+            for (int i = 0, offset = j * n; i < n; i++) {
+                output[i] = x[offset + i];
+            }
+            transform(output);
+            for (int i = 0, offset = j * n; i < n; i++) {
+                x[offset + i] = (float) output[i];
+            }
+        }
+    }
+
+    /**
+     * Propagates the output signals of mini-batch in single precision
+     * through the implicit dropout layer. It should only be applied
+     * during training.
+     */
+    public void propagateFloatBatchDropout() {
+        if (dropout > 0.0) {
+            FloatBatch batch = this.floatBatch.get();
+            float[] output = batch.output;
+            byte[] mask = batch.mask;
+            float scale = (float) (1.0 / (1.0 - dropout));
+            for (int i = 0; i < output.length; i++) {
+                byte retain = (byte) (MathEx.random() < dropout ? 0 : 1);
+                mask[i] = retain;
+                output[i] *= retain * scale;
+            }
+        }
+    }
+
+    /**
+     * Propagates the errors of mini-batch in single precision back to
+     * a lower layer.
+     * @param lowerLayerGradient the gradient matrix of lower layer,
+     *                           of which each column is a sample.
+     *                           It is null for the first hidden layer.
+     */
+    public void backpropagateBatch(smile.math.matrix.fp32.Matrix lowerLayerGradient) {
+        if (lowerLayerGradient != null) {
+            FloatBatch batch = this.floatBatch.get();
+            lowerLayerGradient.mm(TRANSPOSE, floatWeight(), NO_TRANSPOSE, batch.gradientMatrix);
+        }
+    }
+
+    /**
+     * Propagates the errors of mini-batch in single precision back
+     * through the (implicit) dropout layer.
+     */
+    public void backpropagateFloatBatchDropout() {
+        if (dropout > 0.0) {
+            FloatBatch batch = this.floatBatch.get();
+            float[] gradient = batch.gradient;
+            byte[] mask = batch.mask;
+            float scale = (float) (1.0 / (1.0 - dropout));
+            for (int i = 0; i < gradient.length; i++) {
+                gradient[i] *= mask[i] * scale;
+            }
+        }
+    }
+
+    /**
+     * Computes the parameter gradient of a mini-batch in single precision
+     * by matrix-matrix multiplication. The gradient of mini-batch is added
+     * to the accumulated gradient in double precision.
+     *
+     * @param x the input signals, of which each column is a sample.
+     */
+    public void computeGradient(smile.math.matrix.fp32.Matrix x) {
+        FloatBatch batch = this.floatBatch.get();
+        Matrix weightGradient = this.weightGradient.get();
+        double[] biasGradient = this.biasGradient.get();
+
+        if (batch.weightGradient == null) {
+            batch.weightGradient = new smile.math.matrix.fp32.Matrix(n, p);
+        }
+        batch.weightGradient.mm(NO_TRANSPOSE, batch.gradientMatrix, TRANSPOSE, x);
+        for (int j = 0; j < p; j++) {
+            for (int i = 0; i < n; i++) {
+                weightGradient.add(i, j, batch.weightGradient.get(i, j));
+            }
+        }
+
+        float[] gradient = batch.gradient;
+        for (int j = 0; j < batch.size; j++) {
+            for (int i = 0, offset = j * n; i < n; i++) {
+                biasGradient[i] += gradient[offset + i];
+            }
+        }
     }
 
     /**
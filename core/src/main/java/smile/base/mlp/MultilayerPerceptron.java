@@ -21,9 +21,12 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Properties;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import smile.math.MathEx;
 import smile.math.TimeFunction;
+import smile.math.matrix.Matrix;
+import smile.util.Strings;
 
 /**
  * Fully connected multilayer perceptron neural network.
@@ -36,12 +39,22 @@ import smile.math.TimeFunction;
  * acting as a trainable bias connected to a constant input. The
  * transformation, called activation function, is a bounded non-decreasing
  * (non-linear) function.
+ * <p>
+ * The mini-batches of float data are trained in single precision,
+ * which halves the memory traffic and doubles the SIMD width of
+ * matrix multiplications. The weights are still updated in double
+ * precision. With a stable learning rate, the posteriori probabilities
+ * are typically within {@code 1E-3} of double precision training after
+ * tens of epochs. With a learning rate on the edge of divergence, the
+ * rounding errors are amplified as much as a different random
+ * initialization.
  *
  * @author Haifeng Li
  */
 public abstract class MultilayerPerceptron implements AutoCloseable, Serializable {
     @Serial
     private static final long serialVersionUID = 2L;
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MultilayerPerceptron.class);
     /**
      * The dimensionality of input data.
      */
@@ -58,6 +71,16 @@ public abstract class MultilayerPerceptron implements AutoCloseable, Serializabl
      * The buffer to store desired target value of training instance.
      */
     protected transient ThreadLocal<double[]> target;
+    /**
+     * The buffer to store desired target values of mini-batch,
+     * of which each column is a sample.
+     */
+    protected transient ThreadLocal<Matrix> batchTarget;
+    /**
+     * The buffer to store desired target values of mini-batch in
+     * single precision, of which each column is a sample.
+     */
+    protected transient ThreadLocal<smile.math.matrix.fp32.Matrix> floatBatchTarget;
     /**
      * The learning rate.
      */
@@ -132,6 +155,12 @@ public abstract class MultilayerPerceptron implements AutoCloseable, Serializabl
         if (target != null) {
             target.remove();
         }
+        if (batchTarget != null) {
+            batchTarget.remove();
+        }
+        if (floatBatchTarget != null) {
+            floatBatchTarget.remove();
+        }
         for (Layer layer : net) {
             layer.close();
         }
@@ -155,6 +184,8 @@ public abstract class MultilayerPerceptron implements AutoCloseable, Serializabl
      */
     private void init() {
         target = ThreadLocal.withInitial(() -> new double[output.getOutputSize()]);
+        batchTarget = new ThreadLocal<>();
+        floatBatchTarget = new ThreadLocal<>();
     }
 
     @Override
@@ -310,18 +341,114 @@ public abstract class MultilayerPerceptron implements AutoCloseable, Serializabl
         output.propagate(input);
     }
 
+    /**
+     * Propagates the signals of a mini-batch through the neural network.
+     * Each layer processes the whole batch by matrix-matrix multiplication.
+     * @param x the input signals.
+     * @param training true if this is in training pass.
+     */
+    protected void propagate(double[][] x, boolean training) {
+        InputLayer input = (InputLayer) net[0];
+        input.propagate(x);
+        if (training) {
+            input.propagateBatchDropout();
+        }
+
+        Matrix lower = input.batch.get().outputMatrix;
+        for (int i = 1; i < net.length; i++) {
+            Layer layer = net[i];
+            layer.propagate(lower);
+            if (training) {
+                layer.propagateBatchDropout();
+            }
+            lower = layer.batch.get().outputMatrix;
+        }
+        output.propagate(lower);
+    }
+
+    /**
+     * Propagates the signals of a mini-batch through the neural network
+     * in single precision.
+     * @param x the input signals.
+     * @param training true if this is in training pass.
+     */
+    protected void propagate(float[][] x, boolean training) {
+        InputLayer input = (InputLayer) net[0];
+        input.propagate(x);
+        if (training) {
+            input.propagateFloatBatchDropout();
+        }
+
+        smile.math.matrix.fp32.Matrix lower = input.floatBatch.get().outputMatrix;
+        for (int i = 1; i < net.length; i++) {
+            Layer layer = net[i];
+            layer.propagate(lower);
+            if (training) {
+                layer.propagateFloatBatchDropout();
+            }
+            lower = layer.floatBatch.get().outputMatrix;
+        }
+        output.propagate(lower);
+    }
+
+    /**
+     * Returns the target matrix of mini-batch of the current thread.
+     * The matrix is allocated only when the batch size changes.
+     * @param m the batch size.
+     * @return the target matrix.
+     */
+    protected Matrix batchTarget(int m) {
+        Matrix matrix = batchTarget.get();
+        if (matrix == null || matrix.ncol() != m) {
+            matrix = new Matrix(output.getOutputSize(), m);
+            batchTarget.set(matrix);
+        }
+        return matrix;
+    }
+
+    /**
+     * Returns the target matrix of mini-batch in single precision of the
+     * current thread. The matrix is allocated only when the batch size changes.
+     * @param m the batch size.
+     * @return the target matrix.
+     */
+    protected smile.math.matrix.fp32.Matrix floatBatchTarget(int m) {
+        smile.math.matrix.fp32.Matrix matrix = floatBatchTarget.get();
+        if (matrix == null || matrix.ncol() != m) {
+            matrix = new smile.math.matrix.fp32.Matrix(output.getOutputSize(), m);
+            floatBatchTarget.set(matrix);
+        }
+        return matrix;
+    }
+
     /**
      * Gradient clipping prevents exploding gradients in very deep networks,
      * usually in recurrent neural networks.
      * @param gradient the gradient vector.
      */
     private void clipGradient(double[] gradient) {
+        clipGradient(gradient, gradient.length);
+    }
+
+    /**
+     * Clips the gradient of each sample in a mini-batch.
+     * @param gradient the gradient vectors in column major order.
+     * @param n the length of gradient vector.
+     */
+    private void clipGradient(double[] gradient, int n) {
         if (clipNorm > 0.0) {
-            double norm = MathEx.norm(gradient);
-            if (norm > clipNorm) {
-                double scale = clipNorm / norm;
-                for (int j = 0; j < gradient.length; j++) {
-                    gradient[j] *= scale;
+            for (int offset = 0; offset < gradient.length; offset += n) {
+                double norm = 0.0;
+                for (int j = 0; j < n; j++) {
+                    norm += gradient[offset + j] * gradient[offset + j];
+                }
+                norm = Math.sqrt(norm);
+
+                if (norm > clipNorm) {
+                    double scale = clipNorm / norm;
+                    for (int j = 0; j < n; j++) {
+                        gradient[offset + j] *= scale;
+                    }
                 }
             }
         } else if (clipValue > 0.0) {
@@ -335,6 +462,39 @@ public abstract class MultilayerPerceptron implements AutoCloseable, Serializabl
         }
     }
 
+    /**
+     * Clips the gradient of each sample in a mini-batch in single precision.
+     * @param gradient the gradient vectors in column major order.
+     * @param n the length of gradient vector.
+     */
+    private void clipGradient(float[] gradient, int n) {
+        if (clipNorm > 0.0) {
+            for (int offset = 0; offset < gradient.length; offset += n) {
+                double norm = 0.0;
+                for (int j = 0; j < n; j++) {
+                    norm += gradient[offset + j] * gradient[offset + j];
+                }
+                norm = Math.sqrt(norm);
+
+                if (norm > clipNorm) {
+                    float scale = (float) (clipNorm / norm);
+                    for (int j = 0; j < n; j++) {
+                        gradient[offset + j] *= scale;
+                    }
+                }
+            }
+        } else if (clipValue > 0.0) {
+            float clip = (float) clipValue;
+            for (int j = 0; j < gradient.length; j++) {
+                if (gradient[j] > clip) {
+                    gradient[j] = clip;
+                } else if (gradient[j] < -clip) {
+                    gradient[j] = -clip;
+                }
+            }
+        }
+    }
+
     /**
      * Propagates the errors back through the network.
      * @param update the flag if update the weights directly.
@@ -390,6 +550,65 @@ public abstract class MultilayerPerceptron implements AutoCloseable, Serializabl
         }
     }
 
+    /**
+     * Propagates the errors of a mini-batch back through the network
+     * and accumulates the parameter gradients, which are computed by
+     * matrix-matrix multiplications.
+     * @param target the desired output, of which each column is a sample.
+     */
+    protected void backpropagate(Matrix target) {
+        output.computeOutputGradient(target);
+        clipGradient(output.batch.get().gradient, output.getOutputSize());
+
+        Layer upper = output;
+        for (int i = net.length; --i > 0;) {
+            upper.backpropagateBatch(net[i].batch.get().gradientMatrix);
+            upper = net[i];
+            upper.backpropagateBatchDropout();
+            clipGradient(upper.batch.get().gradient, upper.getOutputSize());
+        }
+        // first hidden layer
+        upper.backpropagateBatch((Matrix) null);
+
+        Matrix x = net[0].batch.get().outputMatrix;
+        for (int i = 1; i < net.length; i++) {
+            Layer layer = net[i];
+            layer.computeGradient(x);
+            x = layer.batch.get().outputMatrix;
+        }
+
+        output.computeGradient(x);
+    }
+
+    /**
+     * Propagates the errors of a mini-batch back through the network
+     * and accumulates the parameter gradients in single precision.
+     * @param target the desired output, of which each column is a sample.
+     */
+    protected void backpropagate(smile.math.matrix.fp32.Matrix target) {
+        output.computeOutputGradient(target);
+        clipGradient(output.floatBatch.get().gradient, output.getOutputSize());
+
+        Layer upper = output;
+        for (int i = net.length; --i > 0;) {
+            upper.backpropagateBatch(net[i].floatBatch.get().gradientMatrix);
+            upper = net[i];
+            upper.backpropagateFloatBatchDropout();
+            clipGradient(upper.floatBatch.get().gradient, upper.getOutputSize());
+        }
+        // first hidden layer
+        upper.backpropagateBatch((smile.math.matrix.fp32.Matrix) null);
+
+        smile.math.matrix.fp32.Matrix x = net[0].floatBatch.get().outputMatrix;
+        for (int i = 1; i < net.length; i++) {
+            Layer layer = net[i];
+            layer.computeGradient(x);
+            x = layer.floatBatch.get().outputMatrix;
+        }
+
+        output.computeGradient(x);
+    }
+
     /**
      * Updates the weights for mini-batch training.
      *
@@ -418,6 +637,26 @@ public abstract class MultilayerPerceptron implements AutoCloseable, Serializabl
         output.update(m, eta, alpha, decay, rho, epsilon);
     }
 
+    /**
+     * Trains the network by mini-batch stochastic gradient descent.
+     * The samples are shuffled in each epoch.
+     *
+     * @param n the number of samples.
+     * @param epochs the number of epochs.
+     * @param batch the mini-batch size.
+     * @param update the function to update the network with the samples
+     *               of given indices.
+     */
+    protected static void train(int n, int epochs, int batch, Consumer<int[]> update) {
+        for (int epoch = 1; epoch <= epochs; epoch++) {
+            logger.info("{} epoch", Strings.ordinal(epoch));
+            int[] permutation = MathEx.permutate(n);
+            for (int i = 0; i < n; i += batch) {
+                update.accept(Arrays.copyOfRange(permutation, i, Math.min(i + batch, n)));
+            }
+        }
+    }
+
     /**
      * Sets MLP hyperparameters such as learning rate, weight decay, momentum,
      * RMSProp, etc.
@@ -33,6 +33,23 @@ public enum OutputFunction {
             // Identity function keeps the input as is.
         }
 
+        @Override
+        public void f(float[] x) {
+            // Identity function keeps the input as is.
+        }
+
+        @Override
+        public void g(Cost cost, float[] g, float[] y) {
+            switch (cost) {
+                case MEAN_SQUARED_ERROR:
+                    // no-op as the gradient is just o - t
+                    break;
+
+                case LIKELIHOOD:
+                    throw new IllegalStateException("SOFTMAX must work with LIKELIHOOD cost function");
+            }
+        }
+
         @Override
         public void g(Cost cost, double[] g, double[] y) {
             switch (cost) {
@@ -75,6 +92,28 @@ public enum OutputFunction {
                     break;
             }
         }
+
+        @Override
+        public void f(float[] x) {
+            for (int i = 0; i < x.length; i++) {
+                x[i] = (float) MathEx.sigmoid(x[i]);
+            }
+        }
+
+        @Override
+        public void g(Cost cost, float[] g, float[] y) {
+            switch (cost) {
+                case MEAN_SQUARED_ERROR:
+                    for (int i = 0; i < g.length; i++) {
+                        g[i] *= y[i] * (1.0f - y[i]);
+                    }
+                    break;
+
+                case LIKELIHOOD:
+                    // no-op as the gradient is just o - t
+                    break;
+            }
+        }
     },
 
     /**
@@ -99,6 +138,18 @@ public enum OutputFunction {
                     break;
             }
         }
+
+        @Override
+        public void g(Cost cost, float[] g, float[] y) {
+            switch (cost) {
+                case MEAN_SQUARED_ERROR:
+                    throw new IllegalStateException("SOFTMAX must work with LIKELIHOOD cost function");
+
+                case LIKELIHOOD:
+                    // no-op as the gradient is just o - t
+                    break;
+            }
+        }
     };
 
     /**
@@ -115,4 +166,41 @@ public enum OutputFunction {
      * @param y the output vector.
      */
     public abstract void g(Cost cost, double[] g, double[] y);
+
+    /**
+     * The output function in single precision. By default, it evaluates
+     * the function in double precision.
+     * @param x the input vector.
+     */
+    public void f(float[] x) {
+        double[] y = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            y[i] = x[i];
+        }
+        f(y);
+        for (int i = 0; i < x.length; i++) {
+            x[i] = (float) y[i];
+        }
+    }
+
+    /**
+     * The gradient function in single precision. By default, it evaluates
+     * the function in double precision.
+     * @param cost the cost function of neural network.
+     * @param g the gradient vector. On input, it holds target - output.
+     *          On output, it is the gradient.
+     * @param y the output vector.
+     */
+    public void g(Cost cost, float[] g, float[] y) {
+        double[] gd = new double[g.length];
+        double[] yd = new double[y.length];
+        for (int i = 0; i < g.length; i++) {
+            gd[i] = g[i];
+            yd[i] = y[i];
+        }
+        g(cost, gd, yd);
+        for (int i = 0; i < g.length; i++) {
+            g[i] = (float) gd[i];
+        }
+    }
 }
@@ -17,6 +17,7 @@
 package smile.base.mlp;
 
 import java.io.Serial;
+import smile.math.matrix.Matrix;
 
 /**
  * The output layer in the neural network.
@@ -78,6 +79,26 @@ public class OutputLayer extends Layer {
         activation.f(x);
     }
 
+    @Override
+    protected void transform(double[] x, int m) {
+        if (activation == OutputFunction.SOFTMAX) {
+            super.transform(x, m);
+        } else {
+            // Element-wise output functions.
+            activation.f(x);
+        }
+    }
+
+    @Override
+    protected void transform(float[] x, int m) {
+        if (activation == OutputFunction.SOFTMAX) {
+            super.transform(x, m);
+        } else {
+            // Element-wise output functions.
+            activation.f(x);
+        }
+    }
+
     @Override
     public void backpropagate(double[] lowerLayerGradient) {
         weight.tv(outputGradient.get(), lowerLayerGradient);
@@ -109,4 +130,48 @@ public class OutputLayer extends Layer {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Compute the network output gradient of mini-batch.
+     * @param target the desired output, of which each column is a sample.
+     */
+    public void computeOutputGradient(Matrix target) {
+        Batch batch = this.batch.get();
+        if (target.nrow() != n || target.ncol() != batch.size) {
+            throw new IllegalArgumentException(String.format("Invalid target matrix size: %d x %d, expected: %d x %d", target.nrow(), target.ncol(), n, batch.size));
+        }
+
+        double[] output = batch.output;
+        double[] gradient = batch.gradient;
+        for (int j = 0; j < batch.size; j++) {
+            for (int i = 0, offset = j * n; i < n; i++) {
+                gradient[offset + i] = target.get(i, j) - output[offset + i];
+            }
+        }
+
+        // The gradient functions are element-wise.
+        activation.g(cost, gradient, output);
+    }
+
+    /**
+     * Compute the network output gradient of mini-batch in single precision.
+     * @param target the desired output, of which each column is a sample.
+     */
+    public void computeOutputGradient(smile.math.matrix.fp32.Matrix target) {
+        FloatBatch batch = this.floatBatch.get();
+        if (target.nrow() != n || target.ncol() != batch.size) {
+            throw new IllegalArgumentException(String.format("Invalid target matrix size: %d x %d, expected: %d x %d", target.nrow(), target.ncol(), n, batch.size));
+        }
+
+        float[] output = batch.output;
+        float[] gradient = batch.gradient;
+        for (int j = 0; j < batch.size; j++) {
+            for (int i = 0, offset = j * n; i < n; i++) {
+                gradient[offset + i] = target.get(i, j) - output[offset + i];
+            }
+        }
+
+        // The gradient functions are element-wise.
+        activation.g(cost, gradient, output);
+    }
+}
@@ -20,6 +20,7 @@ import java.io.Serial;
 import java.util.*;
 import smile.base.IterativeTrainingController;
 import smile.base.cart.CART;
+import smile.base.cart.FlatForest;
 import smile.base.cart.SplitRule;
 import smile.data.DataFrame;
 import smile.data.Tuple;
@@ -471,6 +472,17 @@ public class AdaBoost extends AbstractClassifier<Tuple> implements DataFrameClas
         return classes.valueOf(MathEx.whichMax(posteriori));
     }
     
+    /**
+     * Compiles the boosted trees into flat arrays for fast batch inference.
+     * The compiled forest predicts with the weighted votes of trees, same
+     * as {@link #predict(Tuple, double[])}.
+     *
+     * @return the compiled forest.
+     */
+    public FlatForest compile() {
+        return new FlatForest(formula, trees, new int[trees.length], alpha, new double[k], FlatForest.Link.VOTE, classes);
+    }
+
     /**
      * Test the model on a validation dataset.
      * @param data the validation data.
@@ -21,12 +21,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import smile.data.CategoricalEncoder;
 import smile.data.DataFrame;
 import smile.data.Tuple;
 import smile.data.formula.Formula;
 import smile.data.type.StructType;
+import smile.data.vector.ValueVector;
 import smile.math.MathEx;
 
 /**
@@ -107,6 +109,67 @@ public interface DataFrameClassifier extends Classifier<Tuple> {
                 .toArray();
     }
 
+    /**
+     * Predicts the class labels of a stream of data chunks, e.g. the row
+     * groups of a large Parquet file. The formula is bound once per chunk
+     * and the rows of each chunk are scored in parallel. The returned
+     * stream is lazy. An input chunk is read and scored only when the
+     * consumer, e.g. {@code Write.csv(Stream, Path)}, pulls the next
+     * prediction frame. Therefore, the memory footprint stays flat no
+     * matter how large the input is.
+     *
+     * @param chunks the data chunks.
+     * @return the stream of predictions, one data frame of column
+     *         "prediction" per input chunk.
+     */
+    default Stream<DataFrame> predict(Stream<DataFrame> chunks) {
+        return predict(chunks, false);
+    }
+
+    /**
+     * Predicts the class labels of a stream of data chunks.
+     *
+     * @param chunks the data chunks.
+     * @param probability if true and the model is a soft classifier,
+     *                    the posteriori probabilities are returned too,
+     *                    in the columns "probability_" + class label.
+     * @return the stream of predictions, one data frame per input chunk.
+     */
+    default Stream<DataFrame> predict(Stream<DataFrame> chunks, boolean probability) {
+        final boolean soft = probability && soft();
+        final int k = numClasses();
+        final int[] classes = classes();
+
+        return chunks.map(chunk -> {
+            // Binds the formula to the chunk's schema once
+            // before scoring the rows in parallel.
+            formula().bind(chunk.schema());
+
+            int n = chunk.size();
+            int[] y = new int[n];
+            if (!soft) {
+                IntStream.range(0, n).parallel().forEach(i -> y[i] = predict(chunk.get(i)));
+                return new DataFrame(ValueVector.of("prediction", y));
+            }
+
+            double[][] prob = new double[k][n];
+            IntStream.range(0, n).parallel().forEach(i -> {
+                double[] posteriori = new double[k];
+                y[i] = predict(chunk.get(i), posteriori);
+                for (int j = 0; j < k; j++) {
+                    prob[j][i] = posteriori[j];
+                }
+            });
+
+            ValueVector[] columns = new ValueVector[k + 1];
+            columns[0] = ValueVector.of("prediction", y);
+            for (int j = 0; j < k; j++) {
+                columns[j + 1] = ValueVector.of("probability_" + classes[j], prob[j]);
+            }
+            return new DataFrame(columns);
+        });
+    }
+
     /**
      * Fits a vector classifier on data frame.
      *
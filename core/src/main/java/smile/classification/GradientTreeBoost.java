@@ -215,8 +215,16 @@ public class GradientTreeBoost extends AbstractClassifier<Tuple> implements Data
      *                 Setting nodeSize = 5 generally gives good results.
      * @param shrinkage the shrinkage parameter in (0, 1] controls the learning rate of procedure.
      * @param subsample the sampling fraction for stochastic tree boosting.
+     * @param maxBins the maximum number of quantile bins of ordinal columns
+     *                for histogram-based split finding. If 0, the exact splits
+     *                are searched on the sorted values. 255 bins is usually
+     *                a good trade-off between speed and accuracy.
+     * @param patience the number of iterations without improvement of
+     *                 the validation loss before the training stops early.
+     *                 If 0, all trees are trained. It takes effect only
+     *                 if a validation data set is provided.
      */
-    public record Options(int ntrees, int maxDepth, int maxNodes, int nodeSize, double shrinkage, double subsample) {
+    public record Options(int ntrees, int maxDepth, int maxNodes, int nodeSize, double shrinkage, double subsample, int maxBins, int patience) {
         /** Constructor. */
         public Options {
             if (ntrees < 1) {
@@ -242,6 +250,14 @@ public class GradientTreeBoost extends AbstractClassifier<Tuple> implements Data
             if (subsample <= 0 || subsample > 1) {
                 throw new IllegalArgumentException("Invalid sampling fraction: " + subsample);
             }
+
+            if (maxBins != 0 && (maxBins < 2 || maxBins > Bins.MAX_BINS)) {
+                throw new IllegalArgumentException("Invalid maximum number of bins: " + maxBins);
+            }
+
+            if (patience < 0) {
+                throw new IllegalArgumentException("Invalid patience: " + patience);
+            }
         }
 
         /** Constructor. */
@@ -249,6 +265,37 @@ public class GradientTreeBoost extends AbstractClassifier<Tuple> implements Data
             this(500, 20, 6, 5, 0.05, 0.7);
         }
 
+        /**
+         * Constructor.
+         * @param ntrees the number of iterations (trees).
+         * @param maxDepth the maximum depth of the tree.
+         * @param maxNodes the maximum number of leaf nodes in the tree.
+         * @param nodeSize the minimum size of leaf nodes.
+         *                 Setting nodeSize = 5 generally gives good results.
+         * @param shrinkage the shrinkage parameter in (0, 1] controls the learning rate of procedure.
+         * @param subsample the sampling fraction for stochastic tree boosting.
+         */
+        public Options(int ntrees, int maxDepth, int maxNodes, int nodeSize, double shrinkage, double subsample) {
+            this(ntrees, maxDepth, maxNodes, nodeSize, shrinkage, subsample, 0);
+        }
+
+        /**
+         * Constructor.
+         * @param ntrees the number of iterations (trees).
+         * @param maxDepth the maximum depth of the tree.
+         * @param maxNodes the maximum number of leaf nodes in the tree.
+         * @param nodeSize the minimum size of leaf nodes.
+         *                 Setting nodeSize = 5 generally gives good results.
+         * @param shrinkage the shrinkage parameter in (0, 1] controls the learning rate of procedure.
+         * @param subsample the sampling fraction for stochastic tree boosting.
+         * @param maxBins the maximum number of quantile bins of ordinal columns
+         *                for histogram-based split finding. If 0, the exact splits
+         *                are searched on the sorted values.
+         */
+        public Options(int ntrees, int maxDepth, int maxNodes, int nodeSize, double shrinkage, double subsample, int maxBins) {
+            this(ntrees, maxDepth, maxNodes, nodeSize, shrinkage, subsample, maxBins, 0);
+        }
+
         /**
          * Returns the persistent set of hyperparameters.
          * @return the persistent set.
@@ -261,6 +308,8 @@ public class GradientTreeBoost extends AbstractClassifier<Tuple> implements Data
             props.setProperty("smile.gradient_boost.node_size", Integer.toString(nodeSize));
             props.setProperty("smile.gradient_boost.shrinkage", Double.toString(shrinkage));
             props.setProperty("smile.gradient_boost.sampling_rate", Double.toString(subsample));
+            props.setProperty("smile.gradient_boost.max_bins", Integer.toString(maxBins));
+            props.setProperty("smile.gradient_boost.patience", Integer.toString(patience));
             return props;
         }
 
@@ -277,7 +326,9 @@ public class GradientTreeBoost extends AbstractClassifier<Tuple> implements Data
             int nodeSize = Integer.parseInt(props.getProperty("smile.gradient_boost.node_size", "5"));
             double shrinkage = Double.parseDouble(props.getProperty("smile.gradient_boost.shrinkage", "0.05"));
             double subsample = Double.parseDouble(props.getProperty("smile.gradient_boost.sampling_rate", "0.7"));
-            return new Options(ntrees, maxDepth, maxNodes, nodeSize, shrinkage, subsample);
+            int maxBins = Integer.parseInt(props.getProperty("smile.gradient_boost.max_bins", "0"));
+            int patience = Integer.parseInt(props.getProperty("smile.gradient_boost.patience", "0"));
+            return new Options(ntrees, maxDepth, maxNodes, nodeSize, shrinkage, subsample, maxBins, patience);
         }
     }
 
@@ -301,17 +352,44 @@ public class GradientTreeBoost extends AbstractClassifier<Tuple> implements Data
      * @return the model.
      */
     public static GradientTreeBoost fit(Formula formula, DataFrame data, Options options) {
+        return fit(formula, data, null, options);
+    }
+
+    /**
+     * Fits a gradient tree boosting for classification with early stopping.
+     * The outputs on the validation data are updated incrementally with
+     * each new tree. The training stops if the validation log loss doesn't
+     * improve for {@code options.patience} iterations, and the returned
+     * model is trimmed to the iteration with the lowest validation loss.
+     * If the patience is 0, the validation loss is only logged and all
+     * trees are kept.
+     *
+     * @param formula    a symbolic description of the model to be fitted.
+     * @param data       the data frame of the explanatory and response variables.
+     * @param validation the validation data to monitor the loss. May be null.
+     * @param options    the hyperparameters.
+     * @return the model.
+     */
+    public static GradientTreeBoost fit(Formula formula, DataFrame data, DataFrame validation, Options options) {
         formula = formula.expand(data.schema());
         DataFrame x = formula.x(data);
         ValueVector y = formula.y(data);
 
-        int[][] order = CART.order(x);
+        Bins bins = options.maxBins > 0 ? Bins.of(x, options.maxBins) : null;
+        int[][] order = bins == null ? CART.order(x) : null;
         ClassLabels codec = ClassLabels.fit(y);
 
+        DataFrame vx = null;
+        int[] vy = null;
+        if (validation != null) {
+            vx = formula.x(validation);
+            vy = codec.indexOf(formula.y(validation).toIntArray());
+        }
+
         if (codec.k == 2) {
-            return train2(formula, x, codec, order, options.ntrees, options.maxDepth, options.maxNodes, options.nodeSize, options.shrinkage, options.subsample);
+            return train2(formula, x, codec, order, bins, vx, vy, options);
         } else {
-            return traink(formula, x, codec, order, options.ntrees, options.maxDepth, options.maxNodes, options.nodeSize, options.shrinkage, options.subsample);
+            return traink(formula, x, codec, order, bins, vx, vy, options);
         }
     }
 
@@ -341,11 +419,13 @@ public class GradientTreeBoost extends AbstractClassifier<Tuple> implements Data
     /**
      * Train L2 tree boost.
      */
-    private static GradientTreeBoost train2(Formula formula, DataFrame x, ClassLabels codec, int[][] order, int ntrees, int maxDepth, int maxNodes, int nodeSize, double shrinkage, double subsample) {
+    private static GradientTreeBoost train2(Formula formula, DataFrame x, ClassLabels codec, int[][] order, Bins bins, DataFrame vx, int[] vy, Options options) {
         int n = x.nrow();
         int p = x.ncol();
         int k = codec.k;
         int[] y = codec.y;
+        int ntrees = options.ntrees;
+        double shrinkage = options.shrinkage;
 
         int[] nc = new int[k];
         for (int i = 0; i < n; i++) nc[y[i]]++;
@@ -360,16 +440,48 @@ public class GradientTreeBoost extends AbstractClassifier<Tuple> implements Data
         int[] permutation = IntStream.range(0, n).toArray();
         int[] samples = new int[n];
 
+        double[] vh = null; // the boost tree output on validation data.
+        if (vx != null) {
+            vh = new double[vx.size()];
+            Arrays.fill(vh, b);
+        }
+
+        int size = ntrees;
+        double bestLoss = Double.POSITIVE_INFINITY;
         for (int t = 0; t < ntrees; t++) {
-            sampling(samples, permutation, nc, y, subsample);
+            sampling(samples, permutation, nc, y, options.subsample);
 
             logger.info("Training {} binary trees", Strings.ordinal(t+1));
-            RegressionTree tree = new RegressionTree(x, loss, field, maxDepth, maxNodes, nodeSize, p, samples, order);
+            RegressionTree tree = new RegressionTree(x, loss, field, options.maxDepth, options.maxNodes, options.nodeSize, p, samples, order, bins);
             trees[t] = tree;
 
             for (int i = 0; i < n; i++) {
                 h[i] += shrinkage * tree.predict(x.get(i));
             }
+
+            if (vx != null) {
+                double validationLoss = 0.0;
+                for (int i = 0; i < vh.length; i++) {
+                    vh[i] += shrinkage * tree.predict(vx.get(i));
+                    // The output is half of log odds.
+                    double z = vy[i] == 1 ? -2 * vh[i] : 2 * vh[i];
+                    validationLoss += z > 0 ? z + Math.log1p(Math.exp(-z)) : Math.log1p(Math.exp(z));
+                }
+
+                validationLoss /= vh.length;
+                logger.info("Validation log loss after {} trees: {}", t+1, validationLoss);
+                if (validationLoss < bestLoss) {
+                    bestLoss = validationLoss;
+                    size = t + 1;
+                } else if (options.patience > 0 && t + 1 - size >= options.patience) {
+                    logger.info("Early stopping after {} trees", t+1);
+                    break;
+                }
+            }
+        }
+
+        if (options.patience > 0 && size < ntrees) {
+            trees = Arrays.copyOf(trees, size);
         }
 
         double[] importance = new double[p];
@@ -386,13 +498,14 @@ public class GradientTreeBoost extends AbstractClassifier<Tuple> implements Data
     /**
      * Train L-k tree boost.
      */
-    private static GradientTreeBoost traink(Formula formula, DataFrame x, ClassLabels codec, int[][] order,
-                                            int ntrees, int maxDepth, int maxNodes, int nodeSize,
-                                            double shrinkage, double subsample) {
+    private static GradientTreeBoost traink(Formula formula, DataFrame x, ClassLabels codec, int[][] order, Bins bins,
+                                            DataFrame vx, int[] vy, Options options) {
         int n = x.size();
         int p = x.ncol();
         int k = codec.k;
         int[] y = codec.y;
+        int ntrees = options.ntrees;
+        double shrinkage = options.shrinkage;
 
         int[] nc = new int[k];
         for (int i = 0; i < n; i++) nc[y[i]]++;
@@ -411,6 +524,13 @@ public class GradientTreeBoost extends AbstractClassifier<Tuple> implements Data
         int[] permutation = IntStream.range(0, n).toArray();
         int[] samples = new int[n];
 
+        double[][] vh = null; // the boost tree output on validation data.
+        if (vx != null) {
+            vh = new double[vx.size()][k];
+        }
+
+        int size = ntrees;
+        double bestLoss = Double.POSITIVE_INFINITY;
         for (int t = 0; t < ntrees; t++) {
             logger.info("Training {} multiclass trees", Strings.ordinal(t+1));
             for (int i = 0; i < n; i++) {
@@ -421,9 +541,9 @@ public class GradientTreeBoost extends AbstractClassifier<Tuple> implements Data
             }
 
             for (int j = 0; j < k; j++) {
-                sampling(samples, permutation, nc, y, subsample);
+                sampling(samples, permutation, nc, y, options.subsample);
 
-                RegressionTree tree = new RegressionTree(x, loss[j], field, maxDepth, maxNodes, nodeSize, p, samples, order);
+                RegressionTree tree = new RegressionTree(x, loss[j], field, options.maxDepth, options.maxNodes, options.nodeSize, p, samples, order, bins);
                 forest[j][t] = tree;
 
                 double[] hj = h[j];
@@ -431,6 +551,41 @@ public class GradientTreeBoost extends AbstractClassifier<Tuple> implements Data
                     hj[i] += shrinkage * tree.predict(x.get(i));
                 }
             }
+
+            if (vx != null) {
+                double validationLoss = 0.0;
+                for (int i = 0; i < vh.length; i++) {
+                    Tuple xi = vx.get(i);
+                    double[] hi = vh[i];
+                    for (int j = 0; j < k; j++) {
+                        hi[j] += shrinkage * forest[j][t].predict(xi);
+                    }
+
+                    // Cross entropy -log(softmax(h)[y]) computed stably.
+                    double max = MathEx.max(hi);
+                    double sum = 0.0;
+                    for (int j = 0; j < k; j++) {
+                        sum += Math.exp(hi[j] - max);
+                    }
+                    validationLoss += max + Math.log(sum) - hi[vy[i]];
+                }
+
+                validationLoss /= vh.length;
+                logger.info("Validation log loss after {} trees: {}", t+1, validationLoss);
+                if (validationLoss < bestLoss) {
+                    bestLoss = validationLoss;
+                    size = t + 1;
+                } else if (options.patience > 0 && t + 1 - size >= options.patience) {
+                    logger.info("Early stopping after {} trees", t+1);
+                    break;
+                }
+            }
+        }
+
+        if (options.patience > 0 && size < ntrees) {
+            for (int j = 0; j < k; j++) {
+                forest[j] = Arrays.copyOf(forest[j], size);
+            }
         }
 
         double[] importance = new double[p];
@@ -594,6 +749,32 @@ public class GradientTreeBoost extends AbstractClassifier<Tuple> implements Data
         }
     }
 
+    /**
+     * Compiles the model into flat arrays for fast batch inference.
+     *
+     * @return the compiled model.
+     */
+    public FlatForest compile() {
+        int ntrees = trees[0].length;
+        if (k == 2) {
+            double[] weight = new double[ntrees];
+            Arrays.fill(weight, shrinkage);
+            return new FlatForest(formula, trees[0], new int[ntrees], weight, new double[] {b}, FlatForest.Link.LOGISTIC, classes);
+        } else {
+            CART[] forest = new CART[k * ntrees];
+            int[] offset = new int[k * ntrees];
+            double[] weight = new double[k * ntrees];
+            for (int j = 0; j < k; j++) {
+                for (int i = 0; i < ntrees; i++) {
+                    forest[j * ntrees + i] = trees[j][i];
+                    offset[j * ntrees + i] = j;
+                    weight[j * ntrees + i] = shrinkage;
+                }
+            }
+            return new FlatForest(formula, forest, offset, weight, new double[k], FlatForest.Link.SOFTMAX, classes);
+        }
+    }
+
     /**
      * Test the model on a validation dataset.
      *
@@ -645,6 +826,46 @@ public class GradientTreeBoost extends AbstractClassifier<Tuple> implements Data
         return shap(data.stream().parallel());
     }
 
+    /**
+     * Returns the SHAP values of each row of a data frame. The trees are
+     * compiled into flat arrays once and the rows are explained in
+     * parallel, which is much faster than calling {@link #shap(Tuple)}
+     * row by row on large data.
+     * @param data the data set.
+     * @return the SHAP values of size {@code n x (p * k)}, where
+     *         {@code p} is the number of predictors.
+     */
+    public double[][] shapValues(DataFrame data) {
+        int ntrees = trees[0].length;
+        if (k == 2) {
+            double[] weight = new double[ntrees];
+            Arrays.fill(weight, 1.0 / ntrees);
+            FlatTreeSHAP explainer = new FlatTreeSHAP(formula, trees[0], new int[ntrees], weight, 1);
+            double[][] phi = explainer.shap(data);
+            for (int i = 0; i < phi.length; i++) {
+                double[] phii = phi[i];
+                double[] shap = new double[2 * phii.length];
+                for (int j = 0; j < phii.length; j++) {
+                    shap[2*j] = phii[j];
+                    shap[2*j+1] = phii[j];
+                }
+                phi[i] = shap;
+            }
+            return phi;
+        }
+
+        RegressionTree[] forest = new RegressionTree[ntrees * k];
+        int[] offset = new int[forest.length];
+        double[] weight = new double[forest.length];
+        Arrays.fill(weight, 1.0 / ntrees);
+        for (int l = 0; l < k; l++) {
+            System.arraycopy(trees[l], 0, forest, l * ntrees, ntrees);
+            Arrays.fill(offset, l * ntrees, (l + 1) * ntrees, l);
+        }
+        FlatTreeSHAP explainer = new FlatTreeSHAP(formula, forest, offset, weight, k);
+        return explainer.shap(data);
+    }
+
     @Override
     public double[] shap(Tuple x) {
         Tuple xt = formula.x(x);
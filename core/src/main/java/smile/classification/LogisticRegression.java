@@ -19,10 +19,13 @@ package smile.classification;
 import java.io.Serial;
 import java.util.Arrays;
 import java.util.Properties;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 import smile.math.MathEx;
 import smile.math.DifferentiableMultivariateFunction;
 import smile.math.BFGS;
+import smile.math.blas.Transpose;
 import smile.util.IntSet;
 import smile.validation.ModelSelection;
 
@@ -377,63 +380,176 @@ public abstract class LogisticRegression extends AbstractClassifier<double[]> {
      * @return the model.
      */
     public static Binomial binomial(double[][] x, int[] y, Options options) {
-        if (x.length != y.length) {
-            throw new IllegalArgumentException(String.format("The sizes of X and Y don't match: %d != %d", x.length, y.length));
-        }
+        return binomial(x.length, x[0].length, y, options, labels -> new BinomialObjective(x, labels, options.lambda));
+    }
+
+    /**
+     * Fits multinomial logistic regression.
+     * @param x training samples.
+     * @param y training labels.
+     * @return the model.
+     */
+    public static Multinomial multinomial(double[][] x, int[] y) {
+        return multinomial(x, y, new Options());
+    }
+
+    /**
+     * Fits multinomial logistic regression.
+     *
+     * @param x training samples.
+     * @param y training labels.
+     * @param options the hyperparameters.
+     * @return the model.
+     */
+    public static Multinomial multinomial(double[][] x, int[] y, Options options) {
+        return multinomial(x.length, x[0].length, y, options, (labels, k) -> new MultinomialObjective(x, labels, k, options.lambda));
+    }
 
-        int p = x[0].length;
+    /**
+     * Fits logistic regression.
+     * @param x training samples.
+     * @param y training labels.
+     * @return the model.
+     */
+    public static LogisticRegression fit(double[][] x, int[] y) {
+        return fit(x, y, new Options());
+    }
+
+    /**
+     * Fits logistic regression.
+     *
+     * @param x training samples.
+     * @param y training labels.
+     * @param options the hyperparameters.
+     * @return the model.
+     */
+    public static LogisticRegression fit(double[][] x, int[] y, Options options) {
         ClassLabels codec = ClassLabels.fit(y);
-        int k = codec.k;
-        y = codec.y;
+        if (codec.k == 2)
+            return binomial(x, y, options);
+        else
+            return multinomial(x, y, options);
+    }
 
-        if (k != 2) {
-            throw new IllegalArgumentException("Fits binomial model on multi-class data.");
-        }
+    /**
+     * Fits logistic regression.
+     * @param x training samples.
+     * @param y training labels.
+     * @param params the hyperparameters.
+     * @return the model.
+     */
+    public static LogisticRegression fit(double[][] x, int[] y, Properties params) {
+        return fit(x, y, Options.of(params));
+    }
 
-        BinomialObjective objective = new BinomialObjective(x, y, options.lambda);
-        double[] w = new double[p + 1];
-        double L = -BFGS.minimize(objective, 5, w, options.tol, options.maxIter);
+    /**
+     * Fits binomial logistic regression on single precision data.
+     * @param x training samples.
+     * @param y training labels.
+     * @return the model.
+     */
+    public static Binomial binomial(float[][] x, int[] y) {
+        return binomial(x, y, new Options());
+    }
 
-        Binomial model = new Binomial(w, L, options.lambda, codec.classes);
-        model.setLearningRate(0.1 / x.length);
-        return model;
+    /**
+     * Fits binomial logistic regression on single precision data.
+     * The samples stay in single precision and the logits and gradients
+     * are computed by BLAS sgemv, which halves the memory footprint and
+     * bandwidth. The log-likelihood is accumulated and the weights are
+     * optimized in double precision. As the gradient has a relative error
+     * about 1E-7, the model agrees with the one fitted on double precision
+     * data up to the tolerance of optimization.
+     *
+     * @param x training samples.
+     * @param y training labels.
+     * @param options the hyperparameters.
+     * @return the model.
+     */
+    public static Binomial binomial(float[][] x, int[] y, Options options) {
+        return binomial(x.length, x[0].length, y, options, labels -> new FloatBinomialObjective(x, labels, options.lambda));
     }
 
     /**
-     * Fits multinomial logistic regression.
+     * Fits multinomial logistic regression on single precision data.
      * @param x training samples.
      * @param y training labels.
      * @return the model.
      */
-    public static Multinomial multinomial(double[][] x, int[] y) {
+    public static Multinomial multinomial(float[][] x, int[] y) {
         return multinomial(x, y, new Options());
     }
 
     /**
-     * Fits multinomial logistic regression.
+     * Fits multinomial logistic regression on single precision data.
+     * The samples stay in single precision and the logits and gradients
+     * are computed by BLAS sgemm, which halves the memory footprint and
+     * bandwidth. The log-likelihood is accumulated and the weights are
+     * optimized in double precision.
      *
      * @param x training samples.
      * @param y training labels.
      * @param options the hyperparameters.
      * @return the model.
      */
-    public static Multinomial multinomial(double[][] x, int[] y, Options options) {
-        if (x.length != y.length) {
-            throw new IllegalArgumentException(String.format("The sizes of X and Y don't match: %d != %d", x.length, y.length));
+    public static Multinomial multinomial(float[][] x, int[] y, Options options) {
+        return multinomial(x.length, x[0].length, y, options, (labels, k) -> new FloatMultinomialObjective(x, labels, k, options.lambda));
+    }
+
+    /**
+     * Fits binomial logistic regression by minimizing the negative
+     * log-likelihood with BFGS.
+     *
+     * @param n the number of training samples.
+     * @param p the dimension of feature space.
+     * @param y training labels.
+     * @param options the hyperparameters.
+     * @param objective the objective function of encoded labels.
+     * @return the model.
+     */
+    private static Binomial binomial(int n, int p, int[] y, Options options, Function<int[], DifferentiableMultivariateFunction> objective) {
+        if (n != y.length) {
+            throw new IllegalArgumentException(String.format("The sizes of X and Y don't match: %d != %d", n, y.length));
         }
 
-        int p = x[0].length;
         ClassLabels codec = ClassLabels.fit(y);
-        int k = codec.k;
-        y = codec.y;
+        if (codec.k != 2) {
+            throw new IllegalArgumentException("Fits binomial model on multi-class data.");
+        }
+
+        double[] w = new double[p + 1];
+        double L = -BFGS.minimize(objective.apply(codec.y), 5, w, options.tol, options.maxIter);
+
+        Binomial model = new Binomial(w, L, options.lambda, codec.classes);
+        model.setLearningRate(0.1 / n);
+        return model;
+    }
+
+    /**
+     * Fits multinomial logistic regression by minimizing the negative
+     * log-likelihood with BFGS.
+     *
+     * @param n the number of training samples.
+     * @param p the dimension of feature space.
+     * @param y training labels.
+     * @param options the hyperparameters.
+     * @param objective the objective function of encoded labels and
+     *                  the number of classes.
+     * @return the model.
+     */
+    private static Multinomial multinomial(int n, int p, int[] y, Options options, BiFunction<int[], Integer, DifferentiableMultivariateFunction> objective) {
+        if (n != y.length) {
+            throw new IllegalArgumentException(String.format("The sizes of X and Y don't match: %d != %d", n, y.length));
+        }
 
+        ClassLabels codec = ClassLabels.fit(y);
+        int k = codec.k;
         if (k <= 2) {
             throw new IllegalArgumentException("Fits multinomial model on binary class data.");
         }
 
-        MultinomialObjective objective = new MultinomialObjective(x, y, k, options.lambda);
         double[] w = new double[(k - 1) * (p + 1)];
-        double L = -BFGS.minimize(objective, 5, w, options.tol, options.maxIter);
+        double L = -BFGS.minimize(objective.apply(codec.y, k), 5, w, options.tol, options.maxIter);
 
         double[][] W = new double[k-1][p+1];
         for (int i = 0, l = 0; i < k-1; i++) {
@@ -443,29 +559,29 @@ public abstract class LogisticRegression extends AbstractClassifier<double[]> {
         }
 
         Multinomial model = new Multinomial(W, L, options.lambda, codec.classes);
-        model.setLearningRate(0.1 / x.length);
+        model.setLearningRate(0.1 / n);
         return model;
     }
 
     /**
-     * Fits logistic regression.
+     * Fits logistic regression on single precision data.
      * @param x training samples.
      * @param y training labels.
      * @return the model.
      */
-    public static LogisticRegression fit(double[][] x, int[] y) {
+    public static LogisticRegression fit(float[][] x, int[] y) {
         return fit(x, y, new Options());
     }
 
     /**
-     * Fits logistic regression.
+     * Fits logistic regression on single precision data.
      *
      * @param x training samples.
      * @param y training labels.
      * @param options the hyperparameters.
      * @return the model.
      */
-    public static LogisticRegression fit(double[][] x, int[] y, Options options) {
+    public static LogisticRegression fit(float[][] x, int[] y, Options options) {
         ClassLabels codec = ClassLabels.fit(y);
         if (codec.k == 2)
             return binomial(x, y, options);
@@ -473,17 +589,6 @@ public abstract class LogisticRegression extends AbstractClassifier<double[]> {
             return multinomial(x, y, options);
     }
 
-    /**
-     * Fits logistic regression.
-     * @param x training samples.
-     * @param y training labels.
-     * @param params the hyperparameters.
-     * @return the model.
-     */
-    public static LogisticRegression fit(double[][] x, int[] y, Properties params) {
-        return fit(x, y, Options.of(params));
-    }
-
     /**
      * Binary-class logistic regression objective function.
      */
@@ -541,13 +646,7 @@ public abstract class LogisticRegression extends AbstractClassifier<double[]> {
                 return MathEx.log1pe(wx) - y[i] * wx;
             }).sum();
 
-            if (lambda > 0.0) {
-                double wnorm = 0.0;
-                for (int i = 0; i < p; i++) wnorm += w[i] * w[i];
-                f += 0.5 * lambda * wnorm;
-            }
-
-            return f;
+            return f + penalty(w, null, p, lambda);
         }
 
         @Override
@@ -580,16 +679,7 @@ public abstract class LogisticRegression extends AbstractClassifier<double[]> {
                 }
             }
 
-            if (lambda > 0.0) {
-                double wnorm = 0.0;
-                for (int i = 0; i < p; i++) {
-                    wnorm += w[i] * w[i];
-                    g[i] += lambda * w[i];
-                }
-                f += 0.5 * lambda * wnorm;
-            }
-
-            return f;
+            return f + penalty(w, g, p, lambda);
         }
     }
 
@@ -671,18 +761,7 @@ public abstract class LogisticRegression extends AbstractClassifier<double[]> {
                 }).sum();
             }).sum();
 
-            if (lambda > 0.0) {
-                double wnorm = 0.0;
-                for (int i = 0; i < k-1; i++) {
-                    for (int j = 0, pos = i * (p+1); j < p; j++) {
-                        double wi = w[pos + j];
-                        wnorm += wi * wi;
-                    }
-                }
-                f += 0.5 * lambda * wnorm;
-            }
-
-            return f;
+            return f + penalty(w, null, p, lambda);
         }
 
         @Override
@@ -725,20 +804,247 @@ public abstract class LogisticRegression extends AbstractClassifier<double[]> {
                 }
             }
 
-            if (lambda > 0.0) {
-                double wnorm = 0.0;
-                for (int i = 0; i < k-1; i++) {
-                    for (int j = 0, pos = i * (p+1); j < p; j++) {
-                        double wi = w[pos + j];
-                        wnorm += wi * wi;
-                        g[pos + j] += lambda * wi;
+            return f + penalty(w, g, p, lambda);
+        }
+    }
+
+    /**
+     * Binary-class logistic regression objective function
+     * on single precision data.
+     */
+    static class FloatBinomialObjective implements DifferentiableMultivariateFunction {
+        /**
+         * Training instances.
+         */
+        final smile.math.matrix.fp32.Matrix x;
+        /**
+         * Training labels.
+         */
+        final int[] y;
+        /**
+         * The dimension of feature space.
+         */
+        final int p;
+        /**
+         * Regularization factor.
+         */
+        final double lambda;
+        /**
+         * The workspace of weights.
+         */
+        final float[] w;
+        /**
+         * The workspace of logits and errors.
+         */
+        final float[] z;
+        /**
+         * The workspace of gradient.
+         */
+        final float[] gradient;
+
+        /**
+         * Constructor.
+         */
+        FloatBinomialObjective(float[][] x, int[] y, double lambda) {
+            this.x = smile.math.matrix.fp32.Matrix.of(x);
+            this.y = y;
+            this.lambda = lambda;
+            this.p = x[0].length;
+            this.w = new float[p];
+            this.z = new float[x.length];
+            this.gradient = new float[p];
+        }
+
+        /**
+         * Computes the logits {@code x * w + b}.
+         */
+        private void logits(double[] w) {
+            for (int i = 0; i < p; i++) {
+                this.w[i] = (float) w[i];
+            }
+            x.mv(this.w, z);
+        }
+
+        @Override
+        public double f(double[] w) {
+            logits(w);
+            double b = w[p];
+            double f = IntStream.range(0, z.length).parallel().mapToDouble(i -> {
+                double wx = z[i] + b;
+                return MathEx.log1pe(wx) - y[i] * wx;
+            }).sum();
+
+            return f + penalty(w, null, p, lambda);
+        }
+
+        @Override
+        public double g(double[] w, double[] g) {
+            logits(w);
+            double b = w[p];
+            double f = IntStream.range(0, z.length).parallel().mapToDouble(i -> {
+                double wx = z[i] + b;
+                // z is overwritten with the error.
+                z[i] = (float) (y[i] - MathEx.sigmoid(wx));
+                return MathEx.log1pe(wx) - y[i] * wx;
+            }).sum();
+
+            x.tv(z, gradient);
+            double bias = 0.0;
+            for (float err : z) bias += err;
+
+            for (int i = 0; i < p; i++) {
+                g[i] = -gradient[i];
+            }
+            g[p] = -bias;
+
+            return f + penalty(w, g, p, lambda);
+        }
+    }
+
+    /**
+     * Multi-class logistic regression objective function
+     * on single precision data.
+     */
+    static class FloatMultinomialObjective implements DifferentiableMultivariateFunction {
+        /**
+         * Training instances.
+         */
+        final smile.math.matrix.fp32.Matrix x;
+        /**
+         * Training labels.
+         */
+        final int[] y;
+        /**
+         * The number of classes.
+         */
+        final int k;
+        /**
+         * The dimension of feature space.
+         */
+        final int p;
+        /**
+         * Regularization factor.
+         */
+        final double lambda;
+        /**
+         * The workspace of weights, of which each column is for a class.
+         */
+        final smile.math.matrix.fp32.Matrix W;
+        /**
+         * The workspace of logits and errors.
+         */
+        final smile.math.matrix.fp32.Matrix Z;
+        /**
+         * The workspace of gradient.
+         */
+        final smile.math.matrix.fp32.Matrix G;
+        /**
+         * The workspace of posteriori probability for each thread.
+         */
+        final ThreadLocal<double[]> posteriori;
+
+        /**
+         * Constructor.
+         */
+        FloatMultinomialObjective(float[][] x, int[] y, int k, double lambda) {
+            this.x = smile.math.matrix.fp32.Matrix.of(x);
+            this.y = y;
+            this.k = k;
+            this.lambda = lambda;
+            this.p = x[0].length;
+            this.W = new smile.math.matrix.fp32.Matrix(p, k-1);
+            this.Z = new smile.math.matrix.fp32.Matrix(x.length, k-1);
+            this.G = new smile.math.matrix.fp32.Matrix(p, k-1);
+            this.posteriori = ThreadLocal.withInitial(() -> new double[k]);
+        }
+
+        /**
+         * Computes the logits {@code x * W}, and returns the
+         * posteriori probabilities or errors.
+         * @param w the weights.
+         * @param error if true, overwrites the logits with the errors.
+         * @return the negative log-likelihood.
+         */
+        private double logits(double[] w, boolean error) {
+            for (int j = 0; j < k-1; j++) {
+                for (int l = 0, pos = j * (p+1); l < p; l++) {
+                    W.set(l, j, (float) w[pos + l]);
+                }
+            }
+            Z.mm(Transpose.NO_TRANSPOSE, x, Transpose.NO_TRANSPOSE, W);
+
+            return IntStream.range(0, Z.nrow()).parallel().mapToDouble(i -> {
+                double[] posteriori = this.posteriori.get();
+                posteriori[k - 1] = 0.0;
+                for (int j = 0; j < k - 1; j++) {
+                    posteriori[j] = Z.get(i, j) + w[j * (p+1) + p];
+                }
+
+                MathEx.softmax(posteriori);
+
+                if (error) {
+                    for (int j = 0; j < k - 1; j++) {
+                        Z.set(i, j, (float) ((y[i] == j ? 1.0 : 0.0) - posteriori[j]));
                     }
                 }
-                f += 0.5 * lambda * wnorm;
+
+                return -MathEx.log(posteriori[y[i]]);
+            }).sum();
+        }
+
+        @Override
+        public double f(double[] w) {
+            double f = logits(w, false);
+
+            return f + penalty(w, null, p, lambda);
+        }
+
+        @Override
+        public double g(double[] w, double[] g) {
+            double f = logits(w, true);
+            G.mm(Transpose.TRANSPOSE, x, Transpose.NO_TRANSPOSE, Z);
+
+            int n = Z.nrow();
+            for (int j = 0; j < k - 1; j++) {
+                int pos = j * (p + 1);
+                for (int l = 0; l < p; l++) {
+                    g[pos + l] = -G.get(l, j);
+                }
+
+                double bias = 0.0;
+                for (int i = 0; i < n; i++) {
+                    bias += Z.get(i, j);
+                }
+                g[pos + p] = -bias;
             }
 
-            return f;
+            return f + penalty(w, g, p, lambda);
+        }
+    }
+
+    /**
+     * Returns the L2 penalty of weights, excluding the intercepts, and
+     * adds its gradient to g. The weights are in blocks of p + 1,
+     * one block per class (except the last), with the intercept at
+     * the end of block.
+     * @param w the weights.
+     * @param g the gradient, which may be null.
+     * @param p the dimension of feature space.
+     * @param lambda the regularization factor.
+     * @return the penalty.
+     */
+    private static double penalty(double[] w, double[] g, int p, double lambda) {
+        if (lambda <= 0.0) return 0.0;
+
+        double wnorm = 0.0;
+        for (int pos = 0; pos < w.length; pos += p + 1) {
+            for (int j = 0; j < p; j++) {
+                double wi = w[pos + j];
+                wnorm += wi * wi;
+                if (g != null) g[pos + j] += lambda * wi;
+            }
         }
+        return 0.5 * lambda * wnorm;
     }
 
     /**
@@ -23,8 +23,8 @@ import java.util.Properties;
 
 import smile.base.mlp.*;
 import smile.math.MathEx;
+import smile.math.matrix.Matrix;
 import smile.util.IntSet;
-import smile.util.Strings;
 
 /**
  * Fully connected multilayer perceptron neural network for classification.
@@ -110,7 +110,6 @@ import smile.util.Strings;
 public class MLP extends MultilayerPerceptron implements Classifier<double[]>, Serializable {
     @Serial
     private static final long serialVersionUID = 2L;
-    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MLP.class);
 
     /**
      * The number of classes.
@@ -221,13 +220,46 @@ public class MLP extends MultilayerPerceptron implements Classifier<double[]>, S
     /** Updates the model with a mini-batch. RMSProp is applied if {@code rho > 0}. */
     @Override
     public void update(double[][] x, int[] y) {
-        for (int i = 0; i < x.length; i++) {
-            propagate(x[i], true);
-            setTarget(classes.indexOf(y[i]));
-            backpropagate(false);
+        int m = x.length;
+        propagate(x, true);
+
+        Matrix target = batchTarget(m);
+        int n = target.nrow();
+        for (int j = 0; j < m; j++) {
+            setTarget(classes.indexOf(y[j]));
+            double[] tj = this.target.get();
+            for (int i = 0; i < n; i++) {
+                target.set(i, j, tj[i]);
+            }
+        }
+
+        backpropagate(target);
+        update(m);
+        t++;
+    }
+
+    /**
+     * Updates the model with a mini-batch of float data in single
+     * precision. RMSProp is applied if {@code rho > 0}.
+     * @param x the training instances.
+     * @param y the training labels.
+     */
+    public void update(float[][] x, int[] y) {
+        int m = x.length;
+        propagate(x, true);
+
+        smile.math.matrix.fp32.Matrix target = floatBatchTarget(m);
+        int n = target.nrow();
+        for (int j = 0; j < m; j++) {
+            setTarget(classes.indexOf(y[j]));
+            double[] tj = this.target.get();
+            for (int i = 0; i < n; i++) {
+                target.set(i, j, (float) tj[i]);
+            }
         }
 
-        update(x.length);
+        backpropagate(target);
+        update(m);
         t++;
     }
 
@@ -264,26 +296,30 @@ public class MLP extends MultilayerPerceptron implements Classifier<double[]>, S
 
         int epochs = Integer.parseInt(params.getProperty("smile.mlp.epochs", "100"));
         int batch = Integer.parseInt(params.getProperty("smile.mlp.mini_batch", "32"));
-        double[][] batchx = new double[batch][];
-        int[] batchy = new int[batch];
-        for (int epoch = 1; epoch <= epochs; epoch++) {
-            logger.info("{} epoch", Strings.ordinal(epoch));
-            int[] permutation = MathEx.permutate(x.length);
-            for (int i = 0; i < x.length; i += batch) {
-                int size = Math.min(batch, x.length - i);
-                for (int j = 0; j < size; j++) {
-                    int index = permutation[i + j];
-                    batchx[j] = x[index];
-                    batchy[j] = y[index];
-                }
-
-                if (size < batch) {
-                    model.update(Arrays.copyOf(batchx, size), Arrays.copyOf(batchy, size));
-                } else {
-                    model.update(batchx, batchy);
-                }
-            }
-        }
+        train(x.length, epochs, batch, index -> model.update(MathEx.slice(x, index), MathEx.slice(y, index)));
+
+        return model;
+    }
+
+    /**
+     * Fits a MLP model with float data. The mini-batches are trained
+     * in single precision and the model predicts double vectors as usual.
+     * @param x the training dataset.
+     * @param y the training labels.
+     * @param params the hyperparameters.
+     * @return the model.
+     */
+    public static MLP fit(float[][] x, int[] y, Properties params) {
+        int p = x[0].length;
+        int k = MathEx.max(y) + 1;
+
+        LayerBuilder[] layers = Layer.of(k, p, params.getProperty("smile.mlp.layers", "ReLU(100)"));
+        MLP model = new MLP(layers);
+        model.setParameters(params);
+
+        int epochs = Integer.parseInt(params.getProperty("smile.mlp.epochs", "100"));
+        int batch = Integer.parseInt(params.getProperty("smile.mlp.mini_batch", "32"));
+        train(x.length, epochs, batch, index -> model.update(MathEx.slice(x, index), MathEx.slice(y, index)));
 
         return model;
     }
@@ -19,16 +19,26 @@ package smile.classification;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import smile.base.cart.Bins;
 import smile.base.cart.CART;
+import smile.base.cart.FlatForest;
+import smile.base.cart.Reservoir;
 import smile.base.cart.SplitRule;
 import smile.data.DataFrame;
 import smile.data.Tuple;
 import smile.data.formula.Formula;
+import smile.data.measure.NominalScale;
+import smile.data.type.StructField;
 import smile.data.type.StructType;
 import smile.data.vector.ValueVector;
 import smile.feature.importance.TreeSHAP;
 import smile.math.MathEx;
+import smile.math.Random;
 import smile.util.IntSet;
 import smile.util.Strings;
 import smile.validation.ClassificationMetrics;
@@ -185,8 +195,12 @@ public class RandomForest extends AbstractClassifier<Tuple> implements DataFrame
      *                    and 100 negative samples, the classWeight should
      *                    be [1, 4] (assuming label 0 is of negative, label
      *                    1 is of positive).
+     * @param maxBins the maximum number of quantile bins of ordinal columns
+     *                for histogram-based split finding. If 0, the exact splits
+     *                are searched on the sorted values. 255 bins is usually
+     *                a good trade-off between speed and accuracy.
      */
-    public record Options(int ntrees, int mtry, SplitRule rule, int maxDepth, int maxNodes, int nodeSize, double subsample, int[] classWeight) {
+    public record Options(int ntrees, int mtry, SplitRule rule, int maxDepth, int maxNodes, int nodeSize, double subsample, int[] classWeight, int maxBins) {
         /** Constructor. */
         public Options {
             if (ntrees < 1) {
@@ -204,6 +218,10 @@ public class RandomForest extends AbstractClassifier<Tuple> implements DataFrame
             if (subsample <= 0 || subsample > 1) {
                 throw new IllegalArgumentException("Invalid sampling rate: " + subsample);
             }
+
+            if (maxBins != 0 && (maxBins < 2 || maxBins > Bins.MAX_BINS)) {
+                throw new IllegalArgumentException("Invalid maximum number of bins: " + maxBins);
+            }
         }
 
         /** Constructor. */
@@ -211,6 +229,25 @@ public class RandomForest extends AbstractClassifier<Tuple> implements DataFrame
             this(500, 0, SplitRule.GINI, 20, 0, 5, 1.0, null);
         }
 
+        /**
+         * Constructor.
+         * @param ntrees the number of trees.
+         * @param mtry the number of input variables to be used to determine the
+         *             decision at a node of the tree. p/3 generally give good
+         *             performance, where p is the number of variables.
+         * @param rule Decision tree split rule.
+         * @param maxDepth the maximum depth of the tree.
+         * @param maxNodes the maximum number of leaf nodes in the tree.
+         * @param nodeSize the minimum size of leaf nodes.
+         *                 Setting nodeSize = 5 generally gives good results.
+         * @param subsample the sampling rate for training tree. 1.0 means sampling with
+         *                  replacement. {@code < 1.0} means sampling without replacement.
+         * @param classWeight Priors of the classes.
+         */
+        public Options(int ntrees, int mtry, SplitRule rule, int maxDepth, int maxNodes, int nodeSize, double subsample, int[] classWeight) {
+            this(ntrees, mtry, rule, maxDepth, maxNodes, nodeSize, subsample, classWeight, 0);
+        }
+
         /**
          * Constructor.
          * @param ntrees the number of trees.
@@ -242,6 +279,7 @@ public class RandomForest extends AbstractClassifier<Tuple> implements DataFrame
             if (classWeight != null) {
                 props.setProperty("smile.random_forest.class_weight", Arrays.toString(classWeight));
             }
+            props.setProperty("smile.random_forest.max_bins", Integer.toString(maxBins));
             return props;
         }
 
@@ -260,7 +298,8 @@ public class RandomForest extends AbstractClassifier<Tuple> implements DataFrame
             int nodeSize = Integer.parseInt(props.getProperty("smile.random_forest.node_size", "5"));
             double subsample = Double.parseDouble(props.getProperty("smile.random_forest.sampling_rate", "1.0"));
             int[] classWeight = Strings.parseIntArray(props.getProperty("smile.random_forest.class_weight"));
-            return new Options(ntrees, mtry, rule, maxDepth, maxNodes, nodeSize, subsample, classWeight);
+            int maxBins = Integer.parseInt(props.getProperty("smile.random_forest.max_bins", "0"));
+            return new Options(ntrees, mtry, rule, maxDepth, maxNodes, nodeSize, subsample, classWeight, maxBins);
         }
     }
 
@@ -300,24 +339,11 @@ public class RandomForest extends AbstractClassifier<Tuple> implements DataFrame
         formula = formula.expand(data.schema());
         DataFrame x = formula.x(data);
         ValueVector y = formula.y(data);
-        int ncol = x.ncol();
-
-        if (options.mtry > ncol) {
-            throw new IllegalArgumentException("Invalid number of variables to split on at a node of the tree: " + options.mtry);
-        }
-
-        int mtry = options.mtry > 0 ? options.mtry : (int) Math.sqrt(ncol);
-        int maxNodes = options.maxNodes > 0 ? options.maxNodes :Math.max(2, data.size() / 5);
         int ntrees = options.ntrees;
-        var subsample = options.subsample;
 
         ClassLabels codec = ClassLabels.fit(y);
         final int k = codec.k;
         final int n = x.size();
-
-        final int[] weight = options.classWeight != null ? options.classWeight : Collections.nCopies(k, 1).stream().mapToInt(i -> i).toArray();
-
-        final int[][] order = CART.order(x);
         final int[][] prediction = new int[n][k]; // out-of-bag prediction
 
         // generate seeds with sequential stream
@@ -326,10 +352,61 @@ public class RandomForest extends AbstractClassifier<Tuple> implements DataFrame
             throw new IllegalArgumentException(String.format("seed stream has only %d distinct values, expected %d", seedArray.length, ntrees));
         }
 
+        Model[] models = grow(x, codec.y, y.field(), k, options, seedArray, prediction);
+
+        double fitTime = 0.0, scoreTime = 0.0;
+        for (Model model : models) {
+            fitTime += model.metrics.fitTime();
+            scoreTime += model.metrics.scoreTime();
+        }
+
+        int[] vote = new int[n];
+        for (int i = 0; i < n; i++) {
+            vote[i] = MathEx.whichMax(prediction[i]);
+        }
+
+        ClassificationMetrics metrics = new ClassificationMetrics(fitTime, scoreTime, n,
+                Error.of(codec.y, vote),
+                Accuracy.of(codec.y, vote)
+        );
+
+        return new RandomForest(formula, k, models, metrics, importance(models), codec.classes);
+    }
+
+    /**
+     * Grows a set of decision trees on the samples of data and adds
+     * the votes of each tree on its out-of-bag samples to the out-of-bag
+     * prediction.
+     *
+     * @param x the predictors.
+     * @param y the class labels in [0, k).
+     * @param field the response variable field.
+     * @param k the number of classes.
+     * @param options the hyperparameters.
+     * @param seeds the RNG seeds of each tree.
+     * @param prediction the out-of-bag votes of each sample.
+     * @return the base models.
+     */
+    private static Model[] grow(DataFrame x, int[] y, StructField field, int k, Options options, long[] seeds, int[][] prediction) {
+        int ncol = x.ncol();
+        if (options.mtry > ncol) {
+            throw new IllegalArgumentException("Invalid number of variables to split on at a node of the tree: " + options.mtry);
+        }
+
+        int mtry = options.mtry > 0 ? options.mtry : (int) Math.sqrt(ncol);
+        int maxNodes = options.maxNodes > 0 ? options.maxNodes :Math.max(2, x.size() / 5);
+        var subsample = options.subsample;
+        final int n = x.size();
+
+        final int[] weight = options.classWeight != null ? options.classWeight : Collections.nCopies(k, 1).stream().mapToInt(i -> i).toArray();
+
+        final Bins bins = options.maxBins > 0 ? Bins.of(x, options.maxBins) : null;
+        final int[][] order = bins == null ? CART.order(x) : null;
+
         // # of samples in each class
         int[] count = new int[k];
         for (int i = 0; i < n; i++) {
-            count[codec.y[i]]++;
+            count[y[i]]++;
         }
         // samples in each class
         int[][] yi = new int[k][];
@@ -338,11 +415,16 @@ public class RandomForest extends AbstractClassifier<Tuple> implements DataFrame
         }
         int[] idx = new int[k];
         for (int i = 0; i < n; i++) {
-            int j = codec.y[i];
+            int j = y[i];
             yi[j][idx[j]++] = i;
         }
 
-        Model[] models = Arrays.stream(seedArray).parallel().mapToObj(seed -> {
+        // The out-of-bag votes are accumulated in private buffers, which
+        // are merged after all trees are trained. A tree takes a buffer
+        // from the pool and returns it when done so that no more buffers
+        // are allocated than the trees being trained concurrently.
+        ConcurrentLinkedQueue<int[][]> pool = new ConcurrentLinkedQueue<>();
+        Model[] models = Arrays.stream(seeds).parallel().mapToObj(seed -> {
             // set RNG seed for the tree
             if (seed > 1) MathEx.setSeed(seed);
 
@@ -378,7 +460,7 @@ public class RandomForest extends AbstractClassifier<Tuple> implements DataFrame
             }
 
             long start = System.nanoTime();
-            DecisionTree tree = new DecisionTree(x, codec.y, y.field(), k, options.rule, options.maxDepth, maxNodes, options.nodeSize, mtry, samples, order);
+            DecisionTree tree = new DecisionTree(x, y, field, k, options.rule, options.maxDepth, maxNodes, options.nodeSize, mtry, samples, order, bins);
             double fitTime = (System.nanoTime() - start) / 1E6;
 
             // estimate OOB metrics
@@ -390,44 +472,27 @@ public class RandomForest extends AbstractClassifier<Tuple> implements DataFrame
                 }
             }
 
+            int[][] votes = pool.poll();
+            if (votes == null) {
+                votes = new int[n][k];
+            }
+
             int[] truth = new int[noob];
             int[] oob = new int[noob];
             double[][] posteriori = new double[noob][k];
             for (int i = 0, j = 0; i < n; i++) {
                 if (samples[i] == 0) {
-                    truth[j] = codec.y[i];
+                    truth[j] = y[i];
                     int p = tree.predict(x.get(i), posteriori[j]);
                     oob[j] = p;
-                    prediction[i][p]++;
+                    votes[i][p]++;
                     j++;
                 }
             }
+            pool.offer(votes);
             double scoreTime = (System.nanoTime() - start) / 1E6;
 
-            // When data is very small, OOB samples may miss some classes.
-            int oobk = MathEx.unique(truth).length;
-            ClassificationMetrics metrics;
-            if (oobk == 2) {
-                double[] probability = Arrays.stream(posteriori).mapToDouble(p -> p[1]).toArray();
-                metrics = new ClassificationMetrics(fitTime, scoreTime, noob,
-                            Error.of(truth, oob),
-                            Accuracy.of(truth, oob),
-                            Sensitivity.of(truth, oob),
-                            Specificity.of(truth, oob),
-                            Precision.of(truth, oob),
-                            FScore.F1.score(truth, oob),
-                            MatthewsCorrelation.of(truth, oob),
-                            AUC.of(truth, probability),
-                            LogLoss.of(truth, probability)
-                    );
-            } else {
-                metrics = new ClassificationMetrics(fitTime, scoreTime, noob,
-                            Error.of(truth, oob),
-                            Accuracy.of(truth, oob),
-                            CrossEntropy.of(truth, posteriori)
-                );
-            }
-
+            ClassificationMetrics metrics = metrics(fitTime, scoreTime, truth, oob, posteriori);
             if (noob != 0) {
                 logger.info("Decision tree OOB accuracy: {}", String.format("%.2f%%", 100*metrics.accuracy()));
             } else {
@@ -437,36 +502,256 @@ public class RandomForest extends AbstractClassifier<Tuple> implements DataFrame
             return new Model(tree, metrics);
         }).toArray(Model[]::new);
 
+        IntStream.range(0, n).parallel().forEach(i -> {
+            int[] pi = prediction[i];
+            for (int[][] votes : pool) {
+                int[] vi = votes[i];
+                for (int j = 0; j < k; j++) {
+                    pi[j] += vi[j];
+                }
+            }
+        });
+
+        return models;
+    }
+
+    /**
+     * Fits a random forest for classification out of core, i.e. on data
+     * that doesn't fit in memory such as large Parquet or Arrow files.
+     * The data are scanned chunk by chunk. Each tree is trained on a
+     * working set of at most {@code sampleSize} rows, which is drawn by
+     * reservoir sampling and kept in compact primitive form. The trees
+     * are trained in groups of {@code batch} trees, one pass over the
+     * data per group, so that the memory footprint is bounded by
+     * {@code batch * sampleSize} rows. One more pass is needed to
+     * collect the class labels if the response variable is not nominal.
+     * <p>
+     * A row is drawn into the training stream of a tree with probability
+     * {@code subsample} (0.632 if {@code subsample} is 1.0, which matches
+     * the coverage of bootstrap), scaled down by the class weight. The
+     * rows not in the working set of a tree are out-of-bag for it. As
+     * the out-of-bag rows can't be kept in memory, the first pass also
+     * draws a uniform sample of at most {@code sampleSize} rows to
+     * evaluate the forest. Each tree is evaluated on the rows of this
+     * sample that are out-of-bag for it, and the metrics of forest are
+     * on the majority votes of the out-of-bag trees of each row, as
+     * the in-memory fit.
+     *
+     * @param formula a symbolic description of the model to be fitted.
+     * @param data the supplier of data chunk stream. Each call should
+     *             return a new stream that scans the data from the
+     *             beginning, e.g. {@code Parquet.stream(path)}.
+     * @param options the hyperparameters.
+     * @param sampleSize the maximum number of training samples of each tree.
+     * @param batch the number of trees trained per pass over the data.
+     * @return the model.
+     */
+    public static RandomForest fit(Formula formula, Supplier<Stream<DataFrame>> data, Options options, int sampleSize, int batch) {
+        if (sampleSize < 2) {
+            throw new IllegalArgumentException("Invalid sample size: " + sampleSize);
+        }
+
+        if (batch < 1) {
+            throw new IllegalArgumentException("Invalid number of trees per pass: " + batch);
+        }
+
+        // Binds the formula and collects the class labels.
+        StructType schema;
+        StructField field;
+        IntSet classes;
+        try (Stream<DataFrame> chunks = data.get()) {
+            Iterator<DataFrame> iterator = chunks.iterator();
+            if (!iterator.hasNext()) {
+                throw new IllegalArgumentException("Empty data");
+            }
+
+            DataFrame chunk = iterator.next();
+            formula = formula.expand(chunk.schema());
+            schema = formula.x(chunk).schema();
+            ValueVector response = formula.y(chunk);
+            field = response.field();
+            if (field.measure() instanceof NominalScale scale) {
+                classes = new IntSet(IntStream.range(0, scale.size()).toArray());
+            } else {
+                TreeSet<Integer> labels = new TreeSet<>();
+                for (int yi : response.toIntArray()) labels.add(yi);
+                while (iterator.hasNext()) {
+                    for (int yi : formula.y(iterator.next()).toIntArray()) labels.add(yi);
+                }
+                classes = new IntSet(labels.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+
+        final Formula expanded = formula;
+        final int k = classes.size();
+        if (k < 2) {
+            throw new IllegalArgumentException("Only one class.");
+        }
+
+        int ncol = schema.length();
+        if (options.mtry > ncol) {
+            throw new IllegalArgumentException("Invalid number of variables to split on at a node of the tree: " + options.mtry);
+        }
+
+        int mtry = options.mtry > 0 ? options.mtry : (int) Math.sqrt(ncol);
+        int maxNodes = options.maxNodes > 0 ? options.maxNodes : Math.max(2, sampleSize / 5);
+        int ntrees = options.ntrees;
+        double subsample = options.subsample == 1.0 ? 1 - Math.exp(-1) : options.subsample;
+        int[] weight = options.classWeight != null ? options.classWeight : Collections.nCopies(k, 1).stream().mapToInt(i -> i).toArray();
+        // The tree tasks reset the seed of MathEx on the calling thread too.
+        Random rng = new Random(MathEx.randomLong());
+        Reservoir eval = new Reservoir(schema, sampleSize, new Random(rng.nextLong()));
+        DataFrame evalx = null;
+        int[] evaly = null;
+        long[] evalIndex = null;
+        int[][] votes = null;
+
+        List<Model> models = new ArrayList<>(ntrees);
+        for (int start = 0; start < ntrees; start += batch) {
+            int size = Math.min(batch, ntrees - start);
+            logger.info("Sampling data for {} trees", size);
+            Random[] random = new Random[size];
+            Reservoir[] train = new Reservoir[size];
+            long[] seeds = new long[size];
+            for (int t = 0; t < size; t++) {
+                random[t] = new Random(rng.nextLong());
+                train[t] = new Reservoir(schema, sampleSize, random[t]);
+                seeds[t] = rng.nextLong();
+            }
+
+            try (Stream<DataFrame> chunks = data.get()) {
+                Reservoir.sample(expanded, chunks, yi -> subsample / weight[classes.indexOf((int) yi)], train, start == 0 ? eval : null, random);
+            }
+
+            if (start == 0) {
+                evalx = eval.x();
+                evaly = Arrays.stream(eval.y()).mapToInt(yi -> classes.indexOf((int) yi)).toArray();
+                evalIndex = eval.index();
+                votes = new int[evaly.length][k];
+            }
+
+            final DataFrame oobx = evalx;
+            final int[] ooby = evaly;
+            final long[] oobIndex = evalIndex;
+            int[][] oobVotes = new int[size][];
+            IntStream.range(0, size).parallel().mapToObj(t -> {
+                // set RNG seed for the tree
+                MathEx.setSeed(seeds[t]);
+                DataFrame x = train[t].x();
+                int[] y = Arrays.stream(train[t].y()).mapToInt(yi -> classes.indexOf((int) yi)).toArray();
+                int n = x.size();
+                if (n == 0) {
+                    throw new IllegalArgumentException("No training samples");
+                }
+
+                int[] samples = new int[n];
+                Arrays.fill(samples, 1);
+                Bins bins = options.maxBins > 0 ? Bins.of(x, options.maxBins) : null;
+                int[][] order = bins == null ? CART.order(x) : null;
+
+                long begin = System.nanoTime();
+                DecisionTree tree = new DecisionTree(x, y, field, k, options.rule, options.maxDepth, maxNodes, options.nodeSize, mtry, samples, order, bins);
+                double fitTime = (System.nanoTime() - begin) / 1E6;
+
+                begin = System.nanoTime();
+                boolean[] mask = Reservoir.oob(train[t], oobIndex);
+                int noob = 0;
+                for (boolean oob : mask) {
+                    if (oob) noob++;
+                }
+
+                int[] truth = new int[noob];
+                int[] prediction = new int[noob];
+                double[][] posteriori = new double[noob][k];
+                int[] vote = new int[mask.length];
+                for (int i = 0, j = 0; i < mask.length; i++) {
+                    if (mask[i]) {
+                        truth[j] = ooby[i];
+                        prediction[j] = tree.predict(oobx.get(i), posteriori[j]);
+                        vote[i] = prediction[j++];
+                    } else {
+                        vote[i] = -1;
+                    }
+                }
+                oobVotes[t] = vote;
+                double scoreTime = (System.nanoTime() - begin) / 1E6;
+
+                ClassificationMetrics metrics = metrics(fitTime, scoreTime, truth, prediction, posteriori);
+                if (noob != 0) {
+                    logger.info("Decision tree OOB accuracy: {}", String.format("%.2f%%", 100*metrics.accuracy()));
+                } else {
+                    logger.error("Decision tree trained without OOB samples.");
+                }
+                return new Model(tree, metrics);
+            }).forEachOrdered(models::add);
+
+            for (int[] vote : oobVotes) {
+                for (int i = 0; i < vote.length; i++) {
+                    if (vote[i] >= 0) votes[i][vote[i]]++;
+                }
+            }
+        }
+
         double fitTime = 0.0, scoreTime = 0.0;
-        for (Model model : models) {
-            fitTime += model.metrics.fitTime();
-            scoreTime += model.metrics.scoreTime();
+        for (Model m : models) {
+            fitTime += m.metrics.fitTime();
+            scoreTime += m.metrics.scoreTime();
         }
 
-        int[] vote = new int[n];
-        for (int i = 0; i < n; i++) {
-            vote[i] = MathEx.whichMax(prediction[i]);
+        // The rows in the working sets of all trees have no votes.
+        int size = 0, error = 0;
+        for (int i = 0; i < votes.length; i++) {
+            if (MathEx.sum(votes[i]) > 0) {
+                size++;
+                if (MathEx.whichMax(votes[i]) != evaly[i]) error++;
+            }
         }
 
-        ClassificationMetrics metrics = new ClassificationMetrics(fitTime, scoreTime, n,
-                Error.of(codec.y, vote),
-                Accuracy.of(codec.y, vote)
-        );
+        ClassificationMetrics metrics = new ClassificationMetrics(fitTime, scoreTime, size, error, size == 0 ? Double.NaN : 1.0 - (double) error / size);
+        Model[] forest = models.toArray(new Model[0]);
+        return new RandomForest(expanded, k, forest, metrics, importance(forest), classes);
+    }
 
-        return new RandomForest(formula, k, models, metrics, importance(models), codec.classes);
+    /** Returns the out-of-bag metrics of a tree. */
+    private static ClassificationMetrics metrics(double fitTime, double scoreTime, int[] truth, int[] oob, double[][] posteriori) {
+        int noob = truth.length;
+        // When data is very small, OOB samples may miss some classes.
+        int oobk = MathEx.unique(truth).length;
+        if (oobk == 2) {
+            double[] probability = Arrays.stream(posteriori).mapToDouble(p -> p[1]).toArray();
+            return new ClassificationMetrics(fitTime, scoreTime, noob,
+                    Error.of(truth, oob),
+                    Accuracy.of(truth, oob),
+                    Sensitivity.of(truth, oob),
+                    Specificity.of(truth, oob),
+                    Precision.of(truth, oob),
+                    FScore.F1.score(truth, oob),
+                    MatthewsCorrelation.of(truth, oob),
+                    AUC.of(truth, probability),
+                    LogLoss.of(truth, probability)
+            );
+        } else {
+            return new ClassificationMetrics(fitTime, scoreTime, noob,
+                    Error.of(truth, oob),
+                    Accuracy.of(truth, oob),
+                    CrossEntropy.of(truth, posteriori)
+            );
+        }
     }
 
     /** Calculate the importance of the whole forest. */
     private static double[] importance(Model[] models) {
         int p = models[0].tree.importance().length;
-        double[] importance = new double[p];
-        for (Model model : models) {
+        return Arrays.stream(models).parallel().collect(() -> new double[p], (importance, model) -> {
             double[] imp = model.tree.importance();
             for (int i = 0; i < p; i++) {
                 importance[i] += imp[i];
             }
-        }
-        return importance;
+        }, (a, b) -> {
+            for (int i = 0; i < p; i++) {
+                a[i] += b[i];
+            }
+        });
     }
 
     @Override
@@ -590,6 +875,123 @@ public class RandomForest extends AbstractClassifier<Tuple> implements DataFrame
         return new RandomForest(formula, k, forest, mergedMetrics, mergedImportance, classes);
     }
 
+    /**
+     * Grows the forest on new data. Trains {@code options.ntrees}
+     * new trees on the data and keeps all existing trees. See
+     * {@link #update(DataFrame, Options, int)} for details.
+     *
+     * @param data the new data, which should have the same schema
+     *             as the training data.
+     * @param options the hyperparameters of new trees.
+     * @return the extended forest.
+     */
+    public RandomForest extend(DataFrame data, Options options) {
+        return update(data, options, models.length + options.ntrees);
+    }
+
+    /**
+     * Refreshes the forest on new data. Trains {@code options.ntrees}
+     * new trees on the data, which replace the weakest existing trees
+     * so that the forest has at most {@code ntrees} trees. As the new
+     * data are out of bag for all existing trees, the existing trees
+     * are re-evaluated on the whole data and their weights are updated
+     * with the new accuracy. The trees of lowest weight are dropped.
+     * The overall out-of-bag metrics are recomputed on the new data with
+     * the votes of retained existing trees on all samples and the votes
+     * of new trees on their own out-of-bag samples.
+     * <p>
+     * The ordinal columns of new data are sorted (or binned) only once
+     * and the sample index is shared by all new trees.
+     *
+     * @param data the new data, which should have the same schema
+     *             as the training data.
+     * @param options the hyperparameters of new trees.
+     * @param ntrees the maximum number of trees in the refreshed forest,
+     *               which should not be less than {@code options.ntrees}.
+     * @return the refreshed forest.
+     */
+    public RandomForest update(DataFrame data, Options options, int ntrees) {
+        if (ntrees < options.ntrees) {
+            throw new IllegalArgumentException("Invalid maximum number of trees: " + ntrees);
+        }
+
+        DataFrame x = formula.x(data);
+        if (!x.schema().equals(schema())) {
+            throw new IllegalArgumentException("The data schema doesn't match the model: " + x.schema());
+        }
+
+        ValueVector response = formula.y(data);
+        int[] y = labels(response);
+        int n = x.size();
+
+        // Re-evaluates the existing trees on the new data.
+        Model[] existing = Arrays.stream(models).parallel().map(model -> {
+            long start = System.nanoTime();
+            int[] prediction = new int[n];
+            double[][] posteriori = new double[n][k];
+            for (int i = 0; i < n; i++) {
+                prediction[i] = model.tree.predict(x.get(i), posteriori[i]);
+            }
+            double scoreTime = (System.nanoTime() - start) / 1E6;
+            return new Model(model.tree, metrics(model.metrics.fitTime(), scoreTime, y, prediction, posteriori));
+        }).sorted().limit(ntrees - options.ntrees).toArray(Model[]::new);
+
+        final int[][] prediction = new int[n][k];
+        long[] seeds = LongStream.range(-options.ntrees, 0).toArray();
+        Model[] grown = grow(x, y, response.field(), k, options, seeds, prediction);
+
+        Model[] forest = new Model[existing.length + grown.length];
+        System.arraycopy(existing, 0, forest, 0, existing.length);
+        System.arraycopy(grown, 0, forest, existing.length, grown.length);
+
+        IntStream.range(0, n).parallel().forEach(i -> {
+            Tuple xi = x.get(i);
+            for (Model model : existing) {
+                prediction[i][model.tree.predict(xi)]++;
+            }
+        });
+
+        double fitTime = 0.0, scoreTime = 0.0;
+        for (Model model : forest) {
+            fitTime += model.metrics.fitTime();
+            scoreTime += model.metrics.scoreTime();
+        }
+
+        int[] vote = new int[n];
+        for (int i = 0; i < n; i++) {
+            vote[i] = MathEx.whichMax(prediction[i]);
+        }
+
+        ClassificationMetrics metrics = new ClassificationMetrics(fitTime, scoreTime, n,
+                Error.of(y, vote),
+                Accuracy.of(y, vote)
+        );
+
+        logger.info("Refreshed random forest with {} existing and {} new trees", existing.length, grown.length);
+        return new RandomForest(formula, k, forest, metrics, importance(forest), classes);
+    }
+
+    /**
+     * Returns the class label indices of response variable
+     * with the class label encoder of model.
+     * @param response the response variable.
+     * @return the class label indices.
+     */
+    private int[] labels(ValueVector response) {
+        int[] y = response.toIntArray();
+        if (response.field().measure() instanceof NominalScale) {
+            // The nominal values are encoded in [0, k) as in training.
+            return y;
+        }
+
+        for (int label : IntSet.of(y).values) {
+            if (Arrays.stream(classes.values).noneMatch(c -> c == label)) {
+                throw new IllegalArgumentException("Unknown class label: " + label);
+            }
+        }
+        return Arrays.stream(y).map(classes::indexOf).toArray();
+    }
+
     @Override
     public int predict(Tuple x) {
         Tuple xt = formula.x(x);
@@ -628,6 +1030,24 @@ public class RandomForest extends AbstractClassifier<Tuple> implements DataFrame
         return classes.valueOf(MathEx.whichMax(posteriori));
     }
 
+    /**
+     * Compiles the forest into flat arrays for fast batch inference.
+     * The compiled forest predicts with the weighted posteriori
+     * probabilities of trees, same as {@link #predict(Tuple, double[])}.
+     *
+     * @return the compiled forest.
+     */
+    public FlatForest compile() {
+        int ntrees = models.length;
+        CART[] trees = new CART[ntrees];
+        double[] weight = new double[ntrees];
+        for (int i = 0; i < ntrees; i++) {
+            trees[i] = models[i].tree;
+            weight[i] = models[i].weight;
+        }
+        return new FlatForest(formula, trees, new int[ntrees], weight, new double[k], FlatForest.Link.NORMALIZE, classes);
+    }
+
     /**
      * Predict and estimate the probability by voting.
      *
@@ -131,27 +131,53 @@ public abstract class CentroidClustering<T, U> extends PartitionClustering imple
     }
 
     /**
-     * Calculates the new centroids in the new clusters.
+     * Returns the indices of observations in each cluster, in ascending order.
+     * @param y the cluster labels.
+     * @param k the number of clusters.
+     * @return the indices of observations in each cluster.
+     */
+    static int[][] members(int[] y, int k) {
+        int[] count = new int[k];
+        for (int yi : y) {
+            count[yi]++;
+        }
+
+        int[][] members = new int[k][];
+        for (int j = 0; j < k; j++) {
+            members[j] = new int[count[j]];
+        }
+
+        Arrays.fill(count, 0);
+        for (int i = 0; i < y.length; i++) {
+            int j = y[i];
+            members[j][count[j]++] = i;
+        }
+        return members;
+    }
+
+    /**
+     * Calculates the new centroids in the new clusters. The observations
+     * are grouped by clusters first so that each cluster is summed up by
+     * one thread in O(n * d) total time, without locks.
      */
     static void updateCentroids(double[][] centroids, double[][] data, int[] y, int[] size) {
-        int n = data.length;
         int k = centroids.length;
         int d = centroids[0].length;
+        int[][] members = members(y, k);
 
-        Arrays.fill(size, 0);
         IntStream.range(0, k).parallel().forEach(cluster -> {
-            Arrays.fill(centroids[cluster], 0.0);
-            for (int i = 0; i < n; i++) {
-                if (y[i] == cluster) {
-                    size[cluster]++;
-                    for (int j = 0; j < d; j++) {
-                        centroids[cluster][j] += data[i][j];
-                    }
+            double[] centroid = centroids[cluster];
+            Arrays.fill(centroid, 0.0);
+            for (int i : members[cluster]) {
+                double[] x = data[i];
+                for (int j = 0; j < d; j++) {
+                    centroid[j] += x[j];
                 }
             }
 
+            size[cluster] = members[cluster].length;
             for (int j = 0; j < d; j++) {
-                centroids[cluster][j] /= size[cluster];
+                centroid[j] /= size[cluster];
             }
         });
     }
@@ -161,27 +187,27 @@ public abstract class CentroidClustering<T, U> extends PartitionClustering imple
      * @param notNaN the number of non-missing values per cluster per variable.
      */
     static void updateCentroidsWithMissingValues(double[][] centroids, double[][] data, int[] y, int[] size, int[][] notNaN) {
-        int n = data.length;
         int k = centroids.length;
         int d = centroids[0].length;
+        int[][] members = members(y, k);
 
         IntStream.range(0, k).parallel().forEach(cluster -> {
-            Arrays.fill(centroids[cluster], 0);
+            double[] centroid = centroids[cluster];
+            Arrays.fill(centroid, 0);
             Arrays.fill(notNaN[cluster], 0);
-            for (int i = 0; i < n; i++) {
-                if (y[i] == cluster) {
-                    size[cluster]++;
-                    for (int j = 0; j < d; j++) {
-                        if (!Double.isNaN(data[i][j])) {
-                            centroids[cluster][j] += data[i][j];
-                            notNaN[cluster][j]++;
-                        }
+            for (int i : members[cluster]) {
+                double[] x = data[i];
+                for (int j = 0; j < d; j++) {
+                    if (!Double.isNaN(x[j])) {
+                        centroid[j] += x[j];
+                        notNaN[cluster][j]++;
                     }
                 }
             }
 
+            size[cluster] = members[cluster].length;
             for (int j = 0; j < d; j++) {
-                centroids[cluster][j] /= notNaN[cluster][j];
+                centroid[j] /= notNaN[cluster][j];
             }
         });
     }
@@ -18,12 +18,14 @@ package smile.clustering;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.Queue;
-import smile.clustering.linkage.Linkage;
-import smile.clustering.linkage.UPGMCLinkage;
-import smile.clustering.linkage.WPGMCLinkage;
-import smile.clustering.linkage.WardLinkage;
+import java.util.stream.IntStream;
+import smile.clustering.linkage.*;
+import smile.math.MathEx;
+import smile.math.distance.Distance;
 import smile.sort.IntHeapSelect;
 
 /**
@@ -43,10 +45,24 @@ import smile.sort.IntHeapSelect;
  * Hierarchical clustering has the distinct advantage that any valid measure
  * of distance can be used. In fact, the observations themselves are not
  * required: all that is used is a matrix of distances.
+ * <p>
+ * Single, complete, average (UPGMA), WPGMA and Ward's linkages satisfy
+ * the reducibility property, for which the nearest-neighbor chain algorithm
+ * finds the merges in O(n<sup>2</sup>) time with O(n) additional space.
+ * The centroid (UPGMC) and median (WPGMC) linkages are clustered with
+ * the dynamic closest pairs. As the proximity matrix takes O(n<sup>2</sup>)
+ * space, it limits the data size to 65535. For larger data, single linkage
+ * and Ward's linkage can be computed without the proximity matrix, by
+ * Prim's minimum spanning tree and the nearest-neighbor chain on cluster
+ * centroids, respectively. Both take O(n) additional space and compute
+ * the distances in parallel.
  * 
  * <h2>References</h2>
  * <ol>
  * <li>David Eppstein. Fast hierarchical clustering and other applications of dynamic closest pairs. SODA 1998.</li>
+ * <li>F. Murtagh. A survey of recent advances in hierarchical clustering algorithms. The Computer Journal, 26(4):354-359, 1983.</li>
+ * <li>D. Müllner. Modern hierarchical, agglomerative clustering algorithms. arXiv:1109.2378, 2011.</li>
+ * <li>J. C. Gower and G. J. S. Ross. Minimum spanning trees and single linkage cluster analysis. Applied Statistics, 18(1):54-64, 1969.</li>
  * </ol>
  * 
  * @see Linkage
@@ -56,6 +72,8 @@ import smile.sort.IntHeapSelect;
 public class HierarchicalClustering implements Serializable {
     @Serial
     private static final long serialVersionUID = 2L;
+    /** The minimum number of distances to compute in parallel. */
+    private static final int PARALLEL = 1024;
 
     /**
      * An n-1 by 2 matrix of which row i describes the merging of clusters at
@@ -90,6 +108,21 @@ public class HierarchicalClustering implements Serializable {
      * @return the model.
      */
     public static HierarchicalClustering fit(Linkage linkage) {
+        if (linkage instanceof SingleLinkage || linkage instanceof CompleteLinkage ||
+            linkage instanceof UPGMALinkage || linkage instanceof WPGMALinkage || linkage instanceof WardLinkage) {
+            return nnChain(linkage);
+        }
+
+        return fastPair(linkage);
+    }
+
+    /**
+     * Fits the linkage by the dynamic closest pairs of FastPair,
+     * which works with any linkage method.
+     * @param linkage the linkage.
+     * @return the model.
+     */
+    static HierarchicalClustering fastPair(Linkage linkage) {
         int n = linkage.size();
 
         int[][] merge = new int[n - 1][2];
@@ -125,6 +158,358 @@ public class HierarchicalClustering implements Serializable {
         return new HierarchicalClustering(merge, height);
     }
 
+    /**
+     * Fits the single linkage clustering of Euclidean distance without
+     * the proximity matrix.
+     * @param data the data points.
+     * @return the model.
+     */
+    public static HierarchicalClustering single(double[][] data) {
+        HierarchicalClustering model = single(data, MathEx::squaredDistance);
+        // Prim's algorithm works on squared distances
+        // as the minimum spanning tree is the same.
+        double[] height = model.height;
+        for (int i = 0; i < height.length; i++) {
+            height[i] = Math.sqrt(height[i]);
+        }
+        return model;
+    }
+
+    /**
+     * Fits the single linkage clustering without the proximity matrix.
+     * The minimum spanning tree is computed by Prim's algorithm with
+     * O(n) space, and the distances to the new tree vertex are computed
+     * in parallel at each step. The single linkage dendrogram is then
+     * built by merging the tree edges in ascending order.
+     * @param data the data points.
+     * @param distance the distance function.
+     * @param <T> the data type of points.
+     * @return the model.
+     */
+    public static <T> HierarchicalClustering single(T[] data, Distance<T> distance) {
+        int n = data.length;
+        if (n < 2) {
+            throw new IllegalArgumentException("Invalid data size: " + n);
+        }
+
+        // The distance of vertices to the tree and their nearest tree vertex.
+        double[] dist = new double[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+
+        // The vertices not in the tree yet.
+        int[] remaining = new int[n - 1];
+        for (int i = 0; i < remaining.length; i++) {
+            remaining[i] = i + 1;
+        }
+
+        int[] a = new int[n - 1];
+        int[] b = new int[n - 1];
+        double[] h = new double[n - 1];
+        int current = 0;
+        for (int step = 0, m = n - 1; step < n - 1; step++) {
+            T x = data[current];
+            int vertex = current;
+            IntStream stream = IntStream.range(0, m);
+            if (m >= PARALLEL) stream = stream.parallel();
+            stream.forEach(r -> {
+                int k = remaining[r];
+                double d = distance.d(x, data[k]);
+                if (d < dist[k]) {
+                    dist[k] = d;
+                    parent[k] = vertex;
+                }
+            });
+
+            int nearest = 0;
+            for (int r = 1; r < m; r++) {
+                if (dist[remaining[r]] < dist[remaining[nearest]]) {
+                    nearest = r;
+                }
+            }
+
+            current = remaining[nearest];
+            remaining[nearest] = remaining[--m];
+            a[step] = parent[current];
+            b[step] = current;
+            h[step] = dist[current];
+        }
+
+        return of(n, a, b, h);
+    }
+
+    /**
+     * Fits the Ward's linkage clustering of Euclidean distance without
+     * the proximity matrix. The nearest-neighbor chain algorithm keeps
+     * the centroids and sizes of clusters, of which the Ward's distance
+     * is {@code 2 * n1 * n2 / (n1 + n2) * ||c1 - c2||<sup>2</sup>}, i.e.
+     * the same as {@link WardLinkage}. The nearest neighbor of a cluster
+     * is searched in parallel. It takes O(n<sup>2</sup>d) time and
+     * O(nd) space.
+     * @param data the data points.
+     * @return the model.
+     */
+    public static HierarchicalClustering ward(double[][] data) {
+        int n = data.length;
+        if (n < 2) {
+            throw new IllegalArgumentException("Invalid data size: " + n);
+        }
+
+        double[][] centroid = new double[n][];
+        int[] size = new int[n];
+        for (int i = 0; i < n; i++) {
+            centroid[i] = data[i].clone();
+            size[i] = 1;
+        }
+
+        // The active clusters and their positions in the list.
+        int[] clusters = new int[n];
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) {
+            clusters[i] = i;
+            position[i] = i;
+        }
+
+        int[] a = new int[n - 1];
+        int[] b = new int[n - 1];
+        double[] h = new double[n - 1];
+        int[] chain = new int[n];
+        int length = 0;
+        for (int step = 0, m = n; step < n - 1;) {
+            if (length == 0) {
+                chain[length++] = clusters[0];
+            }
+
+            int i = chain[length - 1];
+            int prev = length > 1 ? chain[length - 2] : -1;
+            int cm = m;
+            int blocks = (cm + PARALLEL - 1) / PARALLEL;
+            int[] nearest = new int[blocks];
+            double[] distance = new double[blocks];
+            IntStream stream = IntStream.range(0, blocks);
+            if (blocks > 1) stream = stream.parallel();
+            stream.forEach(block -> {
+                int k = -1;
+                double d = Double.POSITIVE_INFINITY;
+                int end = Math.min(cm, (block + 1) * PARALLEL);
+                for (int r = block * PARALLEL; r < end; r++) {
+                    int j = clusters[r];
+                    if (j != i) {
+                        double dj = ward(centroid, size, i, j);
+                        if (k < 0 || dj < d || (dj == d && j < k)) {
+                            k = j;
+                            d = dj;
+                        }
+                    }
+                }
+                nearest[block] = k;
+                distance[block] = d;
+            });
+
+            int j = -1;
+            double d = Double.POSITIVE_INFINITY;
+            for (int block = 0; block < blocks; block++) {
+                int k = nearest[block];
+                if (k >= 0 && (j < 0 || distance[block] < d || (distance[block] == d && k < j))) {
+                    j = k;
+                    d = distance[block];
+                }
+            }
+
+            // Ties are resolved in favor of the previous cluster in the chain.
+            if (prev >= 0 && ward(centroid, size, i, prev) <= d) {
+                j = prev;
+            }
+
+            if (j != prev) {
+                chain[length++] = j;
+                continue;
+            }
+
+            length -= 2;
+            int p = Math.min(i, j);
+            int q = Math.max(i, j);
+            a[step] = p;
+            b[step] = q;
+            h[step] = Math.sqrt(ward(centroid, size, p, q));
+            step++;
+
+            double[] cp = centroid[p];
+            double[] cq = centroid[q];
+            double np = size[p];
+            double nq = size[q];
+            for (int l = 0; l < cp.length; l++) {
+                cp[l] = (np * cp[l] + nq * cq[l]) / (np + nq);
+            }
+            size[p] += size[q];
+            centroid[q] = null;
+
+            int r = position[q];
+            clusters[r] = clusters[--m];
+            position[clusters[r]] = r;
+        }
+
+        return of(n, a, b, h);
+    }
+
+    /**
+     * Returns the Ward's distance between two clusters.
+     * @param centroid the cluster centroids.
+     * @param size the cluster sizes.
+     * @param i the cluster index.
+     * @param j the cluster index.
+     * @return the Ward's distance.
+     */
+    private static double ward(double[][] centroid, int[] size, int i, int j) {
+        double ni = size[i];
+        double nj = size[j];
+        return 2 * ni * nj / (ni + nj) * MathEx.squaredDistance(centroid[i], centroid[j]);
+    }
+
+    /**
+     * Fits the linkage of reducible cluster distance by the
+     * nearest-neighbor chain algorithm. A chain of clusters, each of
+     * which is the nearest neighbor of the previous one, is grown until
+     * two clusters are the reciprocal nearest neighbors, which are then
+     * merged. As the linkage is reducible, the rest of chain remains valid.
+     * The nearest neighbor of a cluster is searched in parallel for
+     * large data.
+     * @param linkage the linkage.
+     * @return the model.
+     */
+    private static HierarchicalClustering nnChain(Linkage linkage) {
+        int n = linkage.size();
+        boolean[] active = new boolean[n];
+        Arrays.fill(active, true);
+
+        int[] a = new int[n - 1];
+        int[] b = new int[n - 1];
+        double[] h = new double[n - 1];
+        int[] chain = new int[n];
+        int length = 0;
+        for (int step = 0, first = 0; step < n - 1;) {
+            if (length == 0) {
+                while (!active[first]) first++;
+                chain[length++] = first;
+            }
+
+            int i = chain[length - 1];
+            int prev = length > 1 ? chain[length - 2] : -1;
+            int blocks = (n + PARALLEL - 1) / PARALLEL;
+            int[] nearest = new int[blocks];
+            float[] distance = new float[blocks];
+            IntStream stream = IntStream.range(0, blocks);
+            if (blocks > 1) stream = stream.parallel();
+            stream.forEach(block -> {
+                int k = -1;
+                float d = Float.POSITIVE_INFINITY;
+                int end = Math.min(n, (block + 1) * PARALLEL);
+                for (int r = block * PARALLEL; r < end; r++) {
+                    if (active[r] && r != i) {
+                        float dr = linkage.d(i, r);
+                        if (k < 0 || dr < d) {
+                            k = r;
+                            d = dr;
+                        }
+                    }
+                }
+                nearest[block] = k;
+                distance[block] = d;
+            });
+
+            // Ties are resolved in favor of the previous cluster in the chain.
+            int j = prev;
+            float d = prev >= 0 ? linkage.d(i, prev) : Float.POSITIVE_INFINITY;
+            for (int block = 0; block < blocks; block++) {
+                int k = nearest[block];
+                if (k >= 0 && (j < 0 || distance[block] < d)) {
+                    j = k;
+                    d = distance[block];
+                }
+            }
+
+            if (j != prev) {
+                chain[length++] = j;
+                continue;
+            }
+
+            length -= 2;
+            int p = Math.min(i, j);
+            int q = Math.max(i, j);
+            a[step] = p;
+            b[step] = q;
+            h[step] = d;
+            step++;
+
+            linkage.merge(p, q);
+            active[q] = false;
+        }
+
+        if (linkage instanceof WardLinkage) {
+            for (int i = 0; i < h.length; i++) {
+                h[i] = Math.sqrt(h[i]);
+            }
+        }
+
+        return of(n, a, b, h);
+    }
+
+    /**
+     * Returns the model of merges, which may be found in any order.
+     * The merges are sorted by the height and then relabeled with
+     * the union-find of clusters.
+     * @param n the data size.
+     * @param a a data point of the first cluster of each merge.
+     * @param b a data point of the second cluster of each merge.
+     * @param h the height of each merge.
+     * @return the model.
+     */
+    private static HierarchicalClustering of(int n, int[] a, int[] b, double[] h) {
+        // The sort is stable so that the merges of same height
+        // keep their order, in which a cluster is formed before
+        // it is merged again.
+        int[] order = IntStream.range(0, n - 1).boxed()
+                .sorted(Comparator.comparingDouble(i -> h[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        int[] parent = new int[n];
+        int[] id = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            id[i] = i;
+        }
+
+        int[][] merge = new int[n - 1][2];
+        double[] height = new double[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            int s = order[i];
+            int p = find(parent, a[s]);
+            int q = find(parent, b[s]);
+            merge[i][0] = Math.min(id[p], id[q]);
+            merge[i][1] = Math.max(id[p], id[q]);
+            height[i] = h[s];
+            parent[q] = p;
+            id[p] = n + i;
+        }
+
+        return new HierarchicalClustering(merge, height);
+    }
+
+    /**
+     * Returns the root of a set with path halving.
+     * @param parent the parent of each element.
+     * @param i the element.
+     * @return the root.
+     */
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
     /**
      * Returns an n-1 by 2 matrix of which row i describes the merging of clusters at
      * step i of the clustering. If an element j in the row is less than n, then
@@ -19,6 +19,8 @@ package smile.clustering;
 import smile.math.MathEx;
 
 import java.io.Serial;
+import java.io.Serializable;
+import java.util.stream.IntStream;
 
 /**
  * K-Means clustering. The algorithm partitions n observations into k clusters
@@ -53,6 +55,17 @@ import java.io.Serial;
  * We also use k-d trees to speed up each k-means step as described in the filter
  * algorithm by Kanungo, et al.
  * <p>
+ * For large data with many clusters, {@link #hamerly(double[][], int) Hamerly's
+ * algorithm} keeps an upper bound of the distance to the assigned centroid and
+ * a lower bound of the distance to the second nearest centroid for each
+ * observation, which skip most distance calculations once the centroids
+ * barely move. {@link #minibatch(double[][], int, int, int) Mini-batch k-means}
+ * updates the centroids with small random batches of data, of which the
+ * cost per iteration doesn't depend on the data size. Both are seeded with
+ * the scalable k-means|| in parallel. For data that don't fit in memory,
+ * {@link MiniBatch} updates the centroids incrementally with the batches
+ * of a stream.
+ * <p>
  * K-means is a hard clustering method, i.e. each observation is assigned to
  * a specific cluster. In contrast, soft clustering, e.g. the
  * Expectation-Maximization algorithm for Gaussian mixtures, assign observations
@@ -63,6 +76,9 @@ import java.io.Serial;
  * <li> Tapas Kanungo, David M. Mount, Nathan S. Netanyahu, Christine D. Piatko, Ruth Silverman, and Angela Y. Wu. An Efficient k-Means Clustering Algorithm: Analysis and Implementation. IEEE TRANS. PAMI, 2002.</li>
  * <li> D. Arthur and S. Vassilvitskii. "K-means++: the advantages of careful seeding". ACM-SIAM symposium on Discrete algorithms, 1027-1035, 2007.</li>
  * <li> Anna D. Peterson, Arka P. Ghosh and Ranjan Maitra. A systematic evaluation of different methods for initializing the K-means clustering algorithm. 2010.</li>
+ * <li> B. Bahmani, B. Moseley, A. Vattani, R. Kumar, and S. Vassilvitskii. Scalable K-Means++. VLDB, 2012.</li>
+ * <li> G. Hamerly. Making k-means even faster. SIAM International Conference on Data Mining, 2010.</li>
+ * <li> D. Sculley. Web-scale k-means clustering. WWW, 2010.</li>
  * </ol>
  * 
  * @see XMeans
@@ -229,4 +245,359 @@ public class KMeans extends CentroidClustering<double[], double[]> {
             }
         };
     }
+
+    /**
+     * Partitions data into k clusters by Hamerly's algorithm up to 100
+     * iterations.
+     * @param data the input data of which each row is an observation.
+     * @param k the number of clusters.
+     * @return the model.
+     */
+    public static KMeans hamerly(double[][] data, int k) {
+        return hamerly(data, k, 100, 1E-4);
+    }
+
+    /**
+     * Partitions data into k clusters by Hamerly's algorithm, which gives
+     * the same result as Lloyd's algorithm but skips most distance
+     * calculations by the triangle inequality. It takes O(n) space for
+     * the bounds, in contrast to O(nk) of Elkan's algorithm. The centroids
+     * are seeded by k-means||. The assignment step and the centroid update
+     * run in parallel without locks.
+     * <p>
+     * Note that the tolerance is not the same as that of {@link #lloyd}
+     * and {@link #fit}, which is the decrease of distortion. The distortion
+     * is not calculated in the iterations, which would take the distance
+     * calculations that the bounds skip. Instead, the algorithm stops when
+     * the fraction of observations that change the cluster is at most
+     * {@code tol}, and {@code tol = 0} runs to the same fixed point as
+     * Lloyd's algorithm.
+     *
+     * @param data the input data of which each row is an observation.
+     * @param k the number of clusters.
+     * @param maxIter the maximum number of iterations.
+     * @param tol the convergence tolerance of the fraction of
+     *            observations that change the cluster in an iteration.
+     * @return the model.
+     */
+    public static KMeans hamerly(double[][] data, int k, int maxIter, double tol) {
+        if (k < 2) {
+            throw new IllegalArgumentException("Invalid number of clusters: " + k);
+        }
+
+        if (maxIter <= 0) {
+            throw new IllegalArgumentException("Invalid maximum number of iterations: " + maxIter);
+        }
+
+        int n = data.length;
+        int d = data[0].length;
+
+        int[] y = new int[n];
+        double[][] medoids = new double[k][];
+        double distortion = MathEx.sum(parallelSeed(data, medoids, y, MathEx::squaredDistance, 5, 2.0));
+        logger.info("Distortion after initialization: {}", distortion);
+
+        int[] size = new int[k];
+        double[][] centroids = new double[k][d];
+        double[][] previous = new double[k][d];
+        updateCentroids(centroids, data, y, size);
+        for (int j = 0; j < k; j++) {
+            // A medoid may lose all observations to its duplicates.
+            if (size[j] == 0) {
+                System.arraycopy(medoids[j], 0, centroids[j], 0, d);
+            }
+        }
+
+        // The upper bound of distance to the assigned centroid
+        // and the lower bound of distance to the other centroids.
+        double[] upper = new double[n];
+        double[] lower = new double[n];
+        int[] seed = y.clone();
+        IntStream.range(0, n).parallel().forEach(i -> nearest(data[i], centroids, i, y, upper, lower));
+        int changes = (int) IntStream.range(0, n).filter(i -> y[i] != seed[i]).count();
+        update(data, centroids, previous, y, size, upper, lower);
+
+        // The half distance of centroid to the nearest other centroid.
+        double[] s = new double[k];
+        for (int iter = 1; iter <= maxIter && changes > tol * n; iter++) {
+            IntStream.range(0, k).parallel().forEach(j -> {
+                double nearest = Double.MAX_VALUE;
+                for (int l = 0; l < k; l++) {
+                    if (l != j) {
+                        nearest = Math.min(nearest, MathEx.squaredDistance(centroids[j], centroids[l]));
+                    }
+                }
+                s[j] = 0.5 * Math.sqrt(nearest);
+            });
+
+            changes = IntStream.range(0, n).parallel().map(i -> {
+                int yi = y[i];
+                double bound = Math.max(s[yi], lower[i]);
+                if (upper[i] <= bound) return 0;
+
+                // Tighten the upper bound and test again.
+                upper[i] = Math.sqrt(MathEx.squaredDistance(data[i], centroids[yi]));
+                if (upper[i] <= bound) return 0;
+
+                nearest(data[i], centroids, i, y, upper, lower);
+                return y[i] != yi ? 1 : 0;
+            }).sum();
+
+            update(data, centroids, previous, y, size, upper, lower);
+            logger.info("{} observations change the cluster after {} iterations", changes, iter);
+        }
+
+        distortion = IntStream.range(0, n).parallel()
+                .mapToDouble(i -> MathEx.squaredDistance(data[i], centroids[y[i]]))
+                .sum();
+        logger.info("Final distortion: {}", distortion);
+        return new KMeans(distortion, centroids, y);
+    }
+
+    /**
+     * Updates the centroids and moves the bounds of Hamerly's algorithm
+     * by the distance that the centroids move.
+     * @param data the observations.
+     * @param centroids the centroids.
+     * @param previous the workspace to store the previous centroids.
+     * @param y the cluster labels.
+     * @param size the cluster sizes.
+     * @param upper the upper bounds of distance to the assigned centroid.
+     * @param lower the lower bounds of distance to the other centroids.
+     */
+    private static void update(double[][] data, double[][] centroids, double[][] previous, int[] y, int[] size, double[] upper, double[] lower) {
+        int k = centroids.length;
+        int d = centroids[0].length;
+        for (int j = 0; j < k; j++) {
+            System.arraycopy(centroids[j], 0, previous[j], 0, d);
+        }
+
+        updateCentroids(centroids, data, y, size);
+        // The distance that centroids move and the two largest ones.
+        double[] p = new double[k];
+        int r1 = 0, r2 = -1;
+        for (int j = 0; j < k; j++) {
+            // Keep the centroid of empty cluster.
+            if (size[j] == 0) {
+                System.arraycopy(previous[j], 0, centroids[j], 0, d);
+            }
+
+            p[j] = Math.sqrt(MathEx.squaredDistance(centroids[j], previous[j]));
+            if (p[j] > p[r1]) {
+                r2 = r1;
+                r1 = j;
+            } else if (j != r1 && (r2 < 0 || p[j] > p[r2])) {
+                r2 = j;
+            }
+        }
+
+        int first = r1;
+        double move1 = p[r1];
+        double move2 = p[r2];
+        IntStream.range(0, y.length).parallel().forEach(i -> {
+            upper[i] += p[y[i]];
+            lower[i] -= y[i] == first ? move2 : move1;
+        });
+    }
+
+    /**
+     * Finds the nearest and second nearest centroids of an observation
+     * to reset the bounds of Hamerly's algorithm.
+     * @param x the observation.
+     * @param centroids the centroids.
+     * @param i the index of observation.
+     * @param y the cluster labels.
+     * @param upper the upper bounds of distance to the assigned centroid.
+     * @param lower the lower bounds of distance to the other centroids.
+     */
+    private static void nearest(double[] x, double[][] centroids, int i, int[] y, double[] upper, double[] lower) {
+        int label = 0;
+        double d1 = Double.MAX_VALUE;
+        double d2 = Double.MAX_VALUE;
+        for (int j = 0; j < centroids.length; j++) {
+            double dist = MathEx.squaredDistance(x, centroids[j]);
+            if (dist < d1) {
+                d2 = d1;
+                d1 = dist;
+                label = j;
+            } else if (dist < d2) {
+                d2 = dist;
+            }
+        }
+
+        y[i] = label;
+        upper[i] = Math.sqrt(d1);
+        lower[i] = Math.sqrt(d2);
+    }
+
+    /**
+     * Partitions data into k clusters by mini-batch k-means. The batches
+     * are sampled from the data in memory. For data that don't fit in
+     * memory, use {@link MiniBatch} to update the centroids with the
+     * batches of a stream.
+     * @param data the input data of which each row is an observation.
+     * @param k the number of clusters.
+     * @param batch the mini-batch size.
+     * @param maxIter the number of iterations.
+     * @return the model.
+     */
+    public static KMeans minibatch(double[][] data, int k, int batch, int maxIter) {
+        if (k < 2) {
+            throw new IllegalArgumentException("Invalid number of clusters: " + k);
+        }
+
+        if (batch <= 0) {
+            throw new IllegalArgumentException("Invalid mini-batch size: " + batch);
+        }
+
+        if (maxIter <= 0) {
+            throw new IllegalArgumentException("Invalid maximum number of iterations: " + maxIter);
+        }
+
+        int n = data.length;
+
+        // Seed on a random sample, which is enough to cover the clusters.
+        int m = Math.min(n, Math.max(3 * batch, 10 * k));
+        double[][] sample = new double[m][];
+        int[] permutation = MathEx.permutate(n);
+        for (int i = 0; i < m; i++) {
+            sample[i] = data[permutation[i]];
+        }
+
+        MiniBatch model = MiniBatch.of(sample, k);
+        double[][] x = new double[batch][];
+        for (int iter = 1; iter <= maxIter; iter++) {
+            for (int i = 0; i < batch; i++) {
+                x[i] = data[MathEx.randomInt(n)];
+            }
+
+            double wcss = model.update(x);
+            if (iter % 10 == 0) {
+                logger.info("Mini-batch distortion after {} iterations: {}", iter, wcss);
+            }
+        }
+
+        double[][] centroids = model.centroids;
+        int[] y = new int[n];
+        double distortion = assign(y, data, centroids, MathEx::squaredDistance);
+        logger.info("Final distortion: {}", distortion);
+        return new KMeans(distortion, centroids, y);
+    }
+
+    /**
+     * Incremental mini-batch k-means, which updates the centroids with
+     * the batches of a data stream and never holds the whole data. Each
+     * centroid has its own learning rate, i.e. the inverse of the number
+     * of observations assigned to it so far, so that the centroid is the
+     * running mean of its observations.
+     */
+    public static class MiniBatch implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+        /** The centroids. */
+        private final double[][] centroids;
+        /** The number of observations assigned to each centroid so far. */
+        private final long[] count;
+
+        /**
+         * Constructor.
+         * @param centroids the initial centroids, which are updated in place.
+         */
+        public MiniBatch(double[][] centroids) {
+            if (centroids.length < 2) {
+                throw new IllegalArgumentException("Invalid number of clusters: " + centroids.length);
+            }
+
+            this.centroids = centroids;
+            this.count = new long[centroids.length];
+        }
+
+        /**
+         * Returns the model with the centroids seeded by k-means|| on a
+         * sample, e.g. the first batch of stream.
+         * @param sample the sample of data.
+         * @param k the number of clusters.
+         * @return the model.
+         */
+        public static MiniBatch of(double[][] sample, int k) {
+            if (k < 2) {
+                throw new IllegalArgumentException("Invalid number of clusters: " + k);
+            }
+
+            if (sample.length < k) {
+                throw new IllegalArgumentException("The sample size is less than k: " + sample.length);
+            }
+
+            double[][] centroids = new double[k][];
+            parallelSeed(sample, centroids, new int[sample.length], MathEx::squaredDistance, 5, 2.0);
+            for (int j = 0; j < k; j++) {
+                centroids[j] = centroids[j].clone();
+            }
+            return new MiniBatch(centroids);
+        }
+
+        /**
+         * Returns the centroids.
+         * @return the centroids.
+         */
+        public double[][] centroids() {
+            return centroids;
+        }
+
+        /**
+         * Returns the cluster label of an observation.
+         * @param x an observation.
+         * @return the cluster label.
+         */
+        public int predict(double[] x) {
+            int label = 0;
+            double nearest = Double.MAX_VALUE;
+            for (int j = 0; j < centroids.length; j++) {
+                double dist = MathEx.squaredDistance(x, centroids[j]);
+                if (dist < nearest) {
+                    nearest = dist;
+                    label = j;
+                }
+            }
+            return label;
+        }
+
+        /**
+         * Updates the centroids with a batch of observations.
+         * @param batch the batch of observations.
+         * @return the distortion of batch before the update.
+         */
+        public double update(double[][] batch) {
+            int k = centroids.length;
+            int d = centroids[0].length;
+            int[] label = new int[batch.length];
+            double wcss = IntStream.range(0, batch.length).parallel().mapToDouble(i -> {
+                double[] x = batch[i];
+                double nearest = Double.MAX_VALUE;
+                for (int j = 0; j < k; j++) {
+                    double dist = MathEx.squaredDistance(x, centroids[j]);
+                    if (dist < nearest) {
+                        nearest = dist;
+                        label[i] = j;
+                    }
+                }
+                return nearest;
+            }).sum();
+
+            // Each centroid is updated by one thread with its own samples.
+            int[][] members = members(label, k);
+            IntStream.range(0, k).parallel().forEach(j -> {
+                double[] centroid = centroids[j];
+                for (int i : members[j]) {
+                    double[] x = batch[i];
+                    double eta = 1.0 / ++count[j];
+                    for (int l = 0; l < d; l++) {
+                        centroid[l] += eta * (x[l] - centroid[l]);
+                    }
+                }
+            });
+
+            return wcss;
+        }
+    }
 }
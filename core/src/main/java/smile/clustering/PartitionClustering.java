@@ -17,8 +17,10 @@
 package smile.clustering;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.function.Supplier;
 import java.util.function.ToDoubleBiFunction;
@@ -32,6 +34,8 @@ import smile.math.MathEx;
  * @author Haifeng Li
  */
 public abstract class PartitionClustering implements Serializable {
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PartitionClustering.class);
+
     /**
      * Cluster label for outliers or noises.
      */
@@ -163,6 +167,142 @@ public abstract class PartitionClustering implements Serializable {
         return d;
     }
 
+    /**
+     * Initialize cluster membership of input objects with the scalable
+     * K-Means++ algorithm, also known as k-means||. K-Means++ takes k
+     * sequential passes over the data, which dominates the clustering
+     * of large data with many clusters. Instead, k-means|| samples
+     * about {@code oversampling * k} candidates in each of a few rounds,
+     * each point independently with probability proportional to its
+     * squared distance to the nearest candidate. The distances are
+     * updated in parallel. The candidates are weighted by the number of
+     * points closest to them and reclustered into k medoids by weighted
+     * K-Means++, which only involves the candidates.
+     *
+     * <ol>
+     * <li> B. Bahmani, B. Moseley, A. Vattani, R. Kumar, and S. Vassilvitskii. Scalable K-Means++. VLDB, 2012.</li>
+     * </ol>
+     *
+     * @param <T> the type of input object.
+     * @param data data objects array of size n.
+     * @param medoids an array of size k to store cluster medoids on output.
+     * @param y an array of size n to store cluster labels on output.
+     * @param distance the distance function.
+     * @param rounds the number of sampling rounds, e.g. 5.
+     * @param oversampling the oversampling factor, e.g. 2.
+     * @return an array of size n to store the distance of each observation to nearest medoid.
+     */
+    public static <T> double[] parallelSeed(T[] data, T[] medoids, int[] y, ToDoubleBiFunction<T, T> distance, int rounds, double oversampling) {
+        if (rounds <= 0) {
+            throw new IllegalArgumentException("Invalid number of rounds: " + rounds);
+        }
+
+        if (oversampling <= 0.0) {
+            throw new IllegalArgumentException("Invalid oversampling factor: " + oversampling);
+        }
+
+        int n = data.length;
+        int k = medoids.length;
+        double[] d = new double[n];
+        Arrays.fill(d, Double.MAX_VALUE);
+
+        // The candidates and the nearest candidate of each observation.
+        List<T> candidates = new ArrayList<>();
+        candidates.add(data[MathEx.randomInt(n)]);
+        nearest(data, candidates, 0, d, y, distance);
+
+        double l = oversampling * k;
+        for (int round = 0; round < rounds; round++) {
+            double psi = MathEx.sum(d);
+            if (psi <= 0.0) break;
+
+            int start = candidates.size();
+            // Draw the samples sequentially to be reproducible.
+            for (int i = 0; i < n; i++) {
+                if (MathEx.random() < l * d[i] / psi) {
+                    candidates.add(data[i]);
+                }
+            }
+            nearest(data, candidates, start, d, y, distance);
+        }
+
+        int m = candidates.size();
+        if (m <= k) {
+            logger.info("k-means|| found {} candidates for {} clusters. Fall back to k-means++", m, k);
+            return seed(data, medoids, y, distance);
+        }
+
+        double[] weight = new double[m];
+        for (int yi : y) {
+            weight[yi]++;
+        }
+
+        // Weighted K-Means++ on the candidates.
+        double[] dc = new double[m];
+        double[] prob = new double[m];
+        Arrays.fill(dc, Double.MAX_VALUE);
+        medoids[0] = candidates.get(draw(weight));
+        for (int j = 1; j < k; j++) {
+            T medoid = medoids[j - 1];
+            IntStream.range(0, m).parallel().forEach(i -> {
+                double dist = distance.applyAsDouble(candidates.get(i), medoid);
+                if (dist < dc[i]) {
+                    dc[i] = dist;
+                }
+                prob[i] = weight[i] * dc[i];
+            });
+            medoids[j] = candidates.get(draw(prob));
+        }
+
+        Arrays.fill(d, Double.MAX_VALUE);
+        nearest(data, Arrays.asList(medoids), 0, d, y, distance);
+        return d;
+    }
+
+    /**
+     * Draws an index with probability proportional to the weights.
+     * @param weight the non-negative weights.
+     * @return the index.
+     */
+    private static int draw(double[] weight) {
+        double cutoff = MathEx.random() * MathEx.sum(weight);
+        double cost = 0.0;
+        int index = 0;
+        for (int i = 0; i < weight.length; i++) {
+            if (weight[i] > 0.0) {
+                index = i;
+                cost += weight[i];
+                if (cost >= cutoff) break;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Updates the distance of each observation to the nearest center
+     * with the new centers.
+     * @param data the observations.
+     * @param centers the centers.
+     * @param start the index of first new center.
+     * @param d the distance of each observation to the nearest center.
+     * @param y the index of nearest center.
+     * @param distance the distance function.
+     */
+    private static <T> void nearest(T[] data, List<T> centers, int start, double[] d, int[] y, ToDoubleBiFunction<T, T> distance) {
+        int end = centers.size();
+        if (start >= end) return;
+
+        IntStream.range(0, data.length).parallel().forEach(i -> {
+            for (int j = start; j < end; j++) {
+                double dist = distance.applyAsDouble(data[i], centers.get(j));
+                if (dist < d[i]) {
+                    d[i] = dist;
+                    y[i] = j;
+                }
+            }
+        });
+    }
+
     /**
      * Runs a clustering algorithm multiple times and return the best one
      * (e.g. smallest distortion).
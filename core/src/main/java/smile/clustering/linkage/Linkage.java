@@ -16,9 +16,11 @@
  */
 package smile.clustering.linkage;
 
+import java.util.function.IntToDoubleFunction;
 import java.util.stream.IntStream;
 import smile.math.MathEx;
 import smile.math.distance.Distance;
+import smile.math.distance.PairwiseDistance;
 
 /**
  * A measure of dissimilarity between clusters (i.e. sets of observations).
@@ -33,6 +35,8 @@ import smile.math.distance.Distance;
  * @author Haifeng Li
  */
 public abstract class Linkage {
+    /** The minimum data size to update the proximity matrix in parallel. */
+    private static final int PARALLEL = 4096;
     /** The data size. */
     int size;
 
@@ -135,15 +139,77 @@ public abstract class Linkage {
      */
     public abstract void merge(int i, int j);
 
+    /**
+     * Updates the distances between the merged cluster i and the
+     * other clusters except j. The distances to different clusters
+     * are independent so that they are updated in parallel for large
+     * data. The distance function should read only the distances of
+     * cluster i and j, which are not written except those of i.
+     *
+     * @param i the merged cluster id.
+     * @param j the cluster id merged into i.
+     * @param distance the function of cluster id to its new distance
+     *                 to the merged cluster.
+     */
+    void update(int i, int j, IntToDoubleFunction distance) {
+        IntStream stream = IntStream.range(0, size);
+        if (size >= PARALLEL) stream = stream.parallel();
+        stream.forEach(k -> {
+            if (k != i && k != j) {
+                proximity[index(i, k)] = (float) distance.applyAsDouble(k);
+            }
+        });
+    }
+
     /**
      * Computes the proximity matrix (linearized in column major)
-     * based on Euclidean distance.
+     * based on Euclidean distance. The distances are computed by
+     * {@link PairwiseDistance} unless it is disabled by the system
+     * property {@code smile.pairwise_distance.blocked}.
      *
      * @param data the data points.
      * @return the linearized proximity matrix based on Eulidean distance.
      */
     public static float[] proximity(double[][] data) {
-        return proximity(data, MathEx::distance);
+        return proximity(data, PairwiseDistance.isDefault());
+    }
+
+    /**
+     * Computes the proximity matrix (linearized in column major)
+     * based on Euclidean distance.
+     *
+     * @param data the data points.
+     * @param blocked if true, the distances are computed by blocked
+     *                matrix multiplication with {@link PairwiseDistance},
+     *                which is much faster for large data. Otherwise,
+     *                they are computed pair by pair.
+     * @return the linearized proximity matrix based on Eulidean distance.
+     */
+    public static float[] proximity(double[][] data, boolean blocked) {
+        if (!blocked) {
+            return proximity(data, MathEx::distance);
+        }
+
+        int n = data.length;
+        if (n > 65535) {
+            throw new IllegalArgumentException("Data size " + n + " > 65535");
+        }
+        int length = (int) ((long) n * (n+1) / 2);
+
+        float[] proximity = new float[length];
+        PairwiseDistance.distance(data, false, (i, j, m, p, tile) -> {
+            for (int b = 0; b < p; b++) {
+                int col = j + b;
+                int offset = (int) (length - (long) (n-col)*(n-col+1)/2 - col);
+                for (int a = 0; a < m; a++) {
+                    if (i + a > col) {
+                        proximity[offset + i + a] = (float) tile[a + b * m];
+                    }
+                }
+            }
+        });
+
+        return proximity;
     }
 
     /**
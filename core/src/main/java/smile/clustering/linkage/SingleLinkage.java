@@ -86,12 +86,6 @@ public class SingleLinkage extends Linkage {
 
     @Override
     public void merge(int i, int j) {
-        for (int k = 0; k < i; k++) {
-            proximity[index(i, k)] = Math.min(d(i, k), d(j, k));
-        }
-
-        for (int k = i+1; k < size; k++) {
-            proximity[index(k, i)] = Math.min(d(k, i), d(j, k));
-        }
+        update(i, j, k -> Math.min(d(i, k), d(j, k)));
     }
 }
@@ -99,13 +99,7 @@ public class UPGMALinkage extends Linkage {
     public void merge(int i, int j) {
         float sum = n[i] + n[j];
 
-        for (int k = 0; k < i; k++) {
-            proximity[index(i, k)] = d(i, k) * n[i] / sum + d(j, k) * n[j] / sum;
-        }
-
-        for (int k = i+1; k < size; k++) {
-            proximity[index(k, i)] = d(k, i) * n[i] / sum + d(j, k) * n[j] / sum;
-        }
+        update(i, j, k -> d(i, k) * n[i] / sum + d(j, k) * n[j] / sum);
 
         n[i] += n[j];
     }
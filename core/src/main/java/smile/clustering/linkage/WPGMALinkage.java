@@ -82,12 +82,6 @@ public class WPGMALinkage extends Linkage {
 
     @Override
     public void merge(int i, int j) {
-        for (int k = 0; k < i; k++) {
-            proximity[index(i, k)] = (d(i, k) + d(j, k)) / 2;
-        }
-
-        for (int k = i+1; k < size; k++) {
-            proximity[index(k, i)] = (d(k, i) + d(j, k)) / 2;
-        }
+        update(i, j, k -> (d(i, k) + d(j, k)) / 2);
     }
 }
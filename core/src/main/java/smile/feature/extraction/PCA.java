@@ -20,6 +20,7 @@ import smile.data.DataFrame;
 import smile.math.MathEx;
 import smile.math.blas.UPLO;
 import smile.math.matrix.Matrix;
+import smile.math.matrix.RandomizedSVD;
 
 import java.io.Serial;
 
@@ -198,6 +199,58 @@ public class PCA extends Projection {
         return new PCA(mu, eigvalues, eigvectors, projection, columns);
     }
 
+    /**
+     * Fits principal component analysis of top k components with
+     * randomized SVD, which is much faster than the full decomposition
+     * when k is small compared to the dimension of data. Note that
+     * the proportion of variance is relative to the top k components.
+     * @param data training data of which each row is a sample.
+     * @param k the number of principal components.
+     * @param columns the columns to fit PCA. If empty, all columns
+     *                will be used.
+     * @return the model.
+     */
+    public static PCA fit(DataFrame data, int k, String... columns) {
+        double[][] x = data.toArray(columns);
+        return fit(x, k, columns);
+    }
+
+    /**
+     * Fits principal component analysis of top k components with
+     * randomized SVD, which is much faster than the full decomposition
+     * when k is small compared to the dimension of data. Note that
+     * the proportion of variance is relative to the top k components.
+     * @param data training data of which each row is a sample.
+     * @param k the number of principal components.
+     * @param columns the columns to transform when applied on Tuple/DataFrame.
+     * @return the model.
+     */
+    public static PCA fit(double[][] data, int k, String... columns) {
+        int m = data.length;
+        int n = data[0].length;
+        if (k < 1 || k > Math.min(m, n)) {
+            throw new IllegalArgumentException("Invalid number of principal components: " + k);
+        }
+
+        double[] mu = MathEx.colMeans(data);
+        Matrix X = Matrix.of(data);
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < m; i++) {
+                X.sub(i, j, mu[j]);
+            }
+        }
+
+        Matrix.SVD svd = RandomizedSVD.svd(X, k);
+        double[] eigvalues = svd.s;
+        for (int i = 0; i < eigvalues.length; i++) {
+            eigvalues[i] *= eigvalues[i];
+        }
+
+        Matrix eigvectors = svd.V;
+        Matrix projection = getProjection(eigvalues, eigvectors, 0.95);
+        return new PCA(mu, eigvalues, eigvectors, projection, columns);
+    }
+
     /**
      * Fits principal component analysis with correlation matrix.
      * @param data training data of which each row is a sample.
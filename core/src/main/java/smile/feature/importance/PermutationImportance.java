@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.feature.importance;
+
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+import smile.classification.DataFrameClassifier;
+import smile.data.DataFrame;
+import smile.data.formula.Formula;
+import smile.data.type.StructType;
+import smile.data.vector.ValueVector;
+import smile.math.MathEx;
+import smile.regression.DataFrameRegression;
+import smile.util.Index;
+import smile.validation.metric.Error;
+import smile.validation.metric.RMSE;
+
+/**
+ * Permutation feature importance. The importance of a feature is
+ * the increase in the prediction error of the model after the values
+ * of feature are randomly permuted, which breaks the relationship
+ * between the feature and the true outcome. Compared to the impurity
+ * based importance of tree models, the permutation importance is
+ * model-agnostic and is not biased toward high cardinality features.
+ * <p>
+ * The permutation of each feature is repeated several times and
+ * the increases of error are averaged. All permutations of all
+ * features are scored in parallel. Only the permuted column is
+ * copied. Other columns of data are shared.
+ *
+ * <h2>References</h2>
+ * <ol>
+ * <li>Breiman, Leo. Random Forests. Machine Learning 45(1), 5-32, 2001.</li>
+ * <li>Fisher, Aaron, Cynthia Rudin, and Francesca Dominici. All Models are Wrong, but Many are Useful: Learning a Variable's Importance by Studying an Entire Class of Prediction Models Simultaneously. JMLR 20(177), 1-81, 2019.</li>
+ * </ol>
+ *
+ * @author Haifeng Li
+ */
+public interface PermutationImportance {
+    /**
+     * Returns the permutation importance of a classification model,
+     * which is the increase of error rate.
+     * @param model the classification model.
+     * @param data the validation data, which should not be the training data.
+     * @param repeats the number of permutations of each feature.
+     * @return the permutation importance of each predictor in
+     *         {@code model.schema()}.
+     */
+    static double[] of(DataFrameClassifier model, DataFrame data, int repeats) {
+        int[] y = model.formula().y(data).toIntArray();
+        return of(model.formula(), model.schema(), data, repeats,
+                x -> (double) Error.of(y, model.predict(x)) / y.length);
+    }
+
+    /**
+     * Returns the permutation importance of a regression model,
+     * which is the increase of RMSE.
+     * @param model the regression model.
+     * @param data the validation data, which should not be the training data.
+     * @param repeats the number of permutations of each feature.
+     * @return the permutation importance of each predictor in
+     *         {@code model.schema()}.
+     */
+    static double[] of(DataFrameRegression model, DataFrame data, int repeats) {
+        double[] y = model.formula().y(data).toDoubleArray();
+        return of(model.formula(), model.schema(), data, repeats,
+                x -> RMSE.of(y, model.predict(x)));
+    }
+
+    /**
+     * Returns the permutation importance with a generic loss function.
+     * @param formula the model formula.
+     * @param schema the schema of predictors.
+     * @param data the validation data.
+     * @param repeats the number of permutations of each feature.
+     * @param loss the loss of model on a data frame.
+     * @return the permutation importance of each predictor in schema.
+     */
+    private static double[] of(Formula formula, StructType schema, DataFrame data, int repeats, ToDoubleFunction<DataFrame> loss) {
+        if (repeats <= 0) {
+            throw new IllegalArgumentException("Invalid number of repeats: " + repeats);
+        }
+
+        int p = schema.length();
+        int n = data.size();
+        int[] column = new int[p];
+        for (int j = 0; j < p; j++) {
+            String name = schema.field(j).name();
+            if (!data.schema().index().containsKey(name)) {
+                throw new IllegalArgumentException("Predictor " + name + " is not a column of data. Formula: " + formula);
+            }
+            column[j] = data.schema().indexOf(name);
+        }
+
+        double baseline = loss.applyAsDouble(data);
+        double[] permuted = IntStream.range(0, p * repeats).parallel().mapToDouble(task -> {
+            int j = column[task / repeats];
+            ValueVector[] columns = new ValueVector[data.ncol()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = data.column(i);
+            }
+            columns[j] = columns[j].get(Index.of(MathEx.permutate(n)));
+            return loss.applyAsDouble(new DataFrame(columns));
+        }).toArray();
+
+        double[] importance = new double[p];
+        for (int j = 0; j < p; j++) {
+            for (int r = 0; r < repeats; r++) {
+                importance[j] += permuted[j * repeats + r] - baseline;
+            }
+            importance[j] /= repeats;
+        }
+        return importance;
+    }
+}
@@ -17,6 +17,7 @@
 package smile.feature.importance;
 
 import smile.base.cart.CART;
+import smile.base.cart.FlatTreeSHAP;
 import smile.data.DataFrame;
 import smile.data.Tuple;
 import smile.data.formula.Formula;
@@ -73,4 +74,18 @@ public interface TreeSHAP extends SHAP<Tuple> {
         formula().bind(data.schema());
         return shap(data.stream().parallel());
     }
+
+    /**
+     * Returns the SHAP values of each row of a data frame. The trees are
+     * compiled into flat arrays once and the rows are explained in
+     * parallel, which is much faster than calling {@link #shap(Tuple)}
+     * row by row on large data.
+     * @param data the data.
+     * @return the SHAP values of size {@code n x (p * k)}, where
+     *         {@code p} is the number of predictors and {@code k} is
+     *         the number of classes (1 for regression).
+     */
+    default double[][] shapValues(DataFrame data) {
+        return new FlatTreeSHAP(formula(), trees()).shap(data);
+    }
 }
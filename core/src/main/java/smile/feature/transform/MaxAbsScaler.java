@@ -22,6 +22,7 @@ import smile.data.transform.InvertibleColumnTransform;
 import smile.data.type.StructField;
 import smile.math.Function;
 import smile.math.MathEx;
+import smile.stat.Summary;
 import smile.data.DataFrame;
 import smile.data.type.StructType;
 
@@ -30,6 +31,9 @@ import smile.data.type.StructType;
  * translates each feature individually such that the maximal absolute value
  * of each feature in the training set will be 1.0. It does not shift/center
  * the data, and thus does not destroy any sparsity.
+ * <p>
+ * NaN and null are skipped when looking for the maximal absolute value,
+ * and are passed through as NaN by the transformation.
  *
  * @author Haifeng Li
  */
@@ -62,11 +66,8 @@ public interface MaxAbsScaler {
                 throw new IllegalArgumentException(String.format("%s is not numeric", field.name()));
             }
 
-            double[] vector = data.column(column).toDoubleArray();
-            double max = 0.0;
-            for (double xi : vector) {
-                max = Math.max(max, Math.abs(xi));
-            }
+            Summary summary = Summary.of(data.column(column));
+            double max = summary.count() == 0 ? 0.0 : Math.max(Math.abs(summary.min()), Math.abs(summary.max()));
             double scale = MathEx.isZero(max) ? 1.0 : max;
 
             Function transform = new Function() {
@@ -23,6 +23,7 @@ import smile.data.transform.InvertibleColumnTransform;
 import smile.data.type.StructField;
 import smile.math.Function;
 import smile.math.MathEx;
+import smile.stat.Summary;
 import smile.data.DataFrame;
 import smile.data.type.StructType;
 
@@ -35,6 +36,10 @@ import smile.data.type.StructType;
  * below the lower limit are replaced with the lower limit. Often, the
  * specified range is indicate in terms of percentiles of the original
  * distribution (like the 5th and 95th percentile).
+ * <p>
+ * The minimum and maximum of a column are taken over the non-missing
+ * values, i.e. NaN and null don't take part in the fit and remain NaN
+ * after scaling.
  *
  * @author Haifeng Li
  */
@@ -67,9 +72,9 @@ public interface Scaler {
                 throw new IllegalArgumentException(String.format("%s is not numeric", field.name()));
             }
 
-            double[] vector = data.column(column).toDoubleArray();
-            double lo = MathEx.min(vector);
-            double hi = MathEx.max(vector);
+            Summary summary = Summary.of(data.column(column));
+            double lo = summary.min();
+            double hi = summary.max();
             double span = hi - lo;
             double scale = MathEx.isZero(span) ? 1.0 : hi - lo;
 
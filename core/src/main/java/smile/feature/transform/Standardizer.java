@@ -23,6 +23,7 @@ import smile.data.transform.InvertibleColumnTransform;
 import smile.data.type.StructField;
 import smile.math.Function;
 import smile.math.MathEx;
+import smile.stat.Summary;
 import smile.data.DataFrame;
 import smile.data.type.StructType;
 
@@ -32,6 +33,11 @@ import smile.data.type.StructType;
  * a Gaussian distribution and are also not robust when outliers present.
  * A robust alternative is to subtract the median and divide by the IQR
  * by <code>RobustStandardizer</code>.
+ * <p>
+ * The mean and standard deviation are estimated from the non-missing
+ * values only, i.e. NaN and null are skipped. So a column with a few
+ * missing values is still standardized rather than mapped to NaN
+ * entirely. The missing values stay NaN after the transformation.
  *
  * @author Haifeng Li
  */
@@ -64,9 +70,9 @@ public interface Standardizer {
                 throw new IllegalArgumentException(String.format("%s is not numeric", field.name()));
             }
 
-            double[] vector = data.column(column).toDoubleArray();
-            double mu = MathEx.mean(vector);
-            double sd = MathEx.stdev(vector);
+            Summary summary = Summary.of(data.column(column));
+            double mu = summary.mean();
+            double sd = summary.sd();
             double scale = MathEx.isZero(sd) ? 1.0 : sd;
 
             Function transform = new Function() {
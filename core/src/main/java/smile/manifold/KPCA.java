@@ -26,6 +26,7 @@ import smile.math.blas.UPLO;
 import smile.math.kernel.MercerKernel;
 import smile.math.matrix.ARPACK;
 import smile.math.matrix.Matrix;
+import smile.math.matrix.RandomizedSVD;
 
 /**
  * Kernel principal component analysis. Kernel PCA is an extension of
@@ -71,8 +72,11 @@ public class KPCA<T> implements Function<T, double[]>, Serializable {
      * @param d the dimension of the projection.
      * @param threshold only principal components with eigenvalues
      *                  larger than the given threshold will be kept.
+     * @param randomized if true, computes the top eigenvectors of kernel
+     *                   matrix with randomized SVD instead of ARPACK,
+     *                   which is faster for large data.
      */
-    public record Options(int d, double threshold) {
+    public record Options(int d, double threshold, boolean randomized) {
         /** Constructor. */
         public Options {
             if (d < 2) {
@@ -83,6 +87,16 @@ public class KPCA<T> implements Function<T, double[]>, Serializable {
             }
         }
 
+        /**
+         * Constructor.
+         * @param d the dimension of the projection.
+         * @param threshold only principal components with eigenvalues
+         *                  larger than the given threshold will be kept.
+         */
+        public Options(int d, double threshold) {
+            this(d, threshold, false);
+        }
+
         /**
          * Constructor.
          * @param d the dimension of the projection.
@@ -99,6 +113,7 @@ public class KPCA<T> implements Function<T, double[]>, Serializable {
             Properties props = new Properties();
             props.setProperty("smile.kpca.d", Integer.toString(d));
             props.setProperty("smile.kpca.threshold", Double.toString(threshold));
+            props.setProperty("smile.kpca.randomized", Boolean.toString(randomized));
             return props;
         }
 
@@ -111,7 +126,8 @@ public class KPCA<T> implements Function<T, double[]>, Serializable {
         public static Options of(Properties props) {
             int d = Integer.parseInt(props.getProperty("smile.kpca.d", "2"));
             double threshold = Double.parseDouble(props.getProperty("smile.kpca.threshold", "0.0001"));
-            return new Options(d, threshold);
+            boolean randomized = Boolean.parseBoolean(props.getProperty("smile.kpca.randomized", "false"));
+            return new Options(d, threshold, randomized);
         }
     }
 
@@ -200,11 +216,20 @@ public class KPCA<T> implements Function<T, double[]>, Serializable {
             }
         }
 
-        K.uplo(UPLO.LOWER);
-        Matrix.EVD eigen = ARPACK.syev(K, ARPACK.SymmOption.LA, d);
-
-        double[] eigvalues = eigen.wr;
-        Matrix eigvectors = eigen.Vr;
+        double[] eigvalues;
+        Matrix eigvectors;
+        if (options.randomized) {
+            // The centered kernel matrix is positive semi-definite so that
+            // its singular values and vectors are the eigenvalues and vectors.
+            Matrix.SVD svd = RandomizedSVD.svd(K, d);
+            eigvalues = svd.s;
+            eigvectors = svd.U;
+        } else {
+            K.uplo(UPLO.LOWER);
+            Matrix.EVD eigen = ARPACK.syev(K, ARPACK.SymmOption.LA, d);
+            eigvalues = eigen.wr;
+            eigvectors = eigen.Vr;
+        }
 
         int p = (int) Arrays.stream(eigvalues).limit(d).filter(e -> e/n > options.threshold).count();
 
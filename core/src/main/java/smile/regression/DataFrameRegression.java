@@ -18,11 +18,14 @@ package smile.regression;
 
 import java.util.Arrays;
 import java.util.Properties;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import smile.data.CategoricalEncoder;
 import smile.data.DataFrame;
 import smile.data.Tuple;
 import smile.data.formula.Formula;
 import smile.data.type.StructType;
+import smile.data.vector.ValueVector;
 
 /**
  * Regression trait on DataFrame.
@@ -81,6 +84,32 @@ public interface DataFrameRegression extends Regression<Tuple> {
         return data.stream().mapToDouble(this::predict).toArray();
     }
 
+    /**
+     * Predicts the dependent variables of a stream of data chunks, e.g.
+     * the row groups of a large Parquet file. The formula is bound once
+     * per chunk and the rows of each chunk are scored in parallel. The
+     * returned stream is lazy. An input chunk is read and scored only
+     * when the consumer, e.g. {@code Write.csv(Stream, Path)}, pulls
+     * the next prediction frame. Therefore, the memory footprint stays
+     * flat no matter how large the input is.
+     *
+     * @param chunks the data chunks.
+     * @return the stream of predictions, one data frame of column
+     *         "prediction" per input chunk.
+     */
+    default Stream<DataFrame> predict(Stream<DataFrame> chunks) {
+        return chunks.map(chunk -> {
+            // Binds the formula to the chunk's schema once
+            // before scoring the rows in parallel.
+            formula().bind(chunk.schema());
+
+            int n = chunk.size();
+            double[] y = new double[n];
+            IntStream.range(0, n).parallel().forEach(i -> y[i] = predict(chunk.get(i)));
+            return new DataFrame(ValueVector.of("prediction", y));
+        });
+    }
+
     /**
      * Fits a vector regression model on data frame.
      *
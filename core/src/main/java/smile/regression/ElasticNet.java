@@ -181,4 +181,85 @@ public class ElasticNet {
         double b = ym - MathEx.dot(w, center);
         return new LinearModel(formula, schema, X, y, w, b);
     }
+
+    /**
+     * Fits an Elastic Net model on single precision data.
+     * The variables are named V1, V2, ... and the response is named y
+     * in the model formula.
+     * @param x the explanatory variables. NO NEED to include a constant
+     *          column of 1s for bias.
+     * @param y the response variable.
+     * @param lambda1 the L1 shrinkage/regularization parameter
+     * @param lambda2 the L2 shrinkage/regularization parameter
+     * @return the model.
+     */
+    public static LinearModel fit(float[][] x, float[] y, double lambda1, double lambda2) {
+        return fit(x, y, new Options(lambda1, lambda2));
+    }
+
+    /**
+     * Fits an Elastic Net model on single precision data. The augmented
+     * design matrix of the equivalent lasso problem stays in single
+     * precision, of which the matrix-vector multiplications in the
+     * interior point method are performed by BLAS sgemv. It halves the
+     * memory footprint and bandwidth. The optimization itself runs in
+     * double precision so that the duality gap tolerance is still met
+     * for the single precision data. The variables are named V1, V2, ...
+     * and the response is named y in the model formula.
+     *
+     * @param x the explanatory variables. NO NEED to include a constant
+     *          column of 1s for bias.
+     * @param y the response variable.
+     * @param options the hyperparameters.
+     * @return the model.
+     */
+    public static LinearModel fit(float[][] x, float[] y, Options options) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException(String.format("The sizes of X and Y don't match: %d != %d", x.length, y.length));
+        }
+
+        double c = 1 / Math.sqrt(1 + options.lambda2);
+
+        StructType data = FloatDesignMatrix.schema(x[0].length);
+        Formula formula = Formula.lhs("y").expand(data);
+        StructType schema = formula.bind(data);
+
+        smile.math.matrix.fp32.Matrix X = FloatDesignMatrix.of(x, false);
+        int n = X.nrow();
+        int p = X.ncol();
+        double[][] stats = FloatDesignMatrix.colMeansAndSds(X);
+        double[] center = stats[0];
+        double[] scale = stats[1];
+
+        // Pads 0 at the tail
+        double[] y2 = new double[n + p];
+
+        // Center y2 before calling LASSO.
+        // Otherwise, padding zeros become negative when LASSO centers y2 again.
+        double ym = 0.0;
+        for (float yi : y) ym += yi;
+        ym /= n;
+        for (int i = 0; i < n; i++) {
+            y2[i] = y[i] - ym;
+        }
+
+        // Scales the original data array and pads a weighted identity matrix
+        smile.math.matrix.fp32.Matrix X2 = new smile.math.matrix.fp32.Matrix(n + p, p);
+        float padding = (float) (c * Math.sqrt(options.lambda2));
+        for (int j = 0; j < p; j++) {
+            for (int i = 0; i < n; i++) {
+                X2.set(i, j, (float) (c * (X.get(i, j) - center[j]) / scale[j]));
+            }
+
+            X2.set(j + n, j, padding);
+        }
+
+        double[] w = LASSO.train(new FloatDesignMatrix(X2), y2, options.lambda1 * c, options.tol, options.maxIter);
+        for (int i = 0; i < p; i++) {
+            w[i] = c * w[i] / scale[i];
+        }
+
+        double b = ym - MathEx.dot(w, center);
+        return new LinearModel(formula, schema, FloatDesignMatrix.names(p, false), X, y, w, b);
+    }
 }
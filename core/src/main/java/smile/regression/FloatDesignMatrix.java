@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.regression;
+
+import java.io.Serial;
+import java.util.Arrays;
+import smile.data.type.DataTypes;
+import smile.data.type.StructField;
+import smile.data.type.StructType;
+import smile.math.blas.Transpose;
+import smile.math.matrix.IMatrix;
+import smile.math.matrix.Matrix;
+
+import static smile.math.blas.Transpose.NO_TRANSPOSE;
+
+/**
+ * The double precision view of a single precision design matrix.
+ * The data stays in single precision and the matrix-vector
+ * multiplications are performed by BLAS sgemv, of which the input
+ * and output vectors are converted from/to double precision. It lets
+ * the iterative solvers, which work on double precision vectors, run
+ * on single precision data with half of memory bandwidth.
+ * <p>
+ * The view is not multi-thread safe as it reuses the workspace.
+ *
+ * @author Haifeng Li
+ */
+class FloatDesignMatrix extends IMatrix {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** The single precision design matrix. */
+    final smile.math.matrix.fp32.Matrix X;
+    /** The workspace of input vector. */
+    private final float[] x;
+    /** The workspace of output vector. */
+    private final float[] y;
+
+    /**
+     * Constructor.
+     * @param X the single precision design matrix.
+     */
+    FloatDesignMatrix(smile.math.matrix.fp32.Matrix X) {
+        this.X = X;
+        int k = Math.max(X.nrow(), X.ncol());
+        this.x = new float[k];
+        this.y = new float[k];
+    }
+
+    @Override
+    public int nrow() {
+        return X.nrow();
+    }
+
+    @Override
+    public int ncol() {
+        return X.ncol();
+    }
+
+    @Override
+    public long size() {
+        return X.size();
+    }
+
+    @Override
+    public void mv(Transpose trans, double alpha, double[] x, double beta, double[] y) {
+        int m = trans == NO_TRANSPOSE ? X.nrow() : X.ncol();
+        int n = trans == NO_TRANSPOSE ? X.ncol() : X.nrow();
+        // The workspace is long enough for both orientations
+        // as BLAS only accesses the leading elements.
+        float[] xf = this.x;
+        float[] yf = this.y;
+        for (int i = 0; i < n; i++) {
+            xf[i] = (float) x[i];
+        }
+
+        X.mv(trans, 1.0f, xf, 0.0f, yf);
+        if (beta == 0.0) {
+            for (int i = 0; i < m; i++) {
+                y[i] = alpha * yf[i];
+            }
+        } else {
+            for (int i = 0; i < m; i++) {
+                y[i] = alpha * yf[i] + beta * y[i];
+            }
+        }
+    }
+
+    @Override
+    public void mv(double[] work, int inputOffset, int outputOffset) {
+        double[] out = new double[X.nrow()];
+        mv(NO_TRANSPOSE, 1.0, Arrays.copyOfRange(work, inputOffset, inputOffset + X.ncol()), 0.0, out);
+        System.arraycopy(out, 0, work, outputOffset, out.length);
+    }
+
+    @Override
+    public void tv(double[] work, int inputOffset, int outputOffset) {
+        double[] out = new double[X.ncol()];
+        mv(Transpose.TRANSPOSE, 1.0, Arrays.copyOfRange(work, inputOffset, inputOffset + X.nrow()), 0.0, out);
+        System.arraycopy(out, 0, work, outputOffset, out.length);
+    }
+
+    /**
+     * Returns {@code X' * X} in double precision, which is
+     * computed by single precision BLAS-3 routine.
+     * @return {@code X' * X}.
+     */
+    public Matrix ata() {
+        return toMatrix(X.ata());
+    }
+
+    /**
+     * Returns the double precision copy of a matrix.
+     * @param A the single precision matrix.
+     * @return the double precision matrix.
+     */
+    static Matrix toMatrix(smile.math.matrix.fp32.Matrix A) {
+        int m = A.nrow();
+        int n = A.ncol();
+        Matrix B = new Matrix(m, n);
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < m; i++) {
+                B.set(i, j, A.get(i, j));
+            }
+        }
+
+        if (A.isSymmetric()) {
+            B.uplo(A.uplo());
+        }
+        return B;
+    }
+
+    /**
+     * Returns the single precision design matrix of data.
+     * @param x the data.
+     * @param bias if true, include the first column of all 1's.
+     * @return the design matrix.
+     */
+    static smile.math.matrix.fp32.Matrix of(float[][] x, boolean bias) {
+        int n = x.length;
+        int p = x[0].length;
+        int offset = bias ? 1 : 0;
+        smile.math.matrix.fp32.Matrix X = new smile.math.matrix.fp32.Matrix(n, p + offset);
+        for (int i = 0; i < n; i++) {
+            float[] xi = x[i];
+            if (xi.length != p) {
+                throw new IllegalArgumentException(String.format("Vectors have different length: %d vs %d", xi.length, p));
+            }
+
+            if (bias) X.set(i, 0, 1.0f);
+            for (int j = 0; j < p; j++) {
+                X.set(i, j + offset, xi[j]);
+            }
+        }
+        return X;
+    }
+
+    /**
+     * Returns the column names of design matrix, which follows
+     * the convention of {@code DataFrame.of(float[][])}.
+     * @param p the number of variables.
+     * @param bias if true, the first column is the intercept.
+     * @return the column names.
+     */
+    static String[] names(int p, boolean bias) {
+        int offset = bias ? 1 : 0;
+        String[] names = new String[p + offset];
+        if (bias) names[0] = "Intercept";
+        for (int j = 0; j < p; j++) {
+            names[j + offset] = "V" + (j + 1);
+        }
+        return names;
+    }
+
+    /**
+     * Returns the schema of data with variables V1, V2, ...
+     * and the response variable y.
+     * @param p the number of variables.
+     * @return the schema.
+     */
+    static StructType schema(int p) {
+        StructField[] fields = new StructField[p + 1];
+        for (int j = 0; j < p; j++) {
+            fields[j] = new StructField("V" + (j + 1), DataTypes.FloatType);
+        }
+        fields[p] = new StructField("y", DataTypes.FloatType);
+        return new StructType(fields);
+    }
+
+    /**
+     * Returns the column means and standard deviations in double
+     * precision, which agree with {@code Matrix.colMeans()} and
+     * {@code Matrix.colSds()}.
+     * @param X the design matrix.
+     * @return the column means and standard deviations.
+     */
+    static double[][] colMeansAndSds(smile.math.matrix.fp32.Matrix X) {
+        int n = X.nrow();
+        int p = X.ncol();
+        double[] center = new double[p];
+        double[] scale = new double[p];
+        for (int j = 0; j < p; j++) {
+            double mu = 0.0;
+            for (int i = 0; i < n; i++) {
+                mu += X.get(i, j);
+            }
+            mu /= n;
+
+            double variance = 0.0;
+            for (int i = 0; i < n; i++) {
+                double d = X.get(i, j) - mu;
+                variance += d * d;
+            }
+
+            center[j] = mu;
+            scale[j] = Math.sqrt(variance / n);
+        }
+        return new double[][]{center, scale};
+    }
+}
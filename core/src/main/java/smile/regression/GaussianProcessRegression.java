@@ -22,6 +22,10 @@ import java.util.Properties;
 import smile.math.BFGS;
 import smile.math.DifferentiableMultivariateFunction;
 import smile.math.MathEx;
+import smile.math.distance.PairwiseDistance;
+import smile.math.kernel.DotProductKernel;
+import smile.math.kernel.IsotropicKernel;
+import smile.math.kernel.KernelMatrix;
 import smile.math.kernel.MercerKernel;
 import smile.math.matrix.Matrix;
 import smile.stat.distribution.MultivariateGaussianDistribution;
@@ -267,8 +271,8 @@ public class GaussianProcessRegression<T> implements Regression<T> {
             throw new UnsupportedOperationException("The Cholesky decomposition of kernel matrix is not available.");
         }
 
-        Matrix Kx = kernel.K(samples);
-        Matrix Kt = kernel.K(samples, regressors);
+        Matrix Kx = K(kernel, samples);
+        Matrix Kt = K(kernel, samples, regressors);
 
         Matrix Kv = Kt.transpose(false);
         cholesky.solve(Kv);
@@ -424,7 +428,7 @@ public class GaussianProcessRegression<T> implements Regression<T> {
             noise = params[params.length - 1];
         }
 
-        Matrix K = kernel.K(x);
+        Matrix K = K(kernel, x);
         K.addDiag(noise);
 
         Matrix.Cholesky cholesky = K.cholesky(true);
@@ -468,9 +472,9 @@ public class GaussianProcessRegression<T> implements Regression<T> {
         }
 
         double noise = options.noise;
-        Matrix G = kernel.K(x, t);
+        Matrix G = K(kernel, x, t);
         Matrix K = G.ata();
-        Matrix Kt = kernel.K(t);
+        Matrix Kt = K(kernel, t);
         K.add(noise, Kt);
         Matrix.LU lu = K.lu(true);
         double[] Gty = G.tv(y);
@@ -510,8 +514,8 @@ public class GaussianProcessRegression<T> implements Regression<T> {
             y = target;
         }
 
-        Matrix E = kernel.K(x, t);
-        Matrix W = kernel.K(t);
+        Matrix E = K(kernel, x, t);
+        Matrix W = K(kernel, t);
         Matrix.EVD eigen = W.eigen(false, true, true).sort();
         Matrix U = eigen.Vr;
         Matrix D = eigen.diag();
@@ -538,6 +542,41 @@ public class GaussianProcessRegression<T> implements Regression<T> {
         return new GaussianProcessRegression<>(kernel, x, w, noise, mean, std);
     }
 
+    /**
+     * Returns the kernel matrix. The kernel matrix of an isotropic or
+     * dot product kernel on dense vectors is computed by the blocked
+     * engine of {@link KernelMatrix} unless it is disabled by the system
+     * property {@code smile.pairwise_distance.blocked}.
+     * @param kernel the Mercer kernel.
+     * @param x the samples.
+     * @param <T> the data type of samples.
+     * @return the kernel matrix.
+     */
+    private static <T> Matrix K(MercerKernel<T> kernel, T[] x) {
+        if (x instanceof double[][] data && PairwiseDistance.isDefault()) {
+            if (kernel instanceof IsotropicKernel isotropic) return KernelMatrix.isotropic(isotropic, data);
+            if (kernel instanceof DotProductKernel dot) return KernelMatrix.dot(dot, data);
+        }
+        return kernel.K(x);
+    }
+
+    /**
+     * Returns the kernel matrix between two sets of samples.
+     * @param kernel the Mercer kernel.
+     * @param x the row samples.
+     * @param y the column samples.
+     * @param <T> the data type of samples.
+     * @return the kernel matrix.
+     * @see #K(MercerKernel, Object[])
+     */
+    private static <T> Matrix K(MercerKernel<T> kernel, T[] x, T[] y) {
+        if (x instanceof double[][] a && y instanceof double[][] b && PairwiseDistance.isDefault()) {
+            if (kernel instanceof IsotropicKernel isotropic) return KernelMatrix.isotropic(isotropic, a, b);
+            if (kernel instanceof DotProductKernel dot) return KernelMatrix.dot(dot, a, b);
+        }
+        return kernel.K(x, y);
+    }
+
     /**
      * Log marginal likelihood as optimization objective function.
      * @param <T> the data type of samples.
@@ -558,7 +597,7 @@ public class GaussianProcessRegression<T> implements Regression<T> {
             kernel = kernel.of(params);
             double noise = params[params.length - 1];
 
-            Matrix K = kernel.K(x);
+            Matrix K = K(kernel, x);
             K.addDiag(noise);
 
             Matrix.Cholesky cholesky = K.cholesky(true);
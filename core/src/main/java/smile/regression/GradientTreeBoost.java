@@ -165,8 +165,16 @@ public class GradientTreeBoost implements DataFrameRegression, TreeSHAP {
      *                 Setting nodeSize = 5 generally gives good results.
      * @param shrinkage the shrinkage parameter in (0, 1] controls the learning rate of procedure.
      * @param subsample the sampling fraction for stochastic tree boosting.
+     * @param maxBins the maximum number of quantile bins of ordinal columns
+     *                for histogram-based split finding. If 0, the exact splits
+     *                are searched on the sorted values. 255 bins is usually
+     *                a good trade-off between speed and accuracy.
+     * @param patience the number of iterations without improvement of
+     *                 the validation loss before the training stops early.
+     *                 If 0, all trees are trained. It takes effect only
+     *                 if a validation data set is provided.
      */
-    public record Options(Loss loss, int ntrees, int maxDepth, int maxNodes, int nodeSize, double shrinkage, double subsample) {
+    public record Options(Loss loss, int ntrees, int maxDepth, int maxNodes, int nodeSize, double shrinkage, double subsample, int maxBins, int patience) {
         /** Constructor. */
         public Options {
             if (ntrees < 1) {
@@ -192,6 +200,14 @@ public class GradientTreeBoost implements DataFrameRegression, TreeSHAP {
             if (subsample <= 0 || subsample > 1) {
                 throw new IllegalArgumentException("Invalid sampling fraction: " + subsample);
             }
+
+            if (maxBins != 0 && (maxBins < 2 || maxBins > Bins.MAX_BINS)) {
+                throw new IllegalArgumentException("Invalid maximum number of bins: " + maxBins);
+            }
+
+            if (patience < 0) {
+                throw new IllegalArgumentException("Invalid patience: " + patience);
+            }
         }
 
         /** Constructor. */
@@ -199,6 +215,41 @@ public class GradientTreeBoost implements DataFrameRegression, TreeSHAP {
             this(Loss.lad(), 500, 20, 6, 5, 0.05, 0.7);
         }
 
+        /**
+         * Constructor.
+         * @param loss loss function for regression. By default, least absolute deviation
+         *             is employed for robust regression.
+         * @param ntrees the number of iterations (trees).
+         * @param maxDepth the maximum depth of the tree.
+         * @param maxNodes the maximum number of leaf nodes in the tree.
+         * @param nodeSize the minimum size of leaf nodes.
+         *                 Setting nodeSize = 5 generally gives good results.
+         * @param shrinkage the shrinkage parameter in (0, 1] controls the learning rate of procedure.
+         * @param subsample the sampling fraction for stochastic tree boosting.
+         */
+        public Options(Loss loss, int ntrees, int maxDepth, int maxNodes, int nodeSize, double shrinkage, double subsample) {
+            this(loss, ntrees, maxDepth, maxNodes, nodeSize, shrinkage, subsample, 0);
+        }
+
+        /**
+         * Constructor.
+         * @param loss loss function for regression. By default, least absolute deviation
+         *             is employed for robust regression.
+         * @param ntrees the number of iterations (trees).
+         * @param maxDepth the maximum depth of the tree.
+         * @param maxNodes the maximum number of leaf nodes in the tree.
+         * @param nodeSize the minimum size of leaf nodes.
+         *                 Setting nodeSize = 5 generally gives good results.
+         * @param shrinkage the shrinkage parameter in (0, 1] controls the learning rate of procedure.
+         * @param subsample the sampling fraction for stochastic tree boosting.
+         * @param maxBins the maximum number of quantile bins of ordinal columns
+         *                for histogram-based split finding. If 0, the exact splits
+         *                are searched on the sorted values.
+         */
+        public Options(Loss loss, int ntrees, int maxDepth, int maxNodes, int nodeSize, double shrinkage, double subsample, int maxBins) {
+            this(loss, ntrees, maxDepth, maxNodes, nodeSize, shrinkage, subsample, maxBins, 0);
+        }
+
         /**
          * Returns the persistent set of hyperparameters.
          * @return the persistent set.
@@ -212,6 +263,8 @@ public class GradientTreeBoost implements DataFrameRegression, TreeSHAP {
             props.setProperty("smile.gradient_boost.node_size", Integer.toString(nodeSize));
             props.setProperty("smile.gradient_boost.shrinkage", Double.toString(shrinkage));
             props.setProperty("smile.gradient_boost.sampling_rate", Double.toString(subsample));
+            props.setProperty("smile.gradient_boost.max_bins", Integer.toString(maxBins));
+            props.setProperty("smile.gradient_boost.patience", Integer.toString(patience));
             return props;
         }
 
@@ -229,7 +282,9 @@ public class GradientTreeBoost implements DataFrameRegression, TreeSHAP {
             int nodeSize = Integer.parseInt(props.getProperty("smile.gradient_boost.node_size", "5"));
             double shrinkage = Double.parseDouble(props.getProperty("smile.gradient_boost.shrinkage", "0.05"));
             double subsample = Double.parseDouble(props.getProperty("smile.gradient_boost.sampling_rate", "0.7"));
-            return new Options(loss, ntrees, maxDepth, maxNodes, nodeSize, shrinkage, subsample);
+            int maxBins = Integer.parseInt(props.getProperty("smile.gradient_boost.max_bins", "0"));
+            int patience = Integer.parseInt(props.getProperty("smile.gradient_boost.patience", "0"));
+            return new Options(loss, ntrees, maxDepth, maxNodes, nodeSize, shrinkage, subsample, maxBins, patience);
         }
     }
 
@@ -253,6 +308,25 @@ public class GradientTreeBoost implements DataFrameRegression, TreeSHAP {
      * @return the model.
      */
     public static GradientTreeBoost fit(Formula formula, DataFrame data, Options options) {
+        return fit(formula, data, null, options);
+    }
+
+    /**
+     * Fits a gradient tree boosting for regression with early stopping.
+     * The predictions on the validation data are updated incrementally
+     * with each new tree. The training stops if the validation loss
+     * doesn't improve for {@code options.patience} iterations, and the
+     * returned model is trimmed to the iteration with the lowest
+     * validation loss. If the patience is 0, the validation loss is
+     * only logged and all trees are kept.
+     *
+     * @param formula a symbolic description of the model to be fitted.
+     * @param data the data frame of the explanatory and response variables.
+     * @param validation the validation data to monitor the loss. May be null.
+     * @param options the hyperparameters.
+     * @return the model.
+     */
+    public static GradientTreeBoost fit(Formula formula, DataFrame data, DataFrame validation, Options options) {
         formula = formula.expand(data.schema());
         DataFrame x = formula.x(data);
         double[] y = formula.y(data).toDoubleArray();
@@ -262,7 +336,8 @@ public class GradientTreeBoost implements DataFrameRegression, TreeSHAP {
         var shrinkage = options.shrinkage;
         final int n = x.size();
         final int N = (int) Math.round(n * options.subsample);
-        final int[][] order = CART.order(x);
+        final Bins bins = options.maxBins > 0 ? Bins.of(x, options.maxBins) : null;
+        final int[][] order = bins == null ? CART.order(x) : null;
 
         int[] permutation = IntStream.range(0, n).toArray();
         int[] samples = new int[n];
@@ -273,6 +348,18 @@ public class GradientTreeBoost implements DataFrameRegression, TreeSHAP {
 
         RegressionTree[] trees = new RegressionTree[ntrees];
 
+        DataFrame vx = null;
+        double[] vy = null;
+        double[] vpred = null;
+        if (validation != null) {
+            vx = formula.x(validation);
+            vy = formula.y(validation).toDoubleArray();
+            vpred = new double[vx.size()];
+            Arrays.fill(vpred, b);
+        }
+
+        int size = ntrees;
+        double bestLoss = Double.POSITIVE_INFINITY;
         for (int t = 0; t < ntrees; t++) {
             Arrays.fill(samples, 0);
             MathEx.permutate(permutation);
@@ -281,13 +368,33 @@ public class GradientTreeBoost implements DataFrameRegression, TreeSHAP {
             }
 
             logger.info("Training {} tree", Strings.ordinal(t+1));
-            trees[t] = new RegressionTree(x, loss, field, options.maxDepth, options.maxNodes, options.nodeSize, x.ncol(), samples, order);
+            trees[t] = new RegressionTree(x, loss, field, options.maxDepth, options.maxNodes, options.nodeSize, x.ncol(), samples, order, bins);
 
             for (int i = 0; i < n; i++) {
                 residual[i] -= shrinkage * trees[t].predict(x.get(i));
             }
+
+            if (vx != null) {
+                for (int i = 0; i < vpred.length; i++) {
+                    vpred[i] += shrinkage * trees[t].predict(vx.get(i));
+                }
+
+                double validationLoss = loss.loss(vy, vpred);
+                logger.info("Validation loss after {} trees: {}", t+1, validationLoss);
+                if (validationLoss < bestLoss) {
+                    bestLoss = validationLoss;
+                    size = t + 1;
+                } else if (options.patience > 0 && t + 1 - size >= options.patience) {
+                    logger.info("Early stopping after {} trees", t+1);
+                    break;
+                }
+            }
         }
-        
+
+        if (options.patience > 0 && size < ntrees) {
+            trees = Arrays.copyOf(trees, size);
+        }
+
         double[] importance = new double[x.ncol()];
         for (RegressionTree tree : trees) {
             double[] imp = tree.importance();
@@ -368,6 +475,17 @@ public class GradientTreeBoost implements DataFrameRegression, TreeSHAP {
         return y;
     }
 
+    /**
+     * Compiles the model into flat arrays for fast batch inference.
+     *
+     * @return the compiled model.
+     */
+    public FlatForest compile() {
+        double[] weight = new double[trees.length];
+        Arrays.fill(weight, shrinkage);
+        return new FlatForest(formula, trees, new int[trees.length], weight, new double[] {b}, FlatForest.Link.IDENTITY, null);
+    }
+
     /**
      * Test the model on a validation dataset.
      *
@@ -192,7 +192,7 @@ public class LASSO {
      * @param maxIter the maximum number of IPM (Newton) iterations.
      * @return the model.
      */
-    static double[] train(Matrix x, double[] y, double lambda, double tol, int maxIter) {
+    static double[] train(IMatrix x, double[] y, double lambda, double tol, int maxIter) {
         // INITIALIZE
         // IPM PARAMETERS
         final int MU = 2;             // updating parameter of t
@@ -407,7 +407,7 @@ public class LASSO {
      */
     static class PCG extends IMatrix implements IMatrix.Preconditioner {
         /** The design matrix. */
-        final Matrix A;
+        final IMatrix A;
         /** A' * A */
         Matrix AtA;
         /** The number of columns of A. */
@@ -428,7 +428,7 @@ public class LASSO {
         /**
          * Constructor.
          */
-        PCG(Matrix A, double[] d1, double[] d2, double[] prb, double[] prs) {
+        PCG(IMatrix A, double[] d1, double[] d2, double[] prb, double[] prs) {
             this.A = A;
             this.d1 = d1;
             this.d2 = d2;
@@ -441,7 +441,11 @@ public class LASSO {
             atax = new double[p];
 
             if (A.ncol() < 10000) {
-                AtA = A.ata();
+                AtA = switch (A) {
+                    case Matrix matrix -> matrix.ata();
+                    case FloatDesignMatrix matrix -> matrix.ata();
+                    default -> null;
+                };
             }
         }
 
@@ -159,19 +159,48 @@ public class LinearModel implements DataFrameRegression {
      * @param b the intercept.
      */
     public LinearModel(Formula formula, StructType schema, Matrix X, double[] y, double[] w, double b) {
+        this(formula, schema, X.colNames(), y, w, b, fit(X, w, b));
+    }
+
+    /**
+     * Constructor of the model fitted on single precision data.
+     * The fitted values are computed in single precision while
+     * the residuals and statistics are accumulated in double precision.
+     *
+     * @param formula a symbolic description of the model to be fitted.
+     * @param schema the schema of input data.
+     * @param predictors the column names of design matrix.
+     * @param X the design matrix.
+     * @param y the responsible variable.
+     * @param w the linear weights.
+     * @param b the intercept.
+     */
+    public LinearModel(Formula formula, StructType schema, String[] predictors, smile.math.matrix.fp32.Matrix X, float[] y, double[] w, double b) {
+        this(formula, schema, predictors, toDoubleArray(y), w, b, fit(X, w, b));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param formula a symbolic description of the model to be fitted.
+     * @param schema the schema of input data.
+     * @param predictors the column names of design matrix.
+     * @param y the responsible variable.
+     * @param w the linear weights.
+     * @param b the intercept.
+     * @param fittedValues the fitted values.
+     */
+    private LinearModel(Formula formula, StructType schema, String[] predictors, double[] y, double[] w, double b, double[] fittedValues) {
         this.formula = formula;
         this.schema = schema;
-        this.predictors = X.colNames();
-        this.p = X.ncol();
+        this.predictors = predictors;
+        this.p = predictors.length;
         this.w = w;
         this.b = b;
         this.bias = predictors[0].equals("Intercept");
+        this.fittedValues = fittedValues;
 
-        int n = X.nrow();
-        fittedValues = new double[n];
-        Arrays.fill(fittedValues, b);
-        X.mv(1.0, w, 1.0, fittedValues);
-
+        int n = fittedValues.length;
         residuals = new double[n];
         RSS = 0.0;
         double TSS = 0.0;
@@ -201,6 +230,57 @@ public class LinearModel implements DataFrameRegression {
         }
     }
 
+    /**
+     * Returns the fitted values.
+     * @param X the design matrix.
+     * @param w the linear weights.
+     * @param b the intercept.
+     * @return the fitted values.
+     */
+    private static double[] fit(Matrix X, double[] w, double b) {
+        double[] fittedValues = new double[X.nrow()];
+        Arrays.fill(fittedValues, b);
+        X.mv(1.0, w, 1.0, fittedValues);
+        return fittedValues;
+    }
+
+    /**
+     * Returns the fitted values with single precision matrix-vector
+     * multiplication.
+     * @param X the design matrix.
+     * @param w the linear weights.
+     * @param b the intercept.
+     * @return the fitted values.
+     */
+    private static double[] fit(smile.math.matrix.fp32.Matrix X, double[] w, double b) {
+        float[] wf = new float[w.length];
+        for (int i = 0; i < w.length; i++) {
+            wf[i] = (float) w[i];
+        }
+
+        float[] y = new float[X.nrow()];
+        X.mv(wf, y);
+
+        double[] fittedValues = new double[y.length];
+        for (int i = 0; i < y.length; i++) {
+            fittedValues[i] = y[i] + b;
+        }
+        return fittedValues;
+    }
+
+    /**
+     * Returns the double precision copy of an array.
+     * @param x the array.
+     * @return the copy.
+     */
+    private static double[] toDoubleArray(float[] x) {
+        double[] y = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            y[i] = x[i];
+        }
+        return y;
+    }
+
     @Override
     public Formula formula() {
         return formula;
@@ -22,7 +22,7 @@ import java.util.Properties;
 import smile.base.mlp.*;
 import smile.math.Scaler;
 import smile.math.MathEx;
-import smile.util.Strings;
+import smile.math.matrix.Matrix;
 
 /**
  * Fully connected multilayer perceptron neural network for regression.
@@ -41,7 +41,6 @@ import smile.util.Strings;
  public class MLP extends MultilayerPerceptron implements Regression<double[]> {
     @Serial
     private static final long serialVersionUID = 2L;
-    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MLP.class);
 
     /** The scaling function of output values. */
     private final Scaler scaler;
@@ -108,13 +107,36 @@ import smile.util.Strings;
     /** Updates the model with a mini-batch. RMSProp is applied if {@code rho > 0}. */
     @Override
     public void update(double[][] x, double[] y) {
-        for (int i = 0; i < x.length; i++) {
-            propagate(x[i], true);
-            setTarget(y[i]);
-            backpropagate(false);
+        int m = x.length;
+        propagate(x, true);
+
+        Matrix target = batchTarget(m);
+        for (int j = 0; j < m; j++) {
+            target.set(0, j, scaler == null ? y[j] : scaler.f(y[j]));
         }
 
-        update(x.length);
+        backpropagate(target);
+        update(m);
+        t++;
+    }
+
+    /**
+     * Updates the model with a mini-batch of float data in single
+     * precision. RMSProp is applied if {@code rho > 0}.
+     * @param x the training instances.
+     * @param y the response variable.
+     */
+    public void update(float[][] x, double[] y) {
+        int m = x.length;
+        propagate(x, true);
+
+        smile.math.matrix.fp32.Matrix target = floatBatchTarget(m);
+        for (int j = 0; j < m; j++) {
+            target.set(0, j, (float) (scaler == null ? y[j] : scaler.f(y[j])));
+        }
+
+        backpropagate(target);
+        update(m);
         t++;
     }
 
@@ -144,28 +166,31 @@ import smile.util.Strings;
 
         int epochs = Integer.parseInt(params.getProperty("smile.mlp.epochs", "100"));
         int batch = Integer.parseInt(params.getProperty("smile.mlp.mini_batch", "32"));
-        double[][] batchx = new double[batch][];
-        double[] batchy = new double[batch];
-        for (int epoch = 1; epoch <= epochs; epoch++) {
-            logger.info("{} epoch", Strings.ordinal(epoch));
-            int[] permutation = MathEx.permutate(x.length);
-            for (int i = 0; i < x.length; i += batch) {
-                int size = Math.min(batch, x.length - i);
-                for (int j = 0; j < size; j++) {
-                    int index = permutation[i + j];
-                    batchx[j] = x[index];
-                    batchy[j] = y[index];
-                }
-
-                if (size < batch) {
-                    model.update(Arrays.copyOf(batchx, size), Arrays.copyOf(batchy, size));
-                } else {
-                    model.update(batchx, batchy);
-                }
-            }
-        }
+        train(x.length, epochs, batch, index -> model.update(MathEx.slice(x, index), MathEx.slice(y, index)));
 
         return model;
     }
-}
 
+    /**
+     * Fits a MLP model with float data. The mini-batches are trained
+     * in single precision and the model predicts double vectors as usual.
+     * @param x the training dataset.
+     * @param y the response variable.
+     * @param params the hyperparameters.
+     * @return the model.
+     */
+    public static MLP fit(float[][] x, double[] y, Properties params) {
+        int p = x[0].length;
+
+        Scaler scaler = Scaler.of(params.getProperty("smile.mlp.scaler"), y);
+        LayerBuilder[] layers = Layer.of(0, p, params.getProperty("smile.mlp.layers", "ReLU(100)"));
+        MLP model = new MLP(scaler, layers);
+        model.setParameters(params);
+
+        int epochs = Integer.parseInt(params.getProperty("smile.mlp.epochs", "100"));
+        int batch = Integer.parseInt(params.getProperty("smile.mlp.mini_batch", "32"));
+        train(x.length, epochs, batch, index -> model.update(MathEx.slice(x, index), MathEx.slice(y, index)));
+
+        return model;
+    }
+}
@@ -192,19 +192,115 @@ public class OLS {
         }
 
         if (options.stderr) {
-            double[][] ttest = new double[p][4];
-            model.ttest = ttest;
-
-            for (int i = 0; i < p; i++) {
-                ttest[i][0] = w[i];
-                double se = model.error * Math.sqrt(inv.get(i, i));
-                ttest[i][1] = se;
-                double t = w[i] / se;
-                ttest[i][2] = t;
-                ttest[i][3] = Beta.regularizedIncompleteBetaFunction(0.5 * model.df, 0.5, model.df / (model.df + t * t));
+            model.ttest = ttest(model, w, inv);
+        }
+
+        return model;
+    }
+
+    /**
+     * Fits an ordinary least squares model on single precision data.
+     * The variables are named V1, V2, ... and the response is named y
+     * in the model formula.
+     * @param x the explanatory variables. NO NEED to include a constant
+     *          column of 1s for bias.
+     * @param y the response variable.
+     * @return the model.
+     */
+    public static LinearModel fit(float[][] x, float[] y) {
+        return fit(x, y, new Options());
+    }
+
+    /**
+     * Fits an ordinary least squares model on single precision data.
+     * The design matrix stays in single precision, and is decomposed by
+     * single precision LAPACK routines, which halves the memory footprint
+     * and bandwidth. The relative error of coefficients is in the order
+     * of {@code cond(X) * 1E-7}, instead of {@code cond(X) * 1E-16} with
+     * double precision. The residuals and statistics are accumulated
+     * in double precision. The variables are named V1, V2, ...
+     * and the response is named y in the model formula.
+     * @param x the explanatory variables. NO NEED to include a constant
+     *          column of 1s for bias.
+     * @param y the response variable.
+     * @param options the hyperparameters.
+     * @return the model.
+     */
+    public static LinearModel fit(float[][] x, float[] y, Options options) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException(String.format("The sizes of X and Y don't match: %d != %d", x.length, y.length));
+        }
+
+        StructType data = FloatDesignMatrix.schema(x[0].length);
+        Formula formula = Formula.lhs("y").expand(data);
+        StructType schema = formula.bind(data);
+
+        smile.math.matrix.fp32.Matrix X = FloatDesignMatrix.of(x, true);
+        int n = X.nrow();
+        int p = X.ncol();
+
+        if (n <= p) {
+            throw new IllegalArgumentException(String.format("The input matrix is not over determined: %d rows, %d columns", n, p));
+        }
+
+        // weights and intercept
+        float[] wf;
+        smile.math.matrix.fp32.Matrix.QR qr = null;
+        smile.math.matrix.fp32.Matrix.SVD svd;
+
+        if (options.method == Method.SVD) {
+            svd = X.svd();
+            wf = svd.solve(y);
+        } else {
+            try {
+                qr = X.qr();
+                wf = qr.solve(y);
+            } catch (RuntimeException e) {
+                logger.warn("Matrix is not of full rank, try SVD instead");
+                svd = X.svd();
+                wf = svd.solve(y);
             }
         }
 
+        double[] w = new double[p];
+        for (int i = 0; i < p; i++) {
+            w[i] = wf[i];
+        }
+
+        LinearModel model = new LinearModel(formula, schema, FloatDesignMatrix.names(p - 1, true), X, y, w, 0.0);
+
+        Matrix inv = null;
+        if (options.stderr || options.recursive) {
+            smile.math.matrix.fp32.Matrix.Cholesky cholesky = qr == null ? X.ata().cholesky(true) : qr.CholeskyOfAtA();
+            inv = FloatDesignMatrix.toMatrix(cholesky.inverse());
+            model.V = inv;
+        }
+
+        if (options.stderr) {
+            model.ttest = ttest(model, w, inv);
+        }
+
         return model;
     }
+
+    /**
+     * Returns the t-test of the coefficients.
+     * @param model the linear model.
+     * @param w the linear weights.
+     * @param inv the inverse of {@code X' * X}.
+     * @return the t-test of the coefficients.
+     */
+    private static double[][] ttest(LinearModel model, double[] w, Matrix inv) {
+        int p = w.length;
+        double[][] ttest = new double[p][4];
+        for (int i = 0; i < p; i++) {
+            ttest[i][0] = w[i];
+            double se = model.error * Math.sqrt(inv.get(i, i));
+            ttest[i][1] = se;
+            double t = w[i] / se;
+            ttest[i][2] = t;
+            ttest[i][3] = Beta.regularizedIncompleteBetaFunction(0.5 * model.df, 0.5, model.df / (model.df + t * t));
+        }
+        return ttest;
+    }
 }
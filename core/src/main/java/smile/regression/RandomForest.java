@@ -18,11 +18,20 @@ package smile.regression;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import smile.base.cart.Bins;
 import smile.base.cart.CART;
+import smile.base.cart.FlatForest;
 import smile.base.cart.Loss;
+import smile.base.cart.Reservoir;
 import smile.data.DataFrame;
 import smile.data.Tuple;
 import smile.data.formula.Formula;
@@ -31,6 +40,7 @@ import smile.data.type.StructType;
 import smile.data.vector.ValueVector;
 import smile.feature.importance.TreeSHAP;
 import smile.math.MathEx;
+import smile.math.Random;
 import smile.validation.RegressionMetrics;
 import smile.validation.metric.*;
 
@@ -143,8 +153,12 @@ public class RandomForest implements DataFrameRegression, TreeSHAP {
      *                 Setting nodeSize = 5 generally gives good results.
      * @param subsample the sampling rate for training tree. 1.0 means sampling with
      *                  replacement. {@code < 1.0} means sampling without replacement.
+     * @param maxBins the maximum number of quantile bins of ordinal columns
+     *                for histogram-based split finding. If 0, the exact splits
+     *                are searched on the sorted values. 255 bins is usually
+     *                a good trade-off between speed and accuracy.
      */
-    public record Options(int ntrees, int mtry, int maxDepth, int maxNodes, int nodeSize, double subsample) {
+    public record Options(int ntrees, int mtry, int maxDepth, int maxNodes, int nodeSize, double subsample, int maxBins) {
         /** Constructor. */
         public Options {
             if (ntrees < 1) {
@@ -162,6 +176,10 @@ public class RandomForest implements DataFrameRegression, TreeSHAP {
             if (subsample <= 0 || subsample > 1) {
                 throw new IllegalArgumentException("Invalid sampling rate: " + subsample);
             }
+
+            if (maxBins != 0 && (maxBins < 2 || maxBins > Bins.MAX_BINS)) {
+                throw new IllegalArgumentException("Invalid maximum number of bins: " + maxBins);
+            }
         }
 
         /** Constructor. */
@@ -169,6 +187,23 @@ public class RandomForest implements DataFrameRegression, TreeSHAP {
             this(500, 0, 20, 0, 5, 1.0);
         }
 
+        /**
+         * Constructor.
+         * @param ntrees the number of trees.
+         * @param mtry the number of input variables to be used to determine the
+         *             decision at a node of the tree. p/3 generally give good
+         *             performance, where p is the number of variables.
+         * @param maxDepth the maximum depth of the tree.
+         * @param maxNodes the maximum number of leaf nodes in the tree.
+         * @param nodeSize the minimum size of leaf nodes.
+         *                 Setting nodeSize = 5 generally gives good results.
+         * @param subsample the sampling rate for training tree. 1.0 means sampling with
+         *                  replacement. {@code < 1.0} means sampling without replacement.
+         */
+        public Options(int ntrees, int mtry, int maxDepth, int maxNodes, int nodeSize, double subsample) {
+            this(ntrees, mtry, maxDepth, maxNodes, nodeSize, subsample, 0);
+        }
+
         /**
          * Returns the persistent set of hyperparameters.
          * @return the persistent set.
@@ -181,6 +216,7 @@ public class RandomForest implements DataFrameRegression, TreeSHAP {
             props.setProperty("smile.random_forest.max_nodes", Integer.toString(maxNodes));
             props.setProperty("smile.random_forest.node_size", Integer.toString(nodeSize));
             props.setProperty("smile.random_forest.sampling_rate", Double.toString(subsample));
+            props.setProperty("smile.random_forest.max_bins", Integer.toString(maxBins));
             return props;
         }
 
@@ -197,7 +233,8 @@ public class RandomForest implements DataFrameRegression, TreeSHAP {
             int maxNodes = Integer.parseInt(props.getProperty("smile.random_forest.max_nodes", "0"));
             int nodeSize = Integer.parseInt(props.getProperty("smile.random_forest.node_size", "5"));
             double subsample = Double.parseDouble(props.getProperty("smile.random_forest.sampling_rate", "1.0"));
-            return new Options(ntrees, mtry, maxDepth, maxNodes, nodeSize, subsample);
+            int maxBins = Integer.parseInt(props.getProperty("smile.random_forest.max_bins", "0"));
+            return new Options(ntrees, mtry, maxDepth, maxNodes, nodeSize, subsample, maxBins);
         }
     }
 
@@ -239,20 +276,11 @@ public class RandomForest implements DataFrameRegression, TreeSHAP {
         ValueVector response = formula.y(data);
         StructField field = response.field();
         double[] y = response.toDoubleArray();
-
-        if (options.mtry > x.ncol()) {
-            throw new IllegalArgumentException("Invalid number of variables to split on at a node of the tree: " + options.mtry);
-        }
-
-        int mtry = options.mtry > 0 ? options.mtry : Math.max(x.ncol()/3, 1);
-        int maxNodes = options.maxNodes > 0 ? options.maxNodes :Math.max(2, data.size() / 5);
         int ntrees = options.ntrees;
-        var subsample = options.subsample;
 
         final int n = x.size();
         double[] prediction = new double[n];
         int[] oob = new int[n];
-        final int[][] order = CART.order(x);
 
         // generate seeds with sequential stream
         long[] seedArray = (seeds != null ? seeds : LongStream.range(-ntrees, 0)).sequential().distinct().limit(ntrees).toArray();
@@ -260,8 +288,68 @@ public class RandomForest implements DataFrameRegression, TreeSHAP {
             throw new IllegalArgumentException(String.format("seed stream has only %d distinct values, expected %d", seedArray.length, ntrees));
         }
 
+        Model[] models = grow(x, y, field, options, seedArray, prediction, oob);
+
+        double fitTime = 0.0, scoreTime = 0.0;
+        for (Model model : models) {
+            fitTime += model.metrics.fitTime();
+            scoreTime += model.metrics.scoreTime();
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (oob[i] > 0) {
+                prediction[i] /= oob[i];
+            }
+        }
+
+        RegressionMetrics metrics = new RegressionMetrics(
+                fitTime, scoreTime, n,
+                RSS.of(y, prediction),
+                MSE.of(y, prediction),
+                RMSE.of(y, prediction),
+                MAD.of(y, prediction),
+                R2.of(y, prediction)
+        );
+
+        double[] importance = calculateImportance(models);
+        return new RandomForest(formula, models, metrics, importance);
+    }
+
+    /**
+     * Grows a set of regression trees on the samples of data and adds
+     * the predictions of each tree on its out-of-bag samples to the
+     * out-of-bag prediction.
+     *
+     * @param x the predictors.
+     * @param y the response variable.
+     * @param field the response variable field.
+     * @param options the hyperparameters.
+     * @param seeds the RNG seeds of each tree.
+     * @param prediction the sum of out-of-bag predictions of each sample.
+     * @param oob the number of out-of-bag predictions of each sample.
+     * @return the base models.
+     */
+    private static Model[] grow(DataFrame x, double[] y, StructField field, Options options, long[] seeds, double[] prediction, int[] oob) {
+        if (options.mtry > x.ncol()) {
+            throw new IllegalArgumentException("Invalid number of variables to split on at a node of the tree: " + options.mtry);
+        }
+
+        int mtry = options.mtry > 0 ? options.mtry : Math.max(x.ncol()/3, 1);
+        int maxNodes = options.maxNodes > 0 ? options.maxNodes :Math.max(2, x.size() / 5);
+        var subsample = options.subsample;
+
+        final int n = x.size();
+        final Bins bins = options.maxBins > 0 ? Bins.of(x, options.maxBins) : null;
+        final int[][] order = bins == null ? CART.order(x) : null;
+
+        // The out-of-bag predictions are accumulated in private buffers,
+        // which are merged after all trees are trained. A tree takes a
+        // buffer from the pool and returns it when done so that no more
+        // buffers are allocated than the trees being trained concurrently.
+        ConcurrentLinkedQueue<OutOfBag> pool = new ConcurrentLinkedQueue<>();
+
         // train trees with parallel stream
-        Model[] models = Arrays.stream(seedArray).parallel().mapToObj(seed -> {
+        Model[] models = Arrays.stream(seeds).parallel().mapToObj(seed -> {
             // set RNG seed for the tree
             if (seed > 1) MathEx.setSeed(seed);
 
@@ -281,7 +369,7 @@ public class RandomForest implements DataFrameRegression, TreeSHAP {
             }
 
             long start = System.nanoTime();
-            RegressionTree tree = new RegressionTree(x, Loss.ls(y), field, options.maxDepth, maxNodes, options.nodeSize, mtry, samples, order);
+            RegressionTree tree = new RegressionTree(x, Loss.ls(y), field, options.maxDepth, maxNodes, options.nodeSize, mtry, samples, order, bins);
             double fitTime = (System.nanoTime() - start) / 1E6;
 
             // estimate OOB metrics
@@ -293,6 +381,11 @@ public class RandomForest implements DataFrameRegression, TreeSHAP {
                 }
             }
 
+            OutOfBag buffer = pool.poll();
+            if (buffer == null) {
+                buffer = new OutOfBag(new double[n], new int[n]);
+            }
+
             double[] truth = new double[noob];
             double[] predict = new double[noob];
             for (int i = 0, j = 0; i < n; i++) {
@@ -300,11 +393,12 @@ public class RandomForest implements DataFrameRegression, TreeSHAP {
                     truth[j] = y[i];
                     double yi = tree.predict(x.get(i));
                     predict[j] = yi;
-                    oob[i]++;
-                    prediction[i] += yi;
+                    buffer.count[i]++;
+                    buffer.prediction[i] += yi;
                     j++;
                 }
             }
+            pool.offer(buffer);
             double scoreTime = (System.nanoTime() - start) / 1E6;
 
             RegressionMetrics metrics = new RegressionMetrics(
@@ -325,41 +419,233 @@ public class RandomForest implements DataFrameRegression, TreeSHAP {
             return new Model(tree, metrics);
         }).toArray(Model[]::new);
 
-        double fitTime = 0.0, scoreTime = 0.0;
-        for (Model model : models) {
-            fitTime += model.metrics.fitTime();
-            scoreTime += model.metrics.scoreTime();
+        IntStream.range(0, n).parallel().forEach(i -> {
+            for (OutOfBag buffer : pool) {
+                prediction[i] += buffer.prediction[i];
+                oob[i] += buffer.count[i];
+            }
+        });
+
+        return models;
+    }
+
+    /**
+     * The buffer of out-of-bag predictions.
+     * @param prediction the sum of out-of-bag predictions of each sample.
+     * @param count the number of out-of-bag predictions of each sample.
+     */
+    private record OutOfBag(double[] prediction, int[] count) {
+
+    }
+
+    /**
+     * Fits a random forest for regression out of core, i.e. on data
+     * that doesn't fit in memory such as large Parquet or Arrow files.
+     * The data are scanned chunk by chunk. Each tree is trained on a
+     * working set of at most {@code sampleSize} rows, which is drawn by
+     * reservoir sampling and kept in compact primitive form. The trees
+     * are trained in groups of {@code batch} trees, one pass over the
+     * data per group, so that the memory footprint is bounded by
+     * {@code batch * sampleSize} rows.
+     * <p>
+     * A row is drawn into the training stream of a tree with probability
+     * {@code subsample} (0.632 if {@code subsample} is 1.0, which matches
+     * the coverage of bootstrap). The rows not in the working set of a
+     * tree are out-of-bag for it. As the out-of-bag rows can't be kept
+     * in memory, the first pass also draws a uniform sample of at most
+     * {@code sampleSize} rows to evaluate the forest. Each tree is
+     * evaluated on the rows of this sample that are out-of-bag for it,
+     * and the metrics of forest are on the average predictions of the
+     * out-of-bag trees of each row, as the in-memory fit.
+     *
+     * @param formula a symbolic description of the model to be fitted.
+     * @param data the supplier of data chunk stream. Each call should
+     *             return a new stream that scans the data from the
+     *             beginning, e.g. {@code Parquet.stream(path)}.
+     * @param options the hyperparameters.
+     * @param sampleSize the maximum number of training samples of each tree.
+     * @param batch the number of trees trained per pass over the data.
+     * @return the model.
+     */
+    public static RandomForest fit(Formula formula, Supplier<Stream<DataFrame>> data, Options options, int sampleSize, int batch) {
+        if (sampleSize < 2) {
+            throw new IllegalArgumentException("Invalid sample size: " + sampleSize);
         }
 
-        for (int i = 0; i < n; i++) {
-            if (oob[i] > 0) {
-                prediction[i] /= oob[i];
+        if (batch < 1) {
+            throw new IllegalArgumentException("Invalid number of trees per pass: " + batch);
+        }
+
+        // Binds the formula to the schema of data.
+        StructType schema;
+        StructField field;
+        try (Stream<DataFrame> chunks = data.get()) {
+            DataFrame chunk = chunks.findFirst().orElseThrow(() -> new IllegalArgumentException("Empty data"));
+            formula = formula.expand(chunk.schema());
+            schema = formula.x(chunk).schema();
+            field = formula.y(chunk).field();
+        }
+
+        final Formula expanded = formula;
+        int ncol = schema.length();
+        if (options.mtry > ncol) {
+            throw new IllegalArgumentException("Invalid number of variables to split on at a node of the tree: " + options.mtry);
+        }
+
+        int mtry = options.mtry > 0 ? options.mtry : Math.max(ncol/3, 1);
+        int maxNodes = options.maxNodes > 0 ? options.maxNodes : Math.max(2, sampleSize / 5);
+        int ntrees = options.ntrees;
+        double subsample = options.subsample == 1.0 ? 1 - Math.exp(-1) : options.subsample;
+        // The tree tasks reset the seed of MathEx on the calling thread too.
+        Random rng = new Random(MathEx.randomLong());
+        Reservoir eval = new Reservoir(schema, sampleSize, new Random(rng.nextLong()));
+        DataFrame evalx = null;
+        double[] evaly = null;
+        long[] evalIndex = null;
+        OutOfBag prediction = null;
+
+        List<Model> models = new ArrayList<>(ntrees);
+        for (int start = 0; start < ntrees; start += batch) {
+            int size = Math.min(batch, ntrees - start);
+            logger.info("Sampling data for {} trees", size);
+            Random[] random = new Random[size];
+            Reservoir[] train = new Reservoir[size];
+            long[] seeds = new long[size];
+            for (int t = 0; t < size; t++) {
+                random[t] = new Random(rng.nextLong());
+                train[t] = new Reservoir(schema, sampleSize, random[t]);
+                seeds[t] = rng.nextLong();
+            }
+
+            try (Stream<DataFrame> chunks = data.get()) {
+                Reservoir.sample(expanded, chunks, yi -> subsample, train, start == 0 ? eval : null, random);
             }
+
+            if (start == 0) {
+                evalx = eval.x();
+                evaly = eval.y();
+                evalIndex = eval.index();
+                prediction = new OutOfBag(new double[evaly.length], new int[evaly.length]);
+            }
+
+            final DataFrame oobx = evalx;
+            final double[] ooby = evaly;
+            final long[] oobIndex = evalIndex;
+            boolean[][] oobMask = new boolean[size][];
+            double[][] oobPrediction = new double[size][];
+            IntStream.range(0, size).parallel().mapToObj(t -> {
+                // set RNG seed for the tree
+                MathEx.setSeed(seeds[t]);
+                DataFrame x = train[t].x();
+                double[] y = train[t].y();
+                int n = x.size();
+                if (n == 0) {
+                    throw new IllegalArgumentException("No training samples");
+                }
+
+                int[] samples = new int[n];
+                Arrays.fill(samples, 1);
+                Bins bins = options.maxBins > 0 ? Bins.of(x, options.maxBins) : null;
+                int[][] order = bins == null ? CART.order(x) : null;
+
+                long begin = System.nanoTime();
+                RegressionTree tree = new RegressionTree(x, Loss.ls(y), field, options.maxDepth, maxNodes, options.nodeSize, mtry, samples, order, bins);
+                double fitTime = (System.nanoTime() - begin) / 1E6;
+
+                begin = System.nanoTime();
+                boolean[] mask = Reservoir.oob(train[t], oobIndex);
+                int noob = 0;
+                for (boolean oob : mask) {
+                    if (oob) noob++;
+                }
+
+                double[] oobY = new double[noob];
+                double[] predict = new double[noob];
+                for (int i = 0, j = 0; i < mask.length; i++) {
+                    if (mask[i]) {
+                        oobY[j] = ooby[i];
+                        predict[j++] = tree.predict(oobx.get(i));
+                    }
+                }
+                double scoreTime = (System.nanoTime() - begin) / 1E6;
+                oobMask[t] = mask;
+                oobPrediction[t] = predict;
+
+                RegressionMetrics metrics = new RegressionMetrics(
+                        fitTime, scoreTime, noob,
+                        RSS.of(oobY, predict),
+                        MSE.of(oobY, predict),
+                        RMSE.of(oobY, predict),
+                        MAD.of(oobY, predict),
+                        R2.of(oobY, predict)
+                );
+
+                if (noob != 0) {
+                    logger.info("Regression tree OOB R2: {}", String.format("%.2f%%", 100*metrics.r2()));
+                } else {
+                    logger.error("Regression tree trained without OOB samples.");
+                }
+                return new Model(tree, metrics);
+            }).forEachOrdered(models::add);
+
+            for (int t = 0; t < size; t++) {
+                boolean[] mask = oobMask[t];
+                double[] predict = oobPrediction[t];
+                for (int i = 0, j = 0; i < mask.length; i++) {
+                    if (mask[i]) {
+                        prediction.prediction[i] += predict[j++];
+                        prediction.count[i]++;
+                    }
+                }
+            }
+        }
+
+        double fitTime = 0.0, scoreTime = 0.0;
+        for (Model m : models) {
+            fitTime += m.metrics.fitTime();
+            scoreTime += m.metrics.scoreTime();
+        }
+
+        // The rows in the working sets of all trees have no predictions.
+        int noob = 0;
+        for (int count : prediction.count) {
+            if (count > 0) noob++;
         }
 
+        double[] y = new double[noob];
+        double[] yhat = new double[noob];
+        for (int i = 0, j = 0; i < evaly.length; i++) {
+            if (prediction.count[i] > 0) {
+                y[j] = evaly[i];
+                yhat[j++] = prediction.prediction[i] / prediction.count[i];
+            }
+        }
         RegressionMetrics metrics = new RegressionMetrics(
-                fitTime, scoreTime, n,
-                RSS.of(y, prediction),
-                MSE.of(y, prediction),
-                RMSE.of(y, prediction),
-                MAD.of(y, prediction),
-                R2.of(y, prediction)
+                fitTime, scoreTime, y.length,
+                RSS.of(y, yhat),
+                MSE.of(y, yhat),
+                RMSE.of(y, yhat),
+                MAD.of(y, yhat),
+                R2.of(y, yhat)
         );
 
-        double[] importance = calculateImportance(models);
-        return new RandomForest(formula, models, metrics, importance);
+        Model[] forest = models.toArray(new Model[0]);
+        return new RandomForest(expanded, forest, metrics, calculateImportance(forest));
     }
 
     /** Returns the sum of importance of all trees. */
     private static double[] calculateImportance(Model[] models) {
-        double[] importance = new double[models[0].tree.importance().length];
-        for (Model model : models) {
+        int p = models[0].tree.importance().length;
+        return Arrays.stream(models).parallel().collect(() -> new double[p], (importance, model) -> {
             double[] imp = model.tree.importance();
-            for (int i = 0; i < imp.length; i++) {
+            for (int i = 0; i < p; i++) {
                 importance[i] += imp[i];
             }
-        }
-        return importance;
+        }, (a, b) -> {
+            for (int i = 0; i < p; i++) {
+                a[i] += b[i];
+            }
+        });
     }
 
     @Override
@@ -476,6 +762,97 @@ public class RandomForest implements DataFrameRegression, TreeSHAP {
         return new RandomForest(formula, forest, mergedMetrics, mergedImportance);
     }
 
+    /**
+     * Grows the forest on new data. Trains {@code options.ntrees}
+     * new trees on the data and keeps all existing trees. See
+     * {@link #update(DataFrame, Options, int)} for details.
+     *
+     * @param data the new data, which should have the same schema
+     *             as the training data.
+     * @param options the hyperparameters of new trees.
+     * @return the extended forest.
+     */
+    public RandomForest extend(DataFrame data, Options options) {
+        return update(data, options, models.length + options.ntrees);
+    }
+
+    /**
+     * Refreshes the forest on new data. Trains {@code options.ntrees}
+     * new trees on the data, which replace the weakest existing trees
+     * so that the forest has at most {@code ntrees} trees. As the new
+     * data are out of bag for all existing trees, the existing trees
+     * are re-evaluated on the whole data and the trees of largest RMSE
+     * are dropped. The overall out-of-bag metrics are recomputed on the
+     * new data with the predictions of retained existing trees on all
+     * samples and the predictions of new trees on their own out-of-bag
+     * samples.
+     * <p>
+     * The ordinal columns of new data are sorted (or binned) only once
+     * and the sample index is shared by all new trees.
+     *
+     * @param data the new data, which should have the same schema
+     *             as the training data.
+     * @param options the hyperparameters of new trees.
+     * @param ntrees the maximum number of trees in the refreshed forest,
+     *               which should not be less than {@code options.ntrees}.
+     * @return the refreshed forest.
+     */
+    public RandomForest update(DataFrame data, Options options, int ntrees) {
+        if (ntrees < options.ntrees) {
+            throw new IllegalArgumentException("Invalid maximum number of trees: " + ntrees);
+        }
+
+        DataFrame x = formula.x(data);
+        if (!x.schema().equals(schema())) {
+            throw new IllegalArgumentException("The data schema doesn't match the model: " + x.schema());
+        }
+
+        ValueVector response = formula.y(data);
+        double[] y = response.toDoubleArray();
+        int n = x.size();
+
+        // Re-evaluates the existing trees on the new data.
+        Model[] existing = Arrays.stream(models).parallel().map(model -> {
+            long start = System.nanoTime();
+            double[] yhat = new double[n];
+            for (int i = 0; i < n; i++) {
+                yhat[i] = model.tree.predict(x.get(i));
+            }
+            double scoreTime = (System.nanoTime() - start) / 1E6;
+            return new Model(model.tree, RegressionMetrics.of(model.metrics.fitTime(), scoreTime, y, yhat));
+        }).sorted().limit(ntrees - options.ntrees).toArray(Model[]::new);
+
+        double[] prediction = new double[n];
+        int[] oob = new int[n];
+        long[] seeds = LongStream.range(-options.ntrees, 0).toArray();
+        Model[] grown = grow(x, y, response.field(), options, seeds, prediction, oob);
+
+        Model[] forest = new Model[existing.length + grown.length];
+        System.arraycopy(existing, 0, forest, 0, existing.length);
+        System.arraycopy(grown, 0, forest, existing.length, grown.length);
+
+        IntStream.range(0, n).parallel().forEach(i -> {
+            Tuple xi = x.get(i);
+            for (Model model : existing) {
+                prediction[i] += model.tree.predict(xi);
+            }
+            oob[i] += existing.length;
+            if (oob[i] > 0) {
+                prediction[i] /= oob[i];
+            }
+        });
+
+        double fitTime = 0.0, scoreTime = 0.0;
+        for (Model model : forest) {
+            fitTime += model.metrics.fitTime();
+            scoreTime += model.metrics.scoreTime();
+        }
+
+        RegressionMetrics metrics = RegressionMetrics.of(fitTime, scoreTime, y, prediction);
+        logger.info("Refreshed random forest with {} existing and {} new trees", existing.length, grown.length);
+        return new RandomForest(formula, forest, metrics, calculateImportance(forest));
+    }
+
     @Override
     public double predict(Tuple x) {
         Tuple xt = formula.x(x);
@@ -487,6 +864,24 @@ public class RandomForest implements DataFrameRegression, TreeSHAP {
         return y / models.length;
     }
 
+    /**
+     * Compiles the forest into flat arrays for fast batch inference.
+     * The predictions of compiled forest equal to those of
+     * {@link #predict(Tuple)} up to rounding errors.
+     *
+     * @return the compiled forest.
+     */
+    public FlatForest compile() {
+        int ntrees = models.length;
+        CART[] trees = new CART[ntrees];
+        double[] weight = new double[ntrees];
+        for (int i = 0; i < ntrees; i++) {
+            trees[i] = models[i].tree;
+            weight[i] = 1.0 / ntrees;
+        }
+        return new FlatForest(formula, trees, new int[ntrees], weight, new double[1], FlatForest.Link.IDENTITY, null);
+    }
+
     /**
      * Test the model on a validation dataset.
      *
@@ -241,6 +241,69 @@ public class RegressionTree extends CART implements DataFrameRegression {
         return Optional.ofNullable(split);
     }
 
+    @Override
+    protected double[] histogram(int j, int lo, int hi) {
+        // The count and sum of response of each bin.
+        double[] histogram = new double[2 * bins.size(j)];
+        for (int i = lo; i < hi; i++) {
+            int o = index[i];
+            int b = 2 * bins.get(j, o);
+            histogram[b] += samples[o];
+            histogram[b + 1] += y[o] * samples[o];
+        }
+        return histogram;
+    }
+
+    @Override
+    protected Optional<Split> findBestSplit(LeafNode leaf, int j, double impurity, int lo, int hi, double[] histogram) {
+        RegressionNode node = (RegressionNode) leaf;
+        final Bins bins = this.bins;
+        int m = bins.size(j);
+
+        double sum = 0.0;
+        for (int b = 0; b < m; b++) {
+            sum += histogram[2 * b + 1];
+        }
+        double nodeMeanSquared = node.size() * node.mean() * node.mean();
+
+        int splitBin = -1;
+        double splitScore = 0.0;
+        int splitTrueCount = 0;
+        int splitFalseCount = 0;
+
+        int tc = 0;
+        double trueSum = 0.0;
+        for (int b = 0; b < m - 1; b++) {
+            tc += (int) histogram[2 * b];
+            trueSum += histogram[2 * b + 1];
+
+            int fc = node.size() - tc;
+            // If either side is too small, skip this bin.
+            if (tc < nodeSize) continue;
+            if (fc < nodeSize) break;
+
+            double trueMean = trueSum / tc;
+            double falseMean = (sum - trueSum) / fc;
+            double gain = (tc * trueMean * trueMean + fc * falseMean * falseMean) - nodeMeanSquared;
+
+            // new best split
+            if (gain > splitScore) {
+                splitBin = b;
+                splitTrueCount = tc;
+                splitFalseCount = fc;
+                splitScore = gain;
+            }
+        }
+
+        Split split = null;
+        if (splitScore > 0.0) {
+            final int bin = splitBin;
+            split = new OrdinalSplit(leaf, j, bins.cut(j, splitBin), splitScore, lo, hi, splitTrueCount, splitFalseCount, (int o) -> bins.get(j, o) <= bin);
+        }
+
+        return Optional.ofNullable(split);
+    }
+
     /**
      * Constructor. Fits a regression tree for AdaBoost and Random Forest.
      * @param x the data frame of the explanatory variable.
@@ -258,7 +321,29 @@ public class RegressionTree extends CART implements DataFrameRegression {
      *              that only numeric attributes need be sorted.
      */
     public RegressionTree(DataFrame x, Loss loss, StructField response, int maxDepth, int maxNodes, int nodeSize, int mtry, int[] samples, int[][] order) {
-        super(x, response, maxDepth, maxNodes, nodeSize, mtry, samples, order);
+        this(x, loss, response, maxDepth, maxNodes, nodeSize, mtry, samples, order, null);
+    }
+
+    /**
+     * Constructor. Fits a regression tree for AdaBoost and Random Forest.
+     * @param x the data frame of the explanatory variable.
+     * @param loss the loss function.
+     * @param response the metadata of response variable.
+     * @param maxDepth the maximum depth of the tree.
+     * @param maxNodes the maximum number of leaf nodes in the tree.
+     * @param nodeSize the minimum size of leaf nodes.
+     * @param mtry the number of input variables to pick to split on at each
+     *             node. It seems that sqrt(p) give generally good performance,
+     *             where p is the number of variables.
+     * @param samples the sample set of instances for stochastic learning.
+     *               samples[i] is the number of sampling for instance i.
+     * @param order the index of training values in ascending order. Note
+     *              that only numeric attributes need be sorted.
+     * @param bins the quantile bins of ordinal columns for histogram-based
+     *             split finding. If not null, order is ignored.
+     */
+    public RegressionTree(DataFrame x, Loss loss, StructField response, int maxDepth, int maxNodes, int nodeSize, int mtry, int[] samples, int[][] order, Bins bins) {
+        super(x, response, maxDepth, maxNodes, nodeSize, mtry, samples, order, bins);
         this.loss = loss;
         this.y = loss.response();
 
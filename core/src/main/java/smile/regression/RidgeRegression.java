@@ -192,39 +192,9 @@ public class RidgeRegression {
         int n = X.nrow();
         int p = X.ncol();
 
-        if (weights.length != n) {
-            throw new IllegalArgumentException(String.format("Invalid weights vector size: %d != %d", weights.length, n));
-        }
-
-        for (int i = 0; i < n; i++) {
-            if (weights[i] <= 0.0) {
-                throw new IllegalArgumentException(String.format("Invalid weights[%d] = %f", i, weights[i]));
-            }
-        }
-
-        var lambda = options.lambda;
-        if (lambda.length == 1) {
-            double shrinkage = lambda[0];
-            lambda = new double[p];
-            Arrays.fill(lambda, shrinkage);
-        } else if (lambda.length != p) {
-            throw new IllegalArgumentException(String.format("Invalid lambda vector size: %d != %d", lambda.length, p));
-        }
-
-        for (int i = 0; i < p; i++) {
-            if (lambda[i] < 0.0) {
-                throw new IllegalArgumentException(String.format("Invalid lambda[%d] = %f", i, lambda[i]));
-            }
-        }
-
-        var beta0 = options.beta0;
-        if (beta0.length == 1) {
-            double beta = beta0[0];
-            beta0 = new double[p];
-            Arrays.fill(beta0, beta);
-        } else if (beta0.length != p) {
-            throw new IllegalArgumentException(String.format("Invalid beta0 vector size: %d != %d", beta0.length, p));
-        }
+        checkWeights(weights, n);
+        var lambda = lambda(options, p);
+        var beta0 = beta0(options, p);
 
         double[] center = X.colMeans();
         double[] scale = X.colSds();
@@ -261,4 +231,167 @@ public class RidgeRegression {
         double b = MathEx.mean(y) - MathEx.dot(w, center);
         return new LinearModel(formula, schema, X, y, w, b);
     }
+
+    /**
+     * Fits a ridge regression model on single precision data.
+     * The variables are named V1, V2, ... and the response is named y
+     * in the model formula.
+     * @param x the explanatory variables. NO NEED to include a constant
+     *          column of 1s for bias.
+     * @param y the response variable.
+     * @param lambda the shrinkage/regularization parameter. Large lambda means more shrinkage.
+     *               Choosing an appropriate value of lambda is important, and also difficult.
+     * @return the model.
+     */
+    public static LinearModel fit(float[][] x, float[] y, double lambda) {
+        double[] weights = new double[x.length];
+        Arrays.fill(weights, 1.0);
+        return fit(x, y, weights, new Options(lambda));
+    }
+
+    /**
+     * Fits a generalized ridge regression model on single precision data.
+     * The standardized design matrix and its Gram matrix {@code X' * W * X}
+     * are computed by single precision BLAS routines, which halves the
+     * memory footprint and bandwidth. The small linear system of normal
+     * equations is solved in double precision. The relative error of
+     * coefficients is in the order of {@code cond(X' * W * X + lambda) * 1E-7}.
+     * The variables are named V1, V2, ... and the response is named y
+     * in the model formula.
+     *
+     * @param x the explanatory variables. NO NEED to include a constant
+     *          column of 1s for bias.
+     * @param y the response variable.
+     * @param weights sample weights.
+     * @param options the hyperparameters.
+     * @return the model.
+     */
+    public static LinearModel fit(float[][] x, float[] y, double[] weights, Options options) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException(String.format("The sizes of X and Y don't match: %d != %d", x.length, y.length));
+        }
+
+        StructType data = FloatDesignMatrix.schema(x[0].length);
+        Formula formula = Formula.lhs("y").expand(data);
+        StructType schema = formula.bind(data);
+
+        smile.math.matrix.fp32.Matrix X = FloatDesignMatrix.of(x, false);
+        String[] names = FloatDesignMatrix.names(X.ncol(), false);
+
+        int n = X.nrow();
+        int p = X.ncol();
+
+        checkWeights(weights, n);
+        var lambda = lambda(options, p);
+        var beta0 = beta0(options, p);
+
+        double[][] stats = FloatDesignMatrix.colMeansAndSds(X);
+        double[] center = stats[0];
+        double[] scale = stats[1];
+
+        for (int j = 0; j < scale.length; j++) {
+            if (MathEx.isZero(scale[j])) {
+                throw new IllegalArgumentException(String.format("The column '%s' is constant", names[j]));
+            }
+        }
+
+        // W^(1/2) * scaled X so that X' * W * X is
+        // computed by BLAS-3 without a p x n copy.
+        smile.math.matrix.fp32.Matrix scaledX = new smile.math.matrix.fp32.Matrix(n, p);
+        float[] wy = new float[n];
+        for (int i = 0; i < n; i++) {
+            wy[i] = (float) Math.sqrt(weights[i]);
+        }
+
+        for (int j = 0; j < p; j++) {
+            for (int i = 0; i < n; i++) {
+                scaledX.set(i, j, (float) (wy[i] * (X.get(i, j) - center[j]) / scale[j]));
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            wy[i] *= y[i];
+        }
+
+        float[] Xty = scaledX.tv(wy);
+        double[] scaledY = new double[p];
+        for (int i = 0; i < p; i++) {
+            scaledY[i] = Xty[i] + lambda[i] * beta0[i];
+        }
+
+        Matrix XtX = FloatDesignMatrix.toMatrix(scaledX.ata());
+        XtX.addDiag(lambda);
+        Matrix.Cholesky cholesky = XtX.cholesky(true);
+
+        double[] w = cholesky.solve(scaledY);
+        for (int j = 0; j < p; j++) {
+            w[j] /= scale[j];
+        }
+
+        double ym = 0.0;
+        for (float yi : y) ym += yi;
+        ym /= n;
+
+        double b = ym - MathEx.dot(w, center);
+        return new LinearModel(formula, schema, names, X, y, w, b);
+    }
+
+    /**
+     * Checks the sample weights.
+     * @param weights the sample weights.
+     * @param n the number of samples.
+     */
+    private static void checkWeights(double[] weights, int n) {
+        if (weights.length != n) {
+            throw new IllegalArgumentException(String.format("Invalid weights vector size: %d != %d", weights.length, n));
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (weights[i] <= 0.0) {
+                throw new IllegalArgumentException(String.format("Invalid weights[%d] = %f", i, weights[i]));
+            }
+        }
+    }
+
+    /**
+     * Returns the shrinkage parameter of each variable.
+     * @param options the hyperparameters.
+     * @param p the number of variables.
+     * @return the shrinkage parameters.
+     */
+    private static double[] lambda(Options options, int p) {
+        var lambda = options.lambda;
+        if (lambda.length == 1) {
+            double shrinkage = lambda[0];
+            lambda = new double[p];
+            Arrays.fill(lambda, shrinkage);
+        } else if (lambda.length != p) {
+            throw new IllegalArgumentException(String.format("Invalid lambda vector size: %d != %d", lambda.length, p));
+        }
+
+        for (int i = 0; i < p; i++) {
+            if (lambda[i] < 0.0) {
+                throw new IllegalArgumentException(String.format("Invalid lambda[%d] = %f", i, lambda[i]));
+            }
+        }
+        return lambda;
+    }
+
+    /**
+     * Returns the generalized ridge penalty target of each variable.
+     * @param options the hyperparameters.
+     * @param p the number of variables.
+     * @return the penalty targets.
+     */
+    private static double[] beta0(Options options, int p) {
+        var beta0 = options.beta0;
+        if (beta0.length == 1) {
+            double beta = beta0[0];
+            beta0 = new double[p];
+            Arrays.fill(beta0, beta);
+        } else if (beta0.length != p) {
+            throw new IllegalArgumentException(String.format("Invalid beta0 vector size: %d != %d", beta0.length, p));
+        }
+        return beta0;
+    }
 }
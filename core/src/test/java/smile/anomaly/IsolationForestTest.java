@@ -21,6 +21,7 @@ import org.junit.jupiter.api.*;
 import smile.io.Read;
 import smile.io.Write;
 import smile.util.Paths;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  *
@@ -79,6 +80,30 @@ public class IsolationForestTest {
          */
     }
 
+    @Test
+    public void testCompactFormat() throws Exception {
+        System.out.println("Compact format");
+
+        CSVFormat format = CSVFormat.Builder.create().setDelimiter(' ').get();
+        double[][] data = Read.csv(Paths.getTestData("clustering/rem.txt"), format).toArray();
+        IsolationForest model = IsolationForest.fit(data);
+        FlatIsolationForest forest = model.compile();
+
+        java.nio.file.Path temp = java.nio.file.Files.createTempFile("smile-isolation-forest", ".bin");
+        temp.toFile().deleteOnExit();
+        forest.write(temp);
+        FlatIsolationForest mapped = FlatIsolationForest.map(temp);
+        assertEquals(model.size(), mapped.size());
+        assertArrayEquals(model.score(data), forest.score(data), 1E-10);
+        assertArrayEquals(model.score(data), mapped.score(data), 1E-10);
+
+        // A mapped forest is rewritten from a copy on the heap.
+        java.nio.file.Path copy = java.nio.file.Files.createTempFile("smile-isolation-forest", ".bin");
+        copy.toFile().deleteOnExit();
+        mapped.write(copy);
+        assertArrayEquals(java.nio.file.Files.readAllBytes(temp), java.nio.file.Files.readAllBytes(copy));
+    }
+
     @Test
     public void testSinCos() throws Exception {
         System.out.println("SinCos");
@@ -16,9 +16,12 @@
  */
 package smile.classification;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.Flow.Subscriber;
 import java.util.concurrent.Flow.Subscription;
 import smile.base.IterativeTrainingController;
+import smile.base.cart.FlatForest;
 import smile.data.type.StructField;
 import smile.datasets.*;
 import smile.io.Read;
@@ -139,6 +142,31 @@ public class AdaBoostTest {
         assertEquals(0.9533, metrics.accuracy(), 1E-4);
     }
 
+    @Test
+    public void testCompile() throws Exception {
+        System.out.println("Compile");
+
+        MathEx.setSeed(19650218); // to get repeatable results.
+        var iris = new Iris();
+        var options = new AdaBoost.Options(200, 20, 4, 1, null, null);
+        AdaBoost model = AdaBoost.fit(iris.formula(), iris.data(), options);
+        var forest = model.compile();
+
+        Path temp = Files.createTempFile("smile-forest", ".bin");
+        temp.toFile().deleteOnExit();
+        forest.write(temp);
+        var mapped = FlatForest.map(temp);
+
+        int n = iris.data().size();
+        double[][] posteriori = new double[n][3];
+        int[] prediction = mapped.predict(iris.data(), posteriori);
+        double[] prob = new double[3];
+        for (int i = 0; i < n; i++) {
+            assertEquals(model.predict(iris.data().get(i), prob), prediction[i]);
+            assertArrayEquals(prob, posteriori[i], 1E-10);
+        }
+    }
+
     @Test
     public void testPenDigits() throws Exception {
         System.out.println("Pen Digits");
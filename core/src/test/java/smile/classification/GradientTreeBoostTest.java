@@ -17,10 +17,12 @@
 package smile.classification;
 
 import smile.classification.GradientTreeBoost.Options;
+import smile.data.DataFrame;
 import smile.datasets.*;
 import smile.io.Read;
 import smile.io.Write;
 import smile.math.MathEx;
+import smile.util.Index;
 import smile.validation.*;
 import smile.validation.metric.Accuracy;
 import smile.validation.metric.Error;
@@ -104,6 +106,26 @@ public class GradientTreeBoostTest {
         assertEquals(0.9467, metrics.accuracy(), 1E-4);
     }
 
+    @Test
+    public void testCompile() throws Exception {
+        System.out.println("Compile");
+
+        MathEx.setSeed(19650218); // to get repeatable results.
+        var iris = new Iris();
+        var options = new Options(100, 20, 6, 5, 0.05, 0.7);
+        GradientTreeBoost model = GradientTreeBoost.fit(iris.formula(), iris.data(), options);
+        var forest = model.compile();
+
+        int n = iris.data().size();
+        double[][] posteriori = new double[n][3];
+        int[] prediction = forest.predict(iris.data(), posteriori);
+        double[] prob = new double[3];
+        for (int i = 0; i < n; i++) {
+            assertEquals(model.predict(iris.data().get(i), prob), prediction[i]);
+            assertArrayEquals(prob, posteriori[i], 1E-10);
+        }
+    }
+
     @Test
     public void testPenDigits() throws Exception {
         System.out.println("Pen Digits");
@@ -158,6 +180,31 @@ public class GradientTreeBoostTest {
         }
     }
 
+    @Test
+    public void testSegmentEarlyStopping() throws Exception {
+        System.out.println("Segment with early stopping");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        var segment = new ImageSegmentation();
+        // Early stops on a split of training data. The test data is
+        // not used to select the model.
+        DataFrame data = segment.train();
+        int n = data.size() * 4 / 5;
+        DataFrame train = data.get(Index.range(0, n));
+        DataFrame validation = data.get(Index.range(n, data.size()));
+
+        int[] testy = segment.testy();
+        var options = new Options(1000, 20, 6, 5, 0.2, 0.7, 0, 10);
+        GradientTreeBoost model = GradientTreeBoost.fit(segment.formula(), train, validation, options);
+        int ntrees = model.trees()[0].length;
+        System.out.println("Number of trees = " + ntrees);
+        assertEquals(48, ntrees);
+
+        int[] prediction = model.predict(segment.test());
+        int error = Error.of(testy, prediction);
+        System.out.println("Error = " + error);
+        assertEquals(26, error);
+    }
+
     @Test
     public void testUSPS() throws Exception {
         System.out.println("USPS");
@@ -205,4 +252,21 @@ public class GradientTreeBoostTest {
             System.out.format("%-15s %.4f    %.4f    %.4f%n", fields[i], shap[2*i], shap[2*i+1], shap[2*i+2]);
         }
     }
+
+    @Test
+    public void testShapValues() throws Exception {
+        System.out.println("SHAP values");
+
+        MathEx.setSeed(19650218); // to get repeatable results.
+        var iris = new Iris();
+        var options = new Options(100, 20, 6, 5, 0.05, 0.7);
+        GradientTreeBoost model = GradientTreeBoost.fit(iris.formula(), iris.data(), options);
+
+        var data = iris.data();
+        double[][] phi = model.shapValues(data);
+        assertEquals(data.size(), phi.length);
+        for (int i = 0; i < phi.length; i++) {
+            assertArrayEquals(model.shap(data.get(i)), phi[i], 1E-10);
+        }
+    }
 }
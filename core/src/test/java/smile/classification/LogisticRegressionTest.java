@@ -174,4 +174,41 @@ public class LogisticRegressionTest {
         java.nio.file.Path temp = Write.object(model);
         Read.object(temp);
     }
+
+    @Test
+    public void testSinglePrecision() throws Exception {
+        System.out.println("Single precision");
+        var iris = new Iris();
+        double[][] x = iris.x();
+        int[] y = iris.y();
+        LogisticRegression expected = LogisticRegression.fit(x, y);
+        LogisticRegression model = LogisticRegression.fit(toFloat(x), y);
+        System.out.format("Log-likelihood: %.4f vs %.4f%n", model.loglikelihood(), expected.loglikelihood());
+        assertEquals(expected.loglikelihood(), model.loglikelihood(), 1E-3);
+        assertEquals(0, Error.of(expected.predict(x), model.predict(x)), 1);
+
+        var cancer = new BreastCancer();
+        x = cancer.x();
+        y = cancer.y();
+        // The raw features are of very different scales and BFGS doesn't
+        // converge in either precision. Compare the optimums instead.
+        MathEx.standardize(x);
+        expected = LogisticRegression.fit(x, y);
+        model = LogisticRegression.fit(toFloat(x), y);
+        System.out.format("Log-likelihood: %.4f vs %.4f%n", model.loglikelihood(), expected.loglikelihood());
+        assertEquals(expected.loglikelihood(), model.loglikelihood(), 1E-3);
+        assertEquals(0, Error.of(expected.predict(x), model.predict(x)));
+    }
+
+    /** Returns the single precision copy of data. */
+    private static float[][] toFloat(double[][] x) {
+        float[][] y = new float[x.length][];
+        for (int i = 0; i < x.length; i++) {
+            y[i] = new float[x[i].length];
+            for (int j = 0; j < x[i].length; j++) {
+                y[i][j] = (float) x[i][j];
+            }
+        }
+        return y;
+    }
 }
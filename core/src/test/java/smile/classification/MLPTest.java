@@ -16,6 +16,7 @@
  */
 package smile.classification;
 
+import java.util.Arrays;
 import smile.base.mlp.*;
 import smile.data.DataFrame;
 import smile.data.transform.InvertibleColumnTransform;
@@ -312,4 +313,93 @@ public class MLPTest {
 
         assertEquals(180, error, 5);
     }
+
+    @Test
+    public void testMiniBatchGradient() {
+        System.out.println("Mini-Batch Gradient");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        int n = 200, p = 10, k = 3, batch = 16;
+        double[][] x = new double[n][p];
+        int[] y = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < p; j++) {
+                x[i][j] = MathEx.random(-1, 1);
+            }
+            y[i] = x[i][0] + x[i][1] > 0.5 ? 2 : (x[i][2] > 0 ? 1 : 0);
+        }
+
+        // Without RMSProp, the mini-batch of duplicated samples takes
+        // the same step as the single sample so that both models agree.
+        MathEx.setSeed(19650218);
+        MLP online = new MLP(Layer.input(p), Layer.rectifier(20), Layer.tanh(10), Layer.mle(k, OutputFunction.SOFTMAX));
+        MathEx.setSeed(19650218);
+        MLP minibatch = new MLP(Layer.input(p), Layer.rectifier(20), Layer.tanh(10), Layer.mle(k, OutputFunction.SOFTMAX));
+        for (MLP model : new MLP[]{online, minibatch}) {
+            model.setLearningRate(TimeFunction.constant(0.05));
+            model.setMomentum(TimeFunction.constant(0.5));
+        }
+
+        double[][] batchx = new double[batch][];
+        int[] batchy = new int[batch];
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(batchx, x[i]);
+            Arrays.fill(batchy, y[i]);
+            online.update(x[i], y[i]);
+            minibatch.update(batchx, batchy);
+        }
+
+        double[] p1 = new double[k];
+        double[] p2 = new double[k];
+        for (int i = 0; i < n; i++) {
+            assertEquals(online.predict(x[i], p1), minibatch.predict(x[i], p2));
+            assertArrayEquals(p1, p2, 1E-7);
+        }
+    }
+
+    @Test
+    public void testSinglePrecision() {
+        System.out.println("Single Precision");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        int n = 1000, p = 20, k = 3, batch = 32;
+        double[][] x = new double[n][p];
+        float[][] xf = new float[n][p];
+        int[] y = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < p; j++) {
+                xf[i][j] = (float) MathEx.random(-1, 1);
+                x[i][j] = xf[i][j];
+            }
+            y[i] = x[i][0] + x[i][1] > 0.5 ? 2 : (x[i][2] * x[i][3] > 0 ? 1 : 0);
+        }
+
+        MathEx.setSeed(19650218);
+        MLP fp64 = new MLP(Layer.input(p), Layer.rectifier(50), Layer.tanh(20), Layer.mle(k, OutputFunction.SOFTMAX));
+        MathEx.setSeed(19650218);
+        MLP fp32 = new MLP(Layer.input(p), Layer.rectifier(50), Layer.tanh(20), Layer.mle(k, OutputFunction.SOFTMAX));
+        for (MLP model : new MLP[]{fp64, fp32}) {
+            model.setLearningRate(TimeFunction.constant(0.01));
+            model.setRMSProp(0.9, 1E-7);
+        }
+
+        for (int epoch = 1; epoch <= 20; epoch++) {
+            int[] permutation = MathEx.permutate(n);
+            for (int i = 0; i < n; i += batch) {
+                int[] index = Arrays.copyOfRange(permutation, i, Math.min(i + batch, n));
+                fp64.update(MathEx.slice(x, index), MathEx.slice(y, index));
+                fp32.update(MathEx.slice(xf, index), MathEx.slice(y, index));
+            }
+
+            double[] p1 = new double[k];
+            double[] p2 = new double[k];
+            for (int i = 0; i < n; i++) {
+                assertEquals(fp64.predict(x[i], p1), fp32.predict(x[i], p2));
+                assertArrayEquals(p1, p2, 1E-3);
+            }
+        }
+
+        int error = Error.of(y, fp32.predict(x));
+        System.out.println("Training Error = " + error);
+        assertEquals(Error.of(y, fp64.predict(x)), error);
+        assertEquals(57, error);
+    }
 }
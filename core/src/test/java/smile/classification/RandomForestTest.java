@@ -16,13 +16,24 @@
  */
 package smile.classification;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import smile.base.cart.SplitRule;
 import smile.classification.RandomForest.Options;
 import smile.data.DataFrame;
 import smile.datasets.*;
+import smile.io.Arrow;
 import smile.io.Read;
 import smile.io.Write;
 import smile.math.MathEx;
+import smile.util.Index;
 import smile.validation.*;
 import smile.validation.metric.Accuracy;
 import smile.validation.metric.Error;
@@ -156,6 +167,19 @@ public class RandomForestTest {
         assertEquals(0.9706, result.avg().accuracy(), 1E-4);
     }
 
+    @Test
+    public void testPenDigitsBins() throws Exception {
+        System.out.println("Pen Digits with histogram splits");
+        MathEx.setSeed(19650218); // to get repeatable results for cross validation.
+        var pen = new PenDigits();
+        var options = new Options(100, 4, SplitRule.GINI, 20, 100, 5, 1.0, null, 255);
+        var result = CrossValidation.classification(10, pen.formula(), pen.data(),
+                (f, x) -> RandomForest.fit(f, x, options, Arrays.stream(seeds)));
+
+        System.out.println(result);
+        assertEquals(0.9694, result.avg().accuracy(), 1E-4);
+    }
+
     @Test
     public void testBreastCancer() throws Exception {
         System.out.println("Breast Cancer");
@@ -196,6 +220,131 @@ public class RandomForestTest {
         }
     }
 
+    @Test
+    public void testSegmentOutOfCore() throws Exception {
+        System.out.println("Segment out of core");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        var segment = new ImageSegmentation();
+        DataFrame train = segment.train();
+        int n = train.size();
+        int[] testy = segment.testy();
+        var options = new Options(200, 16, 20, 100, 5);
+        RandomForest model = RandomForest.fit(segment.formula(),
+                () -> IntStream.range(0, (n + 299) / 300).mapToObj(i -> train.get(Index.range(300 * i, Math.min(n, 300 * (i + 1))))),
+                options, 800, 50);
+
+        assertEquals(200, model.size());
+        System.out.println(model.metrics());
+        int error = Error.of(testy, model.predict(segment.test()));
+        System.out.println("Error = " + error);
+        assertEquals(34, error, 20);
+    }
+
+    @Test
+    public void testSegmentArrowStream() throws Exception {
+        System.out.println("Segment Arrow stream");
+        var segment = new ImageSegmentation();
+        DataFrame train = segment.train();
+        int n = train.size();
+        Path path = Files.createTempFile("smile-segment", ".arrow");
+        path.toFile().deleteOnExit();
+        Arrow arrow = new Arrow();
+        arrow.write(train, path);
+        var options = new Options(50, 16, 20, 100, 5);
+
+        MathEx.setSeed(19650218); // to get repeatable results.
+        RandomForest model = RandomForest.fit(segment.formula(), () -> {
+            try {
+                return arrow.stream(path, 300);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, options, 800, 25);
+
+        MathEx.setSeed(19650218);
+        RandomForest expected = RandomForest.fit(segment.formula(),
+                () -> IntStream.range(0, (n + 299) / 300).mapToObj(i -> train.get(Index.range(300 * i, Math.min(n, 300 * (i + 1))))),
+                options, 800, 25);
+
+        assertEquals(50, model.size());
+        System.out.println(model.metrics());
+        assertEquals(expected.metrics().size(), model.metrics().size());
+        assertEquals(expected.metrics().error(), model.metrics().error());
+        assertArrayEquals(expected.predict(segment.test()), model.predict(segment.test()));
+    }
+
+    @Test
+    public void testSegmentUpdate() throws Exception {
+        System.out.println("Segment update");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        var segment = new ImageSegmentation();
+        DataFrame train = segment.train();
+        int n = train.size();
+        int[] testy = segment.testy();
+        var options = new Options(100, 16, 20, 100, 5);
+        RandomForest model = RandomForest.fit(segment.formula(), train.get(Index.range(0, n / 2)), options);
+        DataFrame fresh = train.get(Index.range(n / 2, n));
+
+        int error = Error.of(testy, model.predict(segment.test()));
+        System.out.println("Original error = " + error);
+
+        RandomForest extended = model.extend(fresh, options);
+        System.out.println(extended.metrics());
+        int extendedError = Error.of(testy, extended.predict(segment.test()));
+        System.out.println("Extended error = " + extendedError);
+        assertTrue(extendedError <= error);
+
+        // The original trees come first in the descending order of
+        // their weights on the fresh data, followed by the new trees.
+        assertEquals(200, extended.size());
+        var original = Set.of(model.trees());
+        var models = extended.models();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(original.contains(models[i].tree()));
+            if (i > 0) assertTrue(models[i - 1].weight() >= models[i].weight());
+        }
+        for (int i = 100; i < 200; i++) {
+            assertFalse(original.contains(models[i].tree()));
+        }
+
+        // The weakest 50 original trees are replaced by the new trees.
+        RandomForest updated = model.update(fresh, options, 150);
+        System.out.println(updated.metrics());
+        int updatedError = Error.of(testy, updated.predict(segment.test()));
+        System.out.println("Updated error = " + updatedError);
+        assertTrue(updatedError <= error);
+
+        assertEquals(150, updated.size());
+        var retained = updated.models();
+        for (int i = 0; i < 50; i++) {
+            assertSame(models[i].tree(), retained[i].tree());
+            assertEquals(models[i].weight(), retained[i].weight(), 1E-10);
+        }
+        for (int i = 50; i < 150; i++) {
+            assertFalse(original.contains(retained[i].tree()));
+        }
+    }
+
+    @Test
+    public void testStreamPredict() throws Exception {
+        System.out.println("Stream predict");
+        var segment = new ImageSegmentation();
+        var options = new Options(50, 16, 20, 100, 5);
+        RandomForest model = RandomForest.fit(segment.formula(), segment.train(), options, Arrays.stream(seeds));
+
+        DataFrame test = segment.test();
+        int n = test.size();
+        // The stream of probabilities is predicted by soft voting.
+        int[] expected = model.predict(test, new ArrayList<>());
+        List<DataFrame> chunks = model.predict(IntStream.range(0, (n + 99) / 100)
+                .mapToObj(i -> test.get(Index.range(100 * i, Math.min(n, 100 * (i + 1))))), true).toList();
+
+        assertEquals((n + 99) / 100, chunks.size());
+        int[] prediction = chunks.stream().flatMapToInt(chunk -> Arrays.stream(chunk.column("prediction").toIntArray())).toArray();
+        assertArrayEquals(expected, prediction);
+        assertEquals(model.numClasses() + 1, chunks.getFirst().ncol());
+    }
+
     @Test
     public void testUSPS() throws Exception {
         System.out.println("USPS");
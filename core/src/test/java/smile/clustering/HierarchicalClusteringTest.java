@@ -20,6 +20,7 @@ import smile.clustering.linkage.*;
 import smile.io.Read;
 import smile.io.Write;
 import smile.datasets.USPS;
+import smile.math.MathEx;
 import smile.validation.metric.*;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -164,4 +165,66 @@ public class HierarchicalClusteringTest {
         System.out.format("NMI.sum = %.2f%%%n", 100 * NormalizedMutualInformation.sum(y, label));
         System.out.format("NMI.sqrt = %.2f%%%n", 100 * NormalizedMutualInformation.sqrt(y, label));
     }
+
+    /** Returns the data of overlapping clusters. */
+    private static double[][] overlap(int n) {
+        double[][] x = new double[n][5];
+        for (int i = 0; i < n; i++) {
+            int y = i % 7;
+            for (int j = 0; j < x[i].length; j++) {
+                x[i][j] = y + 2 * MathEx.random();
+            }
+        }
+        return x;
+    }
+
+    /** Asserts that two dendrograms are the same. */
+    private static void assertDendrogram(HierarchicalClustering expected, HierarchicalClustering actual, double delta) {
+        assertArrayEquals(expected.height(), actual.height(), delta);
+        for (int k = 2; k <= 10; k++) {
+            assertEquals(1.0, AdjustedRandIndex.of(expected.partition(k), actual.partition(k)), 1E-10);
+        }
+    }
+
+    @Test
+    public void testNNChain() {
+        System.out.println("Nearest-neighbor chain");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        double[][] x = overlap(2000);
+        assertDendrogram(HierarchicalClustering.fastPair(SingleLinkage.of(x)), HierarchicalClustering.fit(SingleLinkage.of(x)), 1E-5);
+        assertDendrogram(HierarchicalClustering.fastPair(CompleteLinkage.of(x)), HierarchicalClustering.fit(CompleteLinkage.of(x)), 1E-5);
+        assertDendrogram(HierarchicalClustering.fastPair(UPGMALinkage.of(x)), HierarchicalClustering.fit(UPGMALinkage.of(x)), 1E-5);
+        assertDendrogram(HierarchicalClustering.fastPair(WPGMALinkage.of(x)), HierarchicalClustering.fit(WPGMALinkage.of(x)), 1E-5);
+        assertDendrogram(HierarchicalClustering.fastPair(WardLinkage.of(x)), HierarchicalClustering.fit(WardLinkage.of(x)), 1E-5);
+    }
+
+    @Test
+    public void testMatrixFree() {
+        System.out.println("Matrix-free single and Ward's linkage");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        double[][] x = overlap(2000);
+        assertDendrogram(HierarchicalClustering.fastPair(SingleLinkage.of(x)), HierarchicalClustering.single(x), 1E-5);
+        assertDendrogram(HierarchicalClustering.fastPair(WardLinkage.of(x)), HierarchicalClustering.ward(x), 1E-3);
+    }
+
+    @Test
+    public void testBlockedProximity() {
+        System.out.println("Blocked proximity");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        double[][] x = overlap(1000);
+        float[] exact = Linkage.proximity(x, false);
+        float[] blocked = Linkage.proximity(x);
+        assertEquals(exact.length, blocked.length);
+        for (int i = 0; i < exact.length; i++) {
+            assertEquals(exact[i], blocked[i], 1E-5 * Math.max(1.0, exact[i]));
+        }
+        assertDendrogram(HierarchicalClustering.fit(new CompleteLinkage(x.length, exact.clone())), HierarchicalClustering.fit(CompleteLinkage.of(x)), 1E-5);
+
+        System.setProperty("smile.pairwise_distance.blocked", "false");
+        try {
+            assertArrayEquals(exact, Linkage.proximity(x));
+        } finally {
+            System.clearProperty("smile.pairwise_distance.blocked");
+        }
+    }
 }
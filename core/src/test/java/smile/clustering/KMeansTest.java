@@ -16,6 +16,7 @@
  */
 package smile.clustering;
 
+import java.util.Arrays;
 import smile.io.Read;
 import smile.io.Write;
 import smile.datasets.GaussianMixture;
@@ -138,6 +139,111 @@ public class KMeansTest {
         System.out.format("NMI.sqrt = %.2f%%%n", 100 * NormalizedMutualInformation.sqrt(y, model.y));
     }
 
+    /**
+     * Returns well separated clusters of uniform noise.
+     */
+    private static double[][] blobs(int n, int d, int k, int[] label) {
+        double[][] mu = new double[k][d];
+        for (double[] m : mu) {
+            for (int j = 0; j < d; j++) {
+                m[j] = MathEx.random(-100, 100);
+            }
+        }
+
+        double[][] data = new double[n][d];
+        for (int i = 0; i < n; i++) {
+            label[i] = i % k;
+            for (int j = 0; j < d; j++) {
+                data[i][j] = mu[label[i]][j] + MathEx.random(-1, 1);
+            }
+        }
+        return data;
+    }
+
+    @Test
+    public void testHamerly() {
+        System.out.println("Hamerly");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        int[] label = new int[20000];
+        double[][] data = blobs(label.length, 8, 20, label);
+        KMeans model = KMeans.hamerly(data, 20, 100, 0.0);
+        System.out.println(model);
+
+        // Hamerly's algorithm converges to a fixed point of Lloyd's iteration.
+        int[] nearest = new int[data.length];
+        double distortion = CentroidClustering.assign(nearest, data, model.centroids, MathEx::squaredDistance);
+        assertArrayEquals(nearest, model.y);
+        assertEquals(distortion, model.distortion, 1E-7 * distortion);
+
+        double r2 = AdjustedRandIndex.of(label, model.y);
+        System.out.format("Training adjusted rand index = %.2f%%%n", 100.0 * r2);
+        assertTrue(r2 > 0.95);
+    }
+
+    @Test
+    public void testMiniBatch() {
+        System.out.println("Mini-batch");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        int[] label = new int[20000];
+        double[][] data = blobs(label.length, 8, 20, label);
+        KMeans model = KMeans.minibatch(data, 20, 256, 200);
+        System.out.println(model);
+
+        KMeans lloyd = KMeans.lloyd(data, 20);
+        double r2 = AdjustedRandIndex.of(label, model.y);
+        System.out.format("Training adjusted rand index = %.2f%%, distortion = %.2f vs %.2f of Lloyd%n", 100.0 * r2, model.distortion, lloyd.distortion);
+        assertTrue(r2 > 0.95);
+        assertTrue(model.distortion < 1.1 * lloyd.distortion);
+    }
+
+    @Test
+    public void testMiniBatchStream() {
+        System.out.println("Mini-batch stream");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        int[] label = new int[20000];
+        double[][] data = blobs(label.length, 8, 20, label);
+
+        // Scans the data sequentially in chunks as a stream.
+        int chunk = 1000;
+        KMeans.MiniBatch model = KMeans.MiniBatch.of(Arrays.copyOfRange(data, 0, chunk), 20);
+        for (int pass = 0; pass < 3; pass++) {
+            for (int i = 0; i < data.length; i += chunk) {
+                model.update(Arrays.copyOfRange(data, i, Math.min(data.length, i + chunk)));
+            }
+        }
+
+        int[] y = new int[data.length];
+        double distortion = 0.0;
+        for (int i = 0; i < data.length; i++) {
+            y[i] = model.predict(data[i]);
+            distortion += MathEx.squaredDistance(data[i], model.centroids()[y[i]]);
+        }
+
+        KMeans lloyd = KMeans.lloyd(data, 20);
+        double r2 = AdjustedRandIndex.of(label, y);
+        System.out.format("Training adjusted rand index = %.2f%%, distortion = %.2f vs %.2f of Lloyd%n", 100.0 * r2, distortion, lloyd.distortion);
+        assertTrue(r2 > 0.95);
+        assertTrue(distortion < 1.1 * lloyd.distortion);
+    }
+
+    @Test
+    public void testParallelSeed() {
+        System.out.println("k-means||");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        int[] label = new int[20000];
+        double[][] data = blobs(label.length, 8, 100, label);
+        double[][] medoids = new double[100][];
+        int[] y = new int[data.length];
+        double[] d = PartitionClustering.parallelSeed(data, medoids, y, MathEx::squaredDistance, 5, 2.0);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(MathEx.squaredDistance(data[i], medoids[y[i]]), d[i], 1E-10);
+        }
+
+        double r2 = AdjustedRandIndex.of(label, y);
+        System.out.format("Seeding adjusted rand index = %.2f%%%n", 100.0 * r2);
+        assertTrue(r2 > 0.9);
+    }
+
     @Test
     public void testUSPS() throws Exception {
         System.out.println("USPS");
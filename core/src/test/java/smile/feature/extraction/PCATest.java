@@ -210,4 +210,46 @@ public class PCATest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRandomized() {
+        System.out.println("randomized");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        // 5 strong components in 50 dimensions plus small noise.
+        int m = 500, n = 50, k = 5;
+        double[][] basis = new double[k][];
+        for (int l = 0; l < k; l++) {
+            basis[l] = MathEx.random(n);
+        }
+        double[][] data = new double[m][n];
+        for (int i = 0; i < m; i++) {
+            for (int l = 0; l < k; l++) {
+                double w = (k - l) * MathEx.random();
+                for (int j = 0; j < n; j++) {
+                    data[i][j] += w * basis[l][j];
+                }
+            }
+            for (int j = 0; j < n; j++) {
+                data[i][j] += 0.01 * MathEx.random();
+            }
+        }
+
+        PCA exact = PCA.fit(data).getProjection(k);
+        PCA pca = PCA.fit(data, k).getProjection(k);
+        assertEquals(k, pca.variance().length);
+        for (int l = 0; l < k; l++) {
+            assertEquals(exact.variance()[l], pca.variance()[l], 1E-6 * exact.variance()[l]);
+        }
+
+        double[][] expected = exact.apply(data);
+        double[][] actual = pca.apply(data);
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < k; j++) {
+                assertEquals(Math.abs(expected[i][j]), Math.abs(actual[i][j]), 1E-6);
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> PCA.fit(data, 0));
+        assertThrows(IllegalArgumentException.class, () -> PCA.fit(data, n + 1));
+    }
+}
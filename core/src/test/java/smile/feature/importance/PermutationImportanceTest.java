@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2010-2025 Haifeng Li. All rights reserved.
+ *
+ * Smile is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Smile is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Smile. If not, see <https://www.gnu.org/licenses/>.
+ */
+package smile.feature.importance;
+
+import smile.classification.RandomForest;
+import smile.datasets.Abalone;
+import smile.datasets.ImageSegmentation;
+import smile.math.MathEx;
+import smile.regression.GradientTreeBoost;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Haifeng Li
+ */
+public class PermutationImportanceTest {
+
+    public PermutationImportanceTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() throws Exception {
+    }
+
+    @AfterAll
+    public static void tearDownClass() throws Exception {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    @Test
+    public void testRandomForest() throws Exception {
+        System.out.println("RandomForest");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        var segment = new ImageSegmentation();
+        var model = RandomForest.fit(segment.formula(), segment.train(), new RandomForest.Options(100, 16, 20, 100, 5));
+        double[] importance = PermutationImportance.of(model, segment.test(), 3);
+
+        String[] fields = model.schema().names();
+        assertEquals(fields.length, importance.length);
+        for (int i = 0; i < importance.length; i++) {
+            System.out.format("%-25s %.4f%n", fields[i], importance[i]);
+        }
+        assertTrue(MathEx.max(importance) > 0.01);
+    }
+
+    @Test
+    public void testGradientTreeBoost() throws Exception {
+        System.out.println("GradientTreeBoost");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        var abalone = new Abalone();
+        var model = GradientTreeBoost.fit(abalone.formula(), abalone.train());
+        double[] importance = PermutationImportance.of(model, abalone.test(), 3);
+
+        String[] fields = model.schema().names();
+        assertEquals(fields.length, importance.length);
+        for (int i = 0; i < importance.length; i++) {
+            System.out.format("%-15s %.4f%n", fields[i], importance[i]);
+        }
+        assertTrue(MathEx.max(importance) > 0.1);
+    }
+}
@@ -16,6 +16,7 @@
  */
 package smile.manifold;
 
+import smile.math.MathEx;
 import smile.math.kernel.GaussianKernel;
 import smile.datasets.CPU;
 import org.junit.jupiter.api.*;
@@ -75,4 +76,39 @@ public class KPCATest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRandomized() throws Exception {
+        System.out.println("Randomized KPCA");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        var cpu = new CPU();
+        var x = cpu.x();
+        // A wide kernel so that the top eigenvalues are well separated.
+        var kernel = new GaussianKernel(1000);
+        KPCA<double[]> exact = KPCA.fit(x, kernel, new KPCA.Options(5));
+        KPCA<double[]> kpca = KPCA.fit(x, kernel, new KPCA.Options(5, 0.0001, true));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(exact.variances()[i], kpca.variances()[i], 1E-5 * exact.variances()[i]);
+        }
+
+        double[][] expected = exact.coordinates();
+        double[][] coord = kpca.coordinates();
+        double[][] points = kpca.apply(x);
+        for (int i = 0; i < x.length; i++) {
+            for (int j = 0; j < 5; j++) {
+                assertEquals(Math.abs(expected[i][j]), Math.abs(coord[i][j]), 1E-3);
+                assertEquals(coord[i][j], points[i][j], 1E-7);
+            }
+        }
+    }
+
+    @Test
+    public void testOptions() {
+        System.out.println("Options");
+        var options = new KPCA.Options(5, 0.001, true);
+        var props = options.toProperties();
+        assertEquals("true", props.getProperty("smile.kpca.randomized"));
+        assertEquals(options, KPCA.Options.of(props));
+        assertFalse(KPCA.Options.of(new KPCA.Options(3).toProperties()).randomized());
+    }
+}
@@ -149,4 +149,23 @@ public class ElasticNetTest {
         System.out.println(result);
         assertEquals(58.9498, result.avg().rmse(), 0.01);
     }
+
+    @Test
+    public void testSinglePrecision() throws Exception {
+        System.out.println("Single precision");
+        var prostate = new ProstateCancer();
+        float[][] x = smile.math.matrix.fp32.Matrix.of(prostate.x()).toArray();
+        float[] y = smile.math.matrix.fp32.Matrix.column(prostate.y()).col(0);
+
+        LinearModel model = ElasticNet.fit(x, y, 0.8, 0.2);
+        LinearModel expected = ElasticNet.fit(prostate.formula(), prostate.train(), 0.8, 0.2);
+        System.out.println(model);
+
+        assertEquals(expected.intercept(), model.intercept(), 1E-4);
+        for (int j = 0; j < x[0].length; j++) {
+            assertEquals(expected.coefficients()[j], model.coefficients()[j], 1E-4);
+        }
+        assertEquals(expected.RSS(), model.RSS(), 1E-4);
+        assertEquals(expected.RSquared(), model.RSquared(), 1E-6);
+    }
 }
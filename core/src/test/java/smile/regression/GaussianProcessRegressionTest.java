@@ -139,6 +139,16 @@ public class GaussianProcessRegressionTest {
 
         java.nio.file.Path temp = Write.object(model);
         Read.object(temp);
+
+        // The blocked kernel matrix agrees with the pair by pair one.
+        System.setProperty("smile.pairwise_distance.blocked", "false");
+        try {
+            var exact = GaussianProcessRegression.fit(x, y, new GaussianKernel(8.0), new Options(0.2));
+            assertEquals(exact.L, model.L, 1E-8);
+            assertArrayEquals(exact.predict(x), model.predict(x), 1E-8);
+        } finally {
+            System.clearProperty("smile.pairwise_distance.blocked");
+        }
     }
 
     @Test
@@ -28,6 +28,7 @@ import smile.validation.LOOCV;
 import smile.validation.RegressionMetrics;
 import smile.validation.RegressionValidations;
 import smile.validation.metric.RMSE;
+import smile.util.Index;
 import smile.math.MathEx;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -130,6 +131,18 @@ public class GradientTreeBoostTest {
         test(Loss.ls(), "CPU", cpu.formula(), cpu.data(), 60.5335);
     }
 
+    @Test
+    public void testCpuBins() {
+        System.out.println("CPU with histogram splits");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        var options = new GradientTreeBoost.Options(Loss.ls(), 100, 20, 6, 5, 0.05, 0.7, 255);
+        RegressionValidations<GradientTreeBoost> result = CrossValidation.regression(10, cpu.formula(), cpu.data(),
+                (f, x) -> GradientTreeBoost.fit(f, x, options));
+
+        System.out.println(result);
+        assertEquals(56.5893, result.avg().rmse(), 1E-4);
+    }
+
     @Test
     public void testCpuLAD() {
         test(Loss.lad(), "CPU", cpu.formula(), cpu.data(), 66.0549);
@@ -165,6 +178,37 @@ public class GradientTreeBoostTest {
         test(Loss.huber(0.9), "2dplanes", planes.formula(), planes.data(), 1.1080);
     }
 
+    @Test
+    public void testAbaloneEarlyStopping() {
+        System.out.println("abalone with early stopping");
+        // Early stops on a split of training data. The test data is
+        // not used to select the model.
+        DataFrame data = abalone.train();
+        int n = data.size() * 4 / 5;
+        DataFrame train = data.get(Index.range(0, n));
+        DataFrame validation = data.get(Index.range(n, data.size()));
+
+        Loss[] losses = {Loss.ls(), Loss.huber(0.9)};
+        int[] ntrees = {38, 21};
+        double[] expected = {2.1211, 2.1270};
+        for (int l = 0; l < losses.length; l++) {
+            MathEx.setSeed(19650218); // to get repeatable results.
+            var options = new GradientTreeBoost.Options(losses[l], 1000, 20, 6, 5, 0.2, 0.7, 0, 10);
+            GradientTreeBoost model = GradientTreeBoost.fit(abalone.formula(), train, validation, options);
+            System.out.println("Number of trees = " + model.size());
+            assertEquals(ntrees[l], model.size());
+
+            double rmse = RMSE.of(abalone.testy(), model.predict(abalone.test()));
+            System.out.println("RMSE = " + rmse);
+            assertEquals(expected[l], rmse, 1E-4);
+        }
+
+        // Without patience, the validation loss is only monitored.
+        var options = new GradientTreeBoost.Options(Loss.ls(), 50, 20, 6, 5, 0.2, 0.7, 0, 0);
+        GradientTreeBoost model = GradientTreeBoost.fit(abalone.formula(), train, validation, options);
+        assertEquals(50, model.size());
+    }
+
     @Test
     public void testAbaloneLS() {
         test(Loss.ls(), "abalone", abalone.formula(), abalone.train(), 2.1994);
@@ -332,4 +376,25 @@ public class GradientTreeBoostTest {
         String[] expected = {"CHAS", "ZN", "RAD", "INDUS", "B", "TAX", "AGE", "PTRATIO", "NOX", "CRIM", "DIS", "RM", "LSTAT"};
         assertArrayEquals(expected, fields);
     }
+
+    @Test
+    public void testShapValues() {
+        System.out.println("SHAP values");
+
+        MathEx.setSeed(19650218); // to get repeatable results.
+        var options = new GradientTreeBoost.Options(Loss.ls(), 100, 20, 100, 5, 0.05, 0.7);
+        GradientTreeBoost model = GradientTreeBoost.fit(bostonHousing.formula(), bostonHousing.data(), options);
+
+        DataFrame data = bostonHousing.data();
+        double[][] phi = model.shapValues(data);
+        assertEquals(data.size(), phi.length);
+        double[] mean = new double[phi[0].length];
+        for (int i = 0; i < phi.length; i++) {
+            assertArrayEquals(model.shap(data.get(i)), phi[i], 1E-10);
+            for (int j = 0; j < mean.length; j++) {
+                mean[j] += Math.abs(phi[i][j]) / phi.length;
+            }
+        }
+        assertArrayEquals(model.shap(data), mean, 1E-10);
+    }
 }
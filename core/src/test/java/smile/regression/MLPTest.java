@@ -16,6 +16,7 @@
  */
 package smile.regression;
 
+import java.util.Properties;
 import smile.base.mlp.Layer;
 import smile.base.mlp.LayerBuilder;
 import smile.data.DataFrame;
@@ -28,6 +29,7 @@ import smile.math.MathEx;
 import smile.math.Scaler;
 import smile.math.TimeFunction;
 import smile.validation.*;
+import smile.validation.metric.RMSE;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -77,6 +79,38 @@ public class MLPTest {
         Read.object(temp);
     }
 
+    @Test
+    public void testSinglePrecision() throws Exception {
+        System.out.println("Single Precision");
+        var kin8nm = new Kin8nm();
+        double[][] x = kin8nm.x();
+        double[] y = kin8nm.y();
+        // the same data in both precisions
+        float[][] xf = new float[x.length][x[0].length];
+        for (int i = 0; i < x.length; i++) {
+            for (int j = 0; j < x[i].length; j++) {
+                xf[i][j] = (float) x[i][j];
+                x[i][j] = xf[i][j];
+            }
+        }
+
+        var params = new Properties();
+        params.setProperty("smile.mlp.layers", "ReLU(30)|Sigmoid(30)");
+        params.setProperty("smile.mlp.epochs", "10");
+        params.setProperty("smile.mlp.learning_rate", "0.01");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        MLP fp64 = MLP.fit(x, y, params);
+        MathEx.setSeed(19650218);
+        MLP fp32 = MLP.fit(xf, y, params);
+
+        double rmse = RMSE.of(y, fp32.predict(x));
+        System.out.println("RMSE = " + rmse);
+        assertEquals(RMSE.of(y, fp64.predict(x)), rmse, 1E-4);
+        for (int i = 0; i < x.length; i++) {
+            assertEquals(fp64.predict(x[i]), fp32.predict(x[i]), 1E-3);
+        }
+    }
+
     public void test(String dataset, double[][] x, double[] y, Scaler scaler, double expected, LayerBuilder... builders) {
         System.out.println(dataset);
 
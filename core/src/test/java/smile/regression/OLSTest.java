@@ -130,4 +130,26 @@ public class OLSTest {
         System.out.println("RMSE on test data = " + rmse);
         assertEquals(0.721993, rmse, 1E-4);
     }
+
+    @Test
+    public void testSinglePrecision() throws Exception {
+        System.out.println("Single precision");
+        var prostate = new ProstateCancer();
+        float[][] x = smile.math.matrix.fp32.Matrix.of(prostate.x()).toArray();
+        float[] y = smile.math.matrix.fp32.Matrix.column(prostate.y()).col(0);
+
+        LinearModel model = OLS.fit(x, y);
+        LinearModel expected = OLS.fit(prostate.formula(), prostate.train());
+        System.out.println(model);
+
+        assertEquals(expected.intercept(), model.intercept(), 1E-4);
+        for (int j = 0; j < x[0].length; j++) {
+            assertEquals(expected.coefficients()[j], model.coefficients()[j], 1E-4);
+        }
+        assertEquals(expected.RSS(), model.RSS(), 1E-4);
+        assertEquals(expected.RSquared(), model.RSquared(), 1E-6);
+        for (int j = 0; j <= x[0].length; j++) {
+            assertEquals(expected.ttest()[j][1], model.ttest()[j][1], 1E-4);
+        }
+    }
 }
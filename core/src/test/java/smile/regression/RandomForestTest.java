@@ -16,14 +16,24 @@
  */
 package smile.regression;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.IntStream;
+import smile.base.cart.FlatForest;
 import smile.data.DataFrame;
 import smile.data.formula.Formula;
 import smile.data.type.StructField;
 import smile.datasets.*;
+import smile.io.Parquet;
 import smile.io.Read;
 import smile.io.Write;
 import smile.math.MathEx;
+import smile.util.Index;
+import smile.util.Paths;
 import smile.validation.*;
 import smile.validation.metric.RMSE;
 import org.junit.jupiter.api.*;
@@ -137,6 +147,52 @@ public class RandomForestTest {
         Read.object(temp);
     }
 
+    @Test
+    public void testCompile() throws Exception {
+        System.out.println("Compile");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        var cpu = new CPU();
+        var options = new RandomForest.Options(100, 3, 20, 100, 5, 1.0);
+        RandomForest model = RandomForest.fit(cpu.formula(), cpu.data(), options, Arrays.stream(seeds));
+        var forest = model.compile();
+
+        double[] expected = model.predict(cpu.data());
+        double[] prediction = forest.predict(cpu.data());
+        assertArrayEquals(expected, prediction, 1E-7);
+
+        double[][] x = cpu.formula().x(cpu.data()).toArray();
+        for (int i = 0; i < x.length; i++) {
+            assertEquals(expected[i], forest.predict(x[i]), 1E-7);
+        }
+    }
+
+    @Test
+    public void testCompactFormat() throws Exception {
+        System.out.println("Compact format");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        var cpu = new CPU();
+        var options = new RandomForest.Options(100, 3, 20, 100, 5, 1.0);
+        RandomForest model = RandomForest.fit(cpu.formula(), cpu.data(), options, Arrays.stream(seeds));
+        var forest = model.compile();
+
+        Path temp = Files.createTempFile("smile-forest", ".bin");
+        temp.toFile().deleteOnExit();
+        forest.write(temp);
+        var mapped = FlatForest.map(temp);
+        assertEquals(forest.ntrees(), mapped.ntrees());
+        assertEquals(forest.size(), mapped.size());
+        assertArrayEquals(model.predict(cpu.data()), mapped.predict(cpu.data()), 1E-7);
+
+        // A mapped forest is rewritten and serialized from a copy on the heap.
+        Path copy = Files.createTempFile("smile-forest", ".bin");
+        copy.toFile().deleteOnExit();
+        mapped.write(copy);
+        assertArrayEquals(Files.readAllBytes(temp), Files.readAllBytes(copy));
+        var heap = (FlatForest) Read.object(Write.object(mapped));
+        assertEquals(forest.size(), heap.size());
+        assertArrayEquals(model.predict(cpu.data()), heap.predict(cpu.data()), 1E-7);
+    }
+
     public void test(String name, Formula formula, DataFrame data, double expected) {
         System.out.println(name);
 
@@ -180,6 +236,120 @@ public class RandomForestTest {
         test("abalone", abalone.formula(), abalone.train(), 2.1931);
     }
 
+    @Test
+    public void testAbaloneOutOfCore() {
+        System.out.println("abalone out of core");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        DataFrame train = abalone.train();
+        int n = train.size();
+        var options = new RandomForest.Options(100, 3, 20, 100, 5, 1.0);
+        RandomForest model = RandomForest.fit(abalone.formula(),
+                () -> IntStream.range(0, (n + 499) / 500).mapToObj(i -> train.get(Index.range(500 * i, Math.min(n, 500 * (i + 1))))),
+                options, 1000, 25);
+
+        assertEquals(100, model.size());
+        System.out.println(model.metrics());
+        double rmse = RMSE.of(abalone.testy(), model.predict(abalone.test()));
+        System.out.println("RMSE = " + rmse);
+        assertEquals(2.2, rmse, 0.3);
+    }
+
+    @Test
+    public void testParquetStream() throws Exception {
+        System.out.println("Parquet stream");
+        Path path = Paths.getTestData("kylo/userdata1.parquet");
+        DataFrame data = Parquet.read(path).select("id", "salary").dropna();
+        int n = data.size();
+        Formula formula = Formula.of("salary", "id");
+        var options = new RandomForest.Options(20, 1, 20, 100, 5, 1.0);
+
+        MathEx.setSeed(19650218); // to get repeatable results.
+        RandomForest model = RandomForest.fit(formula, () -> {
+            try {
+                return Parquet.stream(path, 200, "id", "salary").map(DataFrame::dropna);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, options, 500, 10);
+
+        MathEx.setSeed(19650218);
+        RandomForest expected = RandomForest.fit(formula,
+                () -> IntStream.range(0, (n + 199) / 200).mapToObj(i -> data.get(Index.range(200 * i, Math.min(n, 200 * (i + 1))))),
+                options, 500, 10);
+
+        assertEquals(20, model.size());
+        System.out.println(model.metrics());
+        assertEquals(expected.metrics().size(), model.metrics().size());
+        assertEquals(expected.metrics().rmse(), model.metrics().rmse(), 1E-7);
+        assertArrayEquals(expected.predict(data), model.predict(data), 1E-7);
+    }
+
+    @Test
+    public void testAbaloneUpdate() {
+        System.out.println("abalone update");
+        MathEx.setSeed(19650218); // to get repeatable results.
+        DataFrame train = abalone.train();
+        int n = train.size();
+        var options = new RandomForest.Options(50, 3, 20, 100, 5, 1.0);
+        RandomForest model = RandomForest.fit(abalone.formula(), train.get(Index.range(0, n / 2)), options);
+        DataFrame fresh = train.get(Index.range(n / 2, n));
+
+        double rmse = RMSE.of(abalone.testy(), model.predict(abalone.test()));
+        System.out.println("Original RMSE = " + rmse);
+
+        RandomForest extended = model.extend(fresh, options);
+        System.out.println(extended.metrics());
+        double extendedRMSE = RMSE.of(abalone.testy(), extended.predict(abalone.test()));
+        System.out.println("Extended RMSE = " + extendedRMSE);
+        assertTrue(extendedRMSE <= rmse);
+
+        // The original trees come first in the ascending order of
+        // their RMSE on the fresh data, followed by the new trees.
+        assertEquals(100, extended.size());
+        var original = Set.of(model.trees());
+        var models = extended.models();
+        for (int i = 0; i < 50; i++) {
+            assertTrue(original.contains(models[i].tree()));
+            if (i > 0) assertTrue(models[i - 1].metrics().rmse() <= models[i].metrics().rmse());
+        }
+        for (int i = 50; i < 100; i++) {
+            assertFalse(original.contains(models[i].tree()));
+        }
+
+        // The worst 25 original trees are replaced by the new trees.
+        RandomForest updated = model.update(fresh, options, 75);
+        System.out.println(updated.metrics());
+        double updatedRMSE = RMSE.of(abalone.testy(), updated.predict(abalone.test()));
+        System.out.println("Updated RMSE = " + updatedRMSE);
+        assertTrue(updatedRMSE <= rmse);
+
+        assertEquals(75, updated.size());
+        var retained = updated.models();
+        for (int i = 0; i < 25; i++) {
+            assertSame(models[i].tree(), retained[i].tree());
+            assertEquals(models[i].metrics().rmse(), retained[i].metrics().rmse(), 1E-10);
+        }
+        for (int i = 25; i < 75; i++) {
+            assertFalse(original.contains(retained[i].tree()));
+        }
+    }
+
+    @Test
+    public void testStreamPredict() {
+        System.out.println("Stream predict");
+        var options = new RandomForest.Options(50, 3, 20, 100, 5, 1.0);
+        RandomForest model = RandomForest.fit(abalone.formula(), abalone.train(), options, Arrays.stream(seeds));
+
+        DataFrame test = abalone.test();
+        int n = test.size();
+        double[] expected = model.predict(test);
+        double[] prediction = model.predict(IntStream.range(0, (n + 99) / 100)
+                .mapToObj(i -> test.get(Index.range(100 * i, Math.min(n, 100 * (i + 1))))))
+                .flatMapToDouble(chunk -> Arrays.stream(chunk.column("prediction").toDoubleArray()))
+                .toArray();
+        assertArrayEquals(expected, prediction, 1E-10);
+    }
+
     @Test
     public void testAilerons() throws Exception {
         var ailerons = new Ailerons();
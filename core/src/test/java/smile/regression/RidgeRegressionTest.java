@@ -20,6 +20,7 @@ import smile.io.Read;
 import smile.io.Write;
 import smile.datasets.CPU;
 import smile.datasets.Longley;
+import smile.datasets.ProstateCancer;
 import smile.math.MathEx;
 import smile.validation.*;
 import org.junit.jupiter.api.*;
@@ -89,4 +90,23 @@ public class RidgeRegressionTest {
         System.out.println(result);
         assertEquals(50.9911, result.avg().rmse(), 1E-4);
     }
+
+    @Test
+    public void testSinglePrecision() throws Exception {
+        System.out.println("Single precision");
+        var prostate = new ProstateCancer();
+        float[][] x = smile.math.matrix.fp32.Matrix.of(prostate.x()).toArray();
+        float[] y = smile.math.matrix.fp32.Matrix.column(prostate.y()).col(0);
+
+        LinearModel model = RidgeRegression.fit(x, y, 0.1);
+        LinearModel expected = RidgeRegression.fit(prostate.formula(), prostate.train(), 0.1);
+        System.out.println(model);
+
+        assertEquals(expected.intercept(), model.intercept(), 1E-4);
+        for (int j = 0; j < x[0].length; j++) {
+            assertEquals(expected.coefficients()[j], model.coefficients()[j], 1E-4);
+        }
+        assertEquals(expected.RSS(), model.RSS(), 1E-4);
+        assertEquals(expected.RSquared(), model.RSquared(), 1E-6);
+    }
 }